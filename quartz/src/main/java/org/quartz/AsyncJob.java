@@ -0,0 +1,102 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The interface to be implemented by <code>{@link Job}s</code> that do their
+ * work asynchronously, such as jobs that mostly wait on remote calls.
+ *
+ * <p>
+ * The scheduler calls <code>{@link #executeAsync(JobExecutionContext)}</code>
+ * on a worker thread, which is given back to the pool as soon as the method
+ * returns.  The execution is complete when the returned stage completes: only
+ * then are the job and trigger listeners told that the job was executed, and
+ * the trigger's completion stored, on a thread of the scheduler rather than
+ * on the thread that completed the stage.  If the stage completes exceptionally with
+ * a <code>{@link JobExecutionException}</code>, it is treated as if
+ * <code>execute(..)</code> had thrown it.
+ * </p>
+ *
+ * <p>
+ * Executions in progress still count against the capacity of the
+ * <code>{@link org.quartz.spi.ThreadPool}</code>: once its limit of
+ * executions in progress is reached, the next asynchronous job holds its
+ * worker thread until another execution completes.  Thread pools that don't
+ * support asynchronous jobs, and jobs that execute within a JTA transaction,
+ * run the job through <code>{@link #execute(JobExecutionContext)}</code>,
+ * which waits for the stage on the worker thread.
+ * </p>
+ *
+ * @see org.quartz.spi.ThreadPool#acquireAsyncJobSlot()
+ */
+public interface AsyncJob extends Job {
+
+    /**
+     * <p>
+     * Called by the <code>{@link Scheduler}</code> when a <code>{@link Trigger}</code>
+     * fires that is associated with the <code>Job</code>, to start its work.
+     * </p>
+     *
+     * <p>
+     * The method should return as soon as the work is under way.  The context
+     * is valid until the returned stage completes, and a
+     * {@link JobExecutionContext#setResult(Object) result} may be set on it
+     * until then.
+     * </p>
+     *
+     * @return a stage that completes once the work is done.
+     * @throws JobExecutionException
+     *           if the work can't be started.
+     */
+    CompletionStage<Void> executeAsync(JobExecutionContext context)
+        throws JobExecutionException;
+
+    /**
+     * <p>
+     * Execute the job synchronously: start its work, and wait for it to be
+     * done.
+     * </p>
+     */
+    @Override
+    default void execute(JobExecutionContext context)
+        throws JobExecutionException {
+        CompletionStage<Void> stage = executeAsync(context);
+        if (stage == null) {
+            return;
+        }
+        try {
+            stage.toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while waiting for the job's work to complete.", e, false);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JobExecutionException) {
+                throw (JobExecutionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JobExecutionException(cause, false);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz;
+
+/**
+ * A marker interface for <code>{@link JobListener}s</code> and
+ * <code>{@link TriggerListener}s</code> that are notified asynchronously, so
+ * that a slow listener (such as one auditing executions to a database) doesn't
+ * add its latency to every job execution.
+ *
+ * <p>
+ * The notifications of such a listener are queued, and delivered in order by
+ * the scheduler's listener dispatch threads, one at a time.  The queue of each
+ * listener is bounded; what happens when it is full is configured with
+ * <code>org.quartz.scheduler.asyncListenerOverflowPolicy</code>.
+ * </p>
+ *
+ * <p>
+ * Asynchronous <code>TriggerListener</code>s can't veto executions:
+ * <code>{@link TriggerListener#vetoJobExecution(Trigger, JobExecutionContext)}</code>
+ * is not called for them, as it would be before the
+ * <code>triggerFired(..)</code> notification that precedes it is delivered.
+ * A listener that vetoes executions must be notified synchronously.
+ * Exceptions thrown by asynchronous listeners are reported to the
+ * <code>{@link SchedulerListener}s</code>, but no longer affect the execution
+ * of the job.  A notification carries a snapshot of the
+ * <code>JobExecutionContext</code> (with copies of its trigger, job detail
+ * and merged <code>JobDataMap</code>) taken when it was queued.
+ * </p>
+ *
+ * @see ListenerManager
+ */
+public interface AsyncListener {
+}
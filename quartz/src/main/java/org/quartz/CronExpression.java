@@ -24,6 +24,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -266,6 +267,16 @@ public final class CronExpression implements Serializable, Cloneable {
     
     public static final int MAX_YEAR = Calendar.getInstance().get(Calendar.YEAR) + 100;
 
+    /**
+     * The name of the system property that bounds how many distinct parsed
+     * expressions are kept for sharing between <code>CronExpression</code>
+     * instances.  Defaults to 1000; a value of 0 disables sharing.
+     */
+    public static final String COMPILED_CACHE_SIZE_PROPERTY = "org.quartz.cronExpression.compiledCacheSize";
+
+    private static final CompiledExpressionCache compiledCache =
+        new CompiledExpressionCache(Integer.getInteger(COMPILED_CACHE_SIZE_PROPERTY, 1000));
+
     /**
      * Constructs a new <CODE>CronExpression</CODE> based on the specified 
      * parameter.
@@ -281,9 +292,15 @@ public final class CronExpression implements Serializable, Cloneable {
             throw new IllegalArgumentException("cronExpression cannot be null");
         }
         
-        this.cronExpression = cronExpression.toUpperCase(Locale.US);
-        
-        buildExpression(this.cronExpression);
+        String expression = cronExpression.toUpperCase(Locale.US);
+
+        CompiledExpression compiled = compiledCache.get(expression);
+        if (compiled == null) {
+            buildExpression(expression);
+            compiled = compiledCache.put(new CompiledExpression(expression, this));
+        }
+        this.cronExpression = compiled.cronExpression;
+        share(compiled);
     }
     
     /**
@@ -295,16 +312,12 @@ public final class CronExpression implements Serializable, Cloneable {
      */
     public CronExpression(CronExpression expression) {
         /*
-         * We don't call the other constructor here since we need to swallow the
-         * ParseException. We also elide some of the sanity checking as it is
-         * not logically trippable.
+         * The parsed fields are never modified once an expression has been
+         * built, so they can be shared with the existing instance rather than
+         * parsing the expression again.
          */
         this.cronExpression = expression.getCronExpression();
-        try {
-            buildExpression(cronExpression);
-        } catch (ParseException ex) {
-            throw new AssertionError("Could not parse expression!", ex);
-        }
+        share(new CompiledExpression(expression.cronExpression, expression));
         if (expression.getTimeZone() != null) {
             setTimeZone((TimeZone) expression.getTimeZone().clone());
         }
@@ -1619,11 +1632,100 @@ public final class CronExpression implements Serializable, Cloneable {
         throws java.io.IOException, ClassNotFoundException {
         
         stream.defaultReadObject();
-        try {
-            buildExpression(cronExpression);
-        } catch (Exception ignore) {
-        } // never happens
-    }    
+        CompiledExpression compiled = compiledCache.get(cronExpression);
+        if (compiled == null) {
+            try {
+                buildExpression(cronExpression);
+            } catch (Exception ignore) {
+                return;
+            } // never happens
+            compiled = compiledCache.put(new CompiledExpression(cronExpression, this));
+        }
+        share(compiled);
+    }
+
+    private void share(CompiledExpression compiled) {
+        seconds = compiled.seconds;
+        minutes = compiled.minutes;
+        hours = compiled.hours;
+        daysOfMonth = compiled.daysOfMonth;
+        nearestWeekdays = compiled.nearestWeekdays;
+        months = compiled.months;
+        daysOfWeek = compiled.daysOfWeek;
+        years = compiled.years;
+        lastDayOfWeek = compiled.lastDayOfWeek;
+        nthDayOfWeek = compiled.nthDayOfWeek;
+        expressionParsed = true;
+    }
+
+    /**
+     * The parsed, time zone independent form of an expression.  The sets it
+     * holds are shared by every <code>CronExpression</code> built from the
+     * same expression string, and must not be modified once parsed.
+     */
+    private static final class CompiledExpression {
+        private final String cronExpression;
+        private final TreeSet<Integer> seconds;
+        private final TreeSet<Integer> minutes;
+        private final TreeSet<Integer> hours;
+        private final TreeSet<Integer> daysOfMonth;
+        private final TreeSet<Integer> nearestWeekdays;
+        private final TreeSet<Integer> months;
+        private final TreeSet<Integer> daysOfWeek;
+        private final TreeSet<Integer> years;
+        private final boolean lastDayOfWeek;
+        private final int nthDayOfWeek;
+
+        private CompiledExpression(String cronExpression, CronExpression parsed) {
+            this.cronExpression = cronExpression;
+            this.seconds = parsed.seconds;
+            this.minutes = parsed.minutes;
+            this.hours = parsed.hours;
+            this.daysOfMonth = parsed.daysOfMonth;
+            this.nearestWeekdays = parsed.nearestWeekdays;
+            this.months = parsed.months;
+            this.daysOfWeek = parsed.daysOfWeek;
+            this.years = parsed.years;
+            this.lastDayOfWeek = parsed.lastDayOfWeek;
+            this.nthDayOfWeek = parsed.nthDayOfWeek;
+        }
+    }
+
+    /**
+     * Bounded, least-recently-used cache of compiled expressions, keyed by
+     * the (upper-cased) expression string.
+     */
+    private static final class CompiledExpressionCache {
+        private final int maxSize;
+        private final Map<String, CompiledExpression> compiled;
+
+        private CompiledExpressionCache(final int maxSize) {
+            this.maxSize = maxSize;
+            this.compiled = new LinkedHashMap<String, CompiledExpression>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        private synchronized CompiledExpression get(String expression) {
+            if (maxSize <= 0) {
+                return null;
+            }
+            return compiled.get(expression);
+        }
+
+        private synchronized CompiledExpression put(CompiledExpression expression) {
+            if (maxSize <= 0) {
+                return expression;
+            }
+            CompiledExpression existing = compiled.putIfAbsent(expression.cronExpression, expression);
+            return existing != null ? existing : expression;
+        }
+    }
     
     @Override
     @Deprecated
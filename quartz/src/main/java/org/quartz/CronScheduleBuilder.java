@@ -64,6 +64,7 @@ public class CronScheduleBuilder extends ScheduleBuilder<CronTrigger> {
 
     private final CronExpression cronExpression;
     private int misfireInstruction = CronTrigger.MISFIRE_INSTRUCTION_SMART_POLICY;
+    private long fireTimeJitter = 0;
 
     protected CronScheduleBuilder(CronExpression cronExpression) {
         if (cronExpression == null) {
@@ -87,6 +88,7 @@ public class CronScheduleBuilder extends ScheduleBuilder<CronTrigger> {
         ct.setCronExpression(cronExpression);
         ct.setTimeZone(cronExpression.getTimeZone());
         ct.setMisfireInstruction(misfireInstruction);
+        ct.setFireTimeJitter(fireTimeJitter);
 
         return ct;
     }
@@ -326,4 +328,35 @@ public class CronScheduleBuilder extends ScheduleBuilder<CronTrigger> {
         misfireInstruction = CronTrigger.MISFIRE_INSTRUCTION_FIRE_ONCE_NOW;
         return this;
     }
+
+    /**
+     * Spread the fire times of triggers over a window: each fire time of the
+     * expression is delayed by a whole number of seconds within the window
+     * that is derived from the hash of the trigger's key, and is thus the same
+     * every time.  Triggers written with the same expression (such as
+     * <code>0 0 * * * ?</code>) then don't all fire at the same moment.
+     * 
+     * @param jitterInMillis the width of the window in milliseconds.
+     * @return the updated CronScheduleBuilder
+     * @see Trigger#getFireTimeJitter()
+     */
+    public CronScheduleBuilder withFireTimeJitterInMilliseconds(long jitterInMillis) {
+        if (jitterInMillis < 0) {
+            throw new IllegalArgumentException("Fire time jitter must be >= 0");
+        }
+        this.fireTimeJitter = jitterInMillis;
+        return this;
+    }
+
+    /**
+     * Spread the fire times of triggers over a window of the given number of
+     * seconds.
+     * 
+     * @param jitterInSeconds the width of the window in seconds.
+     * @return the updated CronScheduleBuilder
+     * @see #withFireTimeJitterInMilliseconds(long)
+     */
+    public CronScheduleBuilder withFireTimeJitterInSeconds(int jitterInSeconds) {
+        return withFireTimeJitterInMilliseconds(jitterInSeconds * 1000L);
+    }
 }
@@ -20,8 +20,10 @@
 package org.quartz;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Map;
 
+import org.quartz.utils.LayeredMap;
 import org.quartz.utils.StringKeyDirtyFlagMap;
 
 /**
@@ -98,6 +100,32 @@ public class JobDataMap extends StringKeyDirtyFlagMap implements Serializable {
         clearDirtyFlag();
     }
 
+    private JobDataMap(LayeredMap<String, Object> view, boolean dirty) {
+        super(view, dirty);
+    }
+
+    /**
+     * <p>
+     * Create a <code>JobDataMap</code> that holds the contents of the given
+     * trigger data layered over the given job data, as putting the job data
+     * and then the trigger data into a new map would: with the same
+     * precedence, and flagged dirty unless both are empty.
+     * </p>
+     *
+     * <p>
+     * The returned map is a snapshot: changes made to the given maps
+     * afterwards are not visible through it, and the given maps are never
+     * modified through it.  Like a clone, it shares their contents until one
+     * of them (or the returned map) is modified, so neither map is copied
+     * until then.
+     * </p>
+     */
+    public static JobDataMap mergedView(JobDataMap jobDataMap, JobDataMap triggerDataMap) {
+        Map<String, Object> bottom = jobDataMap == null ? Collections.<String, Object>emptyMap() : jobDataMap.getSnapshotOfWrappedMap();
+        Map<String, Object> top = triggerDataMap == null ? Collections.<String, Object>emptyMap() : triggerDataMap.getSnapshotOfWrappedMap();
+        return new JobDataMap(new LayeredMap<>(top, bottom), !bottom.isEmpty() || !top.isEmpty());
+    }
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -142,6 +142,16 @@ public interface Scheduler {
      */
     String DEFAULT_FAIL_OVER_GROUP = "FAILED_OVER_JOBS";
 
+    /**
+     * A constant <code>Trigger</code> group name used internally by the
+     * scheduler for the triggers of delayed tasks - clients should not use
+     * the value of this constant ("DELAYED_TASKS") for the name of a
+     * <code>Trigger</code>'s group.
+     *
+     * @see #scheduleTask(JobKey, long, JobDataMap)
+     */
+    String DEFAULT_TASK_GROUP = "DELAYED_TASKS";
+
 
     /**
      * A constant <code>JobDataMap</code> key that can be used to retrieve the
@@ -453,6 +463,43 @@ public interface Scheduler {
      * are not unique and the replace flag is not set to true. 
      */
     void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob, boolean replace) throws SchedulerException;
+
+    /**
+     * Run the identified (stored) <code>{@link org.quartz.Job}</code> once,
+     * after the given delay, as a lightweight delayed task.
+     *
+     * <p>
+     * A task is a one-shot trigger of the
+     * <code>{@link #DEFAULT_TASK_GROUP}</code> group, which job stores keep
+     * with as little bookkeeping as they can: JDBC job stores keep it in a
+     * single row of the triggers table, delete it once it fires (unless its
+     * job requests recovery), and delete the fired trigger records of
+     * completed tasks in bulk.  It can be unscheduled, or looked up, by the
+     * key returned; once fired, it is gone from the store.
+     * <code>{@link SchedulerListener}s</code> are not told of tasks being
+     * scheduled.
+     * </p>
+     *
+     * @param jobKey the key of the job to run, which must be stored
+     * @param delayMillis the delay after which to run it, in milliseconds
+     * @param taskData data for the job's execution, or <code>null</code>
+     * @return the key of the task's trigger
+     * @throws SchedulerException
+     *           if the indicated Job does not exist, or the task cannot be
+     *           added to the Scheduler, or there is an internal Scheduler
+     *           error.
+     */
+    TriggerKey scheduleTask(JobKey jobKey, long delayMillis, JobDataMap taskData) throws SchedulerException;
+
+    /**
+     * Run the identified (stored) <code>{@link org.quartz.Job}</code> once
+     * for each of the given data maps, after the given delay, as lightweight
+     * delayed tasks stored together.
+     *
+     * @return the keys of the tasks' triggers, in the order of their data
+     * @see #scheduleTask(JobKey, long, JobDataMap)
+     */
+    List<TriggerKey> scheduleTasks(JobKey jobKey, long delayMillis, List<JobDataMap> taskData) throws SchedulerException;
     
     /**
      * Remove the indicated <code>{@link Trigger}</code> from the scheduler.
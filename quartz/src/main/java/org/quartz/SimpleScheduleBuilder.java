@@ -61,6 +61,7 @@ public class SimpleScheduleBuilder extends ScheduleBuilder<SimpleTrigger> {
     private long interval = 0;
     private int repeatCount = 0;
     private int misfireInstruction = SimpleTrigger.MISFIRE_INSTRUCTION_SMART_POLICY;
+    private long fireTimeJitter = 0;
     
     protected SimpleScheduleBuilder() {
     }
@@ -265,6 +266,7 @@ public class SimpleScheduleBuilder extends ScheduleBuilder<SimpleTrigger> {
         st.setRepeatInterval(interval);
         st.setRepeatCount(repeatCount);
         st.setMisfireInstruction(misfireInstruction);
+        st.setFireTimeJitter(fireTimeJitter);
         
         return st;
     }
@@ -427,4 +429,34 @@ public class SimpleScheduleBuilder extends ScheduleBuilder<SimpleTrigger> {
         return this;
     }
 
+    /**
+     * Spread the fire times of triggers over a window: the trigger first
+     * fires, and thus repeats, at an offset past its start time within the
+     * window that is derived from the hash of its key.  Triggers that start
+     * at the same moment then don't all fire together.
+     * 
+     * @param jitterInMillis the width of the window in milliseconds.
+     * @return the updated SimpleScheduleBuilder
+     * @see Trigger#getFireTimeJitter()
+     */
+    public SimpleScheduleBuilder withFireTimeJitterInMilliseconds(long jitterInMillis) {
+        if (jitterInMillis < 0) {
+            throw new IllegalArgumentException("Fire time jitter must be >= 0");
+        }
+        this.fireTimeJitter = jitterInMillis;
+        return this;
+    }
+
+    /**
+     * Spread the fire times of triggers over a window of the given number of
+     * seconds.
+     * 
+     * @param jitterInSeconds the width of the window in seconds.
+     * @return the updated SimpleScheduleBuilder
+     * @see #withFireTimeJitterInMilliseconds(long)
+     */
+    public SimpleScheduleBuilder withFireTimeJitterInSeconds(int jitterInSeconds) {
+        return withFireTimeJitterInMilliseconds(jitterInSeconds * 1000L);
+    }
+
 }
@@ -239,6 +239,25 @@ public interface Trigger extends Serializable, Cloneable, Comparable<Trigger> {
      */
     Date getFinalFireTime();
 
+    /**
+     * Get the window, in milliseconds, over which the fire times of the
+     * <code>Trigger</code> are spread: each fire time is delayed by an offset
+     * within the window derived from the hash of the trigger's key, so that
+     * triggers on the same schedule don't all fire at the same moment.  The
+     * offset of a given trigger is the same every time it fires.
+     *
+     * <p>
+     * <code>0</code> (the default) if the fire times are not spread, or if
+     * the type of trigger doesn't support it.
+     * </p>
+     *
+     * @see CronScheduleBuilder#withFireTimeJitterInSeconds(int)
+     * @see SimpleScheduleBuilder#withFireTimeJitterInMilliseconds(long)
+     */
+    default long getFireTimeJitter() {
+        return 0L;
+    }
+
     /**
      * Get the instruction the <code>Scheduler</code> should be given for
      * handling misfire situations for this <code>Trigger</code>- the
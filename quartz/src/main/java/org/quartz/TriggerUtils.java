@@ -50,6 +50,42 @@ public class TriggerUtils {
      */
     private TriggerUtils() {
     }
+
+    /**
+     * Whether the given trigger is that of a delayed task: a one-shot
+     * <code>{@link SimpleTrigger}</code> of the
+     * <code>{@link Scheduler#DEFAULT_TASK_GROUP}</code> group.
+     *
+     * @see Scheduler#scheduleTask(JobKey, long, JobDataMap)
+     */
+    public static boolean isTask(Trigger trigger) {
+        return trigger instanceof SimpleTrigger
+                && Scheduler.DEFAULT_TASK_GROUP.equals(trigger.getKey().getGroup())
+                && ((SimpleTrigger) trigger).getRepeatCount() == 0;
+    }
+
+    /**
+     * Skip the fire times of the given trigger that have passed: set its next
+     * fire time to the first one from now on that the given calendar includes
+     * (or to <code>null</code> if there is none), as a
+     * <code>{@link CronTrigger}</code> does after a misfire with
+     * <code>MISFIRE_INSTRUCTION_DO_NOTHING</code>, whatever the trigger's own
+     * misfire instruction.
+     *
+     * @param trigger
+     *          The trigger upon which to do the work
+     * @param cal
+     *          The calendar to apply to the trigger's schedule
+     * @since 2.5.1
+     */
+    public static void skipMissedFireTimes(OperableTrigger trigger, org.quartz.Calendar cal) {
+        Date newFireTime = trigger.getFireTimeAfter(new Date());
+        while (newFireTime != null && cal != null
+                && !cal.isTimeIncluded(newFireTime.getTime())) {
+            newFireTime = trigger.getFireTimeAfter(newFireTime);
+        }
+        trigger.setNextFireTime(newFireTime);
+    }
     
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -0,0 +1,160 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.core;
+
+/**
+ * Decides how many triggers the scheduler threads acquire at once, and how
+ * far ahead of the first one's fire time, from what they observe about the
+ * batches they acquire and fire.
+ *
+ * <p>
+ * When not adaptive, it hands out the configured batch size and time window.
+ * When adaptive, those are upper bounds, and:
+ * </p>
+ * <ul>
+ * <li>The time window follows twice the (smoothed) time an acquisition
+ * takes, so that the triggers due while the next batch is being acquired are
+ * taken along with the current one.</li>
+ * <li>The batch size doubles when a batch comes back full while threads were
+ * left over, as more triggers are due than a batch can hold, and shrinks by a
+ * quarter when batches come back mostly empty.</li>
+ * <li>When triggers fire later than the configured maximum fire lag, the batch
+ * size halves if the batch used up the available threads (the scheduler is
+ * short of threads, and should leave triggers to other nodes), and doubles
+ * otherwise (acquisition round trips are holding it back).</li>
+ * </ul>
+ *
+ * <p>
+ * It is shared by the scheduler threads of a scheduler, and thread-safe.
+ * </p>
+ *
+ * @see QuartzSchedulerResources#setAdaptiveBatchAcquisition(boolean)
+ */
+final class AdaptiveBatchController {
+
+    // weight of the latest observation in the smoothed averages
+    private static final double SMOOTHING = 0.2;
+
+    private final boolean adaptive;
+
+    private final int maxBatchSize;
+
+    private final long maxTimeWindow;
+
+    private final long maxFireLag;
+
+    private int batchSize;
+
+    private long timeWindow;
+
+    private double acquisitionTime;
+
+    private double fireLag;
+
+    AdaptiveBatchController(boolean adaptive, int maxBatchSize, long maxTimeWindow, long maxFireLag) {
+        this.adaptive = adaptive;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxTimeWindow = Math.max(0L, maxTimeWindow);
+        this.maxFireLag = maxFireLag;
+        this.batchSize = adaptive ? 1 : this.maxBatchSize;
+        this.timeWindow = adaptive ? 0L : this.maxTimeWindow;
+    }
+
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Get the most triggers to acquire at once (besides the number of
+     * available threads).
+     */
+    synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Get how far after the first trigger's fire time the others of a batch
+     * may be due, in milliseconds.
+     */
+    synchronized long getTimeWindow() {
+        return timeWindow;
+    }
+
+    /**
+     * Get the smoothed time an acquisition takes, in milliseconds.
+     */
+    synchronized long getAverageAcquisitionTime() {
+        return Math.round(acquisitionTime);
+    }
+
+    /**
+     * Get the smoothed delay of fired batches past their first trigger's fire
+     * time, in milliseconds.
+     */
+    synchronized long getAverageFireLag() {
+        return Math.round(fireLag);
+    }
+
+    /**
+     * Observe an acquisition.
+     *
+     * @param availThreads the number of threads that were available
+     * @param requested the most triggers the acquisition asked for
+     * @param acquired the number of triggers it got
+     * @param millis how long it took
+     */
+    synchronized void batchAcquired(int availThreads, int requested, int acquired, long millis) {
+        acquisitionTime += SMOOTHING * (millis - acquisitionTime);
+        if (!adaptive) {
+            return;
+        }
+
+        timeWindow = Math.min(maxTimeWindow, Math.round(2 * acquisitionTime));
+
+        if (acquired >= requested && requested >= batchSize && batchSize < availThreads) {
+            grow();
+        } else if (acquired * 4 < batchSize) {
+            batchSize = Math.max(1, batchSize - Math.max(1, batchSize / 4));
+        }
+    }
+
+    /**
+     * Observe the firing of a batch.
+     *
+     * @param availThreads the number of threads that were available
+     * @param fired the number of triggers in the batch
+     * @param lagMillis how late the batch's first trigger fired
+     */
+    synchronized void batchFired(int availThreads, int fired, long lagMillis) {
+        long lag = Math.max(0L, lagMillis);
+        fireLag += SMOOTHING * (lag - fireLag);
+        if (!adaptive || lag <= maxFireLag) {
+            return;
+        }
+
+        if (fired >= availThreads) {
+            batchSize = Math.max(1, batchSize / 2);
+        } else {
+            grow();
+        }
+    }
+
+    private void grow() {
+        batchSize = (int) Math.min(maxBatchSize, batchSize * 2L);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.core;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the notifications of <code>{@link org.quartz.AsyncListener}s</code>
+ * on a few dispatch threads.  Each listener has its own bounded queue, which
+ * at most one thread drains at a time, so a listener gets its notifications
+ * one at a time and in order, and a slow listener only delays its own.  A
+ * listener's queue is dropped once drained, so the listeners removed from the
+ * scheduler don't keep theirs.
+ *
+ * @see QuartzSchedulerResources#setAsyncListenerOverflowPolicy(OverflowPolicy)
+ */
+public final class AsyncListenerDispatcher {
+
+    /**
+     * What to do with a notification for a listener whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait for room in the queue, slowing down the notifying thread. */
+        BLOCK,
+        /** Drop the new notification. */
+        DISCARD_NEWEST,
+        /** Drop the oldest queued notification to make room for the new one. */
+        DISCARD_OLDEST
+    }
+
+    private static final class Lane {
+        final Object listener;
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        boolean draining;
+        // set once drained and dropped from the lanes, to queue in a new one
+        boolean dropped;
+
+        Lane(Object listener) {
+            this.listener = listener;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final int queueSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final ExecutorService executor;
+
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    // set on the dispatch threads, which must not wait for room in a queue they drain
+    private final ThreadLocal<Boolean> dispatching = new ThreadLocal<>();
+
+    private volatile boolean shutdown;
+
+    AsyncListenerDispatcher(String threadNamePrefix, int threadCount, int queueSize,
+            OverflowPolicy overflowPolicy, boolean makeThreadsDaemons) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Listener dispatch thread count must be at least 1.");
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("Listener queue size must be at least 1.");
+        }
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(makeThreadsDaemons);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a notification for the given listener.  Once the dispatcher is
+     * shut down, notifications are delivered on the calling thread.
+     */
+    void dispatch(Object listener, Runnable notification) {
+        if (shutdown) {
+            notification.run();
+            return;
+        }
+
+        Lane lane;
+        boolean startDraining;
+        while (true) {
+            lane = lanes.computeIfAbsent(listener, Lane::new);
+            synchronized (lane) {
+                if (lane.dropped) {
+                    continue;
+                }
+                if (lane.queue.size() >= queueSize) {
+                    if (!makeRoom(lane)) {
+                        return;
+                    }
+                }
+                lane.queue.add(notification);
+                startDraining = !lane.draining;
+                lane.draining = true;
+                break;
+            }
+        }
+
+        if (startDraining) {
+            Lane drained = lane;
+            try {
+                executor.execute(() -> drain(drained));
+            } catch (RejectedExecutionException e) {
+                // shut down meanwhile
+                drain(drained);
+            }
+        }
+    }
+
+    /**
+     * @return whether the new notification is to be queued
+     */
+    private boolean makeRoom(Lane lane) {
+        switch (overflowPolicy) {
+            case DISCARD_NEWEST:
+                discarded(1);
+                return false;
+            case DISCARD_OLDEST:
+                lane.queue.poll();
+                discarded(1);
+                return true;
+            default:
+                // a listener notified from a dispatch thread would wait for itself
+                if (dispatching.get() != null) {
+                    return true;
+                }
+                boolean interrupted = false;
+                while (lane.queue.size() >= queueSize && !shutdown) {
+                    try {
+                        lane.wait(500L);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+        }
+    }
+
+    private void discarded(int count) {
+        if (discarded.getAndAdd(count) == 0) {
+            log.warn("Queue of an asynchronous listener is full, discarding its notifications ({} policy).", overflowPolicy);
+        }
+    }
+
+    private void drain(Lane lane) {
+        dispatching.set(Boolean.TRUE);
+        try {
+            while (true) {
+                Runnable notification;
+                synchronized (lane) {
+                    notification = lane.queue.poll();
+                    if (notification == null) {
+                        lane.draining = false;
+                        lane.dropped = true;
+                        lanes.remove(lane.listener, lane);
+                        return;
+                    }
+                    lane.notifyAll();
+                }
+                try {
+                    notification.run();
+                } catch (Throwable t) {
+                    log.error("Asynchronous listener notification failed.", t);
+                }
+            }
+        } finally {
+            dispatching.remove();
+        }
+    }
+
+    /**
+     * Get the number of listeners that have notifications queued.
+     */
+    int getQueuedListenerCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Get the number of notifications dropped because a listener's queue was
+     * full.
+     */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    /**
+     * Stop the dispatch threads, delivering the queued notifications first if
+     * asked to wait.
+     */
+    void shutdown(boolean waitForNotifications) {
+        shutdown = true;
+        for (Lane lane : lanes.values()) {
+            synchronized (lane) {
+                lane.notifyAll();
+            }
+        }
+        if (!waitForNotifications) {
+            executor.shutdownNow();
+            return;
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(2L, TimeUnit.SECONDS)) {
+                log.debug("Waiting for asynchronous listener notifications to be delivered");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -19,6 +19,11 @@
 
 package org.quartz.core;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import org.quartz.AsyncJob;
 import org.quartz.Job;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
@@ -150,6 +155,15 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
 
     public void run() {
         qs.addInternalSchedulerListener(this);
+        runExecutions();
+    }
+
+    /**
+     * Execute the job, and again for as long as the trigger says so, unless
+     * it is an <code>AsyncJob</code> whose work goes on when this returns.
+     */
+    private void runExecutions() {
+        boolean pending = false;
 
         try {
             OperableTrigger trigger = (OperableTrigger) jec.getTrigger();
@@ -197,6 +211,13 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
                 long startTime = System.currentTimeMillis();
                 long endTime;
 
+                // let an asynchronous job give its thread back while it works
+                if (job instanceof AsyncJob && isAsyncExecutionSupported() && qs.acquireAsyncJobSlot(jobDetail.getKey())) {
+                    pending = true;
+                    executeAsync((AsyncJob) job, trigger, jobDetail, startTime);
+                    break;
+                }
+
                 // execute the job
                 try {
                     log.debug("Calling execute on job {}", jobDetail.getKey());
@@ -208,69 +229,150 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
                     getLog().info("Job {} threw a JobExecutionException: ", jobDetail.getKey(), jobExEx);
                 } catch (Throwable e) {
                     endTime = System.currentTimeMillis();
-                    getLog().error("Job {} threw an unhandled Exception: ", jobDetail.getKey(), e);
-                    SchedulerException se = new JobExecutionProcessException(jec, e);
-                    qs.notifySchedulerListenersError("Job "
-                            + jec.getJobDetail().getKey()
-                            + " threw an exception.", se);
-                    jobExEx = new JobExecutionException(se, false);
+                    jobExEx = unhandledException(jobDetail, e);
                 }
 
                 jec.setJobRunTime(endTime - startTime);
 
-                // notify all job listeners
-                if (!notifyJobListenersComplete(jec, jobExEx)) {
+                if (!executionComplete(trigger, jobDetail, jobExEx)) {
                     break;
                 }
+            } while (true);
 
-                CompletedExecutionInstruction instCode = CompletedExecutionInstruction.NOOP;
-
-                // update the trigger
-                try {
-                    instCode = trigger.executionComplete(jec, jobExEx);
-                } catch (Exception e) {
-                    // If this happens, there's a bug in the trigger...
-                    SchedulerException se = new SchedulerException(
-                            "Trigger threw an unhandled exception.", e);
-                    qs.notifySchedulerListenersError(
-                            "Please report this error to the Quartz developers.",
-                            se);
-                }
+        } finally {
+            if (!pending) {
+                qs.removeInternalSchedulerListener(this);
+            }
+        }
+    }
 
-                // notify all trigger listeners
-                if (!notifyTriggerListenersComplete(jec, instCode)) {
-                    break;
-                }
+    /**
+     * Start the work of an <code>AsyncJob</code>, and have the scheduler
+     * complete its execution once the work is done.
+     */
+    private void executeAsync(AsyncJob job, OperableTrigger trigger, JobDetail jobDetail, long startTime) {
+        CompletionStage<Void> stage;
+        try {
+            log.debug("Calling executeAsync on job {}", jobDetail.getKey());
+            stage = job.executeAsync(jec);
+            if (stage == null) {
+                stage = CompletableFuture.completedFuture(null);
+            }
+        } catch (Throwable e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            stage = failed;
+        }
 
-                // update job/trigger or re-execute job
-                if (instCode == CompletedExecutionInstruction.RE_EXECUTE_JOB) {
-                    jec.incrementRefireCount();
-                    try {
-                        complete(false);
-                    } catch (SchedulerException se) {
-                        qs.notifySchedulerListenersError("Error executing Job ("
-                                + jec.getJobDetail().getKey()
-                                + ": couldn't finalize execution.", se);
-                    }
-                    continue;
-                }
+        stage.whenCompleteAsync((result, failure) -> asyncExecutionComplete(trigger, jobDetail, startTime, failure),
+                completion -> qs.completeAsyncExecution(jobDetail.getKey(), completion));
+    }
 
-                try {
-                    complete(true);
-                } catch (SchedulerException se) {
-                    qs.notifySchedulerListenersError("Error executing Job ("
-                            + jec.getJobDetail().getKey()
-                            + ": couldn't finalize execution.", se);
-                    continue;
-                }
+    private void asyncExecutionComplete(OperableTrigger trigger, JobDetail jobDetail, long startTime, Throwable failure) {
+        boolean reExecute = false;
+        try {
+            long endTime = System.currentTimeMillis();
+            JobExecutionException jobExEx = null;
+            if (failure instanceof CompletionException && failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            if (failure instanceof JobExecutionException) {
+                jobExEx = (JobExecutionException) failure;
+                getLog().info("Job {} threw a JobExecutionException: ", jobDetail.getKey(), jobExEx);
+            } else if (failure != null) {
+                jobExEx = unhandledException(jobDetail, failure);
+            }
 
-                qs.notifyJobStoreJobComplete(trigger, jobDetail, instCode);
-                break;
-            } while (true);
+            jec.setJobRunTime(endTime - startTime);
 
+            reExecute = executionComplete(trigger, jobDetail, jobExEx);
+        } catch (RuntimeException e) {
+            getLog().error("Error completing asynchronous execution of Job {}", jobDetail.getKey(), e);
         } finally {
-            qs.removeInternalSchedulerListener(this);
+            qs.releaseAsyncJobSlot(jobDetail.getKey());
+            if (!reExecute) {
+                qs.removeInternalSchedulerListener(this);
+            }
+        }
+
+        if (reExecute) {
+            runExecutions();
+        }
+    }
+
+    private JobExecutionException unhandledException(JobDetail jobDetail, Throwable e) {
+        getLog().error("Job {} threw an unhandled Exception: ", jobDetail.getKey(), e);
+        SchedulerException se = new JobExecutionProcessException(jec, e);
+        qs.notifySchedulerListenersError("Job "
+                + jec.getJobDetail().getKey()
+                + " threw an exception.", se);
+        return new JobExecutionException(se, false);
+    }
+
+    /**
+     * Notify the listeners and the job store that the job was executed.
+     *
+     * @return whether the job is to be executed again
+     */
+    private boolean executionComplete(OperableTrigger trigger, JobDetail jobDetail, JobExecutionException jobExEx) {
+        // notify all job listeners
+        if (!notifyJobListenersComplete(jec, jobExEx)) {
+            return false;
+        }
+
+        CompletedExecutionInstruction instCode = CompletedExecutionInstruction.NOOP;
+
+        // update the trigger
+        try {
+            instCode = trigger.executionComplete(jec, jobExEx);
+        } catch (Exception e) {
+            // If this happens, there's a bug in the trigger...
+            SchedulerException se = new SchedulerException(
+                    "Trigger threw an unhandled exception.", e);
+            qs.notifySchedulerListenersError(
+                    "Please report this error to the Quartz developers.",
+                    se);
         }
+
+        // notify all trigger listeners
+        if (!notifyTriggerListenersComplete(jec, instCode)) {
+            return false;
+        }
+
+        // update job/trigger or re-execute job
+        if (instCode == CompletedExecutionInstruction.RE_EXECUTE_JOB) {
+            jec.incrementRefireCount();
+            try {
+                complete(false);
+            } catch (SchedulerException se) {
+                qs.notifySchedulerListenersError("Error executing Job ("
+                        + jec.getJobDetail().getKey()
+                        + ": couldn't finalize execution.", se);
+            }
+            return true;
+        }
+
+        try {
+            complete(true);
+        } catch (SchedulerException se) {
+            qs.notifySchedulerListenersError("Error executing Job ("
+                    + jec.getJobDetail().getKey()
+                    + ": couldn't finalize execution.", se);
+            return true;
+        }
+
+        qs.notifyJobStoreJobComplete(trigger, jobDetail, instCode);
+        return false;
+    }
+
+    /**
+     * Whether an <code>AsyncJob</code> may give its thread back while its
+     * work goes on, and have its execution completed on another thread.
+     * Shells that bind state to the executing thread between
+     * <code>begin()</code> and <code>complete(..)</code> return false.
+     */
+    protected boolean isAsyncExecutionSupported() {
+        return true;
     }
 
     protected void begin() throws SchedulerException {
@@ -0,0 +1,180 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.core;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches how late triggers fire, and how many late triggers are waiting,
+ * against a fire lag objective (SLO), and sheds low-priority work while it
+ * is breached, so that critical triggers stay on time when the scheduler
+ * can't keep up.
+ *
+ * <p>
+ * The objective is breached when the (smoothed) fire lag of the batches
+ * exceeds it, or when an acquisition comes back full of triggers that are
+ * already later than it (more are queued up behind them).  While it is
+ * breached:
+ * </p>
+ * <ul>
+ * <li>The job store acquires the highest-priority triggers of several times
+ * as many due triggers as the scheduler threads can fire, rather than those
+ * due first (see
+ * <code>{@link JobStore#setPriorityLookAhead(int)}</code>).</li>
+ * <li>The triggers of the designated low-priority groups skip their fire
+ * times once they are later than the objective, rather than the job store's
+ * misfire threshold (see
+ * <code>{@link JobStore#setEarlyMisfireTriggerGroups(Set, long)}</code>).</li>
+ * </ul>
+ * <p>
+ * It is over once the fire lag is back under half the objective, and the
+ * acquisitions don't come back full of late triggers anymore.
+ * </p>
+ *
+ * <p>
+ * It is shared by the scheduler threads of a scheduler, and thread-safe.
+ * </p>
+ *
+ * @see QuartzSchedulerResources#setFireLagSlo(long)
+ */
+final class OverloadController {
+
+    // weight of the latest observation in the smoothed fire lag
+    private static final double SMOOTHING = 0.2;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final long fireLagSlo;
+
+    private final int lookAhead;
+
+    private final Set<String> shedTriggerGroups;
+
+    private final JobStore jobStore;
+
+    private double fireLag;
+
+    private int lateTriggers;
+
+    private boolean backlogged;
+
+    private boolean overloaded;
+
+    /**
+     * @param fireLagSlo the fire lag objective in milliseconds, or 0 to never
+     * shed load
+     * @param lookAhead how many times as many due triggers as the scheduler
+     * threads can fire the job store acquires the highest-priority ones from,
+     * while shedding load
+     * @param shedTriggerGroups the trigger groups to misfire early while
+     * shedding load
+     * @param jobStore the job store to tell which groups to misfire early, and
+     * how far to look ahead
+     */
+    OverloadController(long fireLagSlo, int lookAhead, Set<String> shedTriggerGroups, JobStore jobStore) {
+        this.fireLagSlo = Math.max(0L, fireLagSlo);
+        this.lookAhead = Math.max(1, lookAhead);
+        this.shedTriggerGroups = Collections.unmodifiableSet(new HashSet<>(shedTriggerGroups));
+        this.jobStore = jobStore;
+    }
+
+    boolean isEnabled() {
+        return fireLagSlo > 0;
+    }
+
+    long getFireLagSlo() {
+        return fireLagSlo;
+    }
+
+    /**
+     * Whether the fire lag objective is breached, and load is being shed.
+     */
+    synchronized boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * Get the number of triggers of the latest acquisition that were already
+     * later than the objective.
+     */
+    synchronized int getLateTriggerCount() {
+        return lateTriggers;
+    }
+
+    /**
+     * Observe an acquisition.
+     *
+     * @param requested the most triggers the acquisition asked for
+     * @param triggers the triggers it got
+     * @param now when it completed
+     */
+    synchronized void batchAcquired(int requested, List<OperableTrigger> triggers, long now) {
+        if (!isEnabled()) {
+            return;
+        }
+        int late = 0;
+        if (triggers != null) {
+            for (OperableTrigger trigger : triggers) {
+                if (trigger.getNextFireTime() != null && now - trigger.getNextFireTime().getTime() > fireLagSlo) {
+                    late++;
+                }
+            }
+        }
+        lateTriggers = late;
+        backlogged = late > 0 && late >= requested;
+        update();
+    }
+
+    /**
+     * Observe the firing of a batch.
+     *
+     * @param lagMillis how late the batch's first trigger fired
+     */
+    synchronized void batchFired(long lagMillis) {
+        if (!isEnabled()) {
+            return;
+        }
+        fireLag += SMOOTHING * (Math.max(0L, lagMillis) - fireLag);
+        update();
+    }
+
+    private void update() {
+        if (!overloaded && (fireLag > fireLagSlo || backlogged)) {
+            overloaded = true;
+            log.warn("Triggers are firing {} ms late on average, past the objective of {} ms: "
+                    + "preferring high-priority triggers and skipping the late fire times of groups {}.",
+                    Math.round(fireLag), fireLagSlo, shedTriggerGroups);
+            jobStore.setEarlyMisfireTriggerGroups(shedTriggerGroups, fireLagSlo);
+            jobStore.setPriorityLookAhead(lookAhead);
+        } else if (overloaded && fireLag <= fireLagSlo / 2.0 && !backlogged) {
+            overloaded = false;
+            log.info("Triggers are firing on time again ({} ms late on average), no longer shedding load.",
+                    Math.round(fireLag));
+            jobStore.setEarlyMisfireTriggerGroups(Collections.<String>emptySet(), fireLagSlo);
+            jobStore.setPriorityLookAhead(1);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -36,11 +37,18 @@ import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 
+import org.quartz.AsyncListener;
 import org.quartz.Calendar;
 import org.quartz.InterruptableJob;
 import org.quartz.Job;
@@ -50,10 +58,12 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 import org.quartz.JobListener;
+import org.quartz.JobPersistenceException;
 import org.quartz.ListenerManager;
 import org.quartz.Matcher;
 import org.quartz.ObjectAlreadyExistsException;
 import org.quartz.Scheduler;
+import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerContext;
 import org.quartz.SchedulerException;
 import org.quartz.SchedulerListener;
@@ -66,6 +76,7 @@ import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.core.jmx.QuartzSchedulerMBean;
+import org.quartz.impl.JobExecutionContextImpl;
 import org.quartz.impl.SchedulerRepository;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.listeners.SchedulerListenerSupport;
@@ -75,6 +86,10 @@ import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.SchedulerPlugin;
 import org.quartz.spi.SchedulerSignaler;
 import org.quartz.spi.ThreadExecutor;
+import org.quartz.spi.ThreadPool;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerPartition;
+import org.quartz.utils.ThreadPoolRoutes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -144,6 +159,8 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
     private final QuartzSchedulerThread schedThread;
 
+    private final List<QuartzSchedulerThread> schedThreads;
+
     private ThreadGroup threadGroup;
 
     private final SchedulerContext context = new SchedulerContext();
@@ -179,6 +196,23 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
     private Date initialStart = null;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
+
+    // the transient triggers of jobs dispatched directly, which the job store doesn't know
+    private final Set<TriggerKey> directTriggers = ConcurrentHashMap.newKeySet();
+
+    private final AsyncListenerDispatcher asyncListenerDispatcher;
+
+    // complete the executions of AsyncJobs, off the threads that complete their work, with
+    // no more completions at once than the pool of the job has threads
+    private final Map<ThreadPool, ExecutorService> asyncJobCompletionExecutors = new HashMap<>();
+
+    private final AtomicInteger asyncJobCompletionThreadNumber = new AtomicInteger();
+
+    private boolean asyncJobCompletionShutdown = false;
+
+    private final AdaptiveBatchController batchController;
+
+    private final OverloadController overloadController;
     
     // private static final Map<String, ManagementServer> MGMT_SVR_BY_BIND = new
     // HashMap<String, ManagementServer>();
@@ -207,19 +241,53 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
             addInternalJobListener((JobListener)resources.getJobStore());
         }
 
-        this.schedThread = new QuartzSchedulerThread(this, resources);
+        batchController = new AdaptiveBatchController(resources.isAdaptiveBatchAcquisition(),
+                resources.getMaxBatchSize(), resources.getBatchTimeWindow(), resources.getAdaptiveBatchMaxFireLag());
+        overloadController = new OverloadController(resources.getFireLagSlo(), resources.getFireLagSloLookAhead(),
+                resources.getFireLagSloShedTriggerGroups(), resources.getJobStore());
+
+        ThreadPoolRoutes routes = resources.getThreadPoolRoutes();
+        for (String name : routes.getThreadPoolNames()) {
+            if (resources.getThreadPool(name) == null) {
+                throw new SchedulerConfigException("Jobs are routed to thread pool '" + name + "', which doesn't exist.");
+            }
+        }
+
+        // with more than one scheduler thread, each thread acquires and fires
+        // the triggers of its own partition, and each named thread pool has a
+        // scheduler thread that only acquires the triggers of the jobs routed
+        // to it, as many as the pool has threads available
+        int schedThreadCount = Math.max(1, resources.getSchedulerThreadCount());
+        List<QuartzSchedulerThread> threads = new ArrayList<>(schedThreadCount);
         ThreadExecutor schedThreadExecutor = resources.getThreadExecutor();
-        schedThreadExecutor.execute(this.schedThread);
-        if (idleWaitTime > 0) {
-            this.schedThread.setIdleWaitTime(idleWaitTime);
+        for (int i = 0; i < schedThreadCount; i++) {
+            TriggerPartition partition = schedThreadCount > 1 || !routes.isEmpty()
+                    ? new TriggerPartition(i, schedThreadCount, resources.isPartitionTriggersByGroup(), routes, null)
+                    : null;
+            threads.add(new QuartzSchedulerThread(this, resources, partition));
+        }
+        for (String name : resources.getNamedThreadPools().keySet()) {
+            threads.add(new QuartzSchedulerThread(this, resources, new TriggerPartition(0, 1, false, routes, name)));
+        }
+        for (QuartzSchedulerThread thread : threads) {
+            schedThreadExecutor.execute(thread);
+            if (idleWaitTime > 0) {
+                thread.setIdleWaitTime(idleWaitTime);
+            }
         }
+        this.schedThreads = Collections.unmodifiableList(threads);
+        this.schedThread = threads.get(0);
 
         jobMgr = new ExecutingJobsManager();
         addInternalJobListener(jobMgr);
         errLogger = new ErrorLogger();
         addInternalSchedulerListener(errLogger);
 
-        signaler = new SchedulerSignalerImpl(this, this.schedThread);
+        signaler = new SchedulerSignalerImpl(this, this.schedThreads);
+
+        asyncListenerDispatcher = new AsyncListenerDispatcher(resources.getName() + "_AsyncListener",
+                resources.getAsyncListenerThreadCount(), resources.getAsyncListenerQueueSize(),
+                resources.getAsyncListenerOverflowPolicy(), resources.getMakeSchedulerThreadDaemon());
 
         getLog().info("Quartz Scheduler v{} created.", getVersion());
     }
@@ -536,7 +604,9 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
             resources.getJobStore().schedulerResumed();
         }
 
-        schedThread.togglePause(false);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.togglePause(false);
+        }
 
         getLog().info("Scheduler {} started.", resources.getUniqueIdentifier());
         
@@ -572,7 +642,9 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
      */
     public void standby() {
         resources.getJobStore().schedulerPaused();
-        schedThread.togglePause(true);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.togglePause(true);
+        }
         getLog().info("Scheduler {} paused.", resources.getUniqueIdentifier());
         notifySchedulerListenersInStandbyMode();        
     }
@@ -612,8 +684,47 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         return resources.getThreadPool().getClass();
     }
 
+    /**
+     * Get the controller of the batch size and time window of the scheduler
+     * threads' trigger acquisitions.
+     */
+    AdaptiveBatchController getBatchController() {
+        return batchController;
+    }
+
+    /**
+     * Get the controller that sheds low-priority work when triggers fire
+     * later than the fire lag SLO.
+     */
+    OverloadController getOverloadController() {
+        return overloadController;
+    }
+
+    /**
+     * Get the executions in flight of each job group with a concurrency
+     * limit in the job store.
+     */
+    Map<String, Integer> getJobGroupExecutionsInFlight() throws JobPersistenceException {
+        return resources.getJobStore().getJobGroupExecutionsInFlight();
+    }
+
+    /**
+     * Get the executions in flight of each job with a concurrency limit in
+     * the job store.
+     */
+    Map<String, Integer> getJobExecutionsInFlight() throws JobPersistenceException {
+        return resources.getJobStore().getJobExecutionsInFlight();
+    }
+
+    /**
+     * Get the size of the main thread pool and of the named thread pools.
+     */
     public int getThreadPoolSize() {
-        return resources.getThreadPool().getPoolSize();
+        int size = resources.getThreadPool().getPoolSize();
+        for (ThreadPool pool : resources.getNamedThreadPools().values()) {
+            size += pool.getPoolSize();
+        }
+        return size;
     }
 
     /**
@@ -679,7 +790,14 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
         standby();
 
-        schedThread.halt(waitForJobsToComplete);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.halt(false);
+        }
+        if (waitForJobsToComplete) {
+            for (QuartzSchedulerThread thread : schedThreads) {
+                thread.halt(true);
+            }
+        }
         
         notifySchedulerListenersShuttingdown();
         
@@ -698,6 +816,18 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         }
         
         resources.getThreadPool().shutdown(waitForJobsToComplete);
+        for (ThreadPool pool : resources.getNamedThreadPools().values()) {
+            pool.shutdown(waitForJobsToComplete);
+        }
+
+        directTriggers.clear();
+
+        // the pools have waited for the async executions, if asked to
+        synchronized (asyncJobCompletionExecutors) {
+            asyncJobCompletionShutdown = true;
+            asyncJobCompletionExecutors.values().forEach(ExecutorService::shutdown);
+        }
+        asyncListenerDispatcher.shutdown(waitForJobsToComplete);
         
         closed = true;
 
@@ -978,6 +1108,8 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         validateState();
 
         // make sure all triggers refer to their associated job
+        // each calendar is retrieved once, however many triggers use it
+        Map<String, Calendar> calendarsByName = new HashMap<>();
         for(Entry<JobDetail, Set<? extends Trigger>> e: triggersAndJobs.entrySet()) {
             JobDetail job = e.getKey();
             if(job == null) // there can be one of these (for adding a bulk set of triggers for preexisting jobs)
@@ -993,18 +1125,22 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
                 Calendar cal = null;
                 if (trigger.getCalendarName() != null) {
-                    cal = resources.getJobStore().retrieveCalendar(trigger.getCalendarName());
+                    cal = calendarsByName.get(trigger.getCalendarName());
+                    if (cal == null) {
+                        cal = resources.getJobStore().retrieveCalendar(trigger.getCalendarName());
+                    }
                     if(cal == null) {
                         throw new SchedulerException(
                             "Calendar '" + trigger.getCalendarName() + "' not found for trigger: " + trigger.getKey());
                     }
+                    calendarsByName.put(trigger.getCalendarName(), cal);
                 }
                 Date ft = opt.computeFirstFireTime(cal);
 
                 if (ft == null) {
                     throw new SchedulerException(
-                            "Based on configured schedule, the given trigger will never fire.");
-                }                
+                            "Based on configured schedule, the given trigger '" + trigger.getKey() + "' will never fire.");
+                }
             }
         }
 
@@ -1027,6 +1163,77 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         scheduleJobs(triggersAndJobs, replace);
     }
 
+    /**
+     * <p>
+     * Run the identified <code>{@link org.quartz.Job}</code> once, after the
+     * given delay, as a lightweight delayed task.
+     * </p>
+     *
+     * @see org.quartz.Scheduler#scheduleTask(JobKey, long, JobDataMap)
+     */
+    public TriggerKey scheduleTask(JobKey jobKey, long delayMillis, JobDataMap taskData) throws SchedulerException {
+        return scheduleTasks(jobKey, delayMillis, Collections.singletonList(taskData)).get(0);
+    }
+
+    /**
+     * <p>
+     * Run the identified <code>{@link org.quartz.Job}</code> once for each
+     * of the given data maps, after the given delay, as lightweight delayed
+     * tasks stored together.
+     * </p>
+     *
+     * @see org.quartz.Scheduler#scheduleTasks(JobKey, long, List)
+     */
+    public List<TriggerKey> scheduleTasks(JobKey jobKey, long delayMillis, List<JobDataMap> taskData) throws SchedulerException {
+        validateState();
+
+        if (jobKey == null) {
+            throw new SchedulerException("Job key cannot be null");
+        }
+        if (delayMillis < 0) {
+            throw new SchedulerException("Task delay cannot be negative");
+        }
+        if (taskData == null) {
+            throw new SchedulerException("Task data cannot be null");
+        }
+        if (taskData.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Date fireTime = new Date(System.currentTimeMillis() + delayMillis);
+        List<OperableTrigger> tasks = new ArrayList<>(taskData.size());
+        for (JobDataMap data : taskData) {
+            OperableTrigger task = (OperableTrigger) newTrigger()
+                    .withIdentity(newTriggerId(), Scheduler.DEFAULT_TASK_GROUP)
+                    .forJob(jobKey).startAt(fireTime).build();
+            if (data != null) {
+                task.setJobDataMap(data);
+            }
+            task.computeFirstFireTime(null);
+            tasks.add(task);
+        }
+
+        boolean collision = true;
+        while (collision) {
+            try {
+                resources.getJobStore().storeTasks(tasks);
+                collision = false;
+            } catch (ObjectAlreadyExistsException oaee) {
+                for (OperableTrigger task : tasks) {
+                    task.setKey(new TriggerKey(newTriggerId(), Scheduler.DEFAULT_TASK_GROUP));
+                }
+            }
+        }
+
+        notifySchedulerThread(fireTime.getTime());
+
+        List<TriggerKey> keys = new ArrayList<>(tasks.size());
+        for (OperableTrigger task : tasks) {
+            keys.add(task.getKey());
+        }
+        return keys;
+    }
+
     public boolean unscheduleJobs(List<TriggerKey> triggerKeys) throws SchedulerException  {
         validateState();
 
@@ -1156,6 +1363,126 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         notifySchedulerListenersScheduled(trig);
     }
 
+    /**
+     * <p>
+     * Run the identified <code>{@link org.quartz.Job}</code> right away,
+     * without storing a trigger for it.  The job is handed to the scheduler
+     * thread of its thread pool, which runs it on the next thread that no
+     * acquired trigger is going to use.
+     * </p>
+     *
+     * @return <code>false</code> if the job must be triggered through the
+     * job store instead, as it disallows concurrent execution, persists its
+     * data or has its concurrent executions limited, or as the scheduler is
+     * in standby.
+     * @see org.quartz.spi.DirectJobDispatcher
+     */
+    public boolean dispatchJob(JobKey jobKey, JobDataMap data) throws SchedulerException {
+        validateState();
+
+        if (isInStandbyMode()) {
+            return false;
+        }
+
+        JobDetail job = resources.getJobStore().retrieveJob(jobKey);
+        if (job == null) {
+            throw new JobPersistenceException("The job (" + jobKey + ") to dispatch does not exist.");
+        }
+        if (job.isConcurrentExecutionDisallowed() || job.isPersistJobDataAfterExecution()
+                || resources.getJobStore().isConcurrencyLimited(jobKey)) {
+            return false;
+        }
+
+        OperableTrigger trig = (OperableTrigger) newTrigger().withIdentity(newTriggerId(), Scheduler.DEFAULT_GROUP).forJob(jobKey).build();
+        trig.computeFirstFireTime(null);
+        if(data != null) {
+            trig.setJobDataMap(data);
+        }
+        trig.setFireInstanceId(trig.getKey().getName());
+        Date scheduledFireTime = trig.getNextFireTime();
+        trig.triggered(null);
+
+        JobRunShell shell = resources.getJobRunShellFactory().createJobRunShell(
+                new TriggerFiredBundle(job, trig, null, false, new Date(), scheduledFireTime, null, null));
+        shell.initialize(this);
+
+        directTriggers.add(trig.getKey());
+        getSchedulerThreadFor(jobKey).dispatch(shell);
+        return true;
+    }
+
+    /**
+     * Get the scheduler thread that hands out the threads of the pool the
+     * given job runs on.
+     */
+    private QuartzSchedulerThread getSchedulerThreadFor(JobKey jobKey) {
+        ThreadPool pool = resources.getThreadPoolFor(jobKey);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            if (thread.getThreadPool() == pool) {
+                return thread;
+            }
+        }
+        return schedThread;
+    }
+
+    /**
+     * Called by a <code>JobRunShell</code> before it lets an
+     * <code>AsyncJob</code> give its thread back while its work goes on.
+     *
+     * @see org.quartz.spi.ThreadPool#acquireAsyncJobSlot()
+     */
+    boolean acquireAsyncJobSlot(JobKey jobKey) {
+        return resources.getThreadPoolFor(jobKey).acquireAsyncJobSlot();
+    }
+
+    /**
+     * Called by a <code>JobRunShell</code> to complete the execution of an
+     * <code>AsyncJob</code> whose work is done: notifying the listeners and
+     * the job store, and executing the job again if its trigger says so.
+     * That runs on a thread of the scheduler, not on the thread that
+     * completed the work, which belongs to the job. No more completions of
+     * the jobs of a pool run at once than the pool has threads, as each may
+     * hold a connection of the job store; others wait their turn.  Once the
+     * scheduler is shut down it runs on the calling thread.
+     */
+    void completeAsyncExecution(JobKey jobKey, Runnable completion) {
+        ExecutorService executor;
+        synchronized (asyncJobCompletionExecutors) {
+            executor = asyncJobCompletionShutdown ? null : asyncJobCompletionExecutors.computeIfAbsent(
+                    resources.getThreadPoolFor(jobKey), this::createAsyncJobCompletionExecutor);
+        }
+        if (executor == null) {
+            completion.run();
+            return;
+        }
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private ExecutorService createAsyncJobCompletionExecutor(ThreadPool pool) {
+        int threadCount = Math.max(1, pool.getPoolSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, resources.getName() + "_AsyncJobCompletion-"
+                    + asyncJobCompletionThreadNumber.incrementAndGet());
+            thread.setDaemon(resources.getMakeSchedulerThreadDaemon());
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Called by a <code>JobRunShell</code> once the execution of an
+     * <code>AsyncJob</code> that didn't hold its thread is complete.
+     */
+    void releaseAsyncJobSlot(JobKey jobKey) {
+        resources.getThreadPoolFor(jobKey).releaseAsyncJobSlot();
+    }
+
     /**
      * <p>
      * Store and schedule the identified <code>{@link org.quartz.spi.OperableTrigger}</code>
@@ -1769,10 +2096,16 @@ J     *
     }
 
     protected void notifyJobStoreJobComplete(OperableTrigger trigger, JobDetail detail, CompletedExecutionInstruction instCode) {
+        if (directTriggers.remove(trigger.getKey())) {
+            return;
+        }
         resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
     }
 
     protected void notifyJobStoreJobVetoed(OperableTrigger trigger, JobDetail detail, CompletedExecutionInstruction instCode) {
+        if (directTriggers.remove(trigger.getKey())) {
+            return;
+        }
         resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
     }
 
@@ -1843,6 +2176,12 @@ J     *
             try {
                 if(!matchTriggerListener(tl, jec.getTrigger().getKey()))
                     continue;
+                // asynchronous listeners don't veto, as they would before
+                // being told that the trigger fired
+                if(tl instanceof AsyncListener) {
+                    dispatchAsync(tl, jec, ctx -> tl.triggerFired(ctx.getTrigger(), ctx));
+                    continue;
+                }
                 tl.triggerFired(jec.getTrigger(), jec);
                 
                 if(tl.vetoJobExecution(jec.getTrigger(), jec)) {
@@ -1857,6 +2196,32 @@ J     *
     }
     
 
+    /**
+     * Queue the notification of an <code>AsyncListener</code>, reporting its
+     * failure to the scheduler listeners rather than to the notifying thread.
+     * The listener is given a snapshot of the context, as the job and the job
+     * store go on changing it while the notification is queued.
+     */
+    private void dispatchAsync(Object listener, JobExecutionContext jec, ListenerNotification notification) {
+        JobExecutionContext snapshot = jec instanceof JobExecutionContextImpl
+                ? ((JobExecutionContextImpl) jec).snapshot() : jec;
+        asyncListenerDispatcher.dispatch(listener, () -> {
+            try {
+                notification.run(snapshot);
+            } catch (Exception e) {
+                JobExecutionProcessException se = listener instanceof JobListener
+                        ? new JobExecutionProcessException((JobListener) listener, snapshot, e)
+                        : new JobExecutionProcessException((TriggerListener) listener, snapshot, e);
+                notifySchedulerListenersError("Asynchronous listener notification failed: job= "
+                        + jec.getJobDetail().getKey(), se);
+            }
+        });
+    }
+
+    private interface ListenerNotification {
+        void run(JobExecutionContext context) throws Exception;
+    }
+
     public void notifyTriggerListenersMisfired(Trigger trigger)
         throws SchedulerException {
         // build a list of all trigger listeners that are to be notified...
@@ -1867,6 +2232,17 @@ J     *
             try {
                 if(!matchTriggerListener(tl, trigger.getKey()))
                     continue;
+                if(tl instanceof AsyncListener) {
+                    asyncListenerDispatcher.dispatch(tl, () -> {
+                        try {
+                            tl.triggerMisfired(trigger);
+                        } catch (Exception e) {
+                            String msg = "TriggerListener '" + tl.getName() + "' threw exception: " + e.getMessage();
+                            notifySchedulerListenersError(msg, new SchedulerException(msg, e));
+                        }
+                    });
+                    continue;
+                }
                 tl.triggerMisfired(trigger);
             } catch (Exception e) {
                 throw new SchedulerException(
@@ -1886,6 +2262,10 @@ J     *
             try {
                 if(!matchTriggerListener(tl, jec.getTrigger().getKey()))
                     continue;
+                if(tl instanceof AsyncListener) {
+                    dispatchAsync(tl, jec, ctx -> tl.triggerComplete(ctx.getTrigger(), ctx, instCode));
+                    continue;
+                }
                 tl.triggerComplete(jec.getTrigger(), jec, instCode);
             } catch (Exception e) {
                 throw new JobExecutionProcessException(tl, jec, e);
@@ -1903,6 +2283,10 @@ J     *
             try {
                 if(!matchJobListener(jl, jec.getJobDetail().getKey()))
                     continue;
+                if(jl instanceof AsyncListener) {
+                    dispatchAsync(jl, jec, jl::jobToBeExecuted);
+                    continue;
+                }
                 jl.jobToBeExecuted(jec);
             } catch (Exception e) {
                 throw new JobExecutionProcessException(jl, jec, e);
@@ -1920,6 +2304,10 @@ J     *
             try {
                 if(!matchJobListener(jl, jec.getJobDetail().getKey()))
                     continue;
+                if(jl instanceof AsyncListener) {
+                    dispatchAsync(jl, jec, jl::jobExecutionVetoed);
+                    continue;
+                }
                 jl.jobExecutionVetoed(jec);
             } catch (Exception e) {
                 throw new JobExecutionProcessException(jl, jec, e);
@@ -1937,6 +2325,10 @@ J     *
             try {
                 if(!matchJobListener(jl, jec.getJobDetail().getKey()))
                     continue;
+                if(jl instanceof AsyncListener) {
+                    dispatchAsync(jl, jec, ctx -> jl.jobWasExecuted(ctx, je));
+                    continue;
+                }
                 jl.jobWasExecuted(jec, je);
             } catch (Exception e) {
                 throw new JobExecutionProcessException(jl, jec, e);
@@ -552,6 +552,50 @@ public class QuartzSchedulerMBeanImpl extends StandardMBean implements
         return scheduler.getThreadPoolSize();
     }
 
+    public boolean isAdaptiveTriggerAcquisition() {
+        return scheduler.getBatchController().isAdaptive();
+    }
+
+    public int getTriggerAcquisitionBatchSize() {
+        return scheduler.getBatchController().getBatchSize();
+    }
+
+    public long getTriggerAcquisitionTimeWindow() {
+        return scheduler.getBatchController().getTimeWindow();
+    }
+
+    public long getAverageTriggerAcquisitionTime() {
+        return scheduler.getBatchController().getAverageAcquisitionTime();
+    }
+
+    public long getAverageTriggerFireLag() {
+        return scheduler.getBatchController().getAverageFireLag();
+    }
+
+    public boolean isShedding() {
+        return scheduler.getOverloadController().isOverloaded();
+    }
+
+    public int getLateTriggerCount() {
+        return scheduler.getOverloadController().getLateTriggerCount();
+    }
+
+    public Map<String, Integer> getJobGroupExecutionsInFlight() throws Exception {
+        try {
+            return scheduler.getJobGroupExecutionsInFlight();
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public Map<String, Integer> getJobExecutionsInFlight() throws Exception {
+        try {
+            return scheduler.getJobExecutionsInFlight();
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
     public void pauseJob(String jobName, String jobGroup) throws Exception {
         try {
             scheduler.pauseJob(jobKey(jobName, jobGroup));
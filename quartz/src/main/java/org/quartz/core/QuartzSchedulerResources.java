@@ -20,13 +20,20 @@
 package org.quartz.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.quartz.JobKey;
 import org.quartz.management.ManagementRESTServiceConfiguration;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.SchedulerPlugin;
 import org.quartz.spi.ThreadExecutor;
 import org.quartz.spi.ThreadPool;
+import org.quartz.utils.ThreadPoolRoutes;
 
 /**
  * <p>
@@ -70,6 +77,10 @@ public class QuartzSchedulerResources {
 
     private ThreadPool threadPool;
 
+    private final Map<String, ThreadPool> namedThreadPools = new LinkedHashMap<>();
+
+    private ThreadPoolRoutes threadPoolRoutes = ThreadPoolRoutes.NONE;
+
     private JobStore jobStore;
 
     private JobRunShellFactory jobRunShellFactory;
@@ -94,6 +105,28 @@ public class QuartzSchedulerResources {
 
     private int maxBatchSize = 1;
 
+    private boolean pipelinedTriggerAcquisition = false;
+
+    private boolean adaptiveBatchAcquisition = false;
+
+    private long adaptiveBatchMaxFireLag = 1000L;
+
+    private int schedulerThreadCount = 1;
+
+    private boolean partitionTriggersByGroup = false;
+
+    private long fireLagSlo = 0L;
+
+    private int fireLagSloLookAhead = 4;
+
+    private Set<String> fireLagSloShedTriggerGroups = Collections.emptySet();
+
+    private int asyncListenerThreadCount = 1;
+
+    private int asyncListenerQueueSize = 1000;
+
+    private AsyncListenerDispatcher.OverflowPolicy asyncListenerOverflowPolicy = AsyncListenerDispatcher.OverflowPolicy.BLOCK;
+
     private boolean interruptJobsOnShutdown = false;
     private boolean interruptJobsOnShutdownWithWait = false;
     
@@ -342,6 +375,70 @@ public class QuartzSchedulerResources {
         this.threadPool = threadPool;
     }
 
+    /**
+     * <p>
+     * Add a named <code>{@link ThreadPool}</code>, that runs the jobs routed
+     * to it rather than the main thread pool.  Each named thread pool gets a
+     * scheduler thread of its own.
+     * </p>
+     *
+     * @see #setThreadPoolRoutes(ThreadPoolRoutes)
+     */
+    public void addThreadPool(String name, ThreadPool threadPool) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Thread pool name cannot be empty.");
+        }
+        if (threadPool == null) {
+            throw new IllegalArgumentException("ThreadPool cannot be null.");
+        }
+        this.namedThreadPools.put(name, threadPool);
+    }
+
+    /**
+     * <p>
+     * Get the named <code>{@link ThreadPool}</code>s, by name.
+     * </p>
+     */
+    public Map<String, ThreadPool> getNamedThreadPools() {
+        return Collections.unmodifiableMap(namedThreadPools);
+    }
+
+    /**
+     * <p>
+     * Get the <code>{@link ThreadPool}</code> with the given name, or the
+     * main thread pool if the name is <code>null</code>.
+     * </p>
+     */
+    public ThreadPool getThreadPool(String name) {
+        return name == null ? threadPool : namedThreadPools.get(name);
+    }
+
+    /**
+     * <p>
+     * Get the <code>{@link ThreadPool}</code> that the given job runs on.
+     * </p>
+     */
+    public ThreadPool getThreadPoolFor(JobKey jobKey) {
+        ThreadPool pool = getThreadPool(threadPoolRoutes.getThreadPool(jobKey));
+        return pool != null ? pool : threadPool;
+    }
+
+    /**
+     * <p>
+     * Get which jobs run on the named thread pools.
+     * </p>
+     */
+    public ThreadPoolRoutes getThreadPoolRoutes() {
+        return threadPoolRoutes;
+    }
+
+    public void setThreadPoolRoutes(ThreadPoolRoutes threadPoolRoutes) {
+        if (threadPoolRoutes == null) {
+            throw new IllegalArgumentException("Thread pool routes cannot be null.");
+        }
+        this.threadPoolRoutes = threadPoolRoutes;
+    }
+
     /**
      * <p>
      * Get the <code>{@link JobStore}</code> for the <code>{@link QuartzScheduler}</code>
@@ -556,6 +653,163 @@ public class QuartzSchedulerResources {
     public void setMaxBatchSize(int maxBatchSize) {
       this.maxBatchSize = maxBatchSize;
     }
+
+    /**
+     * Whether the scheduler thread acquires the next batch of triggers while
+     * it is still firing the current one.
+     */
+    public boolean isPipelinedTriggerAcquisition() {
+        return pipelinedTriggerAcquisition;
+    }
+
+    public void setPipelinedTriggerAcquisition(boolean pipelinedTriggerAcquisition) {
+        this.pipelinedTriggerAcquisition = pipelinedTriggerAcquisition;
+    }
+
+    /**
+     * Whether the batch size and time window of trigger acquisitions adapt to
+     * the observed acquisition time, fire lag and available threads, the
+     * configured values being upper bounds.
+     */
+    public boolean isAdaptiveBatchAcquisition() {
+        return adaptiveBatchAcquisition;
+    }
+
+    public void setAdaptiveBatchAcquisition(boolean adaptiveBatchAcquisition) {
+        this.adaptiveBatchAcquisition = adaptiveBatchAcquisition;
+    }
+
+    /**
+     * The fire lag (in milliseconds) beyond which adaptive batch acquisition
+     * resizes batches.
+     */
+    public long getAdaptiveBatchMaxFireLag() {
+        return adaptiveBatchMaxFireLag;
+    }
+
+    public void setAdaptiveBatchMaxFireLag(long adaptiveBatchMaxFireLag) {
+        if (adaptiveBatchMaxFireLag < 0) {
+            throw new IllegalArgumentException("Adaptive batch max fire lag cannot be negative.");
+        }
+        this.adaptiveBatchMaxFireLag = adaptiveBatchMaxFireLag;
+    }
+
+    /**
+     * The number of scheduler threads, each of which acquires and fires the
+     * triggers of its own hash partition.
+     */
+    public int getSchedulerThreadCount() {
+        return schedulerThreadCount;
+    }
+
+    public void setSchedulerThreadCount(int schedulerThreadCount) {
+        if (schedulerThreadCount < 1) {
+            throw new IllegalArgumentException("Scheduler thread count must be at least 1.");
+        }
+        this.schedulerThreadCount = schedulerThreadCount;
+    }
+
+    /**
+     * Whether triggers are partitioned between scheduler threads by their
+     * group (rather than by their whole key).
+     */
+    public boolean isPartitionTriggersByGroup() {
+        return partitionTriggersByGroup;
+    }
+
+    public void setPartitionTriggersByGroup(boolean partitionTriggersByGroup) {
+        this.partitionTriggersByGroup = partitionTriggersByGroup;
+    }
+
+    /**
+     * How late triggers may fire, in milliseconds, before the scheduler sheds
+     * low-priority work to keep the others on time, or 0 (the default) to
+     * never shed load.
+     *
+     * @see OverloadController
+     */
+    public long getFireLagSlo() {
+        return fireLagSlo;
+    }
+
+    public void setFireLagSlo(long fireLagSlo) {
+        if (fireLagSlo < 0) {
+            throw new IllegalArgumentException("Fire lag SLO cannot be negative.");
+        }
+        this.fireLagSlo = fireLagSlo;
+    }
+
+    /**
+     * How many times as many triggers as they can fire the scheduler threads
+     * acquire while shedding load, to fire those of the highest priority.
+     */
+    public int getFireLagSloLookAhead() {
+        return fireLagSloLookAhead;
+    }
+
+    public void setFireLagSloLookAhead(int fireLagSloLookAhead) {
+        if (fireLagSloLookAhead < 1) {
+            throw new IllegalArgumentException("Fire lag SLO look-ahead must be at least 1.");
+        }
+        this.fireLagSloLookAhead = fireLagSloLookAhead;
+    }
+
+    /**
+     * The trigger groups whose triggers misfire once later than the fire lag
+     * SLO while the scheduler sheds load.
+     */
+    public Set<String> getFireLagSloShedTriggerGroups() {
+        return fireLagSloShedTriggerGroups;
+    }
+
+    public void setFireLagSloShedTriggerGroups(Set<String> fireLagSloShedTriggerGroups) {
+        this.fireLagSloShedTriggerGroups = Collections.unmodifiableSet(new HashSet<>(fireLagSloShedTriggerGroups));
+    }
+
+    /**
+     * The number of threads delivering the notifications of
+     * <code>{@link org.quartz.AsyncListener}s</code>.
+     */
+    public int getAsyncListenerThreadCount() {
+        return asyncListenerThreadCount;
+    }
+
+    public void setAsyncListenerThreadCount(int asyncListenerThreadCount) {
+        if (asyncListenerThreadCount < 1) {
+            throw new IllegalArgumentException("Async listener thread count must be at least 1.");
+        }
+        this.asyncListenerThreadCount = asyncListenerThreadCount;
+    }
+
+    /**
+     * The number of notifications that may be queued for each
+     * <code>{@link org.quartz.AsyncListener}</code>.
+     */
+    public int getAsyncListenerQueueSize() {
+        return asyncListenerQueueSize;
+    }
+
+    public void setAsyncListenerQueueSize(int asyncListenerQueueSize) {
+        if (asyncListenerQueueSize < 1) {
+            throw new IllegalArgumentException("Async listener queue size must be at least 1.");
+        }
+        this.asyncListenerQueueSize = asyncListenerQueueSize;
+    }
+
+    /**
+     * What to do with a notification for an
+     * <code>{@link org.quartz.AsyncListener}</code> whose queue is full.
+     */
+    public AsyncListenerDispatcher.OverflowPolicy getAsyncListenerOverflowPolicy() {
+        return asyncListenerOverflowPolicy;
+    }
+
+    public void setAsyncListenerOverflowPolicy(AsyncListenerDispatcher.OverflowPolicy asyncListenerOverflowPolicy) {
+        if (asyncListenerOverflowPolicy == null) {
+            throw new IllegalArgumentException("Async listener overflow policy cannot be null.");
+        }
+        this.asyncListenerOverflowPolicy = asyncListenerOverflowPolicy;
+    }
     
     public boolean isInterruptJobsOnShutdown() {
         return interruptJobsOnShutdown;
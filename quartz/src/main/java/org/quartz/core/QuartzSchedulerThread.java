@@ -22,6 +22,12 @@ package org.quartz.core;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.quartz.JobPersistenceException;
@@ -30,8 +36,10 @@ import org.quartz.Trigger;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.ThreadPool;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +67,11 @@ public class QuartzSchedulerThread extends Thread {
 
     private QuartzSchedulerResources qsRsrcs;
 
+    private final TriggerPartition partition;
+
+    // the pool that runs the jobs of the partition's triggers
+    private final ThreadPool threadPool;
+
     private final Object sigLock = new Object();
 
     private boolean signaled;
@@ -78,6 +91,18 @@ public class QuartzSchedulerThread extends Thread {
 
     private int idleWaitVariableness = 7 * 1000;
 
+    // When pipelined acquisition is enabled, the next batch of triggers is
+    // acquired on this executor while the current batch is being fired...
+    private ExecutorService acquisitionExecutor;
+
+    private Future<List<OperableTrigger>> nextBatch;
+
+    private boolean pipelinedAcquisitionUnsupportedLogged;
+
+    // jobs dispatched directly, which this thread hands to its pool on
+    // threads that no acquired trigger is going to use
+    private final ConcurrentLinkedQueue<JobRunShell> directJobs = new ConcurrentLinkedQueue<>();
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     /*
@@ -96,7 +121,19 @@ public class QuartzSchedulerThread extends Thread {
      * </p>
      */
     QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs) {
-        this(qs, qsRsrcs, qsRsrcs.getMakeSchedulerThreadDaemon(), Thread.NORM_PRIORITY);
+        this(qs, qsRsrcs, null);
+    }
+
+    /**
+     * <p>
+     * Construct a new <code>QuartzSchedulerThread</code> for the given
+     * <code>QuartzScheduler</code> as a non-daemon <code>Thread</code>
+     * with normal priority, that only fires the triggers of the given
+     * partition.
+     * </p>
+     */
+    QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs, TriggerPartition partition) {
+        this(qs, qsRsrcs, qsRsrcs.getMakeSchedulerThreadDaemon(), Thread.NORM_PRIORITY, partition);
     }
 
     /**
@@ -107,9 +144,16 @@ public class QuartzSchedulerThread extends Thread {
      * </p>
      */
     QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs, boolean setDaemon, int threadPrio) {
-        super(qs.getSchedulerThreadGroup(), qsRsrcs.getThreadName());
+        this(qs, qsRsrcs, setDaemon, threadPrio, null);
+    }
+
+    private QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs, boolean setDaemon, int threadPrio,
+            TriggerPartition partition) {
+        super(qs.getSchedulerThreadGroup(), threadName(qsRsrcs, partition));
         this.qs = qs;
         this.qsRsrcs = qsRsrcs;
+        this.partition = partition;
+        this.threadPool = qsRsrcs.getThreadPool(partition == null ? null : partition.getThreadPoolName());
         this.setDaemon(setDaemon);
         if(qsRsrcs.isThreadsInheritInitializersClassLoadContext()) {
             log.info("QuartzSchedulerThread Inheriting ContextClassLoader of thread: {}", Thread.currentThread().getName());
@@ -125,6 +169,17 @@ public class QuartzSchedulerThread extends Thread {
         halted = new AtomicBoolean(false);
     }
 
+    private static String threadName(QuartzSchedulerResources qsRsrcs, TriggerPartition partition) {
+        String name = qsRsrcs.getThreadName();
+        if (partition != null && partition.getThreadPoolName() != null) {
+            name += "-" + partition.getThreadPoolName();
+        }
+        if (partition != null && partition.getCount() > 1) {
+            name += "-" + partition.getIndex();
+        }
+        return name;
+    }
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      *
@@ -199,6 +254,28 @@ public class QuartzSchedulerThread extends Thread {
         return paused;
     }
 
+    /**
+     * Get the pool that runs the jobs of the triggers this thread fires.
+     */
+    ThreadPool getThreadPool() {
+        return threadPool;
+    }
+
+    /**
+     * <p>
+     * Run the job of the given shell, dispatched directly, on a thread of this
+     * thread's pool as soon as one is free.  Only this thread hands the
+     * pool's threads out, so the job never takes a thread that an acquired
+     * trigger has been counted on.
+     * </p>
+     */
+    void dispatch(JobRunShell shell) {
+        synchronized (sigLock) {
+            directJobs.add(shell);
+            sigLock.notifyAll();
+        }
+    }
+
     /**
      * <p>
      * Signals the main processing loop that a change in scheduling has been
@@ -248,6 +325,12 @@ public class QuartzSchedulerThread extends Thread {
 
         while (!halted.get()) {
             try {
+                // don't hold on to a batch acquired ahead of time while we
+                // are not going to fire it...
+                if (nextBatch != null && isPaused()) {
+                    releaseNextBatch();
+                }
+
                 // check if we're supposed to pause...
                 synchronized (sigLock) {
                     while (paused && !halted.get()) {
@@ -277,22 +360,33 @@ public class QuartzSchedulerThread extends Thread {
                     }
                 }
 
-                int availThreadCount = qsRsrcs.getThreadPool().blockForAvailableThreads();
+                int availThreadCount = threadPool.blockForAvailableThreads();
                 synchronized (sigLock) {
                     if (halted.get()) {
                         break;
                     }
                 }
+                // the jobs dispatched directly go first, unless a batch
+                // acquired ahead of time already counts on the threads
+                if (nextBatch == null) {
+                    availThreadCount -= runDirectJobs(availThreadCount);
+                    if (availThreadCount == 0) {
+                        continue;
+                    }
+                }
                 if(availThreadCount > 0) { // will always be true, due to semantics of blockForAvailableThreads...
 
                     List<OperableTrigger> triggers;
 
                     long now = System.currentTimeMillis();
 
-                    clearSignaledSchedulingChange();
                     try {
-                        triggers = qsRsrcs.getJobStore().acquireNextTriggers(
-                                now + idleWaitTime, Math.min(availThreadCount, qsRsrcs.getMaxBatchSize()), qsRsrcs.getBatchTimeWindow());
+                        if (nextBatch != null) {
+                            triggers = takeNextBatch();
+                        } else {
+                            clearSignaledSchedulingChange();
+                            triggers = acquireNextTriggers(qsRsrcs.getJobStore(), now + idleWaitTime, availThreadCount);
+                        }
                         acquiresFailed = 0;
                         if (log.isDebugEnabled())
                             log.debug("batch acquisition of {} triggers", triggers == null ? 0 : triggers.size());
@@ -316,10 +410,15 @@ public class QuartzSchedulerThread extends Thread {
 
                     if (triggers != null && !triggers.isEmpty()) {
 
+                        // threads the batch leaves free, for jobs dispatched
+                        // while it waits to be fired
+                        int spareThreadCount = availThreadCount - triggers.size();
+
                         now = System.currentTimeMillis();
                         long triggerTime = triggers.get(0).getNextFireTime().getTime();
                         long timeUntilTrigger = triggerTime - now;
                         while(timeUntilTrigger > 2) {
+                            spareThreadCount -= runDirectJobs(spareThreadCount);
                             synchronized (sigLock) {
                                 if (halted.get()) {
                                     break;
@@ -330,7 +429,7 @@ public class QuartzSchedulerThread extends Thread {
                                         // on 'synchronize', so we must recompute
                                         now = System.currentTimeMillis();
                                         timeUntilTrigger = triggerTime - now;
-                                        if(timeUntilTrigger >= 1)
+                                        if(timeUntilTrigger >= 1 && (spareThreadCount == 0 || directJobs.isEmpty()))
                                             sigLock.wait(timeUntilTrigger);
                                     } catch (InterruptedException ignore) {
                                     }
@@ -360,6 +459,12 @@ public class QuartzSchedulerThread extends Thread {
                             goAhead = !halted.get();
                         }
                         if(goAhead) {
+                            if (isPipelinedTriggerAcquisition()) {
+                                acquireNextBatchAhead(spareThreadCount);
+                            }
+                            long fireLag = System.currentTimeMillis() - triggers.get(0).getNextFireTime().getTime();
+                            qs.getBatchController().batchFired(availThreadCount, triggers.size(), fireLag);
+                            qs.getOverloadController().batchFired(fireLag);
                             try {
                                 List<TriggerFiredResult> res = qsRsrcs.getJobStore().triggersFired(triggers);
                                 if(res != null)
@@ -406,7 +511,7 @@ public class QuartzSchedulerThread extends Thread {
                                 continue;
                             }
 
-                            if (!qsRsrcs.getThreadPool().runInThread(shell)) {
+                            if (!threadPool.runInThread(shell)) {
                                 // this case should never happen, as it is indicative of the
                                 // scheduler being shutdown or a bug in the thread pool or
                                 // a thread pool being used concurrently - which the docs
@@ -434,7 +539,7 @@ public class QuartzSchedulerThread extends Thread {
                         // missed the scheduled changed signal by not waiting for the notify() yet
                         // Check that before waiting for too long in case this very job needs to be
                         // scheduled very soon
-                        if (!isScheduleChanged()) {
+                        if (!isScheduleChanged() && directJobs.isEmpty()) {
                           sigLock.wait(timeUntilContinue);
                         }
                       }
@@ -447,11 +552,172 @@ public class QuartzSchedulerThread extends Thread {
             }
         } // while (!halted)
 
+        releaseNextBatch();
+        if (!directJobs.isEmpty()) {
+            getLog().warn("Dropping {} directly dispatched job(s) that didn't get to run before shutdown.", directJobs.size());
+            directJobs.clear();
+        }
+        if (acquisitionExecutor != null) {
+            acquisitionExecutor.shutdown();
+            acquisitionExecutor = null;
+        }
+
         // drop references to scheduler stuff to aid garbage collection...
         qs = null;
         qsRsrcs = null;
     }
 
+    /**
+     * Hand jobs dispatched directly to the thread pool, at most the given
+     * number of them, each on one of the threads this thread has found
+     * available.
+     *
+     * @return the number of jobs handed to the pool
+     */
+    private int runDirectJobs(int availThreadCount) {
+        int count = 0;
+        JobRunShell shell;
+        while (count < availThreadCount && (shell = directJobs.poll()) != null) {
+            if (!threadPool.runInThread(shell)) {
+                getLog().error("ThreadPool.runInThread() return false!");
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Acquire the next batch of triggers, as many and as far ahead as the
+     * scheduler's batch controller says, and tell it how the acquisition went.
+     */
+    private List<OperableTrigger> acquireNextTriggers(JobStore jobStore, long noLaterThan, int availThreadCount)
+            throws JobPersistenceException {
+        AdaptiveBatchController batchController = qs.getBatchController();
+        OverloadController overloadController = qs.getOverloadController();
+        int maxCount = Math.min(availThreadCount, batchController.getBatchSize());
+        long timeWindow = batchController.getTimeWindow();
+
+        long start = System.nanoTime();
+        List<OperableTrigger> triggers;
+        if (partition == null) {
+            triggers = jobStore.acquireNextTriggers(noLaterThan, maxCount, timeWindow);
+        } else {
+            triggers = jobStore.acquireNextTriggers(noLaterThan, maxCount, timeWindow, partition);
+        }
+        overloadController.batchAcquired(maxCount, triggers, System.currentTimeMillis());
+        batchController.batchAcquired(availThreadCount, maxCount, triggers == null ? 0 : triggers.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return triggers;
+    }
+
+    /**
+     * Whether the next batch of triggers may be acquired while the current
+     * one is being fired.  A trigger of a job that disallows concurrent
+     * execution can be acquired ahead of time while the previous execution
+     * of that job has only just been fired, so this is only allowed for job
+     * stores that check for that when firing.
+     */
+    private boolean isPipelinedTriggerAcquisition() {
+        if (!qsRsrcs.isPipelinedTriggerAcquisition()) {
+            return false;
+        }
+        if (!qsRsrcs.getJobStore().isConcurrentExecutionCheckedWhenFired()) {
+            if (!pipelinedAcquisitionUnsupportedLogged) {
+                pipelinedAcquisitionUnsupportedLogged = true;
+                getLog().warn("Pipelined trigger acquisition is not supported by job store {}, "
+                        + "triggers will be acquired after each batch has been fired.",
+                        qsRsrcs.getJobStore().getClass().getName());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Start acquiring the next batch of triggers on the acquisition executor,
+     * so that the job store round trip overlaps with the firing of the batch
+     * the caller is about to fire.  Does nothing if the batch being fired
+     * will use up all of the currently available threads.
+     */
+    private void acquireNextBatchAhead(int availThreadCount) {
+        if (availThreadCount <= 0 || nextBatch != null) {
+            return;
+        }
+        if (acquisitionExecutor == null) {
+            final String name = getName() + "_AcquisitionPipeline";
+            final boolean daemon = isDaemon();
+            acquisitionExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(getThreadGroup(), r, name);
+                t.setDaemon(daemon);
+                t.setContextClassLoader(getContextClassLoader());
+                return t;
+            });
+        }
+
+        final JobStore jobStore = qsRsrcs.getJobStore();
+        final long noLaterThan = System.currentTimeMillis() + idleWaitTime;
+
+        // as with a synchronous acquisition, any change signaled from here on
+        // is checked against the batch we are about to acquire
+        clearSignaledSchedulingChange();
+        nextBatch = acquisitionExecutor.submit(() -> acquireNextTriggers(jobStore, noLaterThan, availThreadCount));
+        getLog().debug("started acquisition of triggers for up to {} threads ahead of time", availThreadCount);
+    }
+
+    /**
+     * Get the result of the acquisition started by
+     * <code>acquireNextBatchAhead</code>, waiting for it if necessary.
+     */
+    private List<OperableTrigger> takeNextBatch() throws JobPersistenceException {
+        Future<List<OperableTrigger>> batch = nextBatch;
+        nextBatch = null;
+
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return batch.get();
+                } catch (InterruptedException e) {
+                    // we must not lose track of the triggers the acquisition
+                    // may have acquired, so wait for it regardless
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JobPersistenceException) {
+                throw (JobPersistenceException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new JobPersistenceException("Unexpected failure acquiring triggers ahead of time: " + cause, cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Release any triggers acquired ahead of time that have not been fired.
+     */
+    private void releaseNextBatch() {
+        if (nextBatch == null) {
+            return;
+        }
+        try {
+            List<OperableTrigger> triggers = takeNextBatch();
+            if (triggers != null) {
+                for (OperableTrigger trigger : triggers) {
+                    qsRsrcs.getJobStore().releaseAcquiredTrigger(trigger);
+                }
+            }
+        } catch (JobPersistenceException | RuntimeException e) {
+            getLog().warn("Failed to release triggers acquired ahead of time.", e);
+        }
+    }
+
     private static final long MIN_DELAY = 20;
     private static final long MAX_DELAY = 600000;
 
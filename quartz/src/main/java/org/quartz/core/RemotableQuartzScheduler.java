@@ -173,6 +173,10 @@ public interface RemotableQuartzScheduler extends Remote {
 
     void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob, boolean replace) throws SchedulerException,RemoteException;
 
+    TriggerKey scheduleTask(JobKey jobKey, long delayMillis, JobDataMap taskData) throws SchedulerException,RemoteException;
+
+    List<TriggerKey> scheduleTasks(JobKey jobKey, long delayMillis, List<JobDataMap> taskData) throws SchedulerException,RemoteException;
+
     boolean unscheduleJobs(List<TriggerKey> triggerKeys) throws SchedulerException,RemoteException;
     
 }
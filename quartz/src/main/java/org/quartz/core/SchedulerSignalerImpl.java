@@ -19,6 +19,9 @@
 
 package org.quartz.core;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.quartz.JobKey;
@@ -46,6 +49,7 @@ public class SchedulerSignalerImpl implements SchedulerSignaler {
 
     protected final QuartzScheduler sched;
     protected final QuartzSchedulerThread schedThread;
+    private final List<QuartzSchedulerThread> schedThreads;
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -56,8 +60,17 @@ public class SchedulerSignalerImpl implements SchedulerSignaler {
      */
 
     public SchedulerSignalerImpl(QuartzScheduler sched, QuartzSchedulerThread schedThread) {
+        this(sched, Collections.singletonList(schedThread));
+    }
+
+    /**
+     * Create a signaler that signals scheduling changes to all of the given
+     * scheduler threads, the first of which is the primary one.
+     */
+    public SchedulerSignalerImpl(QuartzScheduler sched, List<QuartzSchedulerThread> schedThreads) {
         this.sched = sched;
-        this.schedThread = schedThread;
+        this.schedThread = schedThreads.get(0);
+        this.schedThreads = schedThreads;
 
         log.info("Initialized Scheduler Signaller of type: {}", getClass());
     }
@@ -86,7 +99,9 @@ public class SchedulerSignalerImpl implements SchedulerSignaler {
     }
 
     public void signalSchedulingChange(long candidateNewNextFireTime) {
-        schedThread.signalSchedulingChange(candidateNewNextFireTime);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.signalSchedulingChange(candidateNewNextFireTime);
+        }
     }
 
     public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
@@ -52,6 +52,37 @@ public interface QuartzSchedulerMBean {
 
     int getThreadPoolSize();
 
+    boolean isAdaptiveTriggerAcquisition();
+
+    int getTriggerAcquisitionBatchSize();
+
+    long getTriggerAcquisitionTimeWindow();
+
+    long getAverageTriggerAcquisitionTime();
+
+    long getAverageTriggerFireLag();
+
+    /**
+     * @return whether triggers fire later than the fire lag SLO, and low-priority work is being shed
+     */
+    boolean isShedding();
+
+    /**
+     * @return the number of triggers of the latest acquisition that were already later than the fire lag SLO
+     */
+    int getLateTriggerCount();
+
+    /**
+     * @return the executions in flight of each job group with a concurrency limit
+     */
+    Map<String, Integer> getJobGroupExecutionsInFlight() throws Exception;
+
+    /**
+     * @return the executions in flight of each job with a concurrency limit,
+     * by job key (group.name)
+     */
+    Map<String, Integer> getJobExecutionsInFlight() throws Exception;
+
     long getJobsScheduledMostRecentSample();
 
     long getJobsExecutedMostRecentSample();
@@ -88,6 +88,15 @@ public class JTAJobRunShell extends JobRunShell {
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      */
 
+    /**
+     * The <code>UserTransaction</code> is bound to the executing thread, so
+     * <code>AsyncJob</code>s are executed synchronously within it.
+     */
+    @Override
+    protected boolean isAsyncExecutionSupported() {
+        return false;
+    }
+
     @Override
     protected void begin() throws SchedulerException {
         // Don't get a new UserTransaction w/o making sure we cleaned up the old 
@@ -30,6 +30,7 @@ import org.quartz.JobExecutionContext;
 import org.quartz.Scheduler;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.spi.MutableTrigger;
 import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.TriggerFiredBundle;
 
@@ -102,9 +103,41 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
         this.prevFireTime = firedBundle.getPrevFireTime();
         this.nextFireTime = firedBundle.getNextFireTime();
         
-        this.jobDataMap = new JobDataMap();
-        this.jobDataMap.putAll(jobDetail.getJobDataMap());
-        this.jobDataMap.putAll(trigger.getJobDataMap());
+        this.jobDataMap = JobDataMap.mergedView(jobDetail.getJobDataMap(), trigger.getJobDataMap());
+    }
+
+    private JobExecutionContextImpl(JobExecutionContextImpl context) {
+        this.scheduler = context.scheduler;
+        this.trigger = context.trigger instanceof MutableTrigger
+                ? (Trigger) ((MutableTrigger) context.trigger).clone() : context.trigger;
+        this.calendar = context.calendar;
+        this.jobDetail = (JobDetail) context.jobDetail.clone();
+        this.job = context.job;
+        this.recovering = context.recovering;
+        this.numRefires = context.numRefires;
+        this.fireTime = context.fireTime;
+        this.scheduledFireTime = context.scheduledFireTime;
+        this.prevFireTime = context.prevFireTime;
+        this.nextFireTime = context.nextFireTime;
+        this.jobRunTime = context.jobRunTime;
+        this.result = context.result;
+        this.data.putAll(context.data);
+
+        this.jobDataMap = new JobDataMap(context.jobDataMap);
+        if (!context.jobDataMap.isDirty()) {
+            this.jobDataMap.clearDirtyFlag();
+        }
+    }
+
+    /**
+     * Get a copy of this context, as it is now, with copies of its trigger,
+     * job detail and data, for listeners notified once the job has moved on
+     * (see <code>{@link org.quartz.AsyncListener}</code>).
+     *
+     * @since 2.5.1
+     */
+    public JobExecutionContextImpl snapshot() {
+        return new JobExecutionContextImpl(this);
     }
 
     /*
@@ -434,6 +434,14 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
 
+    public TriggerKey scheduleTask(JobKey jobKey, long delayMillis, JobDataMap taskData) throws SchedulerException {
+        throw new SchedulerException("Operation not supported for remote schedulers.");
+    }
+
+    public List<TriggerKey> scheduleTasks(JobKey jobKey, long delayMillis, List<JobDataMap> taskData) throws SchedulerException {
+        throw new SchedulerException("Operation not supported for remote schedulers.");
+    }
+
     public boolean unscheduleJobs(List<TriggerKey> triggerKeys) throws SchedulerException {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
@@ -426,6 +426,24 @@ public class RemoteScheduler implements Scheduler {
         }
     }
 
+    public TriggerKey scheduleTask(JobKey jobKey, long delayMillis, JobDataMap taskData) throws SchedulerException {
+        try {
+            return getRemoteScheduler().scheduleTask(jobKey, delayMillis, taskData);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    public List<TriggerKey> scheduleTasks(JobKey jobKey, long delayMillis, List<JobDataMap> taskData) throws SchedulerException {
+        try {
+            return getRemoteScheduler().scheduleTasks(jobKey, delayMillis, taskData);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
     public boolean unscheduleJobs(List<TriggerKey> triggerKeys)
             throws SchedulerException {
         try {
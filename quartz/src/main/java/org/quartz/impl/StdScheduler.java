@@ -39,6 +39,7 @@ import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.core.QuartzScheduler;
 import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.DirectJobDispatcher;
 import org.quartz.spi.JobFactory;
 
 /**
@@ -53,7 +54,7 @@ import org.quartz.spi.JobFactory;
  *
  * @author James House
  */
-public class StdScheduler implements Scheduler {
+public class StdScheduler implements Scheduler, DirectJobDispatcher {
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -286,6 +287,14 @@ public class StdScheduler implements Scheduler {
     public void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob, boolean replace) throws SchedulerException {
         sched.scheduleJob(jobDetail,  triggersForJob, replace);
     }
+
+    public TriggerKey scheduleTask(JobKey jobKey, long delayMillis, JobDataMap taskData) throws SchedulerException {
+        return sched.scheduleTask(jobKey, delayMillis, taskData);
+    }
+
+    public List<TriggerKey> scheduleTasks(JobKey jobKey, long delayMillis, List<JobDataMap> taskData) throws SchedulerException {
+        return sched.scheduleTasks(jobKey, delayMillis, taskData);
+    }
     
     public boolean unscheduleJobs(List<TriggerKey> triggerKeys)
             throws SchedulerException {
@@ -342,6 +351,16 @@ public class StdScheduler implements Scheduler {
         sched.triggerJob(jobKey, data);
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public boolean dispatchJob(JobKey jobKey, JobDataMap data)
+        throws SchedulerException {
+        return sched.dispatchJob(jobKey, data);
+    }
+
     /**
      * <p>
      * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
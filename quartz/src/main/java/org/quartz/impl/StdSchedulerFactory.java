@@ -24,12 +24,14 @@ import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerException;
 import org.quartz.SchedulerFactory;
 import org.quartz.TriggerListener;
+import org.quartz.core.AsyncListenerDispatcher;
 import org.quartz.core.JobRunShellFactory;
 import org.quartz.core.QuartzScheduler;
 import org.quartz.core.QuartzSchedulerResources;
 import org.quartz.ee.jta.JTAAnnotationAwareJobRunShellFactory;
 import org.quartz.ee.jta.JTAJobRunShellFactory;
 import org.quartz.ee.jta.UserTransactionHelper;
+import org.quartz.impl.jdbcjobstore.ClusterSignaler;
 import org.quartz.impl.jdbcjobstore.JobStoreSupport;
 import org.quartz.impl.jdbcjobstore.Semaphore;
 import org.quartz.impl.jdbcjobstore.TablePrefixAware;
@@ -50,6 +52,7 @@ import org.quartz.utils.JNDIConnectionProvider;
 import org.quartz.utils.C3p0PoolingConnectionProvider;
 import org.quartz.utils.PoolingConnectionProvider;
 import org.quartz.utils.PropertiesParser;
+import org.quartz.utils.ThreadPoolRoutes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,10 +68,15 @@ import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.security.AccessControlException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeSet;
 
 /**
  * <p>
@@ -147,6 +155,28 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_SCHED_MAX_BATCH_SIZE = "org.quartz.scheduler.batchTriggerAcquisitionMaxCount";
 
+    public static final String PROP_SCHED_PIPELINED_TRIGGER_ACQUISITION = "org.quartz.scheduler.batchTriggerAcquisitionPipelined";
+
+    public static final String PROP_SCHED_ADAPTIVE_BATCH = "org.quartz.scheduler.batchTriggerAcquisitionAdaptive";
+
+    public static final String PROP_SCHED_ADAPTIVE_BATCH_MAX_FIRE_LAG = "org.quartz.scheduler.batchTriggerAcquisitionAdaptiveMaxFireLag";
+
+    public static final String PROP_SCHED_FIRE_LAG_SLO = "org.quartz.scheduler.fireLagSlo";
+
+    public static final String PROP_SCHED_FIRE_LAG_SLO_LOOK_AHEAD = "org.quartz.scheduler.fireLagSloLookAhead";
+
+    public static final String PROP_SCHED_FIRE_LAG_SLO_SHED_TRIGGER_GROUPS = "org.quartz.scheduler.fireLagSloShedTriggerGroups";
+
+    public static final String PROP_SCHED_SCHEDULER_THREAD_COUNT = "org.quartz.scheduler.schedulerThreadCount";
+
+    public static final String PROP_SCHED_SCHEDULER_THREAD_PARTITION_BY_GROUP = "org.quartz.scheduler.schedulerThreadPartitionByGroup";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_THREAD_COUNT = "org.quartz.scheduler.asyncListenerThreadCount";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_QUEUE_SIZE = "org.quartz.scheduler.asyncListenerQueueSize";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY = "org.quartz.scheduler.asyncListenerOverflowPolicy";
+
     public static final String PROP_SCHED_JMX_EXPORT = "org.quartz.scheduler.jmx.export";
 
     public static final String PROP_SCHED_JMX_OBJECT_NAME = "org.quartz.scheduler.jmx.objectName";
@@ -197,12 +227,20 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_THREAD_POOL_CLASS = "org.quartz.threadPool.class";
 
+    public static final String PROP_THREAD_POOL_JOB_GROUPS = "jobGroups";
+
+    public static final String PROP_THREAD_POOL_JOBS = "jobs";
+
     public static final String PROP_JOB_STORE_PREFIX = "org.quartz.jobStore";
 
     public static final String PROP_JOB_STORE_LOCK_HANDLER_PREFIX = PROP_JOB_STORE_PREFIX + ".lockHandler";
 
     public static final String PROP_JOB_STORE_LOCK_HANDLER_CLASS = PROP_JOB_STORE_LOCK_HANDLER_PREFIX + ".class";
 
+    public static final String PROP_JOB_STORE_CLUSTER_SIGNALER_PREFIX = PROP_JOB_STORE_PREFIX + ".clusterSignaler";
+
+    public static final String PROP_JOB_STORE_CLUSTER_SIGNALER_CLASS = PROP_JOB_STORE_CLUSTER_SIGNALER_PREFIX + ".class";
+
     public static final String PROP_TABLE_PREFIX = "tablePrefix";
 
     public static final String PROP_SCHED_NAME = "schedName";
@@ -692,6 +730,42 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
         long batchTimeWindow = cfg.getLongProperty(PROP_SCHED_BATCH_TIME_WINDOW, 0L);
         int maxBatchSize = cfg.getIntProperty(PROP_SCHED_MAX_BATCH_SIZE, 1);
+        boolean pipelinedTriggerAcquisition = cfg.getBooleanProperty(PROP_SCHED_PIPELINED_TRIGGER_ACQUISITION, false);
+        boolean adaptiveBatchAcquisition = cfg.getBooleanProperty(PROP_SCHED_ADAPTIVE_BATCH, false);
+        long adaptiveBatchMaxFireLag = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_BATCH_MAX_FIRE_LAG, 1000L);
+        if (adaptiveBatchMaxFireLag < 0) {
+            throw new SchedulerException(PROP_SCHED_ADAPTIVE_BATCH_MAX_FIRE_LAG + " of less than 0 ms is not legal.");
+        }
+        long fireLagSlo = cfg.getLongProperty(PROP_SCHED_FIRE_LAG_SLO, 0L);
+        if (fireLagSlo < 0) {
+            throw new SchedulerException(PROP_SCHED_FIRE_LAG_SLO + " of less than 0 ms is not legal.");
+        }
+        int fireLagSloLookAhead = cfg.getIntProperty(PROP_SCHED_FIRE_LAG_SLO_LOOK_AHEAD, 4);
+        if (fireLagSloLookAhead < 1) {
+            throw new SchedulerException(PROP_SCHED_FIRE_LAG_SLO_LOOK_AHEAD + " of less than 1 is not legal.");
+        }
+        String[] fireLagSloShedTriggerGroups = cfg.getStringArrayProperty(PROP_SCHED_FIRE_LAG_SLO_SHED_TRIGGER_GROUPS, new String[0]);
+        int schedulerThreadCount = cfg.getIntProperty(PROP_SCHED_SCHEDULER_THREAD_COUNT, 1);
+        if (schedulerThreadCount < 1) {
+            throw new SchedulerException(PROP_SCHED_SCHEDULER_THREAD_COUNT + " of less than 1 is not legal.");
+        }
+        boolean partitionTriggersByGroup = cfg.getBooleanProperty(PROP_SCHED_SCHEDULER_THREAD_PARTITION_BY_GROUP, false);
+        int asyncListenerThreadCount = cfg.getIntProperty(PROP_SCHED_ASYNC_LISTENER_THREAD_COUNT, 1);
+        if (asyncListenerThreadCount < 1) {
+            throw new SchedulerException(PROP_SCHED_ASYNC_LISTENER_THREAD_COUNT + " of less than 1 is not legal.");
+        }
+        int asyncListenerQueueSize = cfg.getIntProperty(PROP_SCHED_ASYNC_LISTENER_QUEUE_SIZE, 1000);
+        if (asyncListenerQueueSize < 1) {
+            throw new SchedulerException(PROP_SCHED_ASYNC_LISTENER_QUEUE_SIZE + " of less than 1 is not legal.");
+        }
+        AsyncListenerDispatcher.OverflowPolicy asyncListenerOverflowPolicy;
+        try {
+            asyncListenerOverflowPolicy = AsyncListenerDispatcher.OverflowPolicy.valueOf(
+                    cfg.getStringProperty(PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY, "BLOCK").trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new SchedulerException(PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY + " must be one of "
+                    + Arrays.toString(AsyncListenerDispatcher.OverflowPolicy.values()) + ".");
+        }
 
         boolean interruptJobsOnShutdown = cfg.getBooleanProperty(PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN, false);
         boolean interruptJobsOnShutdownWithWait = cfg.getBooleanProperty(PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN_WITH_WAIT, false);
@@ -854,7 +928,21 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     + tpClass + "' could not be instantiated.", e);
             throw initException;
         }
-        tProps = cfg.getPropertyGroup(PROP_THREAD_POOL_PREFIX, true);
+        // the properties of the named thread pools are grouped under their names
+        TreeSet<String> namedThreadPoolNames = new TreeSet<>();
+        for (String key : cfg.getUnderlyingProperties().stringPropertyNames()) {
+            int dot = key.indexOf('.', PROP_THREAD_POOL_PREFIX.length() + 1);
+            if (key.startsWith(PROP_THREAD_POOL_PREFIX + ".") && dot > 0) {
+                namedThreadPoolNames.add(key.substring(PROP_THREAD_POOL_PREFIX.length() + 1, dot));
+            }
+        }
+        String[] namedThreadPoolPrefixes = new String[namedThreadPoolNames.size()];
+        int namedThreadPoolIndex = 0;
+        for (String name : namedThreadPoolNames) {
+            namedThreadPoolPrefixes[namedThreadPoolIndex++] = PROP_THREAD_POOL_PREFIX + "." + name + ".";
+        }
+
+        tProps = cfg.getPropertyGroup(PROP_THREAD_POOL_PREFIX, true, namedThreadPoolPrefixes);
         try {
             setBeanProps(tp, tProps);
         } catch (Exception e) {
@@ -863,6 +951,46 @@ public class StdSchedulerFactory implements SchedulerFactory {
             throw initException;
         }
 
+        // Get named ThreadPools (bulkheads), and the jobs routed to them
+        // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+        Map<String, ThreadPool> namedThreadPools = new LinkedHashMap<>();
+        Map<String, String> routedJobGroups = new LinkedHashMap<>();
+        Map<String, String> routedJobs = new LinkedHashMap<>();
+        for (String name : namedThreadPoolNames) {
+            String prefix = PROP_THREAD_POOL_PREFIX + "." + name;
+            String namedTpClass = cfg.getStringProperty(prefix + ".class", SimpleThreadPool.class.getName());
+            ThreadPool namedTp;
+            try {
+                namedTp = (ThreadPool) loadHelper.loadClass(namedTpClass).getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                initException = new SchedulerException("ThreadPool class '"
+                        + namedTpClass + "' of thread pool '" + name + "' could not be instantiated.", e);
+                throw initException;
+            }
+            tProps = cfg.getPropertyGroup(prefix, true);
+            routedJobGroups.put(name, (String) tProps.remove(PROP_THREAD_POOL_JOB_GROUPS));
+            routedJobs.put(name, (String) tProps.remove(PROP_THREAD_POOL_JOBS));
+            if (namedTp instanceof SimpleThreadPool && !tProps.containsKey("threadNamePrefix")) {
+                tProps.setProperty("threadNamePrefix", schedName + "_" + name + "_Worker");
+            }
+            try {
+                setBeanProps(namedTp, tProps);
+            } catch (Exception e) {
+                initException = new SchedulerException("ThreadPool class '"
+                        + namedTpClass + "' of thread pool '" + name + "' props could not be configured.", e);
+                throw initException;
+            }
+            namedThreadPools.put(name, namedTp);
+        }
+        ThreadPoolRoutes threadPoolRoutes;
+        try {
+            threadPoolRoutes = new ThreadPoolRoutes(routedJobGroups, routedJobs);
+        } catch (IllegalArgumentException e) {
+            initException = new SchedulerException("Thread pool routes could not be configured: " + e.getMessage(), e);
+            throw initException;
+        }
+
         // Get JobStore Properties
         // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
@@ -885,7 +1013,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
         SchedulerDetailsSetter.setDetails(js, schedName, schedInstId);
 
-        tProps = cfg.getPropertyGroup(PROP_JOB_STORE_PREFIX, true, new String[] {PROP_JOB_STORE_LOCK_HANDLER_PREFIX});
+        tProps = cfg.getPropertyGroup(PROP_JOB_STORE_PREFIX, true, new String[] {PROP_JOB_STORE_LOCK_HANDLER_PREFIX, PROP_JOB_STORE_CLUSTER_SIGNALER_PREFIX});
         try {
             setBeanProps(js, tProps);
         } catch (Exception e) {
@@ -928,6 +1056,31 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     throw initException;
                 }
             }
+
+            // Install cluster scheduling change signaler
+            String clusterSignalerClass = cfg.getStringProperty(PROP_JOB_STORE_CLUSTER_SIGNALER_CLASS);
+            if (clusterSignalerClass != null) {
+                ClusterSignaler clusterSignaler;
+                try {
+                    clusterSignaler = (ClusterSignaler) loadHelper.loadClass(clusterSignalerClass)
+                            .getDeclaredConstructor().newInstance();
+                } catch (Exception e) {
+                    initException = new SchedulerException("JobStore ClusterSignaler class '" + clusterSignalerClass
+                            + "' could not be instantiated.", e);
+                    throw initException;
+                }
+
+                tProps = cfg.getPropertyGroup(PROP_JOB_STORE_CLUSTER_SIGNALER_PREFIX, true);
+                try {
+                    setBeanProps(clusterSignaler, tProps);
+                } catch (Exception e) {
+                    initException = new SchedulerException("JobStore ClusterSignaler class '" + clusterSignalerClass
+                            + "' props could not be configured.", e);
+                    throw initException;
+                }
+
+                ((JobStoreSupport)js).setClusterSignaler(clusterSignaler);
+            }
         }
 
         // Set up any DataSources
@@ -1292,6 +1445,17 @@ public class StdSchedulerFactory implements SchedulerFactory {
             rsrcs.setThreadsInheritInitializersClassLoadContext(threadsInheritInitializersClassLoader);
             rsrcs.setBatchTimeWindow(batchTimeWindow);
             rsrcs.setMaxBatchSize(maxBatchSize);
+            rsrcs.setPipelinedTriggerAcquisition(pipelinedTriggerAcquisition);
+            rsrcs.setAdaptiveBatchAcquisition(adaptiveBatchAcquisition);
+            rsrcs.setAdaptiveBatchMaxFireLag(adaptiveBatchMaxFireLag);
+            rsrcs.setFireLagSlo(fireLagSlo);
+            rsrcs.setFireLagSloLookAhead(fireLagSloLookAhead);
+            rsrcs.setFireLagSloShedTriggerGroups(new HashSet<>(Arrays.asList(fireLagSloShedTriggerGroups)));
+            rsrcs.setSchedulerThreadCount(schedulerThreadCount);
+            rsrcs.setPartitionTriggersByGroup(partitionTriggersByGroup);
+            rsrcs.setAsyncListenerThreadCount(asyncListenerThreadCount);
+            rsrcs.setAsyncListenerQueueSize(asyncListenerQueueSize);
+            rsrcs.setAsyncListenerOverflowPolicy(asyncListenerOverflowPolicy);
             rsrcs.setInterruptJobsOnShutdown(interruptJobsOnShutdown);
             rsrcs.setInterruptJobsOnShutdownWithWait(interruptJobsOnShutdownWithWait);
             rsrcs.setJMXExport(jmxExport);
@@ -1324,6 +1488,16 @@ public class StdSchedulerFactory implements SchedulerFactory {
             }
             tp.initialize();
             tpInited = true;
+
+            for (Map.Entry<String, ThreadPool> namedTp : namedThreadPools.entrySet()) {
+                SchedulerDetailsSetter.setDetails(namedTp.getValue(), schedName, schedInstId);
+                if (namedTp.getValue() instanceof SimpleThreadPool && threadsInheritInitializersClassLoader) {
+                    ((SimpleThreadPool) namedTp.getValue()).setThreadsInheritContextClassLoaderOfInitializingThread(true);
+                }
+                rsrcs.addThreadPool(namedTp.getKey(), namedTp.getValue());
+                namedTp.getValue().initialize();
+            }
+            rsrcs.setThreadPoolRoutes(threadPoolRoutes);
     
             rsrcs.setJobStore(js);
     
@@ -1366,7 +1540,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
     
             js.setInstanceId(schedInstId);
             js.setInstanceName(schedName);
-            js.setThreadPoolSize(tp.getPoolSize());
+            js.setThreadPoolSize(qs.getThreadPoolSize());
             js.initialize(loadHelper, qs.getSchedulerSignaler());
 
             jrsf.initialize(scheduler);
@@ -1388,7 +1562,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
             return scheduler;
         }
         catch(SchedulerException | Error | RuntimeException e) {
-            shutdownFromInstantiateException(tp, qs, tpInited, qsInited);
+            shutdownFromInstantiateException(tp, namedThreadPools.values(), qs, tpInited, qsInited);
             throw e;
         }
     }
@@ -1417,12 +1591,17 @@ public class StdSchedulerFactory implements SchedulerFactory {
         setBeanProps(cp.getDataSource(), copyProps);
     }
 
-    private void shutdownFromInstantiateException(ThreadPool tp, QuartzScheduler qs, boolean tpInited, boolean qsInited) {
+    private void shutdownFromInstantiateException(ThreadPool tp, Collection<ThreadPool> namedTps, QuartzScheduler qs,
+            boolean tpInited, boolean qsInited) {
         try {
             if(qsInited)
                 qs.shutdown(false);
-            else if(tpInited)
+            else if(tpInited) {
                 tp.shutdown(false);
+                for (ThreadPool namedTp : namedTps) {
+                    namedTp.shutdown(false);
+                }
+            }
         } catch (Exception e) {
             getLog().error("Got another exception while shutting down after instantiation exception", e);
         }
@@ -0,0 +1,71 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.SchedulerSignaler;
+
+/**
+ * Tells the other nodes of a cluster when the scheduling data has changed in
+ * a way that may give them an earlier trigger to fire, so that their
+ * scheduler threads don't sleep until their idle wait time runs out before
+ * noticing a trigger that another node scheduled.
+ *
+ * <p>
+ * The <code>{@link JobStoreSupport}</code> calls
+ * <code>{@link #signalSchedulingChange(long)}</code> after committing each
+ * transaction that stored, replaced or resumed triggers.  An implementation
+ * gets the word to the other nodes, each of which passes it on to its own
+ * scheduler through the <code>SchedulerSignaler</code> it was initialized
+ * with.
+ * </p>
+ *
+ * @see TablePollClusterSignaler
+ * @see UdpClusterSignaler
+ */
+public interface ClusterSignaler {
+
+    /**
+     * Called by the <code>JobStoreSupport</code> when it is initialized.
+     *
+     * @param jobStore the job store using this signaler
+     * @param signaler the signaler of the local scheduler, to be told of
+     * changes made by other nodes
+     */
+    void initialize(JobStoreSupport jobStore, SchedulerSignaler signaler) throws SchedulerConfigException;
+
+    /**
+     * Called when the scheduler is started, to start listening for changes
+     * made by other nodes.
+     */
+    void start() throws SchedulerConfigException;
+
+    /**
+     * Tell the other nodes that a trigger may now fire at the given time.
+     * Must not block for long: this is called by scheduling threads.
+     *
+     * @param candidateNewNextFireTime the new next fire time of the stored
+     * trigger, or <code>0</code> if unknown
+     */
+    void signalSchedulingChange(long candidateNewNextFireTime);
+
+    /**
+     * Called when the scheduler is shut down, to release all resources.
+     */
+    void shutdown();
+}
@@ -0,0 +1,126 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.quartz.utils.Key;
+
+/**
+ * Assigns trigger keys (or their groups) to the live instances of a
+ * cluster by consistent hashing: each instance is placed at a number of
+ * points of a hash ring, and a key belongs to the instance at the first
+ * point at or after the key's hash.  When an instance joins or leaves, only
+ * the keys next to its points change owner.
+ *
+ * <p>
+ * Every instance builds the same ring from the same set of instance ids,
+ * so they agree on ownership without talking to each other.
+ * </p>
+ *
+ * @see JobStoreSupport#setClusterOwnership(String)
+ */
+final class ConsistentHashRing {
+
+    static final int POINTS_PER_INSTANCE = 64;
+
+    private final Set<String> instanceIds;
+
+    private final boolean byGroup;
+
+    // sorted hashes of the points, and the instance at each
+    private final long[] points;
+
+    private final String[] owners;
+
+    ConsistentHashRing(Collection<String> instanceIds, boolean byGroup) {
+        if (instanceIds.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one instance.");
+        }
+        this.instanceIds = new TreeSet<>(instanceIds);
+        this.byGroup = byGroup;
+
+        int count = this.instanceIds.size() * POINTS_PER_INSTANCE;
+        long[][] placed = new long[count][];
+        String[] ids = this.instanceIds.toArray(new String[0]);
+        int p = 0;
+        for (int i = 0; i < ids.length; i++) {
+            for (int v = 0; v < POINTS_PER_INSTANCE; v++) {
+                placed[p++] = new long[] {hash(ids[i] + "#" + v), i};
+            }
+        }
+        // ties (practically impossible) are broken by instance id, so all
+        // instances still build the same ring
+        Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        points = new long[count];
+        owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = placed[i][0];
+            owners[i] = ids[(int) placed[i][1]];
+        }
+    }
+
+    Set<String> getInstanceIds() {
+        return instanceIds;
+    }
+
+    int getInstanceCount() {
+        return instanceIds.size();
+    }
+
+    boolean isByGroup() {
+        return byGroup;
+    }
+
+    /**
+     * Get the id of the instance that owns the given trigger key.
+     */
+    String ownerOf(Key<?> key) {
+        long h = hash(byGroup ? key.getGroup() : key.getGroup() + '\u0000' + key.getName());
+        int i = Arrays.binarySearch(points, h);
+        if (i < 0) {
+            i = -i - 1;
+            if (i == points.length) {
+                i = 0;
+            }
+        }
+        return owners[i];
+    }
+
+    /**
+     * A 64 bit FNV-1a hash of the string's characters, with a final mix so
+     * that similar strings (such as the points of one instance) spread over
+     * the whole ring.
+     */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+        return h;
+    }
+}
@@ -192,6 +192,9 @@ public interface Constants {
 
     /** A general blob Trigger type. */
     String TTYPE_BLOB = "BLOB";
+
+    /** Delayed task (one-shot) Trigger type, stored without an extension table. */
+    String TTYPE_TASK = "TASK";
 }
 
 // EOF
@@ -21,6 +21,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.TimeZone;
 
 import org.quartz.CronScheduleBuilder;
@@ -71,10 +73,7 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
         
         try {
             ps = conn.prepareStatement(Util.rtp(INSERT_CRON_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, cronTrigger.getCronExpression());
-            ps.setString(4, cronTrigger.getTimeZone().getID());
+            setInsertParameters(ps, cronTrigger);
 
             return ps.executeUpdate();
         } finally {
@@ -82,6 +81,37 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
         }
     }
 
+    @Override
+    public int insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(Util.rtp(INSERT_CRON_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setInsertParameters(ps, (CronTrigger)trigger);
+                ps.addBatch();
+            }
+
+            return Util.batchCount(ps.executeBatch());
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    @Override
+    public int deleteExtendedTriggerProperties(Connection conn, Collection<TriggerKey> triggerKeys) throws SQLException {
+        return Util.executeUpdateForKeys(conn, Util.rtp(DELETE_CRON_TRIGGERS, tablePrefix, schedNameLiteral), triggerKeys);
+    }
+
+    private void setInsertParameters(PreparedStatement ps, CronTrigger cronTrigger) throws SQLException {
+        ps.setString(1, cronTrigger.getKey().getName());
+        ps.setString(2, cronTrigger.getKey().getGroup());
+        ps.setString(3, cronTrigger.getCronExpression());
+        ps.setString(4, cronTrigger.getTimeZone().getID());
+    }
+
     public TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException {
 
         PreparedStatement ps = null;
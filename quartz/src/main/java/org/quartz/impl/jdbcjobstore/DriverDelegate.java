@@ -21,8 +21,10 @@ package org.quartz.impl.jdbcjobstore;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiPredicate;
 
 import org.quartz.Calendar;
 import org.quartz.Job;
@@ -143,6 +145,28 @@ public interface DriverDelegate {
      */
     boolean hasMisfiredTriggersInState(Connection conn, String state1, 
         long ts, int count, List<TriggerKey> resultList) throws SQLException;
+
+    /**
+     * <p>
+     * Get the names of the triggers in the given states that have misfired -
+     * according to the given timestamp - and that the given filter accepts,
+     * given the keys of the trigger and of its job.  No more than count will
+     * be returned.  The filter is applied to the rows as they are read, for
+     * functions of the keys that the database can't evaluate.
+     * </p>
+     * 
+     * @param conn the DB Connection
+     * @param count the most misfired triggers to return, negative for all
+     * @param resultList Output parameter.  A List of 
+     *      <code>{@link org.quartz.utils.Key}</code> objects.  Must not be null.
+     * @param filter the filter of the triggers, given their key and the key
+     *      of their job
+     *          
+     * @return Whether there are more misfired triggers left to find beyond
+     *         the given count.
+     */
+    boolean hasMisfiredTriggersInState(Connection conn, String state1, 
+        long ts, int count, List<TriggerKey> resultList, BiPredicate<TriggerKey, JobKey> filter) throws SQLException;
     
     /**
      * <p>
@@ -291,6 +315,21 @@ public interface DriverDelegate {
      */
     boolean isJobNonConcurrent(Connection conn, JobKey jobKey) throws SQLException;
 
+    /**
+     * <p>
+     * Check whether the job of the given trigger disallows concurrent
+     * execution and is executing, in one lookup.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * 
+     * @return true if the trigger exists, and its job disallows concurrent
+     *         execution and has a fired trigger in the <code>EXECUTING</code>
+     *         state, false otherwise
+     */
+    boolean isNonConcurrentJobOfTriggerExecuting(Connection conn, TriggerKey triggerKey) throws SQLException;
+
     /**
      * <p>
      * Check whether or not the given job exists.
@@ -969,6 +1008,52 @@ public interface DriverDelegate {
     List<TriggerKey> selectTriggerToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
         throws SQLException;
 
+    /**
+     * <p>
+     * Select the next trigger which will fire to fire between the two given timestamps 
+     * in ascending order of fire time, and then descending by priority, of
+     * those that the given filter accepts, given the keys of the trigger and
+     * of its job.  The filter is applied to the rows as they are read, for
+     * functions of the keys that the database can't evaluate.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param noLaterThan
+     *          highest value of <code>getNextFireTime()</code> of the triggers (exclusive)
+     * @param noEarlierThan 
+     *          highest value of <code>getNextFireTime()</code> of the triggers (inclusive)
+     * @param maxCount 
+     *          maximum number of trigger keys allow to acquired in the returning list.
+     * @param filter
+     *          the filter of the triggers, given their key and the key of their job
+     *          
+     * @return A (never null, possibly empty) list of the identifiers (Key objects) of the next triggers to be fired.
+     */
+    List<TriggerKey> selectTriggerToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount,
+            BiPredicate<TriggerKey, JobKey> filter)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Select the <code>WAITING</code> triggers due to fire no later than the
+     * given time, misfired or not, in ascending order of fire time, and then
+     * descending by priority.
+     * </p>
+     *
+     * @param conn
+     *          the DB Connection
+     * @param noLaterThan
+     *          highest value of <code>getNextFireTime()</code> of the triggers (inclusive)
+     * @param maxCount
+     *          maximum number of triggers to select
+     *
+     * @return A (never null, possibly empty) list of the triggers, to load a
+     *         <code>{@link NearTermTriggerIndex}</code> with.
+     */
+    List<NearTermTriggerIndex.Entry> selectWaitingTriggersToFireBefore(Connection conn, long noLaterThan, int maxCount)
+        throws SQLException;
+
     /**
      * <p>
      * Insert a fired trigger.
@@ -1112,6 +1197,21 @@ public interface DriverDelegate {
      */
     int updateSchedulerState(Connection conn, String instanceId, long checkInTime)
         throws SQLException;
+
+    /**
+     * <p>
+     * Update a scheduler-instance state record, and its check-in interval.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param interval
+     *          the check-in interval, negated while the instance is in
+     *          standby (see <code>{@link SchedulerStateRecord#isAcquiring()}</code>)
+     * @return the number of updated rows.
+     */
+    int updateSchedulerState(Connection conn, String instanceId, long checkInTime, long interval)
+        throws SQLException;
     
     /**
      * <p>
@@ -1129,6 +1229,134 @@ public interface DriverDelegate {
     List<SchedulerStateRecord> selectSchedulerStateRecords(Connection conn, String instanceId)
         throws SQLException;
 
+    /**
+     * <p>
+     * A List of the <code>SchedulerStateRecords</code> of the instances that
+     * last checked in before the given time.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param checkinBefore
+     *          the time (in milliseconds) before which the instances last
+     *          checked in
+     */
+    List<SchedulerStateRecord> selectExpiredSchedulerStateRecords(Connection conn, long checkinBefore)
+        throws SQLException;
+
+    //---------------------------------------------------------------------------
+    // bulk operations
+    //---------------------------------------------------------------------------
+
+    /**
+     * <p>
+     * Select the keys of those of the given jobs that are stored.
+     * </p>
+     */
+    Set<JobKey> selectExistingJobKeys(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Select the keys of those of the given triggers that are stored.
+     * </p>
+     */
+    Set<TriggerKey> selectExistingTriggerKeys(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Select the keys of the triggers of all of the given jobs.
+     * </p>
+     */
+    List<TriggerKey> selectTriggerKeysForJobs(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Select the keys of the jobs of the given triggers.
+     * </p>
+     */
+    Set<JobKey> selectJobKeysForTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Select the keys of those of the given jobs that are not durable and
+     * have no triggers left.
+     * </p>
+     */
+    List<JobKey> selectOrphanedNonDurableJobKeys(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Insert the job detail records of the given jobs, none of which may be
+     * stored yet, in a JDBC batch.
+     * </p>
+     *
+     * @return number of rows inserted
+     */
+    int insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException;
+
+    /**
+     * <p>
+     * Insert the given triggers, none of which may be stored yet, each in
+     * the state and for the job at the same index of the other lists, in a
+     * JDBC batch per table.
+     * </p>
+     *
+     * @return the number of base trigger rows inserted
+     */
+    int insertTriggers(Connection conn, List<OperableTrigger> triggers, List<String> states,
+        List<JobDetail> jobDetails) throws SQLException, IOException;
+
+    /**
+     * <p>
+     * Delete the given triggers, with their extended properties, using set
+     * based deletes.
+     * </p>
+     *
+     * @return the number of base trigger rows deleted
+     */
+    int deleteTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Delete the given triggers of delayed tasks, which have no extended
+     * properties, using set based deletes.
+     * </p>
+     *
+     * @return the number of trigger rows deleted
+     * @see org.quartz.TriggerUtils#isTask(Trigger)
+     */
+    int deleteTasks(Connection conn, Collection<TriggerKey> taskKeys)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Delete the fired trigger records with the given entry ids, using set
+     * based deletes.
+     * </p>
+     *
+     * @return the number of rows deleted
+     */
+    int deleteFiredTriggers(Connection conn, Collection<String> entryIds)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Delete the job detail records of the given jobs, using set based
+     * deletes.
+     * </p>
+     *
+     * @return the number of rows deleted
+     */
+    int deleteJobDetails(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException;
+
     /**
      * Clear (delete!) all scheduling data - all {@link Job}s, {@link Trigger}s
      * {@link Calendar}s.
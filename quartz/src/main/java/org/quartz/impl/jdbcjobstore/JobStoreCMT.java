@@ -142,6 +142,13 @@ public class JobStoreCMT extends JobStoreSupport {
             setUseDBLocks(true);
         }
 
+        if (getNearTermIndexWindow() > 0L) {
+            // the index is kept up to date as transactions complete, and the
+            // container completes most of ours
+            getLog().warn("Ignoring near-term index window, which requires JobStoreTX.");
+            setNearTermIndexWindow(0L);
+        }
+
         super.initialize(loadHelper, signaler);
 
         getLog().info("JobStoreCMT initialized.");
@@ -24,13 +24,20 @@ import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
 
 import org.quartz.Calendar;
 import org.quartz.Job;
@@ -47,6 +54,7 @@ import org.quartz.Trigger;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerUtils;
 import org.quartz.impl.DefaultThreadExecutor;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.impl.matchers.StringMatcher;
@@ -59,7 +67,9 @@ import org.quartz.spi.SchedulerSignaler;
 import org.quartz.spi.ThreadExecutor;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerPartition;
 import org.quartz.utils.DBConnectionManager;
+import org.quartz.utils.JobConcurrencyLimits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,6 +96,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
     protected static final String LOCK_STATE_ACCESS = "STATE_ACCESS";
 
+    public static final String CLUSTER_OWNERSHIP_NONE = "none";
+
+    public static final String CLUSTER_OWNERSHIP_GROUP = "group";
+
+    public static final String CLUSTER_OWNERSHIP_KEY = "key";
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -126,6 +142,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
     private Semaphore lockHandler = null; // set in initialize() method...
 
+    private ClusterSignaler clusterSignaler = null;
+
     private String selectWithLockSQL = null;
 
     private long clusterCheckinInterval = 7500L;
@@ -143,6 +161,51 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     private boolean setTxIsolationLevelSequential = false;
     
     private boolean acquireTriggersWithinLock = false;
+
+    private int triggerLockShardCount = 1;
+
+    private String jobGroupConcurrencyLimits;
+
+    private String jobConcurrencyLimits;
+
+    protected JobConcurrencyLimits concurrencyLimits = JobConcurrencyLimits.NONE;
+
+    // whether triggers were left unacquired since an execution last completed
+    private volatile boolean triggersSkippedForLimits;
+
+    // trigger groups that misfire early while the scheduler sheds their load
+    private volatile Set<String> earlyMisfireTriggerGroups = Collections.emptySet();
+
+    private volatile long earlyMisfireThreshold;
+
+    // how many times as many due triggers as asked for to acquire the
+    // highest-priority ones from, while the scheduler sheds load
+    private volatile int priorityLookAhead = 1;
+
+    // entry ids of the fired trigger records of completed tasks, deleted in bulk
+    private final List<String> completedTaskEntries = new ArrayList<>();
+
+    private String clusterOwnership = CLUSTER_OWNERSHIP_NONE;
+
+    private volatile ConsistentHashRing ownershipRing = null;
+
+    private int lockGroupCommitMaxSize = 1;
+
+    private LockGroupCommitter lockGroupCommitter = null;
+
+    private int bulkStoreCommitSize = 0;
+
+    private long nearTermIndexWindow = 0L;
+
+    private long nearTermIndexRefreshInterval = 10000L;
+
+    private int nearTermIndexMaxSize = 10000;
+
+    private NearTermTriggerIndex nearTermIndex = null;
+
+    protected final ThreadLocal<NearTermTriggerIndex.Changes> nearTermIndexChangesForTxCompletion = new ThreadLocal<>();
+
+    private final AtomicInteger nextTriggerLockShard = new AtomicInteger();
     
     private long dbRetryInterval = 15000L; // 15 secs
     
@@ -427,6 +490,30 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.misfireThreshold = misfireThreshold;
     }
 
+    @Override
+    public void setEarlyMisfireTriggerGroups(Set<String> triggerGroups, long misfireThreshold) {
+        this.earlyMisfireThreshold = misfireThreshold;
+        this.earlyMisfireTriggerGroups = Collections.unmodifiableSet(new HashSet<>(triggerGroups));
+    }
+
+    @Override
+    public void setPriorityLookAhead(int lookAhead) {
+        this.priorityLookAhead = Math.max(1, lookAhead);
+    }
+
+    /**
+     * Whether the given trigger is to misfire now, rather than be acquired,
+     * as the scheduler sheds the load of its group and it is later than the
+     * early misfire threshold.
+     */
+    protected boolean isEarlyMisfire(OperableTrigger trigger) {
+        Date nextFireTime = trigger.getNextFireTime();
+        return nextFireTime != null
+                && earlyMisfireTriggerGroups.contains(trigger.getKey().getGroup())
+                && trigger.getMisfireInstruction() != Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY
+                && nextFireTime.getTime() < System.currentTimeMillis() - earlyMisfireThreshold;
+    }
+
     public boolean isDontSetAutoCommitFalse() {
         return dontSetAutoCommitFalse;
     }
@@ -483,6 +570,230 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.acquireTriggersWithinLock = acquireTriggersWithinLock;
     }
 
+    public int getTriggerLockShardCount() {
+        return triggerLockShardCount;
+    }
+
+    /**
+     * The number of shards that the <code>TRIGGER_ACCESS</code> lock is split
+     * into.  Defaults to 1 (not sharded).
+     *
+     * <p>
+     * When greater than 1, triggers are assigned to shards by the hash of
+     * their job's key, and acquiring, firing, releasing, completing and
+     * misfire handling of triggers only lock the row of the shard
+     * (<code>TRIGGER_ACCESS_0</code> to <code>TRIGGER_ACCESS_N-1</code>)
+     * that the triggers belong to, so that scheduler instances working on
+     * different shards don't wait on each other.  All other operations lock
+     * every shard.  All instances of a cluster must use the same value.
+     * </p>
+     *
+     * @param triggerLockShardCount the number of shards to use
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setTriggerLockShardCount(int triggerLockShardCount) {
+        this.triggerLockShardCount = triggerLockShardCount;
+    }
+
+    public String getJobGroupConcurrencyLimits() {
+        return jobGroupConcurrencyLimits;
+    }
+
+    /**
+     * The most executions of the jobs of each given group that may be
+     * acquired or executing at once, as <code>group=limit</code> pairs
+     * separated by commas.
+     *
+     * <p>
+     * Executions are counted from the fired trigger records, so the limits
+     * hold across the instances of a cluster.  Triggers of a saturated group
+     * are skipped when acquiring, and acquired once one of the group's
+     * executions completes.  When the <code>TRIGGER_ACCESS</code> lock is
+     * sharded, instances acquiring from different shards may together
+     * briefly exceed a limit, but no more executions than the limit start.
+     * </p>
+     *
+     * @see JobConcurrencyLimits
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setJobGroupConcurrencyLimits(String jobGroupConcurrencyLimits) {
+        this.concurrencyLimits = JobConcurrencyLimits.parse(jobGroupConcurrencyLimits, jobConcurrencyLimits);
+        this.jobGroupConcurrencyLimits = jobGroupConcurrencyLimits;
+    }
+
+    public String getJobConcurrencyLimits() {
+        return jobConcurrencyLimits;
+    }
+
+    /**
+     * The most executions of each given job that may be acquired or executing
+     * at once, as <code>group.name=limit</code> pairs separated by commas.
+     *
+     * @see #setJobGroupConcurrencyLimits(String)
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setJobConcurrencyLimits(String jobConcurrencyLimits) {
+        this.concurrencyLimits = JobConcurrencyLimits.parse(jobGroupConcurrencyLimits, jobConcurrencyLimits);
+        this.jobConcurrencyLimits = jobConcurrencyLimits;
+    }
+
+    public String getClusterOwnership() {
+        return clusterOwnership;
+    }
+
+    /**
+     * <p>
+     * Set how the triggers are divided among the instances of a cluster:
+     * <code>"none"</code> (the default) to have every instance acquire any
+     * trigger, or <code>"group"</code> or <code>"key"</code> to have each
+     * trigger acquired only by the live instance that owns its group or key.
+     * </p>
+     *
+     * <p>
+     * Owners are assigned by a consistent hash ring over the instances that
+     * have checked in to the <code>SCHEDULER_STATE</code> table recently and
+     * are not in standby, rebuilt at every check-in, so when an instance
+     * joins, fails, or is put in standby or started again, only the triggers
+     * it gains or owned move.  Until the other instances have seen the change
+     * (within a check-in interval, or the failure detection time) a trigger
+     * may have two owners, which is harmless, or none, which only delays it.
+     * All instances of a cluster must use the same value.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setClusterOwnership(String clusterOwnership) {
+        this.clusterOwnership = clusterOwnership;
+    }
+
+    public int getLockGroupCommitMaxSize() {
+        return lockGroupCommitMaxSize;
+    }
+
+    /**
+     * <p>
+     * Set the largest number of trigger completions and releases that may
+     * share a transaction.  Defaults to 1, which gives each its own.
+     * </p>
+     *
+     * <p>
+     * When greater than 1, worker threads that complete jobs (and other
+     * threads releasing triggers) while another thread of this instance holds
+     * the trigger lock queue up without taking a database connection.  The
+     * first of them then obtains the lock once and does the work of all of
+     * them, up to this number, in a single transaction.  If that transaction
+     * fails, each thread does its own work in its own transaction as before.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setLockGroupCommitMaxSize(int lockGroupCommitMaxSize) {
+        this.lockGroupCommitMaxSize = lockGroupCommitMaxSize;
+    }
+
+    public int getBulkStoreCommitSize() {
+        return bulkStoreCommitSize;
+    }
+
+    /**
+     * <p>
+     * Set the number of triggers after which
+     * <code>{@link #storeJobsAndTriggers(Map, boolean)}</code> commits and
+     * continues in a new transaction.  Defaults to 0, which stores all of
+     * them in one transaction.
+     * </p>
+     *
+     * <p>
+     * Committing large imports in chunks keeps transactions (and the time
+     * the trigger lock is held) short, but the import is no longer atomic:
+     * if it fails, the chunks before the failing one stay stored.  A job is
+     * always stored in the same chunk as its triggers.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setBulkStoreCommitSize(int bulkStoreCommitSize) {
+        this.bulkStoreCommitSize = bulkStoreCommitSize;
+    }
+
+    public long getNearTermIndexWindow() {
+        return nearTermIndexWindow;
+    }
+
+    /**
+     * <p>
+     * Set how far, in milliseconds, beyond the latest fire time an
+     * acquisition asks for this instance keeps the <code>WAITING</code>
+     * triggers in memory, for acquisitions to find their candidates without
+     * querying the triggers table.  Defaults to 0, which queries it on every
+     * acquisition.
+     * </p>
+     *
+     * <p>
+     * The index is kept up to date with the triggers this instance stores,
+     * and loaded again when this instance resumes, releases or unblocks
+     * triggers, and when acquisitions look past its end.
+     * </p>
+     *
+     * @see #setNearTermIndexRefreshInterval(long)
+     * @see NearTermTriggerIndex
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setNearTermIndexWindow(long nearTermIndexWindow) {
+        this.nearTermIndexWindow = nearTermIndexWindow;
+    }
+
+    public long getNearTermIndexRefreshInterval() {
+        return nearTermIndexRefreshInterval;
+    }
+
+    /**
+     * <p>
+     * Set the age, in milliseconds, after which the near-term trigger index
+     * is loaded again.  Defaults to 10 seconds.
+     * </p>
+     *
+     * <p>
+     * Changes made by other instances of a cluster go unnoticed by this one
+     * for at most this long (unless a <code>{@link ClusterSignaler}</code>
+     * tells it of them), so it should be well under the misfire threshold.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setNearTermIndexRefreshInterval(long nearTermIndexRefreshInterval) {
+        this.nearTermIndexRefreshInterval = nearTermIndexRefreshInterval;
+    }
+
+    public int getNearTermIndexMaxSize() {
+        return nearTermIndexMaxSize;
+    }
+
+    /**
+     * <p>
+     * Set the most triggers the near-term trigger index holds.  Defaults to
+     * 10000.  When more are due within the window, the index ends before the
+     * window does, and acquisitions looking past its end query the triggers
+     * table.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setNearTermIndexMaxSize(int nearTermIndexMaxSize) {
+        this.nearTermIndexMaxSize = nearTermIndexMaxSize;
+    }
+
+    /**
+     * Get the in-memory index of the triggers due soon, or <code>null</code>
+     * if acquisitions query the triggers table.
+     */
+    NearTermTriggerIndex getNearTermIndex() {
+        return nearTermIndex;
+    }
+
+    /**
+     * Get the ring that assigns triggers to cluster instances, or
+     * <code>null</code> if every instance may acquire every trigger.
+     */
+    ConsistentHashRing getOwnershipRing() {
+        return ownershipRing;
+    }
+
     
     /**
      * <p>
@@ -679,6 +990,53 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
         }
 
+        if (getTriggerLockShardCount() < 1) {
+            throw new SchedulerConfigException("Trigger lock shard count must be at least 1.");
+        }
+        if (getTriggerLockShardCount() > 1) {
+            getLog().info("Splitting the {} lock into {} shards.", LOCK_TRIGGER_ACCESS, getTriggerLockShardCount());
+            setLockHandler(new ShardedTriggerLockSemaphore(getLockHandler(), LOCK_TRIGGER_ACCESS, getTriggerLockShardCount()));
+        }
+
+        if (!Arrays.asList(CLUSTER_OWNERSHIP_NONE, CLUSTER_OWNERSHIP_GROUP, CLUSTER_OWNERSHIP_KEY)
+                .contains(getClusterOwnership())) {
+            throw new SchedulerConfigException("Cluster ownership must be one of '" + CLUSTER_OWNERSHIP_NONE
+                    + "', '" + CLUSTER_OWNERSHIP_GROUP + "' or '" + CLUSTER_OWNERSHIP_KEY + "'.");
+        }
+        if (!CLUSTER_OWNERSHIP_NONE.equals(getClusterOwnership()) && !isClustered()) {
+            getLog().warn("Ignoring cluster ownership '{}', as the job store isn't clustered.", getClusterOwnership());
+        }
+
+        if (getBulkStoreCommitSize() < 0) {
+            throw new SchedulerConfigException("Bulk store commit size must not be negative.");
+        }
+
+        if (getLockGroupCommitMaxSize() < 1) {
+            throw new SchedulerConfigException("Lock group commit max size must be at least 1.");
+        }
+        if (getLockGroupCommitMaxSize() > 1) {
+            getLog().info("Sharing lock transactions among up to {} trigger completions.", getLockGroupCommitMaxSize());
+            lockGroupCommitter = new LockGroupCommitter(getLockGroupCommitMaxSize(),
+                    (lockName, batch) -> executeInNonManagedTXLock(lockName, batch, null));
+        }
+
+        if (getNearTermIndexWindow() < 0L) {
+            throw new SchedulerConfigException("Near-term index window must not be negative.");
+        }
+        if (getNearTermIndexWindow() > 0L) {
+            try {
+                nearTermIndex = new NearTermTriggerIndex(getNearTermIndexWindow(),
+                        getNearTermIndexRefreshInterval(), getNearTermIndexMaxSize());
+            } catch (IllegalArgumentException e) {
+                throw new SchedulerConfigException(e.getMessage());
+            }
+            getLog().info("Indexing triggers due within {} ms in memory.", getNearTermIndexWindow());
+        }
+
+        if (getClusterSignaler() != null) {
+            getLog().info("Signalling scheduling changes to other nodes with {}.", getClusterSignaler().getClass().getName());
+            getClusterSignaler().initialize(this, nearTermIndex != null ? new NearTermIndexInvalidatingSignaler(signaler) : signaler);
+        }
     }
    
     /**
@@ -704,6 +1062,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         if(initializersLoader != null)
             misfireHandler.setContextClassLoader(initializersLoader);
         misfireHandler.initialize();
+
+        if (getClusterSignaler() != null) {
+            getClusterSignaler().start();
+        }
         schedulerRunning = true;
         
         getLog().debug("JobStore background threads started (as scheduler was started).");
@@ -711,10 +1073,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     
     public void schedulerPaused() {
         schedulerRunning = false;
+        updateOwnershipRing();
     }
     
     public void schedulerResumed() {
         schedulerRunning = true;
+        updateOwnershipRing();
     }
     
     /**
@@ -725,6 +1089,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * </p>
      */
     public void shutdown() {
+        deleteCompletedTasks();
+
         shutdown = true;
         
         if (misfireHandler != null) {
@@ -743,6 +1109,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
         }
 
+        if (getClusterSignaler() != null) {
+            getClusterSignaler().shutdown();
+        }
+
         try {
             DBConnectionManager.getInstance().shutdown(getDataSource());
         } catch (SQLException sqle) {
@@ -756,6 +1126,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return true;
     }
 
+    @Override
+    public boolean isConcurrentExecutionCheckedWhenFired() {
+        return true;
+    }
+
+    @Override
+    public boolean isConcurrencyLimited(JobKey jobKey) {
+        return concurrencyLimits.isLimited(jobKey);
+    }
+
     //---------------------------------------------------------------------------
     // helper methods for subclasses
     //---------------------------------------------------------------------------
@@ -816,6 +1196,33 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return conn;
     }
 
+    /**
+     * Get the shard of the <code>TRIGGER_ACCESS</code> lock that protects the
+     * triggers of the given job, or -1 if the lock isn't sharded.
+     *
+     * @see #setTriggerLockShardCount(int)
+     */
+    protected int getTriggerLockShard(JobKey jobKey) {
+        int shardCount = getTriggerLockShardCount();
+        return shardCount > 1 ? TriggerPartition.partitionOf(jobKey, shardCount, false) : -1;
+    }
+
+    /**
+     * Get the name of the lock protecting the given shard of the
+     * <code>TRIGGER_ACCESS</code> lock, or of the whole lock for shard -1.
+     */
+    protected String getTriggerLockName(int shard) {
+        return shard < 0 ? LOCK_TRIGGER_ACCESS : ShardedTriggerLockSemaphore.shardLockName(LOCK_TRIGGER_ACCESS, shard);
+    }
+
+    /**
+     * Get the name of the lock protecting the given trigger, which is one
+     * shard of the <code>TRIGGER_ACCESS</code> lock if it is sharded.
+     */
+    protected String getTriggerLockName(OperableTrigger trigger) {
+        return getTriggerLockName(getTriggerLockShard(trigger.getJobKey()));
+    }
+
     protected void releaseLock(String lockName, boolean doIt) {
         if (doIt) {
             try {
@@ -852,6 +1259,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      *           if jobs could not be recovered
      */
     protected void recoverJobs(Connection conn) throws JobPersistenceException {
+        invalidateNearTermIndexOnTxCompletion();
         try {
             // update inconsistent job states
             int rows = getDelegate().updateTriggerStatesFromOtherStates(conn,
@@ -940,6 +1348,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     protected RecoverMisfiredJobsResult recoverMisfiredJobs(
         Connection conn, boolean recovering)
         throws JobPersistenceException, SQLException {
+        return recoverMisfiredJobs(conn, recovering, -1);
+    }
+
+    /**
+     * @param shard the trigger lock shard to recover the misfired triggers
+     * of, or -1 to recover them all
+     */
+    protected RecoverMisfiredJobsResult recoverMisfiredJobs(
+        Connection conn, boolean recovering, int shard)
+        throws JobPersistenceException, SQLException {
 
         // If recovering, we want to handle all of the misfired
         // triggers right away.
@@ -950,10 +1368,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         long earliestNewTime = Long.MAX_VALUE;
         // We must still look for the MISFIRED state in case triggers were left 
         // in this state when upgrading to this version that does not support it. 
-        boolean hasMoreMisfiredTriggers =
-            getDelegate().hasMisfiredTriggersInState(
+        boolean hasMoreMisfiredTriggers = shard < 0
+            ? getDelegate().hasMisfiredTriggersInState(
+                conn, STATE_WAITING, getMisfireTime(), 
+                maxMisfiresToHandleAtATime, misfiredTriggers)
+            // the shard can't be evaluated by the database, so the triggers
+            // of other shards are filtered out as they are read
+            : getDelegate().hasMisfiredTriggersInState(
                 conn, STATE_WAITING, getMisfireTime(), 
-                maxMisfiresToHandleAtATime, misfiredTriggers);
+                maxMisfiresToHandleAtATime, misfiredTriggers,
+                (triggerKey, jobKey) -> getTriggerLockShard(jobKey) == shard);
 
         if (hasMoreMisfiredTriggers) {
             getLog().info("Handling the first {} triggers that missed their scheduled fire-time.  More misfired triggers remain to be processed.", misfiredTriggers.size());
@@ -1020,6 +1444,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     }
 
     private void doUpdateOfMisfiredTrigger(Connection conn, OperableTrigger trig, boolean forceState, String newStateIfNotComplete, boolean recovering) throws JobPersistenceException {
+        doUpdateOfMisfiredTrigger(conn, trig, forceState, newStateIfNotComplete, recovering, false);
+    }
+
+    /**
+     * @param shed whether the trigger is to skip the fire times it missed,
+     * as the scheduler sheds the load of its group, rather than apply its
+     * misfire instruction
+     */
+    private void doUpdateOfMisfiredTrigger(Connection conn, OperableTrigger trig, boolean forceState, String newStateIfNotComplete, boolean recovering,
+            boolean shed) throws JobPersistenceException {
         Calendar cal = null;
         if (trig.getCalendarName() != null) {
             cal = retrieveCalendar(conn, trig.getCalendarName());
@@ -1027,7 +1461,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
         schedSignaler.notifyTriggerListenersMisfired(trig);
 
-        trig.updateAfterMisfire(cal);
+        if (shed) {
+            TriggerUtils.skipMissedFireTimes(trig, cal);
+        } else {
+            trig.updateAfterMisfire(cal);
+        }
 
         if (trig.getNextFireTime() == null) {
             storeTrigger(conn, trig,
@@ -1062,6 +1500,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     storeJob(conn, newJob, false);
                     storeTrigger(conn, newTrigger, newJob, false,
                             Constants.STATE_WAITING, false, false);
+                    signalClusterOnTxCompletion(newTrigger);
                 }
             });
     }
@@ -1158,6 +1597,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
                     storeTrigger(conn, newTrigger, null, replaceExisting,
                         STATE_WAITING, false, false);
+                    signalClusterOnTxCompletion(newTrigger);
                 }
             });
     }
@@ -1219,6 +1659,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             } else {
                 getDelegate().insertTrigger(conn, newTrigger, state, job);
             }
+            putInNearTermIndexOnTxCompletion(newTrigger, state);
         } catch (Exception e) {
             throw new JobPersistenceException("Couldn't store trigger '" + newTrigger.getKey() + "' for '" 
                     + newTrigger.getJobKey() + "' job:" + e.getMessage(), e);
@@ -1288,65 +1729,294 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
-                        boolean allFound = true;
-
-                        // FUTURE_TODO: make this more efficient with a true bulk operation...
-                        for (JobKey jobKey : jobKeys)
-                            allFound = removeJob(conn, jobKey) && allFound;
-
-                        return allFound ? Boolean.TRUE : Boolean.FALSE;
+                        return removeJobs(conn, jobKeys) ?
+                                Boolean.TRUE : Boolean.FALSE;
                     }
                 });
     }
 
+    /**
+     * <p>
+     * Remove the given jobs and all of their triggers with a few set based
+     * deletes.
+     * </p>
+     *
+     * @return <code>true</code> if all of the jobs were found and removed
+     */
+    protected boolean removeJobs(Connection conn, List<JobKey> jobKeys)
+        throws JobPersistenceException {
+
+        try {
+            getDelegate().deleteTriggers(conn, getDelegate().selectTriggerKeysForJobs(conn, jobKeys));
+
+            return getDelegate().deleteJobDetails(conn, jobKeys) == jobKeys.size();
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't remove jobs: "
+                    + e.getMessage(), e);
+        }
+    }
+
     public boolean removeTriggers(final List<TriggerKey> triggerKeys)
             throws JobPersistenceException {
         return executeInLock(
                 LOCK_TRIGGER_ACCESS,
-                conn -> {
-                    boolean allFound = true;
+                conn -> removeTriggers(conn, triggerKeys));
+    }
 
-                    // FUTURE_TODO: make this more efficient with a true bulk operation...
-                    for (TriggerKey triggerKey : triggerKeys)
-                        allFound &= removeTrigger(conn, triggerKey);
+    /**
+     * <p>
+     * Remove the given triggers, and the jobs that are left 'orphaned' and
+     * are not 'durable', with a few set based deletes.
+     * </p>
+     *
+     * @return <code>true</code> if all of the triggers were found and removed
+     */
+    protected boolean removeTriggers(Connection conn, List<TriggerKey> triggerKeys)
+        throws JobPersistenceException {
 
-                    return allFound;
-                });
+        try {
+            // this must be called before we delete the triggers, obviously
+            Set<JobKey> jobKeys = getDelegate().selectJobKeysForTriggers(conn, triggerKeys);
+
+            int removed = getDelegate().deleteTriggers(conn, triggerKeys);
+
+            getDelegate().deleteJobDetails(conn, getDelegate().selectOrphanedNonDurableJobKeys(conn, jobKeys));
+
+            return removed == triggerKeys.size();
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't remove triggers: "
+                    + e.getMessage(), e);
+        }
     }
         
     public void storeJobsAndTriggers(
             final Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, final boolean replace)
             throws JobPersistenceException {
 
-        executeInLock(
-                (isLockOnInsert() || replace) ? LOCK_TRIGGER_ACCESS : null,
-                new VoidTransactionCallback() {
-                    public void executeVoid(Connection conn) throws JobPersistenceException {
-                        
-                        // FUTURE_TODO: make this more efficient with a true bulk operation...
-                        for(JobDetail job: triggersAndJobs.keySet()) {
-                            storeJob(conn, job, replace);
-                            for(Trigger trigger: triggersAndJobs.get(job)) {
-                                storeTrigger(conn, (OperableTrigger) trigger, job, replace,
-                                        Constants.STATE_WAITING, false, false);
-                            }
+        for (final Map<JobDetail, Set<? extends Trigger>> chunk : splitForCommits(triggersAndJobs)) {
+            executeInLock(
+                    (isLockOnInsert() || replace) ? LOCK_TRIGGER_ACCESS : null,
+                    new VoidTransactionCallback() {
+                        public void executeVoid(Connection conn) throws JobPersistenceException {
+                            storeJobsAndTriggers(conn, chunk, replace);
                         }
-                    }
-                });
-    }    
-    
+                    });
+        }
+    }
+
     /**
-     * Delete a job and its listeners.
-     * 
-     * @see #removeJob(java.sql.Connection, org.quartz.JobKey)
-     * @see #removeTrigger(Connection, TriggerKey)
+     * Split the jobs to store into chunks of about
+     * <code>{@link #getBulkStoreCommitSize()}</code> triggers, each to be
+     * stored in its own transaction.
      */
-    private boolean deleteJobAndChildren(Connection conn, JobKey key)
-        throws NoSuchDelegateException, SQLException {
+    private List<Map<JobDetail, Set<? extends Trigger>>> splitForCommits(
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs) {
+        int commitSize = getBulkStoreCommitSize();
+        if (commitSize == 0) {
+            return Collections.singletonList(triggersAndJobs);
+        }
 
-        return (getDelegate().deleteJobDetail(conn, key) > 0);
+        List<Map<JobDetail, Set<? extends Trigger>>> chunks = new ArrayList<>();
+        Map<JobDetail, Set<? extends Trigger>> chunk = new LinkedHashMap<>();
+        int triggerCount = 0;
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : triggersAndJobs.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            triggerCount += (entry.getValue() == null) ? 0 : entry.getValue().size();
+            if (triggerCount >= commitSize) {
+                chunks.add(chunk);
+                chunk = new LinkedHashMap<>();
+                triggerCount = 0;
+            }
+        }
+        if (!chunk.isEmpty() || chunks.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
     }
-    
+
+    /**
+     * <p>
+     * Store the given jobs and their triggers.  Those that don't exist yet
+     * are found with a few set based queries and inserted in JDBC batches,
+     * rather than one at a time; those that do exist are replaced (if
+     * allowed) one at a time.
+     * </p>
+     *
+     * <p>
+     * Triggers stored with a <code>null</code> job are for jobs that are
+     * already stored.
+     * </p>
+     */
+    protected void storeJobsAndTriggers(Connection conn,
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, boolean replace)
+        throws JobPersistenceException {
+
+        // jobs by key, and each trigger with its job (later ones of the
+        // same key win, as they would replace the earlier ones)
+        Map<JobKey, JobDetail> jobs = new LinkedHashMap<>();
+        Map<TriggerKey, OperableTrigger> triggers = new LinkedHashMap<>();
+        Map<TriggerKey, JobDetail> triggerJobs = new HashMap<>();
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : triggersAndJobs.entrySet()) {
+            JobDetail job = entry.getKey();
+            if (job != null && jobs.put(job.getKey(), job) != null && !replace) {
+                throw new ObjectAlreadyExistsException(job);
+            }
+            if (entry.getValue() == null) {
+                continue;
+            }
+            for (Trigger trigger : entry.getValue()) {
+                if (triggers.put(trigger.getKey(), (OperableTrigger) trigger) != null && !replace) {
+                    throw new ObjectAlreadyExistsException(trigger);
+                }
+                triggerJobs.put(trigger.getKey(), job);
+            }
+        }
+
+        try {
+            Set<JobKey> existingJobs = getDelegate().selectExistingJobKeys(conn, jobs.keySet());
+            Set<TriggerKey> existingTriggers = getDelegate().selectExistingTriggerKeys(conn, triggers.keySet());
+            if (!replace && !existingJobs.isEmpty()) {
+                throw new ObjectAlreadyExistsException(jobs.get(existingJobs.iterator().next()));
+            }
+            if (!replace && !existingTriggers.isEmpty()) {
+                throw new ObjectAlreadyExistsException(triggers.get(existingTriggers.iterator().next()));
+            }
+
+            List<JobDetail> newJobs = new ArrayList<>(jobs.size() - existingJobs.size());
+            for (JobDetail job : jobs.values()) {
+                if (existingJobs.contains(job.getKey())) {
+                    storeJob(conn, job, true);
+                } else {
+                    newJobs.add(job);
+                }
+            }
+            if (getDelegate().insertJobDetails(conn, newJobs) < newJobs.size()) {
+                throw new JobPersistenceException("Couldn't store jobs. Insert failed.");
+            }
+
+            // read the paused groups once, rather than twice per trigger
+            Set<String> pausedGroups = getDelegate().selectPausedTriggerGroups(conn);
+            boolean allGroupsPaused = pausedGroups.contains(ALL_GROUPS_PAUSED);
+
+            List<OperableTrigger> newTriggers = new ArrayList<>(triggers.size() - existingTriggers.size());
+            List<String> newStates = new ArrayList<>(triggers.size() - existingTriggers.size());
+            List<JobDetail> newTriggerJobs = new ArrayList<>(triggers.size() - existingTriggers.size());
+            for (OperableTrigger trigger : triggers.values()) {
+                JobDetail job = triggerJobs.get(trigger.getKey());
+                if (existingTriggers.contains(trigger.getKey())) {
+                    storeTrigger(conn, trigger, job, true, STATE_WAITING, false, false);
+                    signalClusterOnTxCompletion(trigger);
+                    continue;
+                }
+
+                String group = trigger.getKey().getGroup();
+                String state = STATE_WAITING;
+                if (pausedGroups.contains(group)) {
+                    state = STATE_PAUSED;
+                } else if (allGroupsPaused) {
+                    getDelegate().insertPausedTriggerGroup(conn, group);
+                    pausedGroups.add(group);
+                    state = STATE_PAUSED;
+                }
+
+                if (job == null) {
+                    job = retrieveJob(conn, trigger.getJobKey());
+                    if (job == null) {
+                        throw new JobPersistenceException("The job ("
+                                + trigger.getJobKey()
+                                + ") referenced by the trigger does not exist.");
+                    }
+                }
+                // only a job that was stored before can be executing
+                if (job.isConcurrentExecutionDisallowed()
+                        && (!jobs.containsKey(job.getKey()) || existingJobs.contains(job.getKey()))) {
+                    state = checkBlockedState(conn, job.getKey(), state);
+                }
+
+                newTriggers.add(trigger);
+                newStates.add(state);
+                newTriggerJobs.add(job);
+                signalClusterOnTxCompletion(trigger);
+                putInNearTermIndexOnTxCompletion(trigger, state);
+            }
+            getDelegate().insertTriggers(conn, newTriggers, newStates, newTriggerJobs);
+        } catch (IOException | SQLException e) {
+            throw new JobPersistenceException("Couldn't store jobs and triggers: "
+                    + e.getMessage(), e);
+        }
+    }    
+    
+    /**
+     * <p>
+     * Store the given triggers of delayed tasks in the triggers table alone,
+     * in a JDBC batch.  Rather than the checks of <code>storeTrigger</code>
+     * for each of them, their jobs are checked with a single query, and the
+     * paused groups read once: a task has no existing trigger to replace,
+     * and is blocked when acquired if its job is executing.
+     * </p>
+     *
+     * @see TaskTriggerPersistenceDelegate
+     */
+    @Override
+    public void storeTasks(final List<OperableTrigger> tasks) throws JobPersistenceException {
+        executeInLock(
+            (isLockOnInsert()) ? LOCK_TRIGGER_ACCESS : null,
+            new VoidTransactionCallback() {
+                public void executeVoid(Connection conn) throws JobPersistenceException {
+                    storeTasks(conn, tasks);
+                }
+            });
+    }
+
+    protected void storeTasks(Connection conn, List<OperableTrigger> tasks)
+        throws JobPersistenceException {
+        Set<JobKey> jobKeys = new HashSet<>();
+        for (OperableTrigger task : tasks) {
+            jobKeys.add(task.getJobKey());
+        }
+
+        try {
+            Set<JobKey> existingJobs = getDelegate().selectExistingJobKeys(conn, jobKeys);
+            for (JobKey jobKey : jobKeys) {
+                if (!existingJobs.contains(jobKey)) {
+                    throw new JobPersistenceException("The job ("
+                            + jobKey + ") referenced by the task does not exist.");
+                }
+            }
+
+            String state = STATE_WAITING;
+            Set<String> pausedGroups = getDelegate().selectPausedTriggerGroups(conn);
+            if (pausedGroups.contains(Scheduler.DEFAULT_TASK_GROUP)) {
+                state = STATE_PAUSED;
+            } else if (pausedGroups.contains(ALL_GROUPS_PAUSED)) {
+                getDelegate().insertPausedTriggerGroup(conn, Scheduler.DEFAULT_TASK_GROUP);
+                state = STATE_PAUSED;
+            }
+
+            getDelegate().insertTriggers(conn, tasks, Collections.nCopies(tasks.size(), state),
+                    Collections.<JobDetail>nCopies(tasks.size(), null));
+            for (OperableTrigger task : tasks) {
+                signalClusterOnTxCompletion(task);
+                putInNearTermIndexOnTxCompletion(task, state);
+            }
+        } catch (IOException | SQLException e) {
+            throw new JobPersistenceException("Couldn't store tasks: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete a job and its listeners.
+     * 
+     * @see #removeJob(java.sql.Connection, org.quartz.JobKey)
+     * @see #removeTrigger(Connection, TriggerKey)
+     */
+    private boolean deleteJobAndChildren(Connection conn, JobKey key)
+        throws NoSuchDelegateException, SQLException {
+
+        return (getDelegate().deleteJobDetail(conn, key) > 0);
+    }
+    
     /**
      * Delete a trigger, its listeners, and its Simple/Cron/BLOB sub-table entry.
      * 
@@ -1487,6 +2157,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 deleteTriggerAndChildren(conn, key);
             
             storeTrigger(conn, newTrigger, job, false, STATE_WAITING, false, false);
+            signalClusterOnTxCompletion(newTrigger);
 
             return removedTrigger;
         } catch (ClassNotFoundException | SQLException e) {
@@ -1561,6 +2232,14 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     return TriggerState.ERROR;
                 case STATE_BLOCKED:
                     return TriggerState.BLOCKED;
+                case STATE_WAITING: {
+                    // waiting triggers of an executing job are only blocked
+                    // once they come up for acquisition
+                    if (getDelegate().isNonConcurrentJobOfTriggerExecuting(conn, key)) {
+                        return TriggerState.BLOCKED;
+                    }
+                    break;
+                }
             }
 
             return TriggerState.NORMAL;
@@ -1604,6 +2283,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
 
             getDelegate().updateTriggerStateFromOtherState(conn, triggerKey, newState, STATE_ERROR);
+            invalidateNearTermIndexOnTxCompletion();
 
             getLog().info("Trigger {} reset from ERROR state to: {}", triggerKey, newState);
         } catch (SQLException e) {
@@ -2249,6 +2929,124 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
     }
 
+    /**
+     * Determines whether the given job, which disallows concurrent execution,
+     * is executing.  Its other triggers aren't all blocked when it starts
+     * executing: instead each of them is blocked when it comes up for
+     * acquisition while the job is executing, and released again when the
+     * job completes.
+     */
+    protected boolean isNonConcurrentJobExecuting(Connection conn, JobKey jobKey)
+        throws JobPersistenceException {
+        try {
+            for (FiredTriggerRecord rec : getDelegate().selectFiredTriggerRecordsByJob(conn,
+                    jobKey.getName(), jobKey.getGroup())) {
+                if (STATE_EXECUTING.equals(rec.getFireInstanceState())
+                        && rec.isJobDisallowsConcurrentExecution()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new JobPersistenceException(
+                "Couldn't determine if job '" + jobKey + "' is executing: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Determines whether another execution of the given job is within the
+     * concurrency limits of its group and itself.
+     *
+     * @param inFlight the executions in flight (acquired or executing) known
+     * so far, to which those recorded in the fired triggers table are added for
+     * the groups and jobs not yet counted, or <code>null</code> to count only
+     * the executing ones
+     */
+    protected boolean admitsExecution(Connection conn, JobKey jobKey, JobConcurrencyLimits.Counts inFlight)
+        throws JobPersistenceException {
+        boolean executingOnly = inFlight == null;
+        if (executingOnly) {
+            inFlight = new JobConcurrencyLimits.Counts();
+        }
+        try {
+            if (!inFlight.hasGroupCount(jobKey.getGroup())
+                    && concurrencyLimits.getGroupLimits().containsKey(jobKey.getGroup())) {
+                inFlight.setGroupCount(jobKey.getGroup(), countFiredTriggers(
+                        getDelegate().selectFiredTriggerRecordsByJob(conn, null, jobKey.getGroup()), executingOnly));
+            }
+            if (!inFlight.hasJobCount(jobKey) && concurrencyLimits.getJobLimits().containsKey(jobKey)) {
+                inFlight.setJobCount(jobKey, countFiredTriggers(
+                        getDelegate().selectFiredTriggerRecordsByJob(conn, jobKey.getName(), jobKey.getGroup()), executingOnly));
+            }
+        } catch (SQLException e) {
+            throw new JobPersistenceException(
+                "Couldn't count executions of job '" + jobKey + "': " + e.getMessage(), e);
+        }
+        return concurrencyLimits.admits(jobKey, inFlight);
+    }
+
+    private static int countFiredTriggers(List<FiredTriggerRecord> records, boolean executingOnly) {
+        if (!executingOnly) {
+            return records.size();
+        }
+        int count = 0;
+        for (FiredTriggerRecord rec : records) {
+            if (STATE_EXECUTING.equals(rec.getFireInstanceState())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the executions in flight (acquired or executing, on any instance)
+     * of the jobs of each group that has a concurrency limit.
+     */
+    @Override
+    public Map<String, Integer> getJobGroupExecutionsInFlight() throws JobPersistenceException {
+        return executeWithoutLock(
+            new TransactionCallback<Map<String, Integer>>() {
+                public Map<String, Integer> execute(Connection conn) throws JobPersistenceException {
+                    try {
+                        Map<String, Integer> result = new HashMap<>();
+                        for (String group : concurrencyLimits.getGroupLimits().keySet()) {
+                            result.put(group, getDelegate().selectFiredTriggerRecordsByJob(conn, null, group).size());
+                        }
+                        return result;
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException(
+                            "Couldn't count executions in flight: " + e.getMessage(), e);
+                    }
+                }
+            });
+    }
+
+    /**
+     * Get the executions in flight (acquired or executing, on any instance)
+     * of each job that has a concurrency limit, by job key
+     * (<code>group.name</code>).
+     */
+    @Override
+    public Map<String, Integer> getJobExecutionsInFlight() throws JobPersistenceException {
+        return executeWithoutLock(
+            new TransactionCallback<Map<String, Integer>>() {
+                public Map<String, Integer> execute(Connection conn) throws JobPersistenceException {
+                    try {
+                        Map<String, Integer> result = new HashMap<>();
+                        for (JobKey jobKey : concurrencyLimits.getJobLimits().keySet()) {
+                            result.put(jobKey.toString(), getDelegate().selectFiredTriggerRecordsByJob(conn,
+                                    jobKey.getName(), jobKey.getGroup()).size());
+                        }
+                        return result;
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException(
+                            "Couldn't count executions in flight: " + e.getMessage(), e);
+                    }
+                }
+            });
+    }
+
     /**
      * <p>
      * Resume (un-pause) the <code>{@link org.quartz.Trigger}</code> with the
@@ -2296,6 +3094,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             if (status == null || status.getNextFireTime() == null) {
                 return;
             }
+            invalidateNearTermIndexOnTxCompletion();
 
             boolean blocked = STATE_PAUSED_BLOCKED.equals(status.getStatus());
 
@@ -2318,6 +3117,9 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 }
             } 
 
+            // the misfire instruction may have moved the fire time
+            signalClusterOnTxCompletion(misfired ? 0L : status.getNextFireTime().getTime());
+
         } catch (SQLException e) {
             throw new JobPersistenceException("Couldn't resume trigger '"
                     + key + "': " + e.getMessage(), e);
@@ -2689,9 +3491,29 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * 
      * @see #releaseAcquiredTrigger(OperableTrigger)
      */
-    @SuppressWarnings("unchecked")
     public List<OperableTrigger> acquireNextTriggers(final long noLaterThan, final int maxCount, final long timeWindow)
         throws JobPersistenceException {
+        return acquireNextTriggers(noLaterThan, maxCount, timeWindow, null);
+    }
+
+    /**
+     * <p>
+     * Get a handle to the next N triggers of the given partition to be fired,
+     * and mark them as 'reserved' by the calling scheduler thread.
+     * </p>
+     *
+     * @see #releaseAcquiredTrigger(OperableTrigger)
+     */
+    @Override
+    public List<OperableTrigger> acquireNextTriggers(final long noLaterThan, final int maxCount, final long timeWindow,
+            final TriggerPartition partition)
+        throws JobPersistenceException {
+
+        deleteCompletedTasks();
+
+        if (getTriggerLockShardCount() > 1) {
+            return acquireNextTriggersFromShards(noLaterThan, maxCount, timeWindow, partition);
+        }
         
         String lockName;
         if(isAcquireTriggersWithinLock() || maxCount > 1) { 
@@ -2699,8 +3521,95 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         } else {
             lockName = null;
         }
+        return acquireNextTriggersInLock(lockName, noLaterThan, maxCount, timeWindow, partition, -1, -1L);
+    }
+
+    /**
+     * Acquire the next triggers from the shards of the trigger lock that the
+     * next triggers to fire belong to, found without taking any lock: from
+     * each in turn, holding only that shard's lock, in order of their next
+     * trigger, and as many as the shard has of those next triggers.  The
+     * shards after the first join the batch that it started.  Other shards
+     * are only tried if none of those triggers can be acquired (they were
+     * acquired by another instance meanwhile, say).
+     */
+    private List<OperableTrigger> acquireNextTriggersFromShards(long noLaterThan, int maxCount, long timeWindow,
+            TriggerPartition partition)
+        throws JobPersistenceException {
+
+        Map<Integer, Integer> dueCounts = getShardsOfNextTriggersToAcquire(noLaterThan + timeWindow, maxCount, partition);
+        if (dueCounts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> shards = new ArrayList<>(dueCounts.keySet());
+        int shardCount = getTriggerLockShardCount();
+        for (int i = 1; i < shardCount; i++) {
+            int shard = (shards.get(0) + i) % shardCount;
+            if (!dueCounts.containsKey(shard)) {
+                shards.add(shard);
+            }
+        }
+        boolean withinLock = isAcquireTriggersWithinLock() || maxCount > 1;
+        List<OperableTrigger> acquired = new ArrayList<>();
+        long batchEnd = -1L;
+        int shardsAcquiredFrom = 0;
+        for (int shard : shards) {
+            Integer dueCount = dueCounts.get(shard);
+            if (dueCount == null && !acquired.isEmpty()) {
+                break;
+            }
+            int count = dueCount != null ? dueCount : maxCount;
+            String lockName = withinLock ? getTriggerLockName(shard) : null;
+            List<OperableTrigger> shardTriggers = acquired.isEmpty()
+                    ? acquireNextTriggersInLock(lockName, noLaterThan, count, timeWindow, partition, shard, -1L)
+                    : acquireNextTriggersInLock(lockName, batchEnd, count, 0L, partition, shard, batchEnd);
+            if (shardTriggers.isEmpty()) {
+                continue;
+            }
+            if (acquired.isEmpty()) {
+                batchEnd = Math.max(shardTriggers.get(0).getNextFireTime().getTime(), System.currentTimeMillis()) + timeWindow;
+            }
+            acquired.addAll(shardTriggers);
+            shardsAcquiredFrom++;
+        }
+        if (shardsAcquiredFrom > 1) {
+            acquired.sort(new Trigger.TriggerTimeComparator());
+        }
+        return acquired;
+    }
+
+    /**
+     * Get the trigger lock shards of the next triggers to acquire of the
+     * given partition, in order of their next trigger, with the number of
+     * those triggers each has, without taking any lock.
+     */
+    private Map<Integer, Integer> getShardsOfNextTriggersToAcquire(long noLaterThan, int maxCount, TriggerPartition partition)
+        throws JobPersistenceException {
+        BiPredicate<TriggerKey, JobKey> candidateFilter = getCandidateFilter(partition, -1);
+        Map<Integer, Integer> dueCounts = new LinkedHashMap<>();
+        executeWithoutLock(conn -> {
+            try {
+                return selectTriggersToAcquire(conn, noLaterThan, getMisfireTime(), maxCount, (triggerKey, jobKey) -> {
+                    if (candidateFilter != null && !candidateFilter.test(triggerKey, jobKey)) {
+                        return false;
+                    }
+                    dueCounts.merge(getTriggerLockShard(jobKey), 1, Integer::sum);
+                    return true;
+                });
+            } catch (SQLException e) {
+                throw new JobPersistenceException(
+                        "Couldn't select the next triggers to acquire: " + e.getMessage(), e);
+            }
+        });
+        return dueCounts;
+    }
+
+    private List<OperableTrigger> acquireNextTriggersInLock(String lockName, final long noLaterThan, final int maxCount,
+            final long timeWindow, final TriggerPartition partition, final int shard, final long batchEnd)
+        throws JobPersistenceException {
         return executeInNonManagedTXLock(lockName,
-                conn -> acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow),
+                conn -> acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow, partition, shard, batchEnd),
                 (conn, result) -> {
                     try {
                         List<FiredTriggerRecord> acquired = getDelegate().selectInstancesFiredTriggerRecords(conn, getInstanceId());
@@ -2724,29 +3633,85 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     // so that the fireInstanceId doesn't have to be on the trigger...
     protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow)
         throws JobPersistenceException {
+        return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow, null, -1);
+    }
+
+    /**
+     * @param partition the partition of triggers to acquire from, or <code>null</code>
+     * @param shard the trigger lock shard to acquire from, or -1 if the trigger lock isn't sharded
+     */
+    protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow,
+            TriggerPartition partition, int shard)
+        throws JobPersistenceException {
+        return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow, partition, shard, -1L);
+    }
+
+    /**
+     * @param batchEnd the end of the batch that the acquired triggers join,
+     * acquired from other shards already, or -1 to start a batch at the first
+     * trigger acquired
+     */
+    private List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow,
+            TriggerPartition partition, int shard, long batchEnd)
+        throws JobPersistenceException {
         if (timeWindow < 0) {
           throw new IllegalArgumentException();
         }
         
         List<OperableTrigger> acquiredTriggers = new ArrayList<>();
         Set<JobKey> acquiredJobKeysForNoConcurrentExec = new HashSet<>();
+        Set<JobKey> executingJobKeysForNoConcurrentExec = new HashSet<>();
+        JobConcurrencyLimits.Counts executionsInFlight = new JobConcurrencyLimits.Counts();
+        // Only the candidates of the partition and shard, that this instance
+        // owns, are selected.  Those skipped (for concurrency limits, say) stay
+        // waiting and are selected again, so while the batch isn't full and
+        // there may be more candidates, the next selection looks past twice
+        // as many.
+        // While the scheduler sheds load, the candidates are looked ahead at
+        // further, and acquired in order of priority.
+        BiPredicate<TriggerKey, JobKey> candidateFilter = getCandidateFilter(partition, shard);
+        boolean byPriority = priorityLookAhead > 1;
+        int candidateCount = byPriority ? (int) Math.min(Integer.MAX_VALUE, (long) maxCount * priorityLookAhead) : maxCount;
+        boolean batchStarted = batchEnd >= 0;
+        if (!batchStarted) {
+            batchEnd = noLaterThan;
+        }
         final int MAX_DO_LOOP_RETRY = 3;
         int currentLoopCount = 0;
         do {
             currentLoopCount ++;
             try {
-                List<TriggerKey> keys = getDelegate().selectTriggerToAcquire(conn, noLaterThan + timeWindow, getMisfireTime(), maxCount);
+                List<TriggerKey> keys = selectTriggersToAcquire(conn, noLaterThan + timeWindow, getMisfireTime(),
+                        candidateCount, candidateFilter);
                 
                 // No trigger is ready to fire yet.
                 if (keys == null || keys.isEmpty())
                     return acquiredTriggers;
 
-                long batchEnd = noLaterThan;
+                boolean moreCandidates = keys.size() >= candidateCount;
+                boolean candidatesSkipped = false;
+                Map<TriggerKey, OperableTrigger> candidates = byPriority ? retrieveByPriority(conn, keys) : null;
+
+                for(TriggerKey triggerKey: candidates != null ? candidates.keySet() : keys) {
+                    if (acquiredTriggers.size() >= maxCount) {
+                        break;
+                    }
 
-                for(TriggerKey triggerKey: keys) {
                     // If our trigger is no longer available, try a new one.
-                    OperableTrigger nextTrigger = retrieveTrigger(conn, triggerKey);
+                    OperableTrigger nextTrigger = candidates != null ? candidates.get(triggerKey)
+                            : retrieveTrigger(conn, triggerKey);
                     if(nextTrigger == null) {
+                        removeFromNearTermIndexOnTxCompletion(triggerKey);
+                        candidatesSkipped = true;
+                        continue; // next trigger
+                    }
+
+                    // While the scheduler sheds the load of the trigger's group,
+                    // it skips the fire times it missed once later than the
+                    // early misfire threshold.
+                    if (isEarlyMisfire(nextTrigger)) {
+                        doUpdateOfMisfiredTrigger(conn, nextTrigger, false, STATE_WAITING, false, true);
+                        candidatesSkipped = true;
                         continue; // next trigger
                     }
                     
@@ -2767,7 +3732,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     }
                     
                     if (job.isConcurrentExecutionDisallowed()) {
+                        // If the job is executing, block the trigger until the job completes.
+                        if (executingJobKeysForNoConcurrentExec.contains(jobKey)
+                                || isNonConcurrentJobExecuting(conn, jobKey)) {
+                            executingJobKeysForNoConcurrentExec.add(jobKey);
+                            getDelegate().updateTriggerStateFromOtherState(conn, triggerKey, STATE_BLOCKED, STATE_WAITING);
+                            removeFromNearTermIndexOnTxCompletion(triggerKey);
+                            continue; // next trigger
+                        }
                         if (acquiredJobKeysForNoConcurrentExec.contains(jobKey)) {
+                            candidatesSkipped = true;
                             continue; // next trigger
                         } else {
                             acquiredJobKeysForNoConcurrentExec.add(jobKey);
@@ -2788,26 +3762,72 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     }
                     
                     if (nextFireTime.getTime() > batchEnd) {
+                      // a stale index entry isn't in order of fire time
+                      if (nearTermIndex != null && nearTermIndex.getNextFireTime(triggerKey) >= 0L
+                              && nearTermIndex.getNextFireTime(triggerKey) != nextFireTime.getTime()) {
+                          nearTermIndex.correct(new NearTermTriggerIndex.Entry(triggerKey, jobKey, nextFireTime.getTime(),
+                                  nextTrigger.getPriority(), nextTrigger.getMisfireInstruction()));
+                          if (job.isConcurrentExecutionDisallowed()) {
+                              acquiredJobKeysForNoConcurrentExec.remove(jobKey);
+                          }
+                          candidatesSkipped = true;
+                          continue;
+                      }
+                      moreCandidates = false;
+                      // candidates in order of priority may still be due
+                      if (candidates != null) {
+                          if (job.isConcurrentExecutionDisallowed()) {
+                              acquiredJobKeysForNoConcurrentExec.remove(jobKey);
+                          }
+                          continue;
+                      }
                       break;
                     }
+
+                    // Leave the triggers of saturated groups and jobs to later acquisitions.
+                    boolean limited = concurrencyLimits.isLimited(jobKey);
+                    if (limited && !admitsExecution(conn, jobKey, executionsInFlight)) {
+                        triggersSkippedForLimits = true;
+                        candidatesSkipped = true;
+                        if (job.isConcurrentExecutionDisallowed()) {
+                            acquiredJobKeysForNoConcurrentExec.remove(jobKey);
+                        }
+                        continue; // next trigger
+                    }
+
                     // We now have a acquired trigger, let's add to return list.
                     // If our trigger was no longer in the expected state, try a new one.
                     int rowsUpdated = getDelegate().updateTriggerStateFromOtherState(conn, triggerKey, STATE_ACQUIRED, STATE_WAITING);
                     if (rowsUpdated <= 0) {
+                        removeFromNearTermIndexOnTxCompletion(triggerKey);
+                        candidatesSkipped = true;
+                        if (job.isConcurrentExecutionDisallowed()) {
+                            acquiredJobKeysForNoConcurrentExec.remove(jobKey);
+                        }
                         continue; // next trigger
                     }
+                    removeFromNearTermIndexOnTxCompletion(triggerKey);
                     nextTrigger.setFireInstanceId(getFiredTriggerRecordId());
                     getDelegate().insertFiredTrigger(conn, nextTrigger, STATE_ACQUIRED, null);
 
-                    if(acquiredTriggers.isEmpty()) {
+                    if(acquiredTriggers.isEmpty() && !batchStarted) {
                         batchEnd = Math.max(nextFireTime.getTime(), System.currentTimeMillis()) + timeWindow;
                     }
                     acquiredTriggers.add(nextTrigger);
+                    if (limited) {
+                        executionsInFlight.add(jobKey, 1);
+                    }
                 }
 
+                // Look past the candidates that were passed over, for triggers
+                // to fill the batch with, until there are no more.
+                if (candidatesSkipped && moreCandidates && acquiredTriggers.size() < maxCount) {
+                    candidateCount = candidateCount > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : candidateCount * 2;
+                    continue;
+                }
                 // if we didn't end up with any trigger to fire from that first
                 // batch, try again for another batch. We allow with a max retry count.
-                if(acquiredTriggers.isEmpty() && currentLoopCount < MAX_DO_LOOP_RETRY) {
+                if(acquiredTriggers.isEmpty() && !candidatesSkipped && currentLoopCount < MAX_DO_LOOP_RETRY) {
                     continue;
                 }
                 
@@ -2823,6 +3843,31 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return acquiredTriggers;
     }
     
+    /**
+     * Retrieve the triggers of the given keys, in descending order of
+     * priority (and in the order of the keys for the same priority), with
+     * <code>null</code> for those that no longer exist.
+     */
+    private Map<TriggerKey, OperableTrigger> retrieveByPriority(Connection conn, List<TriggerKey> keys)
+        throws JobPersistenceException {
+        List<OperableTrigger> triggers = new ArrayList<>(keys.size());
+        Map<TriggerKey, OperableTrigger> byPriority = new LinkedHashMap<>();
+        for (TriggerKey key : keys) {
+            OperableTrigger trigger = retrieveTrigger(conn, key);
+            if (trigger == null) {
+                byPriority.put(key, null);
+            } else {
+                triggers.add(trigger);
+            }
+        }
+        // stable, so that the earliest triggers of each priority come first
+        triggers.sort((t1, t2) -> Integer.compare(t2.getPriority(), t1.getPriority()));
+        for (OperableTrigger trigger : triggers) {
+            byPriority.put(trigger.getKey(), trigger);
+        }
+        return byPriority;
+    }
+
     /**
      * <p>
      * Inform the <code>JobStore</code> that the scheduler no longer plans to
@@ -2832,7 +3877,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void releaseAcquiredTrigger(final OperableTrigger trigger) {
         retryExecuteInNonManagedTXLock(
-            LOCK_TRIGGER_ACCESS,
+            getTriggerLockName(trigger),
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
                     releaseAcquiredTrigger(conn, trigger);
@@ -2844,10 +3889,13 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             OperableTrigger trigger)
         throws JobPersistenceException {
         try {
-            getDelegate().updateTriggerStateFromOtherState(conn,
+            int released = getDelegate().updateTriggerStateFromOtherState(conn,
                     trigger.getKey(), STATE_WAITING, STATE_ACQUIRED);
-            getDelegate().updateTriggerStateFromOtherState(conn,
+            released += getDelegate().updateTriggerStateFromOtherState(conn,
                     trigger.getKey(), STATE_WAITING, STATE_BLOCKED);
+            if (released > 0) {
+                putInNearTermIndexOnTxCompletion(trigger, STATE_WAITING);
+            }
             getDelegate().deleteFiredTrigger(conn, trigger.getFireInstanceId());
         } catch (SQLException e) {
             throw new JobPersistenceException(
@@ -2866,9 +3914,44 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      *         if the trigger was not successfully put into the 'executing'
      *         state.
      */
-    @SuppressWarnings("unchecked")
     public List<TriggerFiredResult> triggersFired(final List<OperableTrigger> triggers) throws JobPersistenceException {
-        return executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS,
+        if (getTriggerLockShardCount() <= 1) {
+            return triggersFired(LOCK_TRIGGER_ACCESS, triggers);
+        }
+
+        // fire the triggers of each shard under that shard's lock, in a
+        // transaction of their own, and put the results back in order
+        Map<Integer, List<OperableTrigger>> triggersByShard = new TreeMap<>();
+        for (OperableTrigger trigger : triggers) {
+            triggersByShard.computeIfAbsent(getTriggerLockShard(trigger.getJobKey()), k -> new ArrayList<>()).add(trigger);
+        }
+
+        Map<OperableTrigger, TriggerFiredResult> resultsByTrigger = new IdentityHashMap<>();
+        for (Map.Entry<Integer, List<OperableTrigger>> shardTriggers : triggersByShard.entrySet()) {
+            try {
+                List<TriggerFiredResult> shardResults = triggersFired(getTriggerLockName(shardTriggers.getKey()), shardTriggers.getValue());
+                for (int i = 0; i < shardResults.size(); i++) {
+                    resultsByTrigger.put(shardTriggers.getValue().get(i), shardResults.get(i));
+                }
+            } catch (JobPersistenceException jpe) {
+                // the other shards may have committed already, so report the
+                // failure against the triggers of this shard only
+                getLog().error("Couldn't fire triggers {}", shardTriggers.getValue(), jpe);
+                for (OperableTrigger trigger : shardTriggers.getValue()) {
+                    resultsByTrigger.put(trigger, new TriggerFiredResult(jpe));
+                }
+            }
+        }
+
+        List<TriggerFiredResult> results = new ArrayList<>(triggers.size());
+        for (OperableTrigger trigger : triggers) {
+            results.add(resultsByTrigger.get(trigger));
+        }
+        return results;
+    }
+
+    protected List<TriggerFiredResult> triggersFired(String lockName, final List<OperableTrigger> triggers) throws JobPersistenceException {
+        return executeInNonManagedTXLock(lockName,
                 conn -> {
                     List<TriggerFiredResult> results = new ArrayList<>();
 
@@ -2943,6 +4026,21 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             if (cal == null) { return null; }
         }
 
+        // Make sure the job wasn't started, for another of its triggers, since
+        // this one was acquired.  Once released, the trigger will be blocked
+        // when it is next acquired.
+        if (job.isConcurrentExecutionDisallowed() && isNonConcurrentJobExecuting(conn, job.getKey())) {
+            return null;
+        }
+
+        // Make sure the job's group, or the job, didn't reach its concurrency
+        // limit since the trigger was acquired (on another instance, or for
+        // another shard).
+        if (concurrencyLimits.isLimited(job.getKey()) && !admitsExecution(conn, job.getKey(), null)) {
+            triggersSkippedForLimits = true;
+            return null;
+        }
+
         try {
             getDelegate().updateFiredTrigger(conn, trigger, STATE_EXECUTING, job);
         } catch (SQLException e) {
@@ -2955,24 +4053,33 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         // call triggered - to update the trigger's next-fire-time state...
         trigger.triggered(cal);
 
+        if (TriggerUtils.isTask(trigger) && trigger.getNextFireTime() == null) {
+            // a task is done with once fired, unless its job is to be
+            // recovered (with the task's data) should the scheduler fail
+            try {
+                if (job.requestsRecovery()) {
+                    getDelegate().updateTriggerState(conn, trigger.getKey(), STATE_COMPLETE);
+                } else {
+                    getDelegate().deleteTasks(conn, Collections.singletonList(trigger.getKey()));
+                }
+            } catch (SQLException e) {
+                throw new JobPersistenceException("Couldn't update task: "
+                        + e.getMessage(), e);
+            }
+            job.getJobDataMap().clearDirtyFlag();
+            return new TriggerFiredBundle(job, trigger, cal, false, new Date(),
+                    trigger.getPreviousFireTime(), prevFireTime, null);
+        }
+
         String state = STATE_WAITING;
         boolean force = true;
         
         if (job.isConcurrentExecutionDisallowed()) {
+            // The job's other triggers are blocked as they come up for
+            // acquisition (see isNonConcurrentJobExecuting), rather than
+            // updating the states of all of them here.
             state = STATE_BLOCKED;
             force = false;
-            try {
-                getDelegate().updateTriggerStatesForJobFromOtherState(conn, job.getKey(),
-                        STATE_BLOCKED, STATE_WAITING);
-                getDelegate().updateTriggerStatesForJobFromOtherState(conn, job.getKey(),
-                        STATE_BLOCKED, STATE_ACQUIRED);
-                getDelegate().updateTriggerStatesForJobFromOtherState(conn, job.getKey(),
-                        STATE_PAUSED_BLOCKED, STATE_PAUSED);
-            } catch (SQLException e) {
-                throw new JobPersistenceException(
-                        "Couldn't update states of blocked triggers: "
-                                + e.getMessage(), e);
-            }
         } 
             
         if (trigger.getNextFireTime() == null) {
@@ -3000,8 +4107,20 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void triggeredJobComplete(final OperableTrigger trigger,
             final JobDetail jobDetail, final CompletedExecutionInstruction triggerInstCode) {
+        if (isDeferredTaskCompletion(trigger, jobDetail, triggerInstCode)) {
+            boolean batchFull;
+            synchronized (completedTaskEntries) {
+                completedTaskEntries.add(trigger.getFireInstanceId());
+                batchFull = completedTaskEntries.size() >= Util.MAX_NAMES_PER_STATEMENT;
+            }
+            if (batchFull) {
+                deleteCompletedTasks();
+            }
+            return;
+        }
+
         retryExecuteInNonManagedTXLock(
-            LOCK_TRIGGER_ACCESS,
+            getTriggerLockName(trigger),
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
                     triggeredJobComplete(conn, trigger, jobDetail,triggerInstCode);
@@ -3009,6 +4128,59 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             });    
     }
     
+    /**
+     * Whether all there is left to do for the completion of the given
+     * trigger is to delete its fired trigger record, which can then be
+     * deferred and done in bulk with those of other completed tasks: the
+     * trigger is a task whose row was deleted when it fired, and whose job
+     * has no state, concurrency limit or blocked triggers to update.
+     */
+    protected boolean isDeferredTaskCompletion(OperableTrigger trigger, JobDetail jobDetail,
+            CompletedExecutionInstruction triggerInstCode) {
+        return TriggerUtils.isTask(trigger) && trigger.getNextFireTime() == null
+                && (triggerInstCode == CompletedExecutionInstruction.DELETE_TRIGGER
+                    || triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_COMPLETE
+                    || triggerInstCode == CompletedExecutionInstruction.NOOP)
+                && !jobDetail.requestsRecovery()
+                && !jobDetail.isConcurrentExecutionDisallowed()
+                && !jobDetail.isPersistJobDataAfterExecution()
+                && !concurrencyLimits.isLimited(jobDetail.getKey());
+    }
+
+    /**
+     * Delete the fired trigger records of the tasks completed since last
+     * time, in a transaction of their own.  On failure they're kept, to be
+     * deleted next time.
+     */
+    protected void deleteCompletedTasks() {
+        final List<String> entryIds;
+        synchronized (completedTaskEntries) {
+            if (completedTaskEntries.isEmpty()) {
+                return;
+            }
+            entryIds = new ArrayList<>(completedTaskEntries);
+            completedTaskEntries.clear();
+        }
+
+        try {
+            executeInNonManagedTXLock(null, new VoidTransactionCallback() {
+                public void executeVoid(Connection conn) throws JobPersistenceException {
+                    try {
+                        getDelegate().deleteFiredTriggers(conn, entryIds);
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException("Couldn't delete fired triggers: "
+                                + e.getMessage(), e);
+                    }
+                }
+            }, null);
+        } catch (JobPersistenceException e) {
+            getLog().error("Couldn't delete the fired trigger records of {} completed tasks.", entryIds.size(), e);
+            synchronized (completedTaskEntries) {
+                completedTaskEntries.addAll(entryIds);
+            }
+        }
+    }
+
     protected void triggeredJobComplete(Connection conn,
             OperableTrigger trigger, JobDetail jobDetail,
             CompletedExecutionInstruction triggerInstCode) throws JobPersistenceException {
@@ -3050,6 +4222,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 getDelegate().updateTriggerStatesForJobFromOtherState(conn,
                         jobDetail.getKey(), STATE_WAITING,
                         STATE_BLOCKED);
+                invalidateNearTermIndexOnTxCompletion();
 
                 getDelegate().updateTriggerStatesForJobFromOtherState(conn,
                         jobDetail.getKey(), STATE_PAUSED,
@@ -3057,6 +4230,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
                 signalSchedulingChangeOnTxCompletion(0L);
             }
+            // triggers of saturated groups may be acquired again
+            if (triggersSkippedForLimits && concurrencyLimits.isLimited(jobDetail.getKey())) {
+                triggersSkippedForLimits = false;
+                signalSchedulingChangeOnTxCompletion(0L);
+            }
             if (jobDetail.isPersistJobDataAfterExecution()) {
                 try {
                     if (jobDetail.getJobDataMap().isDirty()) {
@@ -3120,12 +4298,27 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.lockHandler = lockHandler;
     }
 
+    public ClusterSignaler getClusterSignaler() {
+        return clusterSignaler;
+    }
+
+    /**
+     * Set the <code>{@link ClusterSignaler}</code> that tells the other nodes
+     * of the cluster about triggers stored or resumed by this one.  If not
+     * set, other nodes notice such triggers at the latest when their
+     * scheduler threads wake from idle waiting.
+     */
+    public void setClusterSignaler(ClusterSignaler clusterSignaler) {
+        this.clusterSignaler = clusterSignaler;
+    }
+
     //---------------------------------------------------------------------------
     // Management methods
     //---------------------------------------------------------------------------
 
     protected RecoverMisfiredJobsResult doRecoverMisfires() throws JobPersistenceException {
         boolean transOwner = false;
+        boolean committed = false;
         Connection conn = getNonManagedTXConnection();
         try {
             RecoverMisfiredJobsResult result = RecoverMisfiredJobsResult.NO_OP;
@@ -3141,6 +4334,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             if (misfireCount == 0) {
                 getLog().debug(
                     "Found 0 triggers that missed their scheduled fire-time.");
+            } else if (getTriggerLockShardCount() > 1) {
+                result = doRecoverMisfiresByShard(conn);
             } else {
                 transOwner = getLockHandler().obtainLock(conn, LOCK_TRIGGER_ACCESS);
                 
@@ -3148,6 +4343,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
             
             commitConnection(conn);
+            committed = true;
             return result;
         } catch (JobPersistenceException e) {
             rollbackConnection(conn);
@@ -3160,6 +4356,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             throw new JobPersistenceException("Unexpected runtime exception: "
                     + e.getMessage(), e);
         } finally {
+            applyNearTermIndexChanges(committed);
             try {
                 releaseLock(LOCK_TRIGGER_ACCESS, transOwner);
             } finally {
@@ -3168,6 +4365,37 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
 
+    /**
+     * Recover the misfired triggers of each shard of the trigger lock in its
+     * own transaction, holding only that shard's lock.
+     */
+    private RecoverMisfiredJobsResult doRecoverMisfiresByShard(Connection conn)
+        throws JobPersistenceException, SQLException {
+        commitConnection(conn);
+
+        int shardCount = getTriggerLockShardCount();
+        int firstShard = Math.floorMod(nextTriggerLockShard.getAndIncrement(), shardCount);
+        boolean hasMore = false;
+        int processedCount = 0;
+        long earliestNewTime = Long.MAX_VALUE;
+        for (int i = 0; i < shardCount; i++) {
+            String lockName = getTriggerLockName((firstShard + i) % shardCount);
+            boolean shardOwner = false;
+            try {
+                shardOwner = getLockHandler().obtainLock(conn, lockName);
+                RecoverMisfiredJobsResult result = recoverMisfiredJobs(conn, false, (firstShard + i) % shardCount);
+                commitConnection(conn);
+
+                hasMore |= result.hasMoreMisfiredTriggers();
+                processedCount += result.getProcessedMisfiredTriggerCount();
+                earliestNewTime = Math.min(earliestNewTime, result.getEarliestNewTime());
+            } finally {
+                releaseLock(lockName, shardOwner);
+            }
+        }
+        return new RecoverMisfiredJobsResult(hasMore, processedCount, earliestNewTime);
+    }
+
     protected final ThreadLocal<Long> sigChangeForTxCompletion = new ThreadLocal<>();
     protected void signalSchedulingChangeOnTxCompletion(long candidateNewNextFireTime) {
         Long sigTime = sigChangeForTxCompletion.get();
@@ -3189,6 +4417,223 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         schedSignaler.signalSchedulingChange(candidateNewNextFireTime);
     }
 
+    protected final ThreadLocal<Long> clusterSigForTxCompletion = new ThreadLocal<>();
+
+    /**
+     * Tell the other nodes of the cluster, once the current transaction has
+     * been committed, that a trigger may now fire at the given time (or at an
+     * unknown time if <code>0</code>).  Does nothing without a
+     * <code>{@link ClusterSignaler}</code>.
+     */
+    protected void signalClusterOnTxCompletion(long candidateNewNextFireTime) {
+        if (clusterSignaler == null) {
+            return;
+        }
+        Long sigTime = clusterSigForTxCompletion.get();
+        if (sigTime == null || candidateNewNextFireTime < sigTime) {
+            clusterSigForTxCompletion.set(candidateNewNextFireTime);
+        }
+    }
+
+    private void signalClusterOnTxCompletion(OperableTrigger trigger) {
+        if (trigger.getNextFireTime() != null) {
+            signalClusterOnTxCompletion(trigger.getNextFireTime().getTime());
+        }
+    }
+
+    protected Long clearAndGetSignalClusterOnTxCompletion() {
+        Long t = clusterSigForTxCompletion.get();
+        clusterSigForTxCompletion.set(null);
+        return t;
+    }
+
+    private NearTermTriggerIndex.Changes getNearTermIndexChangesForTxCompletion() {
+        NearTermTriggerIndex.Changes changes = nearTermIndexChangesForTxCompletion.get();
+        if (changes == null) {
+            changes = new NearTermTriggerIndex.Changes();
+            nearTermIndexChangesForTxCompletion.set(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Put the given trigger, stored in the given state, in the near-term
+     * trigger index once the current transaction has completed (or drop it
+     * from the index, if it isn't <code>WAITING</code>).  Does nothing
+     * without an index.
+     */
+    protected void putInNearTermIndexOnTxCompletion(OperableTrigger trigger, String state) {
+        if (nearTermIndex == null) {
+            return;
+        }
+        if (STATE_WAITING.equals(state) && trigger.getNextFireTime() != null) {
+            getNearTermIndexChangesForTxCompletion().put(new NearTermTriggerIndex.Entry(trigger.getKey(),
+                    trigger.getJobKey(), trigger.getNextFireTime().getTime(), trigger.getPriority(), trigger.getMisfireInstruction()));
+        } else {
+            getNearTermIndexChangesForTxCompletion().remove(trigger.getKey());
+        }
+    }
+
+    /**
+     * Drop the given trigger from the near-term trigger index once the
+     * current transaction has completed.  Does nothing without an index.
+     */
+    protected void removeFromNearTermIndexOnTxCompletion(TriggerKey triggerKey) {
+        if (nearTermIndex != null) {
+            getNearTermIndexChangesForTxCompletion().remove(triggerKey);
+        }
+    }
+
+    /**
+     * Load the near-term trigger index again once the current transaction
+     * has completed, as it may have made triggers <code>WAITING</code>.
+     * Does nothing without an index.
+     */
+    protected void invalidateNearTermIndexOnTxCompletion() {
+        if (nearTermIndex != null) {
+            getNearTermIndexChangesForTxCompletion().invalidate();
+        }
+    }
+
+    /**
+     * Apply the changes the completed transaction made to the near-term
+     * trigger index.
+     */
+    protected void applyNearTermIndexChanges(boolean committed) {
+        NearTermTriggerIndex.Changes changes = nearTermIndexChangesForTxCompletion.get();
+        nearTermIndexChangesForTxCompletion.remove();
+        if (changes != null && nearTermIndex != null) {
+            nearTermIndex.apply(changes, committed);
+        }
+    }
+
+    /**
+     * Select the keys of the next triggers to acquire, from the near-term
+     * trigger index if there is one that reaches far enough.
+     *
+     * @see DriverDelegate#selectTriggerToAcquire(Connection, long, long, int)
+     */
+    protected List<TriggerKey> selectTriggersToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws JobPersistenceException, SQLException {
+        return selectTriggersToAcquire(conn, noLaterThan, noEarlierThan, maxCount, null);
+    }
+
+    /**
+     * Select the keys of the next triggers to acquire that the given filter
+     * accepts, from the near-term trigger index if there is one that reaches
+     * far enough.
+     *
+     * @param filter the filter of the triggers, given their key and the key
+     * of their job, or <code>null</code> for all of them
+     * @see DriverDelegate#selectTriggerToAcquire(Connection, long, long, int, BiPredicate)
+     */
+    protected List<TriggerKey> selectTriggersToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount,
+            BiPredicate<TriggerKey, JobKey> filter)
+        throws JobPersistenceException, SQLException {
+        NearTermTriggerIndex index = nearTermIndex;
+        if (index == null) {
+            return selectTriggersToAcquireFromTable(conn, noLaterThan, noEarlierThan, maxCount, filter);
+        }
+
+        long now = System.currentTimeMillis();
+        List<TriggerKey> keys = index.select(noLaterThan, noEarlierThan, maxCount, now, filter);
+        if (keys == null && index.isLoadDue(noLaterThan, now)) {
+            long token = index.loading();
+            long loadEnd = index.getLoadEnd(noLaterThan);
+            index.loaded(token, loadEnd,
+                    getDelegate().selectWaitingTriggersToFireBefore(conn, loadEnd, index.getMaxSize()), now);
+            keys = index.select(noLaterThan, noEarlierThan, maxCount, now, filter);
+        }
+        if (keys == null) {
+            // more triggers are due than the index holds, or it changed while loading
+            keys = selectTriggersToAcquireFromTable(conn, noLaterThan, noEarlierThan, maxCount, filter);
+        }
+        return keys;
+    }
+
+    private List<TriggerKey> selectTriggersToAcquireFromTable(Connection conn, long noLaterThan, long noEarlierThan,
+            int maxCount, BiPredicate<TriggerKey, JobKey> filter)
+        throws JobPersistenceException, SQLException {
+        return filter == null ? getDelegate().selectTriggerToAcquire(conn, noLaterThan, noEarlierThan, maxCount)
+                : getDelegate().selectTriggerToAcquire(conn, noLaterThan, noEarlierThan, maxCount, filter);
+    }
+
+    /**
+     * Get the filter of the triggers that the scheduler threads of the given
+     * partition acquire from the given shard of the trigger lock, and that
+     * this instance owns, or <code>null</code> if they all are.  Partitions,
+     * shards and owners are hashes of the keys of the trigger or of its job,
+     * which the database can't evaluate, so the filter is applied to the rows
+     * as they are selected.
+     *
+     * @param partition the partition of triggers to acquire from, or <code>null</code>
+     * @param shard the trigger lock shard to acquire from, or -1 for all of them
+     */
+    private BiPredicate<TriggerKey, JobKey> getCandidateFilter(TriggerPartition partition, int shard) {
+        ConsistentHashRing ring = getOwnershipRing();
+        boolean byOwner = ring != null && ring.getInstanceCount() > 1;
+        boolean byPartition = partition != null && (partition.getCount() > 1 || partition.getThreadPoolCount() > 1);
+        if (!byOwner && !byPartition && shard < 0) {
+            return null;
+        }
+        String instanceId = getInstanceId();
+        return (triggerKey, jobKey) -> (!byPartition || (partition.contains(triggerKey) && partition.containsJob(jobKey)))
+                && (shard < 0 || getTriggerLockShard(jobKey) == shard)
+                && (!byOwner || instanceId.equals(ring.ownerOf(triggerKey)));
+    }
+
+    /**
+     * Passes on what a <code>{@link ClusterSignaler}</code> hears from other
+     * nodes, invalidating the near-term trigger index first, as the triggers
+     * they stored or resumed may be due within it.
+     */
+    private final class NearTermIndexInvalidatingSignaler implements SchedulerSignaler {
+
+        private final SchedulerSignaler signaler;
+
+        NearTermIndexInvalidatingSignaler(SchedulerSignaler signaler) {
+            this.signaler = signaler;
+        }
+
+        public void notifyTriggerListenersMisfired(Trigger trigger) {
+            signaler.notifyTriggerListenersMisfired(trigger);
+        }
+
+        public void notifySchedulerListenersFinalized(Trigger trigger) {
+            signaler.notifySchedulerListenersFinalized(trigger);
+        }
+
+        public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+            signaler.notifySchedulerListenersJobDeleted(jobKey);
+        }
+
+        public void signalSchedulingChange(long candidateNewNextFireTime) {
+            nearTermIndex.invalidate();
+            signaler.signalSchedulingChange(candidateNewNextFireTime);
+        }
+
+        public void notifySchedulerListenersError(String string, SchedulerException jpe) {
+            signaler.notifySchedulerListenersError(string, jpe);
+        }
+    }
+
+    /**
+     * Get the earliest next fire time of the triggers waiting to be acquired,
+     * or <code>0</code> if there are none, without taking any lock and
+     * without accounting for misfires.
+     */
+    @SuppressWarnings("deprecation")
+    protected long getEarliestWaitingFireTime() throws JobPersistenceException {
+        return executeWithoutLock(conn -> {
+            try {
+                return getDelegate().selectNextFireTime(conn);
+            } catch (SQLException e) {
+                throw new JobPersistenceException(
+                        "Couldn't select the next fire time: " + e.getMessage(), e);
+            }
+        });
+    }
+
     //---------------------------------------------------------------------------
     // Cluster management methods
     //---------------------------------------------------------------------------
@@ -3201,6 +4646,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         boolean transOwner = false;
         boolean transStateOwner = false;
         boolean recovered = false;
+        boolean committed = false;
 
         Connection conn = getNonManagedTXConnection();
         try {
@@ -3220,7 +4666,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     
                 // Now that we own the lock, make sure we still have work to do. 
                 // The first time through, we also need to make sure we update/create our state record
-                failedRecords = (firstCheckIn) ? clusterCheckIn(conn) : findFailedInstances(conn);
+                failedRecords = (firstCheckIn) ? clusterCheckIn(conn) : findFailedOrExpiredInstances(conn);
     
                 if (!failedRecords.isEmpty()) {
                     getLockHandler().obtainLock(conn, LOCK_TRIGGER_ACCESS);
@@ -3233,10 +4679,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
             
             commitConnection(conn);
+            committed = true;
         } catch (JobPersistenceException e) {
             rollbackConnection(conn);
             throw e;
         } finally {
+            applyNearTermIndexChanges(committed);
             try {
                 releaseLock(LOCK_TRIGGER_ACCESS, transOwner);
             } finally {
@@ -3282,6 +4730,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 }
             }
             
+            updateOwnershipRing(states, failedInstances);
+
             // The first time through, also check for orphaned fired triggers.
             if (firstCheckIn) {
                 failedInstances.addAll(findOrphanedFailedInstances(conn, states));
@@ -3302,6 +4752,79 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
     
+    /**
+     * Whether triggers are divided among the instances of the cluster.
+     */
+    private boolean ownsTriggers() {
+        return isClustered() && !CLUSTER_OWNERSHIP_NONE.equals(getClusterOwnership());
+    }
+
+    /**
+     * Whether this instance acquires triggers.  It already does when it
+     * checks in for the first time, as the scheduler is being started.
+     */
+    private boolean isAcquiringTriggers() {
+        return schedulerRunning || firstCheckIn;
+    }
+
+    /**
+     * Get the check-in interval to record in this instance's state record,
+     * negated while it is in standby if triggers are divided among the
+     * instances, so that the others leave it off the ownership ring.
+     */
+    private long getRecordedCheckinInterval() {
+        return ownsTriggers() && !isAcquiringTriggers() ? -getClusterCheckinInterval() : getClusterCheckinInterval();
+    }
+
+    /**
+     * Rebuild the ring assigning triggers to instances if the owners (the
+     * instances that checked in while acquiring triggers, less the failed
+     * ones, and this one unless it is in standby) changed.
+     */
+    private void updateOwnershipRing(List<SchedulerStateRecord> states, List<SchedulerStateRecord> failedInstances) {
+        if (!ownsTriggers()) {
+            return;
+        }
+        Set<String> owners = new HashSet<>();
+        for (SchedulerStateRecord rec : states) {
+            if (rec.isAcquiring()) {
+                owners.add(rec.getSchedulerInstanceId());
+            }
+        }
+        for (SchedulerStateRecord rec : failedInstances) {
+            owners.remove(rec.getSchedulerInstanceId());
+        }
+        setOwnershipRing(owners);
+    }
+
+    /**
+     * Take this instance on or off the ownership ring as soon as it is
+     * started or put in standby, rather than at its next check-in.  The other
+     * instances follow when they see its check-in.
+     */
+    private void updateOwnershipRing() {
+        ConsistentHashRing ring = ownershipRing;
+        if (ring != null) {
+            setOwnershipRing(new HashSet<>(ring.getInstanceIds()));
+        }
+    }
+
+    private synchronized void setOwnershipRing(Set<String> owners) {
+        if (isAcquiringTriggers()) {
+            owners.add(getInstanceId());
+        } else {
+            owners.remove(getInstanceId());
+        }
+        ConsistentHashRing ring = ownershipRing;
+        if (owners.isEmpty()) {
+            // no instance acquires triggers, this one included
+            ownershipRing = null;
+        } else if (ring == null || !ring.getInstanceIds().equals(owners)) {
+            ownershipRing = new ConsistentHashRing(owners, CLUSTER_OWNERSHIP_GROUP.equals(getClusterOwnership()));
+            getLog().info("ClusterManager: trigger ownership rebalanced over {} instance(s): {}", owners.size(), ownershipRing.getInstanceIds());
+        }
+    }
+
     /**
      * Create dummy <code>SchedulerStateRecord</code> objects for fired triggers
      * that have no scheduler state record.  Checkin timestamp and interval are
@@ -3343,19 +4866,70 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             7500L;
     }
     
+    /**
+     * Get the instances that may have failed, reading every state record if
+     * the trigger ownership ring needs the live instances, and otherwise only
+     * those whose lease has expired.
+     */
+    private List<SchedulerStateRecord> findFailedOrExpiredInstances(Connection conn)
+        throws JobPersistenceException {
+        return readsAllSchedulerStates() ? findFailedInstances(conn) : findExpiredInstances(conn);
+    }
+
+    private boolean readsAllSchedulerStates() {
+        // the first check-in also looks for our own and orphaned records
+        return firstCheckIn || ownsTriggers();
+    }
+
+    /**
+     * Get the other instances in the cluster that may have failed, with a
+     * single query that only returns the state records of instances whose
+     * lease (last check-in plus check-in interval, plus some slack) has run
+     * out.  In a healthy cluster that query returns nothing, so the cost of a
+     * check-in doesn't grow with the number of instances.
+     */
+    protected List<SchedulerStateRecord> findExpiredInstances(Connection conn)
+        throws JobPersistenceException {
+        try {
+            List<SchedulerStateRecord> failedInstances = new LinkedList<>();
+            long timeNow = System.currentTimeMillis();
+
+            // calcFailedIfAfter() is at least 7500 ms past the check-in and
+            // past our own last check-in, so only older records can fail
+            for (SchedulerStateRecord rec : getDelegate().selectExpiredSchedulerStateRecords(conn, lastCheckin - 7500L)) {
+                if (!rec.getSchedulerInstanceId().equals(getInstanceId()) && calcFailedIfAfter(rec) < timeNow) {
+                    failedInstances.add(rec);
+                }
+            }
+            return failedInstances;
+        } catch (Exception e) {
+            lastCheckin = System.currentTimeMillis();
+            throw new JobPersistenceException("Failure identifying failed instances when checking-in: "
+                    + e.getMessage(), e);
+        }
+    }
+
     protected List<SchedulerStateRecord> clusterCheckIn(Connection conn)
         throws JobPersistenceException {
 
-        List<SchedulerStateRecord> failedInstances = findFailedInstances(conn);
+        boolean readAllStates = readsAllSchedulerStates();
+        List<SchedulerStateRecord> failedInstances = findFailedOrExpiredInstances(conn);
         
         try {
             // FUTURE_TODO: handle self-failed-out
 
-            // check in...
+            // check in (renewing our lease)...
             lastCheckin = System.currentTimeMillis();
-            if(getDelegate().updateSchedulerState(conn, getInstanceId(), lastCheckin) == 0) {
+            int updated = ownsTriggers()
+                    ? getDelegate().updateSchedulerState(conn, getInstanceId(), lastCheckin, getRecordedCheckinInterval())
+                    : getDelegate().updateSchedulerState(conn, getInstanceId(), lastCheckin);
+            if(updated == 0) {
+                if (!readAllStates) {
+                    // (findFailedInstances() warns about this itself)
+                    getLog().warn("This scheduler instance ({}) is still active but was recovered by another instance in the cluster.  This may cause inconsistent behavior.", getInstanceId());
+                }
                 getDelegate().insertSchedulerState(conn, getInstanceId(),
-                        lastCheckin, getClusterCheckinInterval());
+                        lastCheckin, getRecordedCheckinInterval());
             }
             
         } catch (Exception e) {
@@ -3371,6 +4945,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         throws JobPersistenceException {
 
         if (!failedInstances.isEmpty()) {
+            invalidateNearTermIndexOnTxCompletion();
 
             long recoverIds = System.currentTimeMillis();
 
@@ -3686,6 +5261,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         TransactionCallback<T> txCallback) throws JobPersistenceException;
     
     protected <T> T retryExecuteInNonManagedTXLock(String lockName, TransactionCallback<T> txCallback) {
+        LockGroupCommitter groupCommitter = lockGroupCommitter;
+        if (groupCommitter != null && lockName != null && !groupCommitter.isLeading() && !shutdown) {
+            try {
+                return groupCommitter.execute(lockName, txCallback);
+            } catch (JobPersistenceException | RuntimeException e) {
+                // the shared transaction was rolled back, whichever callback
+                // failed: do our work again on our own
+                getLog().debug("Shared transaction failed, retrying on its own: {}", e.getMessage());
+            }
+        }
         for (int retry = 1; !shutdown; retry++) {
             try {
                 return executeInNonManagedTXLock(lockName, txCallback, null);
@@ -3717,6 +5302,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             String lockName, 
             TransactionCallback<T> txCallback, final TransactionValidator<T> txValidator) throws JobPersistenceException {
         boolean transOwner = false;
+        boolean committed = false;
         Connection conn = null;
         try {
             if (lockName != null) {
@@ -3736,8 +5322,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             final T result = txCallback.execute(conn);
             try {
                 commitConnection(conn);
+                committed = true;
             } catch (JobPersistenceException e) {
                 rollbackConnection(conn);
+                // whether the changes were committed is uncertain
+                applyNearTermIndexChanges(false);
                 if (txValidator == null || !retryExecuteInNonManagedTXLock(lockName, conn1 -> txValidator.validate(conn1, result))) {
                     throw e;
                 }
@@ -3747,6 +5336,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             if(sigTime != null && sigTime >= 0) {
                 signalSchedulingChangeImmediately(sigTime);
             }
+            Long clusterSigTime = clearAndGetSignalClusterOnTxCompletion();
+            if(clusterSigTime != null && clusterSignaler != null) {
+                clusterSignaler.signalSchedulingChange(clusterSigTime);
+            }
             
             return result;
         } catch (JobPersistenceException e) {
@@ -3757,6 +5350,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             throw new JobPersistenceException("Unexpected runtime exception: "
                     + e.getMessage(), e);
         } finally {
+            applyNearTermIndexChanges(committed);
             try {
                 releaseLock(lockName, transOwner);
             } finally {
@@ -0,0 +1,170 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.quartz.JobPersistenceException;
+import org.quartz.impl.jdbcjobstore.JobStoreSupport.TransactionCallback;
+
+/**
+ * Runs the work that threads of this node want to do under the same lock
+ * in shared transactions: the first thread to arrive becomes the leader,
+ * obtains the lock once and runs its own work together with the work of
+ * every thread that queued up behind it, in one transaction, then wakes
+ * them.  While a batch is running the next one queues up, and the head of
+ * that queue leads it.  Only the leader holds a database connection, so
+ * waiting threads no longer each tie up a pooled connection while blocked
+ * on the same lock row.
+ *
+ * <p>
+ * If a batch fails, all of its work is rolled back, and every thread is
+ * told so, to run its work again on its own.
+ * </p>
+ *
+ * @see JobStoreSupport#setLockGroupCommitMaxSize(int)
+ */
+final class LockGroupCommitter {
+
+    /**
+     * Runs a batch in one transaction, holding the given lock.
+     */
+    interface BatchExecutor {
+        void execute(String lockName, TransactionCallback<Void> batch) throws JobPersistenceException;
+    }
+
+    private static final class Request {
+        final TransactionCallback<?> callback;
+        Object result;
+        boolean leader;
+        boolean done;
+        Exception failure;
+
+        Request(TransactionCallback<?> callback) {
+            this.callback = callback;
+        }
+    }
+
+    private static final class LockQueue {
+        final ArrayDeque<Request> waiting = new ArrayDeque<>();
+        boolean leaderActive;
+    }
+
+    private final int maxBatchSize;
+
+    private final BatchExecutor executor;
+
+    private final ConcurrentHashMap<String, LockQueue> queues = new ConcurrentHashMap<>();
+
+    // set while the thread runs a batch, whose callbacks must not queue up again
+    private final ThreadLocal<Boolean> leading = new ThreadLocal<>();
+
+    LockGroupCommitter(int maxBatchSize, BatchExecutor executor) {
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Whether the calling thread is running a batch.
+     */
+    boolean isLeading() {
+        return leading.get() != null;
+    }
+
+    /**
+     * Run the given callback under the given lock, in a transaction that it
+     * may share with the callbacks of other threads.
+     *
+     * @throws JobPersistenceException if the shared transaction failed, in
+     * which case the callback's work was rolled back
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(String lockName, TransactionCallback<T> callback) throws JobPersistenceException {
+        LockQueue queue = queues.computeIfAbsent(lockName, k -> new LockQueue());
+        Request request = new Request(callback);
+        synchronized (queue) {
+            queue.waiting.add(request);
+            if (!queue.leaderActive) {
+                queue.leaderActive = true;
+                request.leader = true;
+            }
+            boolean interrupted = false;
+            while (!request.leader && !request.done) {
+                try {
+                    queue.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!request.done) {
+            lead(lockName, queue);
+        }
+        if (request.failure != null) {
+            throw new JobPersistenceException("Shared transaction failed: " + request.failure.getMessage(),
+                    request.failure);
+        }
+        return (T) request.result;
+    }
+
+    private void lead(String lockName, LockQueue queue) {
+        // the leader is always at the head of the queue
+        final List<Request> batch = new ArrayList<>();
+        synchronized (queue) {
+            while (!queue.waiting.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(queue.waiting.poll());
+            }
+        }
+
+        Exception failure = null;
+        leading.set(Boolean.TRUE);
+        try {
+            executor.execute(lockName, conn -> {
+                for (Request request : batch) {
+                    request.result = request.callback.execute(conn);
+                }
+                return null;
+            });
+        } catch (JobPersistenceException | RuntimeException e) {
+            failure = e;
+        } finally {
+            leading.remove();
+        }
+
+        synchronized (queue) {
+            for (Request request : batch) {
+                request.done = true;
+                request.failure = failure;
+            }
+            Request next = queue.waiting.peek();
+            if (next != null) {
+                next.leader = true;
+            } else {
+                queue.leaderActive = false;
+            }
+            queue.notifyAll();
+        }
+    }
+}
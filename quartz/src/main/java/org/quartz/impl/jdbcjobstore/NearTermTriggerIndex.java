@@ -0,0 +1,366 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+
+/**
+ * Keeps, in memory, the <code>WAITING</code> triggers due to fire within a
+ * window of time ahead, ordered the way the scheduler threads acquire them, so
+ * that acquisitions can find their candidates without querying the triggers
+ * table.
+ *
+ * <p>
+ * The window is loaded from the database with one query, and then kept up to
+ * date with the changes this node commits: stored triggers are put in it,
+ * and changes that may make other triggers <code>WAITING</code> (resuming,
+ * releasing, unblocking, recovering) invalidate it.  Loads that overlap a
+ * change are discarded.  The window is loaded again when it is invalidated,
+ * when an acquisition looks past its end, and when it is older than the
+ * refresh interval, which bounds how long changes made by other nodes of a
+ * cluster go unnoticed.  When more triggers are due than the index holds, its
+ * end falls short of the window, and acquisitions looking past it query the
+ * triggers table until the refresh interval rather than load it again.
+ * </p>
+ *
+ * <p>
+ * Candidates are only candidates: the job store still reads each trigger and
+ * flips its state from <code>WAITING</code> to <code>ACQUIRED</code>, so a
+ * stale entry costs a read, and is dropped or corrected when found out.
+ * </p>
+ *
+ * @see JobStoreSupport#setNearTermIndexWindow(long)
+ */
+public final class NearTermTriggerIndex {
+
+    /**
+     * A <code>WAITING</code> trigger, as loaded from the triggers table.
+     */
+    public static final class Entry implements Comparable<Entry> {
+
+        private final TriggerKey key;
+
+        private final JobKey jobKey;
+
+        private final long nextFireTime;
+
+        private final int priority;
+
+        private final int misfireInstruction;
+
+        public Entry(TriggerKey key, JobKey jobKey, long nextFireTime, int priority, int misfireInstruction) {
+            this.key = key;
+            this.jobKey = jobKey;
+            this.nextFireTime = nextFireTime;
+            this.priority = priority;
+            this.misfireInstruction = misfireInstruction;
+        }
+
+        public TriggerKey getKey() {
+            return key;
+        }
+
+        public JobKey getJobKey() {
+            return jobKey;
+        }
+
+        public long getNextFireTime() {
+            return nextFireTime;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public int getMisfireInstruction() {
+            return misfireInstruction;
+        }
+
+        // in the order of SELECT_NEXT_TRIGGER_TO_ACQUIRE
+        public int compareTo(Entry other) {
+            if (nextFireTime != other.nextFireTime) {
+                return nextFireTime < other.nextFireTime ? -1 : 1;
+            }
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return key.compareTo(other.key);
+        }
+    }
+
+    /**
+     * The changes a transaction makes to the index, applied once it has
+     * completed.
+     */
+    static final class Changes {
+
+        // a null entry removes the key
+        private final Map<TriggerKey, Entry> entries = new LinkedHashMap<>();
+
+        private boolean invalidate;
+
+        void put(Entry entry) {
+            entries.put(entry.getKey(), entry);
+        }
+
+        void remove(TriggerKey key) {
+            entries.put(key, null);
+        }
+
+        void invalidate() {
+            invalidate = true;
+        }
+    }
+
+    private final long window;
+
+    private final long refreshInterval;
+
+    private final int maxSize;
+
+    private final TreeSet<Entry> entries = new TreeSet<>();
+
+    private final Map<TriggerKey, Entry> entriesByKey = new HashMap<>();
+
+    private boolean loaded;
+
+    private long loadTime;
+
+    // the latest fire time the index holds every WAITING trigger up to
+    private long end = Long.MIN_VALUE;
+
+    // whether the latest load was cut short at the index's max size
+    private boolean full;
+
+    // incremented on every change, so that loads overlapping one are discarded
+    private long generation;
+
+    private long loadCount;
+
+    private long hitCount;
+
+    NearTermTriggerIndex(long window, long refreshInterval, int maxSize) {
+        if (window <= 0L) {
+            throw new IllegalArgumentException("Near-term index window must be positive.");
+        }
+        if (refreshInterval <= 0L) {
+            throw new IllegalArgumentException("Near-term index refresh interval must be positive.");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Near-term index max size must be at least 1.");
+        }
+        this.window = window;
+        this.refreshInterval = refreshInterval;
+        this.maxSize = maxSize;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the keys of up to <code>maxCount</code> triggers to acquire, like
+     * <code>{@link DriverDelegate#selectTriggerToAcquire(java.sql.Connection, long, long, int)}</code>
+     * would, or <code>null</code> if the index has to be loaded first.
+     */
+    synchronized List<TriggerKey> select(long noLaterThan, long noEarlierThan, int maxCount, long now) {
+        return select(noLaterThan, noEarlierThan, maxCount, now, null);
+    }
+
+    /**
+     * Get the keys of up to <code>maxCount</code> triggers to acquire that
+     * the given filter accepts, like
+     * <code>{@link DriverDelegate#selectTriggerToAcquire(java.sql.Connection, long, long, int, BiPredicate)}</code>
+     * would, or <code>null</code> if the index has to be loaded first.
+     *
+     * @param filter the filter of the triggers, given their key and the key
+     * of their job, or <code>null</code> for all of them
+     */
+    synchronized List<TriggerKey> select(long noLaterThan, long noEarlierThan, int maxCount, long now,
+            BiPredicate<TriggerKey, JobKey> filter) {
+        if (!loaded || now - loadTime >= refreshInterval || noLaterThan > end) {
+            return null;
+        }
+        hitCount++;
+        List<TriggerKey> keys = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.getNextFireTime() > noLaterThan || keys.size() >= Math.max(1, maxCount)) {
+                break;
+            }
+            if ((entry.getNextFireTime() >= noEarlierThan
+                    || entry.getMisfireInstruction() == Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY)
+                    && (filter == null || filter.test(entry.getKey(), entry.getJobKey()))) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Whether the index is to be loaded for an acquisition looking up to
+     * <code>noLaterThan</code> that it couldn't answer.  Once a load was cut
+     * short at the index's max size, loading it again wouldn't reach any
+     * further, so it isn't until the refresh interval.
+     */
+    synchronized boolean isLoadDue(long noLaterThan, long now) {
+        return !loaded || now - loadTime >= refreshInterval || (noLaterThan > end && !full);
+    }
+
+    /**
+     * Get the fire time at which the index holds the given trigger, or
+     * <code>-1</code> if it doesn't.
+     */
+    synchronized long getNextFireTime(TriggerKey key) {
+        Entry entry = entriesByKey.get(key);
+        return entry != null ? entry.getNextFireTime() : -1L;
+    }
+
+    /**
+     * Get the latest fire time to load the index up to, for an acquisition
+     * looking up to <code>noLaterThan</code>.
+     */
+    long getLoadEnd(long noLaterThan) {
+        return noLaterThan + window;
+    }
+
+    /**
+     * Called before loading the index.
+     *
+     * @return the token to pass to <code>{@link #loaded}</code>
+     */
+    synchronized long loading() {
+        return generation;
+    }
+
+    /**
+     * Replace the contents of the index with the triggers loaded, unless it
+     * changed while they were.
+     *
+     * @param token what <code>{@link #loading()}</code> returned
+     * @param loadEnd the latest fire time of the triggers loaded
+     * @param loadedEntries the triggers loaded, in order of fire time, at most
+     * <code>{@link #getMaxSize()}</code> of them
+     */
+    synchronized void loaded(long token, long loadEnd, List<Entry> loadedEntries, long now) {
+        if (token != generation) {
+            return;
+        }
+        clear();
+        long newEnd = loadEnd;
+        full = loadedEntries.size() >= maxSize;
+        if (full) {
+            // there may be more triggers at the last fire time
+            newEnd = loadedEntries.get(loadedEntries.size() - 1).getNextFireTime() - 1L;
+        }
+        for (Entry entry : loadedEntries) {
+            if (entry.getNextFireTime() <= newEnd) {
+                add(entry);
+            }
+        }
+        end = newEnd;
+        loadTime = now;
+        loaded = true;
+        loadCount++;
+    }
+
+    /**
+     * Apply the changes of a transaction, once it completed.
+     *
+     * @param committed whether the transaction was committed; if not, the
+     * triggers it removed may be back, so the index is invalidated
+     */
+    synchronized void apply(Changes changes, boolean committed) {
+        generation++;
+        if (changes.invalidate || !committed) {
+            invalidate();
+            return;
+        }
+        for (Map.Entry<TriggerKey, Entry> change : changes.entries.entrySet()) {
+            remove(change.getKey());
+            Entry entry = change.getValue();
+            if (entry != null && entry.getNextFireTime() <= end) {
+                add(entry);
+            }
+        }
+    }
+
+    /**
+     * Correct the fire time of a trigger found to be stale.
+     */
+    synchronized void correct(Entry entry) {
+        remove(entry.getKey());
+        if (entry.getNextFireTime() <= end) {
+            add(entry);
+        }
+    }
+
+    private void remove(TriggerKey key) {
+        Entry entry = entriesByKey.remove(key);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    /**
+     * Forget the contents of the index, to load them again.
+     */
+    synchronized void invalidate() {
+        generation++;
+        loaded = false;
+        end = Long.MIN_VALUE;
+        clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of times the index was loaded.
+     */
+    synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Get the number of acquisitions the index answered.
+     */
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    private void add(Entry entry) {
+        entries.add(entry);
+        entriesByKey.put(entry.getKey(), entry);
+    }
+
+    private void clear() {
+        entries.clear();
+        entriesByKey.clear();
+    }
+}
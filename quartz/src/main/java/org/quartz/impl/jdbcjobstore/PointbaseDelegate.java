@@ -28,6 +28,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.quartz.Calendar;
 import org.quartz.JobDetail;
@@ -136,6 +137,38 @@ public class PointbaseDelegate extends StdJDBCDelegate {
         return insertResult;
     }
 
+    /**
+     * <p>
+     * Insert the job detail records one at a time, as the driver needs blobs
+     * to be written as streams of known length.
+     * </p>
+     */
+    @Override
+    public int insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        int count = 0;
+        for (JobDetail job : jobs) {
+            count += insertJobDetail(conn, job);
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * Insert the triggers one at a time, as the driver needs blobs
+     * to be written as streams of known length.
+     * </p>
+     */
+    @Override
+    public int insertTriggers(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) throws SQLException, IOException {
+        int count = 0;
+        for (int i = 0; i < triggers.size(); i++) {
+            count += insertTrigger(conn, triggers.get(i), states.get(i), jobDetails.get(i));
+        }
+        return count;
+    }
+
     @Override
     public int insertTrigger(Connection conn, OperableTrigger trigger, String state,
             JobDetail jobDetail) throws SQLException, IOException {
@@ -43,6 +43,8 @@ public class SchedulerStateRecord implements java.io.Serializable {
 
     private long checkinInterval;
 
+    private boolean acquiring = true;
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -63,6 +65,16 @@ public class SchedulerStateRecord implements java.io.Serializable {
         return checkinTimestamp;
     }
 
+    /**
+     * Whether the instance is acquiring triggers, rather than in standby.
+     * An instance in standby records its check-in interval negated.
+     *
+     * @since 2.5.1
+     */
+    public boolean isAcquiring() {
+        return acquiring;
+    }
+
     /**
      */
     public String getSchedulerInstanceId() {
@@ -81,6 +93,13 @@ public class SchedulerStateRecord implements java.io.Serializable {
         checkinTimestamp = l;
     }
 
+    /**
+     * @since 2.5.1
+     */
+    public void setAcquiring(boolean acquiring) {
+        this.acquiring = acquiring;
+    }
+
     /**
      */
     public void setSchedulerInstanceId(String string) {
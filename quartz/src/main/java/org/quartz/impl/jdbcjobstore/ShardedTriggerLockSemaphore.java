@@ -0,0 +1,135 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+
+/**
+ * A lock handler that splits the <code>TRIGGER_ACCESS</code> lock into a
+ * number of shard locks (<code>TRIGGER_ACCESS_0</code> to
+ * <code>TRIGGER_ACCESS_N-1</code>), each of which protects the triggers of
+ * the jobs that hash to that shard.
+ *
+ * <p>
+ * Obtaining <code>TRIGGER_ACCESS</code> itself obtains every shard lock, in
+ * ascending order, so that operations that are not confined to a single
+ * shard still exclude all others.  Any other lock name is passed through to
+ * the wrapped <code>Semaphore</code> unchanged.
+ * </p>
+ *
+ * @see JobStoreSupport#setTriggerLockShardCount(int)
+ */
+public class ShardedTriggerLockSemaphore implements Semaphore {
+
+    private final Semaphore delegate;
+
+    private final String lockName;
+
+    private final String[] shardLockNames;
+
+    /**
+     * @param delegate the <code>Semaphore</code> that actually obtains the locks
+     * @param lockName the name of the lock to shard, for example "TRIGGER_ACCESS"
+     * @param shardCount the number of shards
+     */
+    public ShardedTriggerLockSemaphore(Semaphore delegate, String lockName, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.lockName = lockName;
+        this.shardLockNames = new String[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shardLockNames[i] = shardLockName(lockName, i);
+        }
+    }
+
+    /**
+     * Get the name of the lock that protects the given shard of the named lock.
+     */
+    public static String shardLockName(String lockName, int shard) {
+        return lockName + "_" + shard;
+    }
+
+    public Semaphore getDelegate() {
+        return delegate;
+    }
+
+    public int getShardCount() {
+        return shardLockNames.length;
+    }
+
+    /**
+     * Get the name of the lock that protects the given shard.
+     */
+    public String getShardLockName(int shard) {
+        return shardLockNames[shard];
+    }
+
+    public boolean obtainLock(Connection conn, String lockName) throws LockException {
+        if (!this.lockName.equals(lockName)) {
+            return delegate.obtainLock(conn, lockName);
+        }
+
+        int obtained = 0;
+        try {
+            for (; obtained < shardLockNames.length; obtained++) {
+                delegate.obtainLock(conn, shardLockNames[obtained]);
+            }
+        } catch (LockException | RuntimeException e) {
+            // don't keep the shards we did get while failing the whole lock
+            try {
+                releaseShardLocks(obtained);
+            } catch (LockException le) {
+                e.addSuppressed(le);
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    public void releaseLock(String lockName) throws LockException {
+        if (!this.lockName.equals(lockName)) {
+            delegate.releaseLock(lockName);
+            return;
+        }
+
+        releaseShardLocks(shardLockNames.length);
+    }
+
+    private void releaseShardLocks(int count) throws LockException {
+        LockException failure = null;
+        for (int i = count - 1; i >= 0; i--) {
+            try {
+                delegate.releaseLock(shardLockNames[i]);
+            } catch (LockException le) {
+                if (failure == null) {
+                    failure = le;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public boolean requiresConnection() {
+        return delegate.requiresConnection();
+    }
+}
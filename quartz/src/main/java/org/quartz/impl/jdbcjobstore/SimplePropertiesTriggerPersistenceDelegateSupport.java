@@ -21,6 +21,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 
 import org.quartz.JobDetail;
 import org.quartz.ScheduleBuilder;
@@ -64,6 +66,12 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
         + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
 
+    protected static final String DELETE_SIMPLE_PROPS_TRIGGERS = "DELETE FROM "
+        + TABLE_PREFIX_SUBST + TABLE_SIMPLE_PROPERTIES_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+        + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+        + " IN (" + NAME_LIST_SUBST + ")";
+
     protected static final String INSERT_SIMPLE_PROPS_TRIGGER = "INSERT INTO "
         + TABLE_PREFIX_SUBST + TABLE_SIMPLE_PROPERTIES_TRIGGERS + " ("
         + COL_SCHEDULER_NAME + ", "
@@ -121,19 +129,7 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         
         try {
             ps = conn.prepareStatement(Util.rtp(INSERT_SIMPLE_PROPS_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, properties.getString1());
-            ps.setString(4, properties.getString2());
-            ps.setString(5, properties.getString3());
-            ps.setInt(6, properties.getInt1());
-            ps.setInt(7, properties.getInt2());
-            ps.setLong(8, properties.getLong1());
-            ps.setLong(9, properties.getLong2());
-            ps.setBigDecimal(10, properties.getDecimal1());
-            ps.setBigDecimal(11, properties.getDecimal2());
-            ps.setBoolean(12, properties.isBoolean1());
-            ps.setBoolean(13, properties.isBoolean2());
+            setInsertParameters(ps, trigger, properties);
 
             return ps.executeUpdate();
         } finally {
@@ -141,6 +137,47 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         }
     }
 
+    @Override
+    public int insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(Util.rtp(INSERT_SIMPLE_PROPS_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setInsertParameters(ps, trigger, getTriggerProperties(trigger));
+                ps.addBatch();
+            }
+
+            return Util.batchCount(ps.executeBatch());
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    @Override
+    public int deleteExtendedTriggerProperties(Connection conn, Collection<TriggerKey> triggerKeys) throws SQLException {
+        return Util.executeUpdateForKeys(conn, Util.rtp(DELETE_SIMPLE_PROPS_TRIGGERS, tablePrefix, schedNameLiteral), triggerKeys);
+    }
+
+    private void setInsertParameters(PreparedStatement ps, OperableTrigger trigger,
+            SimplePropertiesTriggerProperties properties) throws SQLException {
+        ps.setString(1, trigger.getKey().getName());
+        ps.setString(2, trigger.getKey().getGroup());
+        ps.setString(3, properties.getString1());
+        ps.setString(4, properties.getString2());
+        ps.setString(5, properties.getString3());
+        ps.setInt(6, properties.getInt1());
+        ps.setInt(7, properties.getInt2());
+        ps.setLong(8, properties.getLong1());
+        ps.setLong(9, properties.getLong2());
+        ps.setBigDecimal(10, properties.getDecimal1());
+        ps.setBigDecimal(11, properties.getDecimal2());
+        ps.setBoolean(12, properties.isBoolean1());
+        ps.setBoolean(13, properties.isBoolean2());
+    }
+
     public TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException {
 
         PreparedStatement ps = null;
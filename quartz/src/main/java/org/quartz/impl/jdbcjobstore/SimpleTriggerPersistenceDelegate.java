@@ -22,6 +22,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 
 import org.quartz.JobDetail;
 import org.quartz.SimpleScheduleBuilder;
@@ -70,11 +72,7 @@ public class SimpleTriggerPersistenceDelegate implements TriggerPersistenceDeleg
         
         try {
             ps = conn.prepareStatement(Util.rtp(INSERT_SIMPLE_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setInt(3, simpleTrigger.getRepeatCount());
-            ps.setBigDecimal(4, new BigDecimal(String.valueOf(simpleTrigger.getRepeatInterval())));
-            ps.setInt(5, simpleTrigger.getTimesTriggered());
+            setInsertParameters(ps, simpleTrigger);
 
             return ps.executeUpdate();
         } finally {
@@ -82,6 +80,38 @@ public class SimpleTriggerPersistenceDelegate implements TriggerPersistenceDeleg
         }
     }
 
+    @Override
+    public int insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(Util.rtp(INSERT_SIMPLE_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setInsertParameters(ps, (SimpleTrigger)trigger);
+                ps.addBatch();
+            }
+
+            return Util.batchCount(ps.executeBatch());
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    @Override
+    public int deleteExtendedTriggerProperties(Connection conn, Collection<TriggerKey> triggerKeys) throws SQLException {
+        return Util.executeUpdateForKeys(conn, Util.rtp(DELETE_SIMPLE_TRIGGERS, tablePrefix, schedNameLiteral), triggerKeys);
+    }
+
+    private void setInsertParameters(PreparedStatement ps, SimpleTrigger simpleTrigger) throws SQLException {
+        ps.setString(1, simpleTrigger.getKey().getName());
+        ps.setString(2, simpleTrigger.getKey().getGroup());
+        ps.setInt(3, simpleTrigger.getRepeatCount());
+        ps.setBigDecimal(4, new BigDecimal(String.valueOf(simpleTrigger.getRepeatInterval())));
+        ps.setInt(5, simpleTrigger.getTimesTriggered());
+    }
+
     public TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException {
 
         PreparedStatement ps = null;
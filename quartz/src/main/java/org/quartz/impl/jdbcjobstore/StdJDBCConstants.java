@@ -47,6 +47,9 @@ public interface StdJDBCConstants extends Constants {
     // table prefix substitution string
     String SCHED_NAME_SUBST = "{1}";
 
+    // substitution string for a list of name parameters, see Util.expandNameList
+    String NAME_LIST_SUBST = "{2}";
+
     // QUERIES
     String UPDATE_TRIGGER_STATES_FROM_OTHER_STATES = "UPDATE "
             + TABLE_PREFIX_SUBST
@@ -100,6 +103,15 @@ public interface StdJDBCConstants extends Constants {
         + "AND " + COL_TRIGGER_STATE + " = ? "
         + "ORDER BY " + COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
 
+    String SELECT_HAS_MISFIRED_TRIGGERS_AND_JOBS_IN_STATE = "SELECT "
+        + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + ", " + COL_JOB_NAME + ", " + COL_JOB_GROUP + " FROM "
+        + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND NOT ("
+        + COL_MISFIRE_INSTRUCTION + " = " + Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY + ") AND " 
+        + COL_NEXT_FIRE_TIME + " < ? " 
+        + "AND " + COL_TRIGGER_STATE + " = ? "
+        + "ORDER BY " + COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
+
     String SELECT_MISFIRED_TRIGGERS_IN_GROUP_IN_STATE = "SELECT "
         + COL_TRIGGER_NAME
         + " FROM "
@@ -515,6 +527,23 @@ public interface StdJDBCConstants extends Constants {
         + " AND " + COL_TRIGGER_STATE + " = ? AND " + COL_NEXT_FIRE_TIME + " <= ? " 
         + "AND (" + COL_MISFIRE_INSTRUCTION + " = -1 OR (" +COL_MISFIRE_INSTRUCTION+ " <> -1 AND "+ COL_NEXT_FIRE_TIME + " >= ?)) "
         + "ORDER BY "+ COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
+
+    String SELECT_NEXT_TRIGGER_AND_JOB_TO_ACQUIRE = "SELECT "
+        + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + ", " + COL_JOB_NAME + ", " + COL_JOB_GROUP + ", "
+        + COL_NEXT_FIRE_TIME + ", " + COL_PRIORITY + " FROM "
+        + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+        + " AND " + COL_TRIGGER_STATE + " = ? AND " + COL_NEXT_FIRE_TIME + " <= ? " 
+        + "AND (" + COL_MISFIRE_INSTRUCTION + " = -1 OR (" +COL_MISFIRE_INSTRUCTION+ " <> -1 AND "+ COL_NEXT_FIRE_TIME + " >= ?)) "
+        + "ORDER BY "+ COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
+
+    String SELECT_WAITING_TRIGGERS_TO_FIRE_BEFORE = "SELECT "
+        + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + ", " + COL_JOB_NAME + ", " + COL_JOB_GROUP + ", "
+        + COL_NEXT_FIRE_TIME + ", " + COL_PRIORITY + ", " + COL_MISFIRE_INSTRUCTION + " FROM "
+        + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+        + " AND " + COL_TRIGGER_STATE + " = ? AND " + COL_NEXT_FIRE_TIME + " <= ? "
+        + "ORDER BY "+ COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
     
     
     String INSERT_FIRED_TRIGGER = "INSERT INTO "
@@ -573,6 +602,17 @@ public interface StdJDBCConstants extends Constants {
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_JOB_NAME + " = ? AND " + COL_JOB_GROUP + " = ?";
 
+    String SELECT_NUM_NONCONCURRENT_FIRED_TRIGGERS_OF_JOB_FOR_TRIGGER = "SELECT COUNT(F."
+            + COL_ENTRY_ID + ") FROM " + TABLE_PREFIX_SUBST
+            + TABLE_TRIGGERS + " T, " + TABLE_PREFIX_SUBST + TABLE_FIRED_TRIGGERS
+            + " F WHERE T." + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND F." + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND T." + COL_TRIGGER_NAME + " = ? AND T."
+            + COL_TRIGGER_GROUP + " = ? AND T." + COL_JOB_NAME + " = F."
+            + COL_JOB_NAME + " AND T." + COL_JOB_GROUP + " = F."
+            + COL_JOB_GROUP + " AND F." + COL_ENTRY_STATE + " = ? AND F."
+            + COL_IS_NONCONCURRENT + " = ?";
+
     String SELECT_FIRED_TRIGGERS_OF_JOB_GROUP = "SELECT * FROM "
             + TABLE_PREFIX_SUBST
             + TABLE_FIRED_TRIGGERS
@@ -627,6 +667,11 @@ public interface StdJDBCConstants extends Constants {
             + TABLE_PREFIX_SUBST + TABLE_SCHEDULER_STATE
             + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
 
+    String SELECT_EXPIRED_SCHEDULER_STATES = "SELECT * FROM "
+            + TABLE_PREFIX_SUBST + TABLE_SCHEDULER_STATE
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_LAST_CHECKIN_TIME + " < ?";
+
     String DELETE_SCHEDULER_STATE = "DELETE FROM "
         + TABLE_PREFIX_SUBST + TABLE_SCHEDULER_STATE + " WHERE "
         + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
@@ -638,6 +683,12 @@ public interface StdJDBCConstants extends Constants {
         + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
         + " AND " + COL_INSTANCE_NAME + " = ?";
 
+    String UPDATE_SCHEDULER_STATE_AND_INTERVAL = "UPDATE "
+        + TABLE_PREFIX_SUBST + TABLE_SCHEDULER_STATE + " SET "
+        + COL_LAST_CHECKIN_TIME + " = ?, " + COL_CHECKIN_INTERVAL + " = ? WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+        + " AND " + COL_INSTANCE_NAME + " = ?";
+
     String INSERT_PAUSED_TRIGGER_GROUP = "INSERT INTO "
             + TABLE_PREFIX_SUBST + TABLE_PAUSED_TRIGGERS + " ("
             + COL_SCHEDULER_NAME + ", "
@@ -663,6 +714,81 @@ public interface StdJDBCConstants extends Constants {
             + TABLE_PREFIX_SUBST + TABLE_PAUSED_TRIGGERS
             + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
 
+    // SET BASED QUERIES, run a group at a time with a list of names
+
+    String SELECT_EXISTING_JOB_NAMES = "SELECT "
+            + COL_JOB_NAME + " FROM " + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_JOB_GROUP + " = ? AND " + COL_JOB_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String SELECT_EXISTING_TRIGGER_NAMES = "SELECT "
+            + COL_TRIGGER_NAME + " FROM " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String SELECT_TRIGGERS_FOR_JOBS = "SELECT "
+            + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + " FROM "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_JOB_GROUP + " = ? AND " + COL_JOB_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String SELECT_JOBS_FOR_TRIGGERS = "SELECT DISTINCT "
+            + COL_JOB_NAME + ", " + COL_JOB_GROUP + " FROM "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String SELECT_JOBS_WITHOUT_TRIGGERS = "SELECT J."
+            + COL_JOB_NAME + ", J." + COL_IS_DURABLE + " FROM "
+            + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS + " J WHERE J."
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND J." + COL_JOB_GROUP + " = ? AND J." + COL_JOB_NAME
+            + " IN (" + NAME_LIST_SUBST + ") AND NOT EXISTS (SELECT 1 FROM "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " T WHERE T."
+            + COL_SCHEDULER_NAME + " = J." + COL_SCHEDULER_NAME
+            + " AND T." + COL_JOB_NAME + " = J." + COL_JOB_NAME
+            + " AND T." + COL_JOB_GROUP + " = J." + COL_JOB_GROUP + ")";
+
+    String DELETE_JOB_DETAILS = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_JOB_GROUP + " = ? AND " + COL_JOB_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String DELETE_TRIGGERS = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String DELETE_SIMPLE_TRIGGERS = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_SIMPLE_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String DELETE_CRON_TRIGGERS = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_CRON_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    String DELETE_BLOB_TRIGGERS = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_BLOB_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_TRIGGER_GROUP + " = ? AND " + COL_TRIGGER_NAME
+            + " IN (" + NAME_LIST_SUBST + ")";
+
+    // run with a list of entry ids, rather than a group and names
+    String DELETE_FIRED_TRIGGER_ENTRIES = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_FIRED_TRIGGERS
+            + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_ENTRY_ID + " IN (" + NAME_LIST_SUBST + ")";
+
     //  CREATE TABLE qrtz_scheduler_state(INSTANCE_NAME VARCHAR2(80) NOT NULL,
     // LAST_CHECKIN_TIME NUMBER(13) NOT NULL, CHECKIN_INTERVAL NUMBER(13) NOT
     // NULL, PRIMARY KEY (INSTANCE_NAME));
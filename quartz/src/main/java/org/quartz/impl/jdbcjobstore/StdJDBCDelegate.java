@@ -36,14 +36,19 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.BiPredicate;
 
 import org.quartz.Calendar;
 import org.quartz.Job;
@@ -169,6 +174,8 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     }
 
     protected void addDefaultTriggerPersistenceDelegates() {
+        // ahead of the simple trigger delegate, which also handles tasks
+        addTriggerPersistenceDelegate(new TaskTriggerPersistenceDelegate());
         addTriggerPersistenceDelegate(new SimpleTriggerPersistenceDelegate());
         addTriggerPersistenceDelegate(new CronTriggerPersistenceDelegate());
         addTriggerPersistenceDelegate(new CalendarIntervalTriggerPersistenceDelegate());
@@ -373,6 +380,37 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
     
+    public boolean hasMisfiredTriggersInState(Connection conn, String state1, 
+        long ts, int count, List<TriggerKey> resultList, BiPredicate<TriggerKey, JobKey> filter) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_HAS_MISFIRED_TRIGGERS_AND_JOBS_IN_STATE));
+            ps.setBigDecimal(1, new BigDecimal(String.valueOf(ts)));
+            ps.setString(2, state1);
+            rs = ps.executeQuery();
+
+            boolean hasReachedLimit = false;
+            while (rs.next() && (!hasReachedLimit)) {
+                TriggerKey key = triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP));
+                if (!filter.test(key, jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP)))) {
+                    continue;
+                }
+                if (resultList.size() == count) {
+                    hasReachedLimit = true;
+                } else {
+                    resultList.add(key);
+                }
+            }
+            
+            return hasReachedLimit;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+    
     /**
      * <p>
      * Get the number of triggers in the given states that have
@@ -611,15 +649,7 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
         try {
             ps = conn.prepareStatement(rtp(INSERT_JOB_DETAIL));
-            ps.setString(1, job.getKey().getName());
-            ps.setString(2, job.getKey().getGroup());
-            ps.setString(3, job.getDescription());
-            ps.setString(4, job.getJobClass().getName());
-            setBoolean(ps, 5, job.isDurable());
-            setBoolean(ps, 6, job.isConcurrentExecutionDisallowed());
-            setBoolean(ps, 7, job.isPersistJobDataAfterExecution());
-            setBoolean(ps, 8, job.requestsRecovery());
-            setBytes(ps, 9, baos);
+            setJobDetailInsertParameters(ps, job, baos);
 
             insertResult = ps.executeUpdate();
         } finally {
@@ -629,6 +659,19 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    private void setJobDetailInsertParameters(PreparedStatement ps, JobDetail job, ByteArrayOutputStream baos)
+        throws SQLException {
+        ps.setString(1, job.getKey().getName());
+        ps.setString(2, job.getKey().getGroup());
+        ps.setString(3, job.getDescription());
+        ps.setString(4, job.getJobClass().getName());
+        setBoolean(ps, 5, job.isDurable());
+        setBoolean(ps, 6, job.isConcurrentExecutionDisallowed());
+        setBoolean(ps, 7, job.isPersistJobDataAfterExecution());
+        setBoolean(ps, 8, job.requestsRecovery());
+        setBytes(ps, 9, baos);
+    }
+
     /**
      * <p>
      * Update the job detail record.
@@ -755,6 +798,37 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Check whether the job of the given trigger disallows concurrent
+     * execution and is executing, in one lookup.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * 
+     * @return true if the trigger exists, and its job disallows concurrent
+     *         execution and has a fired trigger in the <code>EXECUTING</code>
+     *         state, false otherwise
+     */
+    public boolean isNonConcurrentJobOfTriggerExecuting(Connection conn, TriggerKey triggerKey) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_NUM_NONCONCURRENT_FIRED_TRIGGERS_OF_JOB_FOR_TRIGGER));
+            ps.setString(1, triggerKey.getName());
+            ps.setString(2, triggerKey.getGroup());
+            ps.setString(3, STATE_EXECUTING);
+            setBoolean(ps, 4, true);
+            rs = ps.executeQuery();
+            return rs.next() && rs.getInt(1) > 0;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
     /**
      * <p>
      * Check whether or not the given job exists.
@@ -1033,52 +1107,15 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     public int insertTrigger(Connection conn, OperableTrigger trigger, String state,
             JobDetail jobDetail) throws SQLException, IOException {
 
-        ByteArrayOutputStream baos = null;
-        if(!trigger.getJobDataMap().isEmpty()) {
-            baos = serializeJobData(trigger.getJobDataMap());
-        }
-        
         PreparedStatement ps = null;
 
         int insertResult;
 
         try {
             ps = conn.prepareStatement(rtp(INSERT_TRIGGER));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, trigger.getJobKey().getName());
-            ps.setString(4, trigger.getJobKey().getGroup());
-            ps.setString(5, trigger.getDescription());
-            if(trigger.getNextFireTime() != null)
-                ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger
-                        .getNextFireTime().getTime())));
-            else
-                ps.setBigDecimal(6, null);
-            long prevFireTime = -1;
-            if (trigger.getPreviousFireTime() != null) {
-                prevFireTime = trigger.getPreviousFireTime().getTime();
-            }
-            ps.setBigDecimal(7, new BigDecimal(String.valueOf(prevFireTime)));
-            ps.setString(8, state);
-            
+
             TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(trigger);
-            
-            String type = TTYPE_BLOB;
-            if(tDel != null)
-                type = tDel.getHandledTriggerTypeDiscriminator();
-            ps.setString(9, type);
-            
-            ps.setBigDecimal(10, new BigDecimal(String.valueOf(trigger
-                    .getStartTime().getTime())));
-            long endTime = 0;
-            if (trigger.getEndTime() != null) {
-                endTime = trigger.getEndTime().getTime();
-            }
-            ps.setBigDecimal(11, new BigDecimal(String.valueOf(endTime)));
-            ps.setString(12, trigger.getCalendarName());
-            ps.setInt(13, trigger.getMisfireInstruction());
-            setBytes(ps, 14, baos);
-            ps.setInt(15, trigger.getPriority());
+            setTriggerInsertParameters(ps, trigger, state, tDel);
             
             insertResult = ps.executeUpdate();
             
@@ -1094,6 +1131,49 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    private void setTriggerInsertParameters(PreparedStatement ps, OperableTrigger trigger, String state,
+            TriggerPersistenceDelegate tDel) throws SQLException, IOException {
+
+        ByteArrayOutputStream baos = null;
+        if(!trigger.getJobDataMap().isEmpty()) {
+            baos = serializeJobData(trigger.getJobDataMap());
+        }
+
+        ps.setString(1, trigger.getKey().getName());
+        ps.setString(2, trigger.getKey().getGroup());
+        ps.setString(3, trigger.getJobKey().getName());
+        ps.setString(4, trigger.getJobKey().getGroup());
+        ps.setString(5, trigger.getDescription());
+        if(trigger.getNextFireTime() != null)
+            ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger
+                    .getNextFireTime().getTime())));
+        else
+            ps.setBigDecimal(6, null);
+        long prevFireTime = -1;
+        if (trigger.getPreviousFireTime() != null) {
+            prevFireTime = trigger.getPreviousFireTime().getTime();
+        }
+        ps.setBigDecimal(7, new BigDecimal(String.valueOf(prevFireTime)));
+        ps.setString(8, state);
+
+        String type = TTYPE_BLOB;
+        if(tDel != null)
+            type = tDel.getHandledTriggerTypeDiscriminator();
+        ps.setString(9, type);
+
+        ps.setBigDecimal(10, new BigDecimal(String.valueOf(trigger
+                .getStartTime().getTime())));
+        long endTime = 0;
+        if (trigger.getEndTime() != null) {
+            endTime = trigger.getEndTime().getTime();
+        }
+        ps.setBigDecimal(11, new BigDecimal(String.valueOf(endTime)));
+        ps.setString(12, trigger.getCalendarName());
+        ps.setInt(13, trigger.getMisfireInstruction());
+        setBytes(ps, 14, baos);
+        ps.setInt(15, trigger.getPriority());
+    }
+
     /**
      * <p>
      * Insert the blob trigger data.
@@ -2595,6 +2675,68 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }      
     }
 
+    public List<TriggerKey> selectTriggerToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount,
+            BiPredicate<TriggerKey, JobKey> filter)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<TriggerKey> nextTriggers = new ArrayList<>();
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_NEXT_TRIGGER_AND_JOB_TO_ACQUIRE));
+            
+            if (maxCount < 1)
+                maxCount = 1; // we want at least one trigger back.
+            // the rows the filter rejects are read too, so no max rows
+            ps.setFetchSize(maxCount);
+            
+            ps.setString(1, STATE_WAITING);
+            ps.setBigDecimal(2, new BigDecimal(String.valueOf(noLaterThan)));
+            ps.setBigDecimal(3, new BigDecimal(String.valueOf(noEarlierThan)));
+            rs = ps.executeQuery();
+            
+            while (nextTriggers.size() < maxCount && rs.next()) {
+                TriggerKey key = triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP));
+                if (filter.test(key, jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP)))) {
+                    nextTriggers.add(key);
+                }
+            }
+            
+            return nextTriggers;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }      
+    }
+
+    public List<NearTermTriggerIndex.Entry> selectWaitingTriggersToFireBefore(Connection conn, long noLaterThan, int maxCount)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<NearTermTriggerIndex.Entry> triggers = new ArrayList<>();
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_WAITING_TRIGGERS_TO_FIRE_BEFORE));
+            ps.setMaxRows(maxCount);
+            ps.setFetchSize(Math.min(maxCount, 1000));
+            ps.setString(1, STATE_WAITING);
+            ps.setBigDecimal(2, new BigDecimal(String.valueOf(noLaterThan)));
+            rs = ps.executeQuery();
+
+            while (rs.next() && triggers.size() < maxCount) {
+                triggers.add(new NearTermTriggerIndex.Entry(
+                        triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+                        jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP)),
+                        rs.getLong(COL_NEXT_FIRE_TIME),
+                        rs.getInt(COL_PRIORITY),
+                        rs.getInt(COL_MISFIRE_INSTRUCTION)));
+            }
+
+            return triggers;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
     /**
      * <p>
      * Insert a fired trigger.
@@ -2947,6 +3089,21 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             closeStatement(ps);
         }
     }
+
+    public int updateSchedulerState(Connection conn, String theInstanceId, long checkInTime, long interval)
+        throws SQLException {
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(rtp(UPDATE_SCHEDULER_STATE_AND_INTERVAL));
+            ps.setLong(1, checkInTime);
+            ps.setLong(2, interval);
+            ps.setString(3, theInstanceId);
+
+            return ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+    }
         
     public List<SchedulerStateRecord> selectSchedulerStateRecords(Connection conn, String theInstanceId)
         throws SQLException {
@@ -2964,13 +3121,30 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             rs = ps.executeQuery();
 
             while (rs.next()) {
-                SchedulerStateRecord rec = new SchedulerStateRecord();
+                lst.add(readSchedulerStateRecord(rs));
+            }
 
-                rec.setSchedulerInstanceId(rs.getString(COL_INSTANCE_NAME));
-                rec.setCheckinTimestamp(rs.getLong(COL_LAST_CHECKIN_TIME));
-                rec.setCheckinInterval(rs.getLong(COL_CHECKIN_INTERVAL));
+            return lst;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
 
-                lst.add(rec);
+    }
+
+    public List<SchedulerStateRecord> selectExpiredSchedulerStateRecords(Connection conn, long checkinBefore)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            List<SchedulerStateRecord> lst = new LinkedList<>();
+
+            ps = conn.prepareStatement(rtp(SELECT_EXPIRED_SCHEDULER_STATES));
+            ps.setLong(1, checkinBefore);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                lst.add(readSchedulerStateRecord(rs));
             }
 
             return lst;
@@ -2978,7 +3152,196 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             closeResultSet(rs);
             closeStatement(ps);
         }
+    }
+
+    private SchedulerStateRecord readSchedulerStateRecord(ResultSet rs) throws SQLException {
+        SchedulerStateRecord rec = new SchedulerStateRecord();
+
+        rec.setSchedulerInstanceId(rs.getString(COL_INSTANCE_NAME));
+        rec.setCheckinTimestamp(rs.getLong(COL_LAST_CHECKIN_TIME));
+        // instances in standby record their interval negated
+        long interval = rs.getLong(COL_CHECKIN_INTERVAL);
+        rec.setCheckinInterval(Math.abs(interval));
+        rec.setAcquiring(interval >= 0);
+
+        return rec;
+    }
+
+    //---------------------------------------------------------------------------
+    // bulk operations
+    //---------------------------------------------------------------------------
+
+    public Set<JobKey> selectExistingJobKeys(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException {
+        Set<JobKey> existing = new HashSet<>();
+        Util.executeQueryForKeys(conn, rtp(SELECT_EXISTING_JOB_NAMES), jobKeys,
+                (group, rs) -> existing.add(jobKey(rs.getString(COL_JOB_NAME), group)));
+        return existing;
+    }
+
+    public Set<TriggerKey> selectExistingTriggerKeys(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException {
+        Set<TriggerKey> existing = new HashSet<>();
+        Util.executeQueryForKeys(conn, rtp(SELECT_EXISTING_TRIGGER_NAMES), triggerKeys,
+                (group, rs) -> existing.add(triggerKey(rs.getString(COL_TRIGGER_NAME), group)));
+        return existing;
+    }
+
+    public List<TriggerKey> selectTriggerKeysForJobs(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException {
+        List<TriggerKey> keys = new ArrayList<>();
+        Util.executeQueryForKeys(conn, rtp(SELECT_TRIGGERS_FOR_JOBS), jobKeys,
+                (group, rs) -> keys.add(triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP))));
+        return keys;
+    }
+
+    public Set<JobKey> selectJobKeysForTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException {
+        Set<JobKey> keys = new LinkedHashSet<>();
+        Util.executeQueryForKeys(conn, rtp(SELECT_JOBS_FOR_TRIGGERS), triggerKeys,
+                (group, rs) -> keys.add(jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP))));
+        return keys;
+    }
+
+    public List<JobKey> selectOrphanedNonDurableJobKeys(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException {
+        List<JobKey> keys = new ArrayList<>();
+        Util.executeQueryForKeys(conn, rtp(SELECT_JOBS_WITHOUT_TRIGGERS), jobKeys, (group, rs) -> {
+            if (!getBoolean(rs, COL_IS_DURABLE)) {
+                keys.add(jobKey(rs.getString(COL_JOB_NAME), group));
+            }
+        });
+        return keys;
+    }
 
+    public int insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_JOB_DETAIL));
+            for (JobDetail job : jobs) {
+                setJobDetailInsertParameters(ps, job, serializeJobData(job.getJobDataMap()));
+                ps.addBatch();
+            }
+
+            return Util.batchCount(ps.executeBatch());
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
+    public int insertTriggers(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) throws SQLException, IOException {
+        if (triggers.isEmpty()) {
+            return 0;
+        }
+
+        // the triggers of each persistence delegate, with their states and jobs
+        Map<TriggerPersistenceDelegate, List<Integer>> byDelegate = new IdentityHashMap<>();
+        List<OperableTrigger> blobTriggers = new ArrayList<>();
+
+        PreparedStatement ps = null;
+
+        int insertResult;
+
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_TRIGGER));
+            for (int i = 0; i < triggers.size(); i++) {
+                OperableTrigger trigger = triggers.get(i);
+                TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(trigger);
+                setTriggerInsertParameters(ps, trigger, states.get(i), tDel);
+                ps.addBatch();
+
+                if(tDel == null)
+                    blobTriggers.add(trigger);
+                else
+                    byDelegate.computeIfAbsent(tDel, d -> new ArrayList<>()).add(i);
+            }
+
+            insertResult = Util.batchCount(ps.executeBatch());
+        } finally {
+            closeStatement(ps);
+        }
+
+        for (Map.Entry<TriggerPersistenceDelegate, List<Integer>> entry : byDelegate.entrySet()) {
+            List<OperableTrigger> delTriggers = new ArrayList<>(entry.getValue().size());
+            List<String> delStates = new ArrayList<>(entry.getValue().size());
+            List<JobDetail> delJobs = new ArrayList<>(entry.getValue().size());
+            for (int i : entry.getValue()) {
+                delTriggers.add(triggers.get(i));
+                delStates.add(states.get(i));
+                delJobs.add(jobDetails.get(i));
+            }
+            entry.getKey().insertExtendedTriggerProperties(conn, delTriggers, delStates, delJobs);
+        }
+        for (OperableTrigger trigger : blobTriggers) {
+            insertBlobTrigger(conn, trigger);
+        }
+
+        return insertResult;
+    }
+
+    public int deleteTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException {
+        if (triggerKeys.isEmpty()) {
+            return 0;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deleting {} triggers", triggerKeys.size());
+        }
+
+        // a trigger's extended properties are in one table only, so each
+        // delegate deletes those it finds
+        for (TriggerPersistenceDelegate tDel : triggerPersistenceDelegates) {
+            tDel.deleteExtendedTriggerProperties(conn, triggerKeys);
+        }
+        Util.executeUpdateForKeys(conn, rtp(DELETE_BLOB_TRIGGERS), triggerKeys);
+
+        return Util.executeUpdateForKeys(conn, rtp(DELETE_TRIGGERS), triggerKeys);
+    }
+
+    public int deleteTasks(Connection conn, Collection<TriggerKey> taskKeys)
+        throws SQLException {
+        if (taskKeys.isEmpty()) {
+            return 0;
+        }
+        return Util.executeUpdateForKeys(conn, rtp(DELETE_TRIGGERS), taskKeys);
+    }
+
+    public int deleteFiredTriggers(Connection conn, Collection<String> entryIds)
+        throws SQLException {
+        List<String> ids = new ArrayList<>(entryIds);
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += Util.MAX_NAMES_PER_STATEMENT) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + Util.MAX_NAMES_PER_STATEMENT));
+            PreparedStatement ps = null;
+            try {
+                ps = conn.prepareStatement(Util.expandNameList(rtp(DELETE_FIRED_TRIGGER_ENTRIES), chunk.size()));
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setString(i + 1, chunk.get(i));
+                }
+                count += ps.executeUpdate();
+            } finally {
+                closeStatement(ps);
+            }
+        }
+        return count;
+    }
+
+    public int deleteJobDetails(Connection conn, Collection<JobKey> jobKeys)
+        throws SQLException {
+        if (jobKeys.isEmpty()) {
+            return 0;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deleting {} jobs", jobKeys.size());
+        }
+        return Util.executeUpdateForKeys(conn, rtp(DELETE_JOB_DETAILS), jobKeys);
     }
 
     //---------------------------------------------------------------------------
@@ -0,0 +1,139 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import org.quartz.JobPersistenceException;
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.SchedulerSignaler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A <code>{@link ClusterSignaler}</code> that needs nothing but the
+ * database the cluster already shares: each node polls the earliest next
+ * fire time of the waiting triggers, and wakes its scheduler when it moves
+ * earlier, whichever node stored the trigger.
+ *
+ * <p>
+ * The poll is a single <code>MIN(NEXT_FIRE_TIME)</code> query over the
+ * trigger state index, taking no lock, so it may be run far more often
+ * than the scheduler's idle wait time.  Signalling the other nodes is a
+ * no-op: they find out by polling.
+ * </p>
+ *
+ * @see UdpClusterSignaler
+ */
+public class TablePollClusterSignaler implements ClusterSignaler {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private long pollInterval = 1000L;
+
+    private JobStoreSupport jobStore;
+
+    private SchedulerSignaler signaler;
+
+    private Poller poller;
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Set the number of milliseconds between polls of the trigger table.
+     * Defaults to one second.
+     */
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public void initialize(JobStoreSupport jobStore, SchedulerSignaler signaler) throws SchedulerConfigException {
+        if (pollInterval < 1) {
+            throw new SchedulerConfigException("Poll interval must be at least 1 ms.");
+        }
+        this.jobStore = jobStore;
+        this.signaler = signaler;
+    }
+
+    public synchronized void start() {
+        poller = new Poller();
+        poller.start();
+    }
+
+    public void signalSchedulingChange(long candidateNewNextFireTime) {
+        // the other nodes will see the trigger on their next poll
+    }
+
+    public void shutdown() {
+        Poller p;
+        synchronized (this) {
+            p = poller;
+            poller = null;
+        }
+        if (p != null) {
+            p.shutdown();
+            try {
+                p.join();
+            } catch (InterruptedException ignore) {
+            }
+        }
+    }
+
+    class Poller extends Thread {
+
+        private volatile boolean shutdown = false;
+
+        private long lastFireTime = -1L;
+
+        Poller() {
+            setName("QuartzScheduler_" + jobStore.getInstanceName() + "-" + jobStore.getInstanceId() + "_ClusterSignalPoller");
+            setDaemon(jobStore.getMakeThreadsDaemons());
+        }
+
+        void shutdown() {
+            shutdown = true;
+            interrupt();
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                try {
+                    poll();
+                } catch (JobPersistenceException e) {
+                    log.warn("Couldn't poll the earliest next fire time: {}", e.getMessage());
+                }
+            }
+        }
+
+        private void poll() throws JobPersistenceException {
+            long fireTime = jobStore.getEarliestWaitingFireTime();
+            // a later earliest time only means triggers were fired or
+            // removed, which the schedulers already know about
+            if (fireTime > 0 && lastFireTime >= 0 && (lastFireTime == 0 || fireTime < lastFireTime)) {
+                signaler.signalSchedulingChange(fireTime);
+            }
+            lastFireTime = fireTime;
+        }
+    }
+}
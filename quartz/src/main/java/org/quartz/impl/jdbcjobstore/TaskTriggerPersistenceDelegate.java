@@ -0,0 +1,80 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerUtils;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * Persists the triggers of delayed tasks (see
+ * <code>{@link TriggerUtils#isTask(org.quartz.Trigger)}</code>) in the
+ * triggers table alone: a one-shot trigger has no properties beyond those of
+ * the base trigger row, so there's no row of an extension table to insert,
+ * update, load or delete.
+ *
+ * @see org.quartz.Scheduler#scheduleTask(org.quartz.JobKey, long, org.quartz.JobDataMap)
+ */
+public class TaskTriggerPersistenceDelegate implements TriggerPersistenceDelegate, StdJDBCConstants {
+
+    public void initialize(String theTablePrefix, String schedName) {
+    }
+
+    public String getHandledTriggerTypeDiscriminator() {
+        return TTYPE_TASK;
+    }
+
+    public boolean canHandleTriggerType(OperableTrigger trigger) {
+        return TriggerUtils.isTask(trigger) && (trigger instanceof SimpleTriggerImpl)
+                && !((SimpleTriggerImpl) trigger).hasAdditionalProperties();
+    }
+
+    public int insertExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) {
+        return 0;
+    }
+
+    @Override
+    public int insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) {
+        return 0;
+    }
+
+    public int updateExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) {
+        return 0;
+    }
+
+    public int deleteExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) {
+        return 0;
+    }
+
+    @Override
+    public int deleteExtendedTriggerProperties(Connection conn, Collection<TriggerKey> triggerKeys) {
+        return 0;
+    }
+
+    public TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) {
+        // fires once, and is deleted (or completed) when it does
+        return new TriggerPropertyBundle(SimpleScheduleBuilder.simpleSchedule(), null, null);
+    }
+}
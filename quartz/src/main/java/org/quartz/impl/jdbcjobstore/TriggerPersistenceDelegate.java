@@ -19,6 +19,8 @@ package org.quartz.impl.jdbcjobstore;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 
 import org.quartz.JobDetail;
 import org.quartz.ScheduleBuilder;
@@ -45,6 +47,39 @@ public interface TriggerPersistenceDelegate {
     
     int deleteExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException;
 
+    /**
+     * Insert the extended properties of the given triggers, which are all of
+     * the type handled by this delegate, each with the state and job at the
+     * same index of the other lists.  By default they're inserted one at a
+     * time; implementations should use a JDBC batch.
+     *
+     * @return the number of rows inserted
+     */
+    default int insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states,
+            List<JobDetail> jobDetails) throws SQLException, IOException {
+        int count = 0;
+        for (int i = 0; i < triggers.size(); i++) {
+            count += insertExtendedTriggerProperties(conn, triggers.get(i), states.get(i), jobDetails.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Delete the extended properties of any of the given triggers that this
+     * delegate stored.  By default they're deleted one at a time;
+     * implementations should use set based deletes.
+     *
+     * @return the number of rows deleted
+     */
+    default int deleteExtendedTriggerProperties(Connection conn, Collection<TriggerKey> triggerKeys)
+            throws SQLException {
+        int count = 0;
+        for (TriggerKey triggerKey : triggerKeys) {
+            count += deleteExtendedTriggerProperties(conn, triggerKey);
+        }
+        return count;
+    }
+
     TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException;
     
     
@@ -0,0 +1,251 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.SchedulerSignaler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A <code>{@link ClusterSignaler}</code> that sends each new earliest fire
+ * time straight to the other nodes as a UDP datagram, so that they wake up
+ * within a network round trip rather than a poll interval.
+ *
+ * <p>
+ * Every node binds the configured <code>port</code> and lists the
+ * <code>host:port</code> addresses of the other nodes in
+ * <code>peers</code>; a node listing itself is harmless, as datagrams from
+ * its own instance are ignored.  Datagrams may be lost: a node that misses
+ * one still finds the trigger when its scheduler thread next wakes, as it
+ * would without any signaler.
+ * </p>
+ *
+ * @see TablePollClusterSignaler
+ */
+public class UdpClusterSignaler implements ClusterSignaler {
+
+    private static final int MAGIC = 0x51545a53;
+
+    private static final int MAX_DATAGRAM = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private String bindAddress;
+
+    private int port = 0;
+
+    private String peers;
+
+    private JobStoreSupport jobStore;
+
+    private SchedulerSignaler signaler;
+
+    private DatagramSocket socket;
+
+    private List<InetSocketAddress> peerAddresses;
+
+    private Receiver receiver;
+
+    private volatile boolean shutdown = false;
+
+    public String getBindAddress() {
+        return bindAddress;
+    }
+
+    /**
+     * Set the local address to receive datagrams on.  Defaults to all local
+     * addresses.
+     */
+    public void setBindAddress(String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Set the UDP port to receive datagrams on.  <code>0</code> (the
+     * default) picks a free port, which is only useful for testing.
+     */
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getPeers() {
+        return peers;
+    }
+
+    /**
+     * Set the comma separated <code>host:port</code> addresses of the other
+     * nodes.
+     */
+    public void setPeers(String peers) {
+        this.peers = peers;
+    }
+
+    /**
+     * Get the port datagrams are received on, once initialized.
+     */
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    public void initialize(JobStoreSupport jobStore, SchedulerSignaler signaler) throws SchedulerConfigException {
+        this.jobStore = jobStore;
+        this.signaler = signaler;
+        try {
+            InetSocketAddress local = (bindAddress == null || bindAddress.trim().isEmpty())
+                    ? new InetSocketAddress(port)
+                    : new InetSocketAddress(bindAddress.trim(), port);
+            socket = new DatagramSocket(local);
+        } catch (SocketException | IllegalArgumentException e) {
+            throw new SchedulerConfigException("Couldn't bind cluster signal socket to port " + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized void start() throws SchedulerConfigException {
+        peerAddresses = parsePeers(peers);
+        receiver = new Receiver();
+        receiver.start();
+    }
+
+    public void signalSchedulingChange(long candidateNewNextFireTime) {
+        List<InetSocketAddress> targets = peerAddresses;
+        if (targets == null || targets.isEmpty() || shutdown) {
+            return;
+        }
+        byte[] message;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeUTF(jobStore.getInstanceName());
+            out.writeUTF(jobStore.getInstanceId());
+            out.writeLong(candidateNewNextFireTime);
+            out.flush();
+            message = bytes.toByteArray();
+        } catch (IOException e) {
+            // cannot happen writing to memory
+            throw new IllegalStateException(e);
+        }
+        for (InetSocketAddress target : targets) {
+            try {
+                socket.send(new DatagramPacket(message, message.length, target));
+            } catch (IOException | IllegalArgumentException e) {
+                // e.g. a peer whose host name couldn't be resolved at start
+                log.debug("Couldn't signal cluster peer {}: {}", target, e.getMessage());
+            }
+        }
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        Receiver r;
+        synchronized (this) {
+            r = receiver;
+            receiver = null;
+        }
+        if (socket != null) {
+            // unblocks the receiver
+            socket.close();
+        }
+        if (r != null) {
+            try {
+                r.join();
+            } catch (InterruptedException ignore) {
+            }
+        }
+    }
+
+    static List<InetSocketAddress> parsePeers(String peers) throws SchedulerConfigException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        if (peers == null) {
+            return addresses;
+        }
+        for (String peer : peers.split(",")) {
+            peer = peer.trim();
+            if (peer.isEmpty()) {
+                continue;
+            }
+            int colon = peer.lastIndexOf(':');
+            try {
+                if (colon < 1) {
+                    throw new IllegalArgumentException("missing port");
+                }
+                addresses.add(new InetSocketAddress(peer.substring(0, colon),
+                        Integer.parseInt(peer.substring(colon + 1))));
+            } catch (IllegalArgumentException e) {
+                throw new SchedulerConfigException("Invalid cluster peer address '" + peer + "': " + e.getMessage(), e);
+            }
+        }
+        return addresses;
+    }
+
+    class Receiver extends Thread {
+
+        Receiver() {
+            setName("QuartzScheduler_" + jobStore.getInstanceName() + "-" + jobStore.getInstanceId() + "_ClusterSignalReceiver");
+            setDaemon(jobStore.getMakeThreadsDaemons());
+        }
+
+        @Override
+        public void run() {
+            byte[] buffer = new byte[MAX_DATAGRAM];
+            while (!shutdown) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    socket.receive(packet);
+                } catch (IOException e) {
+                    if (!shutdown) {
+                        log.warn("Cluster signal socket failed, no longer receiving signals.", e);
+                    }
+                    return;
+                }
+                try {
+                    DataInputStream in = new DataInputStream(
+                            new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()));
+                    if (in.readInt() != MAGIC) {
+                        continue;
+                    }
+                    String schedName = in.readUTF();
+                    String instanceId = in.readUTF();
+                    long fireTime = in.readLong();
+                    if (schedName.equals(jobStore.getInstanceName()) && !instanceId.equals(jobStore.getInstanceId())) {
+                        signaler.signalSchedulingChange(fireTime);
+                    }
+                } catch (IOException e) {
+                    log.debug("Ignoring malformed cluster signal from {}.", packet.getSocketAddress());
+                }
+            }
+        }
+    }
+}
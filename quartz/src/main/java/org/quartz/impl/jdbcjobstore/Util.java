@@ -22,13 +22,21 @@ package org.quartz.impl.jdbcjobstore;
 import java.beans.BeanInfo;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.quartz.JobPersistenceException;
+import org.quartz.utils.Key;
 
 /**
  * <p>
@@ -39,6 +47,21 @@ import org.quartz.JobPersistenceException;
  */
 public final class Util {
 
+    /**
+     * The most names bound into the name list of one statement by
+     * <code>{@link #executeUpdateForKeys}</code> and
+     * <code>{@link #executeQueryForKeys}</code>, well below the bind
+     * parameter limits of the supported databases.
+     */
+    public static final int MAX_NAMES_PER_STATEMENT = 100;
+
+    /**
+     * Handles a row selected by <code>{@link #executeQueryForKeys}</code>.
+     */
+    public interface KeyRowHandler {
+        void handle(String group, ResultSet rs) throws SQLException;
+    }
+
     /**
      * Private constructor because this is a pure utility class.
      */
@@ -69,6 +92,127 @@ public final class Util {
         return MessageFormat.format(query, new Object[]{tablePrefix, schedNameLiteral});
     }
 
+    /**
+     * <p>
+     * Replace the name list placeholder ("{2}") of a query with the given
+     * number of bind parameters.
+     * </p>
+     */
+    public static String expandNameList(String query, int count) {
+        StringBuilder params = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            params.append(i == 0 ? "?" : ", ?");
+        }
+        return query.replace(StdJDBCConstants.NAME_LIST_SUBST, params);
+    }
+
+    /**
+     * <p>
+     * Group the names of the given keys by their group, keeping the order in
+     * which they were given.
+     * </p>
+     */
+    public static Map<String, List<String>> namesByGroup(Collection<? extends Key<?>> keys) {
+        Map<String, List<String>> names = new LinkedHashMap<>();
+        for (Key<?> key : keys) {
+            names.computeIfAbsent(key.getGroup(), g -> new ArrayList<>()).add(key.getName());
+        }
+        return names;
+    }
+
+    /**
+     * <p>
+     * Run an update for the given keys, one group and at most
+     * <code>{@link #MAX_NAMES_PER_STATEMENT}</code> names at a time.  The
+     * query (with table prefix and scheduler name already substituted) takes
+     * the group as its first parameter, followed by the names in place of the
+     * name list placeholder.
+     * </p>
+     *
+     * @return the total number of rows updated
+     */
+    public static int executeUpdateForKeys(Connection conn, String query, Collection<? extends Key<?>> keys)
+        throws SQLException {
+        int count = 0;
+        for (Map.Entry<String, List<String>> group : namesByGroup(keys).entrySet()) {
+            List<String> names = group.getValue();
+            for (int from = 0; from < names.size(); from += MAX_NAMES_PER_STATEMENT) {
+                List<String> chunk = names.subList(from, Math.min(names.size(), from + MAX_NAMES_PER_STATEMENT));
+                PreparedStatement ps = null;
+                try {
+                    ps = prepareForNames(conn, query, group.getKey(), chunk);
+                    count += ps.executeUpdate();
+                } finally {
+                    closeStatement(ps);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * Run a query for the given keys, a group and at most
+     * <code>{@link #MAX_NAMES_PER_STATEMENT}</code> names at a time, as
+     * <code>{@link #executeUpdateForKeys}</code> does, passing each row
+     * selected to the handler.
+     * </p>
+     */
+    public static void executeQueryForKeys(Connection conn, String query, Collection<? extends Key<?>> keys,
+            KeyRowHandler handler) throws SQLException {
+        for (Map.Entry<String, List<String>> group : namesByGroup(keys).entrySet()) {
+            List<String> names = group.getValue();
+            for (int from = 0; from < names.size(); from += MAX_NAMES_PER_STATEMENT) {
+                List<String> chunk = names.subList(from, Math.min(names.size(), from + MAX_NAMES_PER_STATEMENT));
+                PreparedStatement ps = null;
+                ResultSet rs = null;
+                try {
+                    ps = prepareForNames(conn, query, group.getKey(), chunk);
+                    rs = ps.executeQuery();
+                    while (rs.next()) {
+                        handler.handle(group.getKey(), rs);
+                    }
+                } finally {
+                    closeResultSet(rs);
+                    closeStatement(ps);
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Count the rows updated by an executed batch, counting each statement
+     * that the driver didn't report a count for as one row.
+     * </p>
+     */
+    public static int batchCount(int[] results) {
+        int count = 0;
+        for (int result : results) {
+            if (result == Statement.SUCCESS_NO_INFO) {
+                count++;
+            } else if (result > 0) {
+                count += result;
+            }
+        }
+        return count;
+    }
+
+    private static PreparedStatement prepareForNames(Connection conn, String query, String group, List<String> names)
+        throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(expandNameList(query, names.size()));
+        try {
+            ps.setString(1, group);
+            for (int i = 0; i < names.size(); i++) {
+                ps.setString(i + 2, names.get(i));
+            }
+            return ps;
+        } catch (SQLException e) {
+            closeStatement(ps);
+            throw e;
+        }
+    }
+
     /**
      * <p>
      * Obtain a unique key for a given job.
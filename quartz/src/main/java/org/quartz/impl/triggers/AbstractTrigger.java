@@ -466,6 +466,25 @@ public abstract class AbstractTrigger<T extends Trigger> implements OperableTrig
         this.priority = priority;
     }
 
+    /**
+     * Get the offset by which fire times are delayed when spread over the
+     * given window: a multiple of the given granularity within the window,
+     * derived from the hash of the trigger's key, so that it is the same in
+     * every JVM.
+     *
+     * @see Trigger#getFireTimeJitter()
+     */
+    protected long getFireTimeOffset(long jitter, long granularity) {
+        TriggerKey key = getKey();
+        long slots = jitter / granularity;
+        if (key == null || slots < 2) {
+            return 0L;
+        }
+        // spread the bits of the hash, so that similar keys get unrelated offsets
+        long hash = key.hashCode() * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(hash ^ (hash >>> 32), slots) * granularity;
+    }
+
 
     /**
      * <p>
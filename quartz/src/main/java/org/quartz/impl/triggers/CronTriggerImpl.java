@@ -84,6 +84,7 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
     private Date nextFireTime = null;
     private Date previousFireTime = null;
     private transient TimeZone timeZone = null;
+    private long fireTimeJitter = 0L;
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -294,6 +295,43 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
         this.timeZone = timeZone;
     }
 
+    /**
+     * <p>
+     * Get the window, in milliseconds, over which the fire times of the
+     * <code>CronTrigger</code> are spread.
+     * </p>
+     *
+     * @see #setFireTimeJitter(long)
+     */
+    @Override
+    public long getFireTimeJitter() {
+        return fireTimeJitter;
+    }
+
+    /**
+     * <p>
+     * Set the window, in milliseconds, over which the fire times of the
+     * <code>CronTrigger</code> are spread: every fire time is delayed by the
+     * same whole number of seconds within the window, derived from the hash
+     * of the trigger's key.  This keeps triggers written with the same
+     * expression (such as <code>0 0 * * * ?</code>) from all firing at the
+     * same moment.
+     * </p>
+     *
+     * @exception IllegalArgumentException
+     *              if the window is negative.
+     */
+    public void setFireTimeJitter(long fireTimeJitter) {
+        if (fireTimeJitter < 0) {
+            throw new IllegalArgumentException("Fire time jitter must be >= 0");
+        }
+        this.fireTimeJitter = fireTimeJitter;
+    }
+
+    private long getFireTimeOffset() {
+        return fireTimeJitter == 0 ? 0L : getFireTimeOffset(fireTimeJitter, 1000L);
+    }
+
     /**
      * <p>
      * Returns the next time at which the <code>CronTrigger</code> will fire,
@@ -312,19 +350,32 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
             afterTime = new Date();
         }
 
+        // fire times are the times of the expression, delayed by the offset
+        long offset = getFireTimeOffset();
+        Date endTime = getEndTime();
+        if (offset != 0) {
+            afterTime = new Date(afterTime.getTime() - offset);
+            if (endTime != null) {
+                endTime = new Date(endTime.getTime() - offset);
+            }
+        }
+
         if (getStartTime().after(afterTime)) {
             afterTime = new Date(getStartTime().getTime() - 1000L);
         }
 
-        if (getEndTime() != null && (afterTime.compareTo(getEndTime()) >= 0)) {
+        if (endTime != null && (afterTime.compareTo(endTime) >= 0)) {
             return null;
         }
         
         Date pot = getTimeAfter(afterTime);
-        if (getEndTime() != null && pot != null && pot.after(getEndTime())) {
+        if (endTime != null && pot != null && pot.after(endTime)) {
             return null;
         }
 
+        if (pot != null && offset != 0) {
+            pot = new Date(pot.getTime() + offset);
+        }
         return pot;
     }
 
@@ -341,9 +392,10 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
      */
     @Override
     public Date getFinalFireTime() {
+        long offset = getFireTimeOffset();
         Date resultTime;
         if (getEndTime() != null) {
-            resultTime = getTimeBefore(new Date(getEndTime().getTime() + 1000L));
+            resultTime = getTimeBefore(new Date(getEndTime().getTime() - offset + 1000L));
         } else {
             resultTime = (cronEx == null) ? null : cronEx.getFinalFireTime();
         }
@@ -352,6 +404,9 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
             return null;
         } 
         
+        if (resultTime != null && offset != 0) {
+            resultTime = new Date(resultTime.getTime() + offset);
+        }
         return resultTime;
     }
 
@@ -582,7 +637,8 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
      * stored as a serialized blob, or as a flattened CronTrigger table. 
      */
     public boolean hasAdditionalProperties() { 
-        return false;
+        // there is no column for the jitter, so jittered triggers are stored as blobs
+        return fireTimeJitter != 0;
     }
     /**
      * Get a {@link ScheduleBuilder} that is configured to produce a 
@@ -594,7 +650,8 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
     public ScheduleBuilder<CronTrigger> getScheduleBuilder() {
         
         CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(getCronExpression())
-                .inTimeZone(getTimeZone());
+                .inTimeZone(getTimeZone())
+                .withFireTimeJitterInMilliseconds(getFireTimeJitter());
 
         int misfireInstruction = getMisfireInstruction();
         switch(misfireInstruction) {
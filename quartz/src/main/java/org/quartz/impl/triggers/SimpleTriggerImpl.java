@@ -90,6 +90,8 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
 
     private int timesTriggered = 0;
 
+    private long fireTimeJitter = 0L;
+
     private final boolean complete = false;
 
     /*
@@ -426,6 +428,49 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
         this.timesTriggered = timesTriggered;
     }
 
+    /**
+     * <p>
+     * Get the window, in milliseconds, over which the fire times of the
+     * <code>SimpleTrigger</code> are spread.
+     * </p>
+     *
+     * @see #setFireTimeJitter(long)
+     */
+    @Override
+    public long getFireTimeJitter() {
+        return fireTimeJitter;
+    }
+
+    /**
+     * <p>
+     * Set the window, in milliseconds, over which the fire times of the
+     * <code>SimpleTrigger</code> are spread: the first fire time, and thus
+     * every repeat, is delayed past the start time by an offset within the
+     * window, derived from the hash of the trigger's key.  This keeps
+     * triggers that start at the same moment from all firing together.
+     * </p>
+     *
+     * @exception IllegalArgumentException
+     *              if the window is negative.
+     */
+    public void setFireTimeJitter(long fireTimeJitter) {
+        if (fireTimeJitter < 0) {
+            throw new IllegalArgumentException("Fire time jitter must be >= 0");
+        }
+        this.fireTimeJitter = fireTimeJitter;
+    }
+
+    private long getFireTimeOffset() {
+        return fireTimeJitter == 0 ? 0L : getFireTimeOffset(fireTimeJitter, 1L);
+    }
+
+    /**
+     * The time of the first firing: the start time, delayed by the offset.
+     */
+    private long getFirstFireMillis() {
+        return getStartTime().getTime() + getFireTimeOffset();
+    }
+
     @Override
     protected boolean validateMisfireInstruction(int misfireInstruction) {
         if (misfireInstruction < MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY) {
@@ -531,7 +576,7 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
             if (getEndTime() != null && getEndTime().before(newFireTime)) {
                 setNextFireTime(null); // We are past the end time
             } else {
-                setStartTime(newFireTime);
+                setStartTime(new Date(newFireTime.getTime() - getFireTimeOffset()));
                 setNextFireTime(newFireTime);
             } 
         } else if (instr == MISFIRE_INSTRUCTION_RESCHEDULE_NOW_WITH_REMAINING_REPEAT_COUNT) {
@@ -553,7 +598,7 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
             if (getEndTime() != null && getEndTime().before(newFireTime)) {
                 setNextFireTime(null); // We are past the end time
             } else {
-                setStartTime(newFireTime);
+                setStartTime(new Date(newFireTime.getTime() - getFireTimeOffset()));
                 setNextFireTime(newFireTime);
             } 
         }
@@ -648,6 +693,12 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
     @Override
     public Date computeFirstFireTime(Calendar calendar) {
         nextFireTime = getStartTime();
+        if (fireTimeJitter != 0) {
+            nextFireTime = new Date(getFirstFireMillis());
+            if (getEndTime() != null && !nextFireTime.before(getEndTime())) {
+                nextFireTime = null;
+            }
+        }
 
         while (nextFireTime != null && calendar != null
                 && !calendar.isTimeIncluded(nextFireTime.getTime())) {
@@ -747,11 +798,12 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
             afterTime = new Date();
         }
 
-        if (repeatCount == 0 && afterTime.compareTo(getStartTime()) >= 0) {
+        long startMillis = getFirstFireMillis();
+
+        if (repeatCount == 0 && afterTime.getTime() >= startMillis) {
             return null;
         }
 
-        long startMillis = getStartTime().getTime();
         long afterMillis = afterTime.getTime();
         long endMillis = (getEndTime() == null) ? Long.MAX_VALUE : getEndTime()
                 .getTime();
@@ -788,13 +840,14 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
      * </p>
      */
     public Date getFireTimeBefore(Date end) {
-        if (end.getTime() < getStartTime().getTime()) {
+        long startMillis = getFirstFireMillis();
+        if (end.getTime() < startMillis) {
             return null;
         }
 
-        int numFires = computeNumTimesFiredBetween(getStartTime(), end);
+        int numFires = computeNumTimesFiredBetween(new Date(startMillis), end);
 
-        return new Date(getStartTime().getTime() + (numFires * repeatInterval));
+        return new Date(startMillis + (numFires * repeatInterval));
     }
 
     public int computeNumTimesFiredBetween(Date start, Date end) {
@@ -821,14 +874,14 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
     @Override
     public Date getFinalFireTime() {
         if (repeatCount == 0) {
-            return startTime;
+            return fireTimeJitter == 0 ? startTime : new Date(getFirstFireMillis());
         }
 
         if (repeatCount == REPEAT_INDEFINITELY) {
             return (getEndTime() == null) ? null : getFireTimeBefore(getEndTime()); 
         }
 
-        long lastTrigger = startTime.getTime() + (repeatCount * repeatInterval);
+        long lastTrigger = getFirstFireMillis() + (repeatCount * repeatInterval);
 
         if ((getEndTime() == null) || (lastTrigger < getEndTime().getTime())) { 
             return new Date(lastTrigger);
@@ -872,7 +925,8 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
      * stored as a serialized blob, or as a flattened SimpleTrigger table. 
      */
     public boolean hasAdditionalProperties() {
-        return false;
+        // there is no column for the jitter, so jittered triggers are stored as blobs
+        return fireTimeJitter != 0;
     }
 
     /**
@@ -886,7 +940,8 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
         
         SimpleScheduleBuilder sb = SimpleScheduleBuilder.simpleSchedule()
         .withIntervalInMilliseconds(getRepeatInterval())
-        .withRepeatCount(getRepeatCount());
+        .withRepeatCount(getRepeatCount())
+        .withFireTimeJitterInMilliseconds(getFireTimeJitter());
         
         switch(getMisfireInstruction()) {
             case MISFIRE_INSTRUCTION_FIRE_NOW : sb.withMisfireHandlingInstructionFireNow();
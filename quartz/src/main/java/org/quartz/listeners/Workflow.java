@@ -0,0 +1,322 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.listeners;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+
+/**
+ * A directed acyclic graph of jobs, run by a
+ * <code>{@link WorkflowJobListener}</code>: each completion of the start job
+ * begins a run, and as the jobs of the run complete, the jobs their edges
+ * lead to are run.
+ *
+ * <p>
+ * An edge may have a condition on the outcome of the job it leaves, in which
+ * case it is only taken if the condition holds.  A job with several incoming
+ * edges (a fan-in) runs once all of them have been decided, if at least one
+ * was taken.  A job none of whose incoming edges was taken is skipped, and so
+ * are the edges leaving it.
+ * </p>
+ *
+ * <pre>
+ * Workflow etl = Workflow.newWorkflow("etl")
+ *     .startWith(extract)
+ *     .edge(extract, transformA)
+ *     .edge(extract, transformB)
+ *     .edge(transformA, load, EdgeCondition.ON_SUCCESS)
+ *     .edge(transformB, load, EdgeCondition.ON_SUCCESS)
+ *     .edge(extract, alert, EdgeCondition.ON_FAILURE)
+ *     .build();
+ * </pre>
+ *
+ * <p>
+ * Instances are immutable.
+ * </p>
+ */
+public final class Workflow {
+
+    /**
+     * Decides whether an edge is taken, from the outcome of the job it leaves.
+     */
+    public interface EdgeCondition {
+
+        /**
+         * Taken whatever the outcome, as with a
+         * <code>{@link JobChainingJobListener}</code> link.
+         */
+        EdgeCondition ALWAYS = (context, jobException) -> true;
+
+        /**
+         * Taken if the job completed without throwing an exception.
+         */
+        EdgeCondition ON_SUCCESS = (context, jobException) -> jobException == null;
+
+        /**
+         * Taken if the job threw an exception, or its execution was vetoed.
+         */
+        EdgeCondition ON_FAILURE = (context, jobException) -> jobException != null;
+
+        /**
+         * @param context the context of the completed job
+         * @param jobException the exception the job threw, if any
+         */
+        boolean test(JobExecutionContext context, JobExecutionException jobException);
+    }
+
+    static final class Edge {
+        final int from;
+        final int to;
+        final EdgeCondition condition;
+
+        Edge(int from, int to, EdgeCondition condition) {
+            this.from = from;
+            this.to = to;
+            this.condition = condition;
+        }
+    }
+
+    private final String name;
+
+    // the steps, with the start step first
+    private final List<JobKey> steps;
+
+    private final Map<JobKey, Integer> stepIndexes;
+
+    private final List<List<Edge>> outgoing;
+
+    private final int[] incomingCounts;
+
+    private Workflow(String name, List<JobKey> steps, List<List<Edge>> outgoing) {
+        this.name = name;
+        this.steps = Collections.unmodifiableList(steps);
+        this.stepIndexes = new HashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            stepIndexes.put(steps.get(i), i);
+        }
+        this.outgoing = outgoing;
+        this.incomingCounts = new int[steps.size()];
+        for (List<Edge> edges : outgoing) {
+            for (Edge edge : edges) {
+                incomingCounts[edge.to]++;
+            }
+        }
+    }
+
+    /**
+     * Start building a workflow with the given name, which must be unique
+     * among the workflows of a <code>WorkflowJobListener</code>.
+     */
+    public static Builder newWorkflow(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the job whose completion begins a run.
+     */
+    public JobKey getStartJob() {
+        return steps.get(0);
+    }
+
+    /**
+     * Get the jobs of the workflow, the start job first.
+     */
+    public List<JobKey> getJobs() {
+        return steps;
+    }
+
+    int getStepCount() {
+        return steps.size();
+    }
+
+    JobKey getStep(int index) {
+        return steps.get(index);
+    }
+
+    /**
+     * @return the index of the given job's step, or -1 if it isn't part of
+     * this workflow
+     */
+    int indexOf(JobKey jobKey) {
+        Integer index = stepIndexes.get(jobKey);
+        return index == null ? -1 : index;
+    }
+
+    List<Edge> getOutgoing(int step) {
+        return outgoing.get(step);
+    }
+
+    int getIncomingCount(int step) {
+        return incomingCounts[step];
+    }
+
+    @Override
+    public String toString() {
+        return "Workflow '" + name + "' starting with " + getStartJob() + " (" + steps.size() + " jobs)";
+    }
+
+    /**
+     * Builds a <code>Workflow</code>, checking on <code>{@link #build()}</code>
+     * that its edges form a directed acyclic graph in which every job can be
+     * reached from the start job.
+     */
+    public static final class Builder {
+
+        private final String name;
+
+        private JobKey start;
+
+        private final List<JobKey[]> edges = new ArrayList<>();
+
+        private final List<EdgeCondition> conditions = new ArrayList<>();
+
+        private Builder(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("Workflow name cannot be null!");
+            }
+            this.name = name;
+        }
+
+        /**
+         * Set the job whose completion begins a run.
+         */
+        public Builder startWith(JobKey jobKey) {
+            checkKey(jobKey);
+            this.start = jobKey;
+            return this;
+        }
+
+        /**
+         * Add an edge that is always taken: once the first job has completed,
+         * the second one runs (once its other incoming edges are decided).
+         */
+        public Builder edge(JobKey from, JobKey to) {
+            return edge(from, to, EdgeCondition.ALWAYS);
+        }
+
+        /**
+         * Add an edge that is taken if the given condition holds for the
+         * outcome of the first job.
+         */
+        public Builder edge(JobKey from, JobKey to, EdgeCondition condition) {
+            checkKey(from);
+            checkKey(to);
+            if (condition == null) {
+                throw new IllegalArgumentException("Edge condition cannot be null!");
+            }
+            if (from.equals(to)) {
+                throw new IllegalArgumentException("Job " + from + " cannot have an edge to itself.");
+            }
+            for (JobKey[] edge : edges) {
+                if (edge[0].equals(from) && edge[1].equals(to)) {
+                    throw new IllegalArgumentException("Duplicate edge from " + from + " to " + to + ".");
+                }
+            }
+            edges.add(new JobKey[] {from, to});
+            conditions.add(condition);
+            return this;
+        }
+
+        private static void checkKey(JobKey key) {
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null!");
+            }
+            if (key.getName() == null) {
+                throw new IllegalArgumentException("Key cannot have a null name!");
+            }
+        }
+
+        /**
+         * @throws IllegalStateException if there is no start job, the start
+         * job has incoming edges, a job can't be reached from the start job,
+         * or the edges form a cycle.
+         */
+        public Workflow build() {
+            if (start == null) {
+                throw new IllegalStateException("Workflow '" + name + "' has no start job.");
+            }
+
+            List<JobKey> steps = new ArrayList<>();
+            Map<JobKey, Integer> indexes = new HashMap<>();
+            steps.add(start);
+            indexes.put(start, 0);
+            for (JobKey[] edge : edges) {
+                for (JobKey key : edge) {
+                    if (!indexes.containsKey(key)) {
+                        indexes.put(key, steps.size());
+                        steps.add(key);
+                    }
+                }
+            }
+
+            List<List<Edge>> outgoing = new ArrayList<>();
+            for (int i = 0; i < steps.size(); i++) {
+                outgoing.add(new ArrayList<>());
+            }
+            int[] incoming = new int[steps.size()];
+            for (int i = 0; i < edges.size(); i++) {
+                int from = indexes.get(edges.get(i)[0]);
+                int to = indexes.get(edges.get(i)[1]);
+                if (to == 0) {
+                    throw new IllegalStateException("Workflow '" + name + "' has an edge to its start job " + start + ".");
+                }
+                outgoing.get(from).add(new Edge(from, to, conditions.get(i)));
+                incoming[to]++;
+            }
+
+            // Kahn's algorithm: a cycle, or a job not reachable from the start
+            // job, leaves jobs that never run out of incoming edges
+            int[] remaining = incoming.clone();
+            List<Integer> ready = new ArrayList<>();
+            ready.add(0);
+            int visited = 0;
+            while (!ready.isEmpty()) {
+                int step = ready.remove(ready.size() - 1);
+                visited++;
+                for (Edge edge : outgoing.get(step)) {
+                    if (--remaining[edge.to] == 0) {
+                        ready.add(edge.to);
+                    }
+                }
+            }
+            if (visited < steps.size()) {
+                List<JobKey> stuck = new ArrayList<>();
+                for (int i = 0; i < steps.size(); i++) {
+                    if (remaining[i] > 0 || (i > 0 && incoming[i] == 0)) {
+                        stuck.add(steps.get(i));
+                    }
+                }
+                throw new IllegalStateException("Workflow '" + name
+                        + "' has a cycle, or jobs that can't be reached from its start job: " + stuck);
+            }
+
+            return new Workflow(name, steps, outgoing);
+        }
+    }
+}
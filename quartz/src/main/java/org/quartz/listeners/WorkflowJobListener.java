@@ -0,0 +1,389 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.listeners;
+
+import static org.quartz.JobBuilder.newJob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.DirectJobDispatcher;
+
+/**
+ * Runs the <code>{@link Workflow}</code>s added to it: each time the start
+ * job of a workflow completes, a run of the workflow begins, and as the jobs
+ * of the run complete, the jobs their taken edges lead to are run, each with
+ * the id of the run under <code>{@link #RUN_ID}</code> in its trigger's
+ * <code>JobDataMap</code>.
+ *
+ * <p>
+ * The jobs of a run are handed straight to the scheduler's thread pool if the
+ * scheduler is a <code>{@link DirectJobDispatcher}</code>, so that the steps
+ * of a pipeline run back to back rather than each waiting for the scheduler
+ * thread to acquire a trigger.  Jobs that disallow concurrent execution,
+ * persist their data after execution or have their concurrent executions
+ * limited are triggered through the job store instead, as with a
+ * <code>{@link JobChainingJobListener}</code>.
+ * </p>
+ *
+ * <p>
+ * If the job store is persistent, the progress of each run is kept in a
+ * durable job of the <code>{@link #RUNS_GROUP}</code> group, updated as each
+ * of its jobs completes and deleted when the run is over, so that
+ * <code>{@link #recoverRuns(Scheduler)}</code> can resume the runs that were
+ * in progress when the scheduler went down.  Jobs that were running (or
+ * waiting to run) then are run again, so a job may run more than once for a
+ * run, but no job runs before all of its incoming edges are decided.  With a
+ * <code>RAMJobStore</code>, runs in progress are lost with the scheduler.
+ * </p>
+ *
+ * <p>Generally an instance of this listener would be registered as a global
+ * job listener, rather than being registered directly to given jobs.</p>
+ *
+ * @see Workflow
+ */
+public class WorkflowJobListener extends JobListenerSupport {
+
+    /**
+     * The key under which the jobs of a run find the id of the run in their
+     * trigger's <code>JobDataMap</code>.
+     */
+    public static final String RUN_ID = "org.quartz.workflow.runId";
+
+    /**
+     * The group of the jobs that keep the progress of runs with a persistent
+     * job store.
+     */
+    public static final String RUNS_GROUP = "WORKFLOW_RUNS";
+
+    static final String RECORD_WORKFLOW = "workflow";
+
+    static final String RECORD_INSTANCE_ID = "instanceId";
+
+    // followed by the index of a completed step; the value lists the steps
+    // its taken edges lead to
+    static final String RECORD_STEP_PREFIX = "step.";
+
+    /**
+     * The job class of progress records, which are never executed.
+     */
+    public static class RunRecord implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    private enum StepState { WAITING, RUNNING, DONE, SKIPPED }
+
+    /**
+     * The progress of a run, guarded by its own monitor.
+     */
+    private static final class Run {
+        final String id;
+        final Workflow workflow;
+        final StepState[] states;
+        final int[] decidedIncoming;
+        final boolean[] takenIncoming;
+        // the steps its taken edges led to, by completed step, for the record
+        final String[] completions;
+        int finished;
+
+        Run(String id, Workflow workflow) {
+            this.id = id;
+            this.workflow = workflow;
+            int steps = workflow.getStepCount();
+            this.states = new StepState[steps];
+            Arrays.fill(states, StepState.WAITING);
+            this.decidedIncoming = new int[steps];
+            this.takenIncoming = new boolean[steps];
+            this.completions = new String[steps];
+        }
+
+        /**
+         * Record the completion of the given step, whose edges to the given
+         * steps were taken, and collect the steps that got ready to run.
+         */
+        void complete(int step, boolean[] taken, List<Integer> ready) {
+            states[step] = StepState.DONE;
+            finished++;
+            StringBuilder targets = new StringBuilder();
+            for (Workflow.Edge edge : workflow.getOutgoing(step)) {
+                if (taken[edge.to]) {
+                    if (targets.length() > 0) {
+                        targets.append(',');
+                    }
+                    targets.append(edge.to);
+                }
+                decide(edge.to, taken[edge.to], ready);
+            }
+            completions[step] = targets.toString();
+        }
+
+        private void decide(int step, boolean taken, List<Integer> ready) {
+            decidedIncoming[step]++;
+            takenIncoming[step] |= taken;
+            // when a run is recovered, a step may be replayed before the ones
+            // leading to it
+            if (states[step] != StepState.WAITING
+                    || decidedIncoming[step] < workflow.getIncomingCount(step)) {
+                return;
+            }
+            if (takenIncoming[step]) {
+                states[step] = StepState.RUNNING;
+                ready.add(step);
+            } else {
+                states[step] = StepState.SKIPPED;
+                finished++;
+                for (Workflow.Edge edge : workflow.getOutgoing(step)) {
+                    decide(edge.to, false, ready);
+                }
+            }
+        }
+
+        boolean isOver() {
+            return finished == states.length;
+        }
+    }
+
+    private final String name;
+
+    private final Map<String, Workflow> workflows = new ConcurrentHashMap<>();
+
+    private final Map<JobKey, Workflow> workflowsByStartJob = new ConcurrentHashMap<>();
+
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    /**
+     * Construct an instance with the given name.
+     *
+     * @param name the name of this instance
+     */
+    public WorkflowJobListener(String name) {
+        if(name == null) {
+            throw new IllegalArgumentException("Listener name cannot be null!");
+        }
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Add a workflow, whose runs begin each time its start job completes.
+     *
+     * @throws IllegalArgumentException if a workflow with the same name, or
+     * the same start job, was already added
+     */
+    public void addWorkflow(Workflow workflow) {
+        if(workflow == null) {
+            throw new IllegalArgumentException("Workflow cannot be null!");
+        }
+        synchronized (workflows) {
+            if (workflows.containsKey(workflow.getName())) {
+                throw new IllegalArgumentException("A workflow named '" + workflow.getName() + "' was already added.");
+            }
+            if (workflowsByStartJob.containsKey(workflow.getStartJob())) {
+                throw new IllegalArgumentException("A workflow starting with " + workflow.getStartJob() + " was already added.");
+            }
+            workflows.put(workflow.getName(), workflow);
+            workflowsByStartJob.put(workflow.getStartJob(), workflow);
+        }
+    }
+
+    /**
+     * Get the number of runs in progress.
+     */
+    public int getActiveRunCount() {
+        return runs.size();
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+        stepCompleted(context, new JobExecutionException("Execution of the job was vetoed."));
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        stepCompleted(context, jobException);
+    }
+
+    private void stepCompleted(JobExecutionContext context, JobExecutionException jobException) {
+        JobKey jobKey = context.getJobDetail().getKey();
+        String runId = context.getTrigger().getJobDataMap().getString(RUN_ID);
+
+        Run run;
+        if (runId == null) {
+            Workflow workflow = workflowsByStartJob.get(jobKey);
+            if (workflow == null) {
+                return;
+            }
+            run = new Run(workflow.getName() + "." + context.getFireInstanceId(), workflow);
+            runs.put(run.id, run);
+            getLog().info("Job '{}' begins run '{}' of workflow '{}'", jobKey, run.id, workflow.getName());
+        } else {
+            run = runs.get(runId);
+            if (run == null) {
+                // a run of another listener, or one that isn't recovered yet
+                getLog().debug("Job '{}' completed for unknown workflow run '{}'", jobKey, runId);
+                return;
+            }
+        }
+
+        int step = run.workflow.indexOf(jobKey);
+        List<Integer> ready = new ArrayList<>();
+        boolean over;
+        synchronized (run) {
+            if (step < 0 || run.states[step] == StepState.DONE) {
+                // a duplicate completion, after a recovery
+                return;
+            }
+            boolean[] taken = new boolean[run.workflow.getStepCount()];
+            for (Workflow.Edge edge : run.workflow.getOutgoing(step)) {
+                try {
+                    taken[edge.to] = edge.condition.test(context, jobException);
+                } catch (RuntimeException e) {
+                    getLog().error("Condition of edge from '{}' to '{}' of workflow '{}' failed; not taking it",
+                            jobKey, run.workflow.getStep(edge.to), run.workflow.getName(), e);
+                }
+            }
+            run.complete(step, taken, ready);
+            over = run.isOver();
+            // written under the run's lock, so that no record overwrites a later one
+            saveRecord(context.getScheduler(), run, over);
+        }
+        if (over) {
+            runs.remove(run.id);
+            getLog().info("Run '{}' of workflow '{}' is over", run.id, run.workflow.getName());
+        }
+
+        for (int next : ready) {
+            dispatch(context.getScheduler(), run, next);
+        }
+    }
+
+    private void dispatch(Scheduler scheduler, Run run, int step) {
+        JobKey jobKey = run.workflow.getStep(step);
+        JobDataMap data = new JobDataMap();
+        data.put(RUN_ID, run.id);
+        try {
+            if (!(scheduler instanceof DirectJobDispatcher)
+                    || !((DirectJobDispatcher) scheduler).dispatchJob(jobKey, data)) {
+                scheduler.triggerJob(jobKey, data);
+            }
+        } catch(SchedulerException se) {
+            getLog().error("Error encountered running Job '{}' of workflow run '{}'", jobKey, run.id, se);
+        }
+    }
+
+    private void saveRecord(Scheduler scheduler, Run run, boolean over) {
+        try {
+            if (!scheduler.getMetaData().isJobStoreSupportsPersistence()) {
+                return;
+            }
+            JobKey recordKey = new JobKey(run.id, RUNS_GROUP);
+            if (over) {
+                scheduler.deleteJob(recordKey);
+                return;
+            }
+            JobDataMap record = new JobDataMap();
+            record.put(RECORD_WORKFLOW, run.workflow.getName());
+            record.put(RECORD_INSTANCE_ID, scheduler.getSchedulerInstanceId());
+            for (int i = 0; i < run.completions.length; i++) {
+                if (run.completions[i] != null) {
+                    record.put(RECORD_STEP_PREFIX + i, run.completions[i]);
+                }
+            }
+            JobDetail job = newJob(RunRecord.class)
+                    .withIdentity(recordKey)
+                    .withDescription(run.workflow.toString())
+                    .storeDurably()
+                    .usingJobData(record)
+                    .build();
+            scheduler.addJob(job, true);
+        } catch (SchedulerException se) {
+            getLog().error("Error encountered saving the progress of workflow run '{}'", run.id, se);
+        }
+    }
+
+    /**
+     * Resume the runs whose progress is recorded in the job store, running
+     * again their jobs that hadn't completed.  To be called once the
+     * workflows are added and the scheduler is started.  In a cluster, only
+     * the runs this scheduler instance was doing are resumed.
+     *
+     * @return the number of runs resumed
+     */
+    public int recoverRuns(Scheduler scheduler) throws SchedulerException {
+        if (!scheduler.getMetaData().isJobStoreSupportsPersistence()) {
+            return 0;
+        }
+        boolean clustered = scheduler.getMetaData().isJobStoreClustered();
+        int recovered = 0;
+        for (JobKey recordKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(RUNS_GROUP))) {
+            JobDetail job = scheduler.getJobDetail(recordKey);
+            if (job == null || runs.containsKey(recordKey.getName())) {
+                continue;
+            }
+            JobDataMap record = job.getJobDataMap();
+            Workflow workflow = workflows.get(record.getString(RECORD_WORKFLOW));
+            if (workflow == null
+                    || (clustered && !scheduler.getSchedulerInstanceId().equals(record.getString(RECORD_INSTANCE_ID)))) {
+                continue;
+            }
+
+            Run run = new Run(recordKey.getName(), workflow);
+            List<Integer> ready = new ArrayList<>();
+            synchronized (run) {
+                for (int step = 0; step < workflow.getStepCount(); step++) {
+                    String targets = record.getString(RECORD_STEP_PREFIX + step);
+                    if (targets == null) {
+                        continue;
+                    }
+                    boolean[] taken = new boolean[workflow.getStepCount()];
+                    if (!targets.isEmpty()) {
+                        for (String target : targets.split(",")) {
+                            taken[Integer.parseInt(target)] = true;
+                        }
+                    }
+                    run.complete(step, taken, ready);
+                }
+            }
+            runs.put(run.id, run);
+            recovered++;
+            getLog().info("Resuming run '{}' of workflow '{}'", run.id, workflow.getName());
+            for (int step : ready) {
+                if (run.states[step] == StepState.RUNNING) {
+                    dispatch(scheduler, run, step);
+                }
+            }
+        }
+        return recovered;
+    }
+}
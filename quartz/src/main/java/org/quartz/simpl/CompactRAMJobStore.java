@@ -0,0 +1,2077 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.simpl;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.Calendar;
+import org.quartz.CronExpression;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerUtils;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.StringMatcher;
+import org.quartz.impl.triggers.AbstractTrigger;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerPartition;
+import org.quartz.utils.Key;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A <code>{@link org.quartz.spi.JobStore}</code> that, like
+ * <code>{@link RAMJobStore}</code>, keeps all of its data in RAM, but stores
+ * triggers in a compact, columnar form, for schedules with millions of
+ * triggers.
+ * </p>
+ *
+ * <p>
+ * Rather than a trigger object, a wrapper and entries in several maps per
+ * trigger, each trigger occupies a slot in a set of primitive arrays holding
+ * its scheduling state (fire times, start time, priority, times triggered and
+ * state), its name, and references to its group, its job and its "shape": the
+ * settings that many triggers typically share (cron expression and time zone,
+ * or repeat interval and count, misfire instruction, calendar name, end time
+ * and description).  Shapes are interned, so triggers that are scheduled the
+ * same way share one.  Triggers are found by key through an open addressing
+ * index of slots, ordered by next fire time in a binary heap of slots, and
+ * linked into per-group and per-job lists through the slots themselves.
+ * </p>
+ *
+ * <p>
+ * <code>SimpleTriggerImpl</code> and <code>CronTriggerImpl</code> are stored
+ * compactly, and only materialized as <code>OperableTrigger</code> objects
+ * when they are acquired, fired or retrieved.  Triggers of any other type are
+ * kept as objects alongside their scheduling state.  Only triggers with a
+ * non-empty <code>JobDataMap</code> keep a map.  Jobs and calendars are kept
+ * as objects, as in <code>RAMJobStore</code>.
+ * </p>
+ *
+ * <p>
+ * Operations on trigger groups (pausing and resuming, listing keys) visit
+ * the triggers of the matching groups, and storing or removing a calendar
+ * visits every trigger.
+ * </p>
+ *
+ * @see RAMJobStore
+ */
+public class CompactRAMJobStore implements JobStore {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Constants.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /** Stands in for a <code>null</code> <code>Date</code> in the time columns. */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int NO_SLOT = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Data members.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    protected final HashMap<JobKey, JobEntry> jobsByKey = new HashMap<>(1000);
+
+    protected final HashMap<String, HashMap<JobKey, JobEntry>> jobsByGroup = new HashMap<>(25);
+
+    protected final HashMap<String, TriggerGroup> triggerGroups = new HashMap<>(25);
+
+    protected final HashMap<String, Calendar> calendarsByName = new HashMap<>(25);
+
+    protected final Object lock = new Object();
+
+    protected final HashSet<String> pausedTriggerGroups = new HashSet<>();
+
+    protected final HashSet<String> pausedJobGroups = new HashSet<>();
+
+    protected final HashSet<JobKey> blockedJobs = new HashSet<>();
+
+    protected long misfireThreshold = 5000L;
+
+    // trigger groups that misfire early while the scheduler sheds their load
+    private volatile Set<String> earlyMisfireTriggerGroups = Collections.emptySet();
+
+    private volatile long earlyMisfireThreshold;
+
+    // how many times as many due triggers as asked for to acquire the
+    // highest-priority ones from, while the scheduler sheds load
+    private volatile int priorityLookAhead = 1;
+
+    protected SchedulerSignaler signaler;
+
+    // trigger columns, indexed by slot
+    private String[] names;
+    private TriggerGroup[] groups;
+    private JobEntry[] jobs;
+    private Shape[] shapes;
+    private long[] startTimes;
+    private long[] nextFireTimes;
+    private long[] previousFireTimes;
+    private int[] priorities;
+    private int[] timesTriggered;
+    private byte[] states;
+    private boolean[] queued;
+    private int[] queueStamps;
+    private int[] nextInGroup;
+    private int[] prevInGroup;
+    private int[] nextOfJob;
+    private int[] prevOfJob;
+
+    /** The slots above this one have never been used. */
+    private int highWater;
+
+    private int triggerCount;
+
+    private int[] freeSlots = new int[16];
+
+    private int freeSlotCount;
+
+    /** Open addressing index of trigger keys: slot + 1, 0 if empty, -1 if removed. */
+    private int[] keyIndex = new int[2 * INITIAL_CAPACITY];
+
+    private int keyIndexUsed;
+
+    private final HashMap<Shape, Shape> shapesByValue = new HashMap<>();
+
+    private final HashMap<Integer, JobDataMap> jobDataBySlot = new HashMap<>();
+
+    private final HashMap<Integer, OperableTrigger> otherTriggers = new HashMap<>();
+
+    private final FireTimeQueue timeTriggers = new FireTimeQueue();
+
+    private int queuedCount;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Constructors.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * <p>
+     * Create a new <code>CompactRAMJobStore</code>.
+     * </p>
+     */
+    public CompactRAMJobStore() {
+        allocateColumns(INITIAL_CAPACITY);
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Interface.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    protected Logger getLog() {
+        return log;
+    }
+
+    /**
+     * <p>
+     * Called by the QuartzScheduler before the <code>JobStore</code> is
+     * used, in order to give the it a chance to initialize.
+     * </p>
+     */
+    public void initialize(ClassLoadHelper loadHelper, SchedulerSignaler schedSignaler) {
+
+        this.signaler = schedSignaler;
+
+        getLog().info("CompactRAMJobStore initialized.");
+    }
+
+    public void schedulerStarted() {
+        // nothing to do
+    }
+
+    public void schedulerPaused() {
+        // nothing to do
+    }
+
+    public void schedulerResumed() {
+        // nothing to do
+    }
+
+    public long getMisfireThreshold() {
+        return misfireThreshold;
+    }
+
+    /**
+     * The number of milliseconds by which a trigger must have missed its
+     * next-fire-time, in order for it to be considered "misfired" and thus
+     * have its misfire instruction applied.
+     *
+     * @param misfireThreshold the new misfire threshold
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setMisfireThreshold(long misfireThreshold) {
+        if (misfireThreshold < 1) {
+            throw new IllegalArgumentException("Misfire threshold must be larger than 0");
+        }
+        this.misfireThreshold = misfireThreshold;
+    }
+
+    @Override
+    public void setEarlyMisfireTriggerGroups(Set<String> triggerGroups, long misfireThreshold) {
+        this.earlyMisfireThreshold = misfireThreshold;
+        this.earlyMisfireTriggerGroups = Collections.unmodifiableSet(new HashSet<>(triggerGroups));
+    }
+
+    /**
+     * Get the misfire threshold of the triggers of the given group, which is
+     * lower than the store's own while the scheduler sheds the group's load.
+     */
+    protected long getMisfireThreshold(String triggerGroup) {
+        return earlyMisfireTriggerGroups.contains(triggerGroup)
+                ? Math.min(earlyMisfireThreshold, getMisfireThreshold()) : getMisfireThreshold();
+    }
+
+    /**
+     * Whether the scheduler sheds the load of the given trigger group: its
+     * triggers skip the fire times they missed, rather than apply their
+     * misfire instruction.
+     */
+    protected boolean isShedTriggerGroup(String triggerGroup) {
+        return earlyMisfireTriggerGroups.contains(triggerGroup);
+    }
+
+    @Override
+    public void setPriorityLookAhead(int lookAhead) {
+        this.priorityLookAhead = Math.max(1, lookAhead);
+    }
+
+    public void shutdown() {
+    }
+
+    public boolean supportsPersistence() {
+        return false;
+    }
+
+    @Override
+    public boolean isConcurrentExecutionCheckedWhenFired() {
+        return true;
+    }
+
+    /**
+     * Clear (delete!) all scheduling data - all jobs, triggers and calendars.
+     */
+    public void clearAllSchedulingData() throws JobPersistenceException {
+
+        synchronized (lock) {
+            for (int slot = 0; slot < highWater; slot++) {
+                if (names[slot] != null) {
+                    removeSlot(slot, false);
+                }
+            }
+            for (JobKey key : new ArrayList<>(jobsByKey.keySet())) {
+                removeJob(key);
+            }
+            calendarsByName.clear();
+        }
+    }
+
+    public void storeJobAndTrigger(JobDetail newJob,
+            OperableTrigger newTrigger) throws JobPersistenceException {
+        storeJob(newJob, false);
+        storeTrigger(newTrigger, false);
+    }
+
+    public void storeJob(JobDetail newJob,
+            boolean replaceExisting) throws ObjectAlreadyExistsException {
+        JobDetail jobDetail = (JobDetail) newJob.clone();
+
+        synchronized (lock) {
+            JobEntry existing = jobsByKey.get(jobDetail.getKey());
+            if (existing != null) {
+                if (!replaceExisting) {
+                    throw new ObjectAlreadyExistsException(newJob);
+                }
+                existing.jobDetail = jobDetail;
+                return;
+            }
+
+            JobEntry je = new JobEntry(jobDetail);
+            jobsByGroup.computeIfAbsent(je.key.getGroup(), k -> new HashMap<>(100)).put(je.key, je);
+            jobsByKey.put(je.key, je);
+        }
+    }
+
+    public boolean removeJob(JobKey jobKey) {
+
+        boolean found = false;
+
+        synchronized (lock) {
+            JobEntry je = jobsByKey.get(jobKey);
+            if (je != null) {
+                while (je.firstTrigger != NO_SLOT) {
+                    removeSlot(je.firstTrigger, false);
+                    found = true;
+                }
+            }
+
+            found = (jobsByKey.remove(jobKey) != null) | found;
+            if (found) {
+                HashMap<JobKey, JobEntry> grpMap = jobsByGroup.get(jobKey.getGroup());
+                if (grpMap != null) {
+                    grpMap.remove(jobKey);
+                    if (grpMap.isEmpty()) {
+                        jobsByGroup.remove(jobKey.getGroup());
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    public boolean removeJobs(List<JobKey> jobKeys) throws JobPersistenceException {
+        boolean allFound = true;
+
+        synchronized (lock) {
+            for (JobKey key : jobKeys) {
+                allFound = removeJob(key) && allFound;
+            }
+        }
+
+        return allFound;
+    }
+
+    public boolean removeTriggers(List<TriggerKey> triggerKeys) throws JobPersistenceException {
+        boolean allFound = true;
+
+        synchronized (lock) {
+            for (TriggerKey key : triggerKeys) {
+                allFound = removeTrigger(key) && allFound;
+            }
+        }
+
+        return allFound;
+    }
+
+    public void storeJobsAndTriggers(
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, boolean replace)
+            throws JobPersistenceException {
+
+        synchronized (lock) {
+            // make sure there are no collisions...
+            if (!replace) {
+                for (Entry<JobDetail, Set<? extends Trigger>> e : triggersAndJobs.entrySet()) {
+                    if (checkExists(e.getKey().getKey())) {
+                        throw new ObjectAlreadyExistsException(e.getKey());
+                    }
+                    for (Trigger trigger : e.getValue()) {
+                        if (checkExists(trigger.getKey())) {
+                            throw new ObjectAlreadyExistsException(trigger);
+                        }
+                    }
+                }
+            }
+            // do bulk add...
+            for (Entry<JobDetail, Set<? extends Trigger>> e : triggersAndJobs.entrySet()) {
+                storeJob(e.getKey(), true);
+                for (Trigger trigger : e.getValue()) {
+                    storeTrigger((OperableTrigger) trigger, true);
+                }
+            }
+        }
+    }
+
+    public void storeTrigger(OperableTrigger newTrigger,
+            boolean replaceExisting) throws JobPersistenceException {
+
+        TriggerKey key = newTrigger.getKey();
+
+        synchronized (lock) {
+            int existing = findSlot(key.getName(), key.getGroup());
+            if (existing != NO_SLOT) {
+                if (!replaceExisting) {
+                    throw new ObjectAlreadyExistsException(newTrigger);
+                }
+
+                removeSlot(existing, false);
+            }
+
+            JobEntry je = jobsByKey.get(newTrigger.getJobKey());
+            if (je == null) {
+                throw new JobPersistenceException("The job ("
+                        + newTrigger.getJobKey()
+                        + ") referenced by the trigger does not exist.");
+            }
+
+            storeTriggerInLock(newTrigger, je);
+        }
+    }
+
+    /**
+     * <p>
+     * Store the given triggers of delayed tasks under a single acquisition
+     * of the store's lock.  The tasks are removed as soon as they fire.
+     * </p>
+     */
+    @Override
+    public void storeTasks(List<OperableTrigger> tasks) throws JobPersistenceException {
+        synchronized (lock) {
+            for (OperableTrigger task : tasks) {
+                if (slotOf(task.getKey()) != NO_SLOT) {
+                    throw new ObjectAlreadyExistsException(task);
+                }
+                if (!jobsByKey.containsKey(task.getJobKey())) {
+                    throw new JobPersistenceException("The job ("
+                            + task.getJobKey()
+                            + ") referenced by the task does not exist.");
+                }
+            }
+            for (OperableTrigger task : tasks) {
+                storeTriggerInLock(task, jobsByKey.get(task.getJobKey()));
+            }
+        }
+    }
+
+    // called holding the lock
+    private void storeTriggerInLock(OperableTrigger newTrigger, JobEntry je) {
+        TriggerKey key = newTrigger.getKey();
+
+        int slot = allocateSlot();
+        names[slot] = key.getName();
+        groups[slot] = triggerGroups.computeIfAbsent(key.getGroup(), TriggerGroup::new);
+        jobs[slot] = je;
+        capture(slot, newTrigger);
+        linkToGroup(slot);
+        linkToJob(slot);
+        indexSlot(slot);
+        triggerCount++;
+
+        if (pausedTriggerGroups.contains(key.getGroup())
+                || pausedJobGroups.contains(je.key.getGroup())) {
+            states[slot] = TriggerWrapper.STATE_PAUSED;
+            if (blockedJobs.contains(je.key)) {
+                states[slot] = TriggerWrapper.STATE_PAUSED_BLOCKED;
+            }
+        } else if (blockedJobs.contains(je.key)) {
+            states[slot] = TriggerWrapper.STATE_BLOCKED;
+        } else {
+            enqueue(slot);
+        }
+    }
+
+    public boolean removeTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            if (slot == NO_SLOT) {
+                return false;
+            }
+            removeSlot(slot, true);
+            return true;
+        }
+    }
+
+    public boolean replaceTrigger(TriggerKey triggerKey, OperableTrigger newTrigger) throws JobPersistenceException {
+
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            if (slot == NO_SLOT) {
+                return false;
+            }
+
+            if (!jobs[slot].key.equals(newTrigger.getJobKey())) {
+                throw new JobPersistenceException("New trigger is not related to the same job as the old trigger.");
+            }
+
+            OperableTrigger previous = materialize(slot);
+            removeSlot(slot, false);
+
+            try {
+                storeTrigger(newTrigger, false);
+            } catch (JobPersistenceException jpe) {
+                storeTrigger(previous, false); // put previous trigger back...
+                throw jpe;
+            }
+        }
+
+        return true;
+    }
+
+    public JobDetail retrieveJob(JobKey jobKey) {
+        synchronized (lock) {
+            JobEntry je = jobsByKey.get(jobKey);
+            return (je != null) ? (JobDetail) je.jobDetail.clone() : null;
+        }
+    }
+
+    public OperableTrigger retrieveTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            return (slot != NO_SLOT) ? materialize(slot) : null;
+        }
+    }
+
+    public boolean checkExists(JobKey jobKey) throws JobPersistenceException {
+        synchronized (lock) {
+            return jobsByKey.containsKey(jobKey);
+        }
+    }
+
+    public boolean checkExists(TriggerKey triggerKey) throws JobPersistenceException {
+        synchronized (lock) {
+            return slotOf(triggerKey) != NO_SLOT;
+        }
+    }
+
+    public TriggerState getTriggerState(TriggerKey triggerKey) throws JobPersistenceException {
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            if (slot == NO_SLOT) {
+                return TriggerState.NONE;
+            }
+
+            switch (states[slot]) {
+                case TriggerWrapper.STATE_COMPLETE:
+                    return TriggerState.COMPLETE;
+                case TriggerWrapper.STATE_PAUSED:
+                case TriggerWrapper.STATE_PAUSED_BLOCKED:
+                    return TriggerState.PAUSED;
+                case TriggerWrapper.STATE_BLOCKED:
+                    return TriggerState.BLOCKED;
+                case TriggerWrapper.STATE_ERROR:
+                    return TriggerState.ERROR;
+                default:
+                    return TriggerState.NORMAL;
+            }
+        }
+    }
+
+    public void resetTriggerFromErrorState(final TriggerKey triggerKey) throws JobPersistenceException {
+
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            if (slot == NO_SLOT || states[slot] != TriggerWrapper.STATE_ERROR) {
+                return;
+            }
+
+            if (pausedTriggerGroups.contains(triggerKey.getGroup())) {
+                states[slot] = TriggerWrapper.STATE_PAUSED;
+            } else {
+                states[slot] = TriggerWrapper.STATE_WAITING;
+                enqueue(slot);
+            }
+        }
+    }
+
+    public void storeCalendar(String name,
+            Calendar calendar, boolean replaceExisting, boolean updateTriggers)
+        throws ObjectAlreadyExistsException {
+
+        calendar = (Calendar) calendar.clone();
+
+        synchronized (lock) {
+
+            Calendar obj = calendarsByName.get(name);
+
+            if (obj != null && !replaceExisting) {
+                throw new ObjectAlreadyExistsException(
+                    "Calendar with name '" + name + "' already exists.");
+            }
+
+            calendarsByName.put(name, calendar);
+
+            if (obj != null && updateTriggers) {
+                for (int slot = 0; slot < highWater; slot++) {
+                    if (names[slot] != null && name.equals(calendarNameOf(slot))) {
+                        OperableTrigger trig = materialize(slot);
+                        boolean removed = dequeue(slot);
+
+                        trig.updateWithNewCalendar(calendar, getMisfireThreshold());
+                        capture(slot, trig);
+
+                        if (removed) {
+                            enqueue(slot);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean removeCalendar(String calName)
+        throws JobPersistenceException {
+
+        synchronized (lock) {
+            for (Shape shape : shapesByValue.keySet()) {
+                if (calName.equals(shape.calendarName)) {
+                    throw new JobPersistenceException(
+                            "Calender cannot be removed if it referenced by a Trigger!");
+                }
+            }
+            for (OperableTrigger trigger : otherTriggers.values()) {
+                if (calName.equals(trigger.getCalendarName())) {
+                    throw new JobPersistenceException(
+                            "Calender cannot be removed if it referenced by a Trigger!");
+                }
+            }
+
+            return (calendarsByName.remove(calName) != null);
+        }
+    }
+
+    public Calendar retrieveCalendar(String calName) {
+        synchronized (lock) {
+            Calendar cal = calendarsByName.get(calName);
+            return (cal != null) ? (Calendar) cal.clone() : null;
+        }
+    }
+
+    public int getNumberOfJobs() {
+        synchronized (lock) {
+            return jobsByKey.size();
+        }
+    }
+
+    public int getNumberOfTriggers() {
+        synchronized (lock) {
+            return triggerCount;
+        }
+    }
+
+    public int getNumberOfCalendars() {
+        synchronized (lock) {
+            return calendarsByName.size();
+        }
+    }
+
+    public Set<JobKey> getJobKeys(GroupMatcher<JobKey> matcher) {
+        Set<JobKey> outList = new HashSet<>();
+        synchronized (lock) {
+            StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+            String compareToValue = matcher.getCompareToValue();
+
+            if (operator == StringMatcher.StringOperatorName.EQUALS) {
+                HashMap<JobKey, JobEntry> grpMap = jobsByGroup.get(compareToValue);
+                if (grpMap != null) {
+                    outList.addAll(grpMap.keySet());
+                }
+            } else {
+                for (Map.Entry<String, HashMap<JobKey, JobEntry>> entry : jobsByGroup.entrySet()) {
+                    if (operator.evaluate(entry.getKey(), compareToValue)) {
+                        outList.addAll(entry.getValue().keySet());
+                    }
+                }
+            }
+        }
+
+        return outList.isEmpty() ? Collections.emptySet() : outList;
+    }
+
+    public List<String> getCalendarNames() {
+        synchronized (lock) {
+            return new LinkedList<>(calendarsByName.keySet());
+        }
+    }
+
+    public Set<TriggerKey> getTriggerKeys(GroupMatcher<TriggerKey> matcher) {
+        Set<TriggerKey> outList = new HashSet<>();
+        synchronized (lock) {
+            for (TriggerGroup group : matchingGroups(matcher)) {
+                for (int slot = group.firstTrigger; slot != NO_SLOT; slot = nextInGroup[slot]) {
+                    outList.add(new TriggerKey(names[slot], group.name));
+                }
+            }
+        }
+
+        return outList.isEmpty() ? Collections.emptySet() : outList;
+    }
+
+    public List<String> getJobGroupNames() {
+        synchronized (lock) {
+            return new LinkedList<>(jobsByGroup.keySet());
+        }
+    }
+
+    public List<String> getTriggerGroupNames() {
+        synchronized (lock) {
+            return new LinkedList<>(triggerGroups.keySet());
+        }
+    }
+
+    public List<OperableTrigger> getTriggersForJob(JobKey jobKey) {
+        ArrayList<OperableTrigger> trigList = new ArrayList<>();
+
+        synchronized (lock) {
+            JobEntry je = jobsByKey.get(jobKey);
+            if (je != null) {
+                for (int slot = je.firstTrigger; slot != NO_SLOT; slot = nextOfJob[slot]) {
+                    trigList.add(materialize(slot));
+                }
+            }
+        }
+
+        return trigList;
+    }
+
+    public void pauseTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            if (slot != NO_SLOT) {
+                pauseSlot(slot);
+            }
+        }
+    }
+
+    private void pauseSlot(int slot) {
+        // if the trigger is "complete" pausing it does not make sense...
+        if (states[slot] == TriggerWrapper.STATE_COMPLETE) {
+            return;
+        }
+
+        if (states[slot] == TriggerWrapper.STATE_BLOCKED) {
+            states[slot] = TriggerWrapper.STATE_PAUSED_BLOCKED;
+        } else {
+            states[slot] = TriggerWrapper.STATE_PAUSED;
+        }
+
+        dequeue(slot);
+    }
+
+    public List<String> pauseTriggers(GroupMatcher<TriggerKey> matcher) {
+
+        List<String> pausedGroups = new LinkedList<>();
+        synchronized (lock) {
+            StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+            if (operator == StringMatcher.StringOperatorName.EQUALS) {
+                if (pausedTriggerGroups.add(matcher.getCompareToValue())) {
+                    pausedGroups.add(matcher.getCompareToValue());
+                }
+            } else {
+                for (String group : triggerGroups.keySet()) {
+                    if (operator.evaluate(group, matcher.getCompareToValue()) && pausedTriggerGroups.add(group)) {
+                        pausedGroups.add(group);
+                    }
+                }
+            }
+
+            for (String pausedGroup : pausedGroups) {
+                TriggerGroup group = triggerGroups.get(pausedGroup);
+                if (group != null) {
+                    for (int slot = group.firstTrigger; slot != NO_SLOT; slot = nextInGroup[slot]) {
+                        pauseSlot(slot);
+                    }
+                }
+            }
+        }
+
+        return pausedGroups;
+    }
+
+    public void pauseJob(JobKey jobKey) {
+        synchronized (lock) {
+            JobEntry je = jobsByKey.get(jobKey);
+            if (je != null) {
+                for (int slot = je.firstTrigger; slot != NO_SLOT; slot = nextOfJob[slot]) {
+                    pauseSlot(slot);
+                }
+            }
+        }
+    }
+
+    public List<String> pauseJobs(GroupMatcher<JobKey> matcher) {
+        List<String> pausedGroups = new LinkedList<>();
+        synchronized (lock) {
+            StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+            if (operator == StringMatcher.StringOperatorName.EQUALS) {
+                if (pausedJobGroups.add(matcher.getCompareToValue())) {
+                    pausedGroups.add(matcher.getCompareToValue());
+                }
+            } else {
+                for (String group : jobsByGroup.keySet()) {
+                    if (operator.evaluate(group, matcher.getCompareToValue()) && pausedJobGroups.add(group)) {
+                        pausedGroups.add(group);
+                    }
+                }
+            }
+
+            for (String groupName : pausedGroups) {
+                HashMap<JobKey, JobEntry> grpMap = jobsByGroup.get(groupName);
+                if (grpMap != null) {
+                    for (JobEntry je : grpMap.values()) {
+                        for (int slot = je.firstTrigger; slot != NO_SLOT; slot = nextOfJob[slot]) {
+                            pauseSlot(slot);
+                        }
+                    }
+                }
+            }
+        }
+
+        return pausedGroups;
+    }
+
+    public void resumeTrigger(TriggerKey triggerKey) {
+        synchronized (lock) {
+            int slot = slotOf(triggerKey);
+            if (slot != NO_SLOT) {
+                resumeSlot(slot);
+            }
+        }
+    }
+
+    private void resumeSlot(int slot) {
+        // if the trigger is not paused resuming it does not make sense...
+        if (states[slot] != TriggerWrapper.STATE_PAUSED
+                && states[slot] != TriggerWrapper.STATE_PAUSED_BLOCKED) {
+            return;
+        }
+
+        if (blockedJobs.contains(jobs[slot].key)) {
+            states[slot] = TriggerWrapper.STATE_BLOCKED;
+        } else {
+            states[slot] = TriggerWrapper.STATE_WAITING;
+        }
+
+        applyMisfire(slot);
+
+        if (states[slot] == TriggerWrapper.STATE_WAITING) {
+            enqueue(slot);
+        }
+    }
+
+    public List<String> resumeTriggers(GroupMatcher<TriggerKey> matcher) {
+        Set<String> groups = new HashSet<>();
+
+        synchronized (lock) {
+            for (TriggerGroup group : matchingGroups(matcher)) {
+                if (group.firstTrigger != NO_SLOT) {
+                    groups.add(group.name);
+                }
+                for (int slot = group.firstTrigger; slot != NO_SLOT; slot = nextInGroup[slot]) {
+                    if (!pausedJobGroups.contains(jobs[slot].key.getGroup())) {
+                        resumeSlot(slot);
+                    }
+                }
+            }
+
+            // Find all matching paused trigger groups, and then remove them.
+            StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+            String matcherGroup = matcher.getCompareToValue();
+            if (operator == StringMatcher.StringOperatorName.EQUALS) {
+                pausedTriggerGroups.remove(matcherGroup);
+            } else {
+                pausedTriggerGroups.removeIf(group -> operator.evaluate(group, matcherGroup));
+            }
+        }
+
+        return new ArrayList<>(groups);
+    }
+
+    public void resumeJob(JobKey jobKey) {
+        synchronized (lock) {
+            JobEntry je = jobsByKey.get(jobKey);
+            if (je != null) {
+                for (int slot = je.firstTrigger; slot != NO_SLOT; slot = nextOfJob[slot]) {
+                    resumeSlot(slot);
+                }
+            }
+        }
+    }
+
+    public Collection<String> resumeJobs(GroupMatcher<JobKey> matcher) {
+        Set<String> resumedGroups = new HashSet<>();
+        synchronized (lock) {
+            Set<JobKey> keys = getJobKeys(matcher);
+
+            for (String pausedJobGroup : pausedJobGroups) {
+                if (matcher.getCompareWithOperator().evaluate(pausedJobGroup, matcher.getCompareToValue())) {
+                    resumedGroups.add(pausedJobGroup);
+                }
+            }
+            pausedJobGroups.removeAll(resumedGroups);
+
+            for (JobKey key : keys) {
+                resumeJob(key);
+            }
+        }
+        return resumedGroups;
+    }
+
+    public void pauseAll() {
+        synchronized (lock) {
+            for (String name : getTriggerGroupNames()) {
+                pauseTriggers(GroupMatcher.triggerGroupEquals(name));
+            }
+        }
+    }
+
+    public void resumeAll() {
+        synchronized (lock) {
+            pausedJobGroups.clear();
+            resumeTriggers(GroupMatcher.anyTriggerGroup());
+        }
+    }
+
+    public Set<String> getPausedTriggerGroups() throws JobPersistenceException {
+        synchronized (lock) {
+            return new HashSet<>(pausedTriggerGroups);
+        }
+    }
+
+    /**
+     * Apply the misfire instruction of the trigger in the given slot, if it
+     * misfired.  The slot must not be queued.
+     */
+    protected boolean applyMisfire(int slot) {
+
+        long misfireTime = System.currentTimeMillis();
+        long threshold = getMisfireThreshold(groups[slot].name);
+        if (threshold > 0) {
+            misfireTime -= threshold;
+        }
+
+        long tnft = nextFireTimes[slot];
+        if (tnft == NO_TIME || tnft > misfireTime
+                || misfireInstructionOf(slot) == Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY) {
+            return false;
+        }
+
+        Calendar cal = null;
+        String calName = calendarNameOf(slot);
+        if (calName != null) {
+            cal = retrieveCalendar(calName);
+        }
+
+        OperableTrigger trig = materialize(slot);
+        signaler.notifyTriggerListenersMisfired((OperableTrigger) trig.clone());
+
+        if (isShedTriggerGroup(groups[slot].name)) {
+            TriggerUtils.skipMissedFireTimes(trig, cal);
+        } else {
+            trig.updateAfterMisfire(cal);
+        }
+        capture(slot, trig);
+
+        if (nextFireTimes[slot] == NO_TIME) {
+            states[slot] = TriggerWrapper.STATE_COMPLETE;
+            signaler.notifySchedulerListenersFinalized(trig);
+            dequeue(slot);
+            return true;
+        }
+        return tnft != nextFireTimes[slot];
+    }
+
+    private static final AtomicLong ftrCtr = new AtomicLong(System.currentTimeMillis());
+
+    protected String getFiredTriggerRecordId() {
+        return String.valueOf(ftrCtr.incrementAndGet());
+    }
+
+    public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow) {
+        return acquireNextTriggers(noLaterThan, maxCount, timeWindow, null);
+    }
+
+    @Override
+    public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow, TriggerPartition partition) {
+        synchronized (lock) {
+            List<OperableTrigger> result = new ArrayList<>();
+            Set<JobKey> acquiredJobKeysForNoConcurrentExec = new HashSet<>();
+            int[] misfiredSlots = new int[8];
+            int misfiredCount = 0;
+            int[] passedOverSlots = new int[8];
+            int passedOverCount = 0;
+            long batchEnd = noLaterThan;
+
+            // return empty list if store has no triggers.
+            if (queuedCount == 0) {
+                return result;
+            }
+
+            // While the scheduler sheds load, look ahead at the next due
+            // triggers that may be acquired, and pass over those of lower
+            // priority than the ones to acquire.
+            int minPriority = Integer.MIN_VALUE;
+            long lookAheadEnd = Long.MIN_VALUE;
+            if (priorityLookAhead > 1) {
+                int lookAheadCount = (int) Math.min(Integer.MAX_VALUE, (long) maxCount * priorityLookAhead);
+                PriorityQueue<Integer> highestPriorities = new PriorityQueue<>();
+                int count = 0;
+                FireTimeQueue.Walk walk = timeTriggers.walk();
+                while (walk.hasNext() && count < lookAheadCount) {
+                    int entry = walk.next();
+                    int slot = timeTriggers.entrySlots[entry];
+                    if (!queued[slot] || queueStamps[slot] != timeTriggers.entryStamps[entry]
+                            || nextFireTimes[slot] == NO_TIME) {
+                        continue;
+                    }
+                    if (nextFireTimes[slot] > noLaterThan) {
+                        break;
+                    }
+                    if (partition != null && (!partition.contains(new TriggerKey(names[slot], groups[slot].name))
+                            || !partition.containsJob(jobs[slot].key))) {
+                        continue;
+                    }
+                    count++;
+                    lookAheadEnd = nextFireTimes[slot];
+                    highestPriorities.add(priorities[slot]);
+                    if (highestPriorities.size() > maxCount) {
+                        highestPriorities.poll();
+                    }
+                }
+                if (count > maxCount) {
+                    minPriority = highestPriorities.peek();
+                }
+            }
+
+            // The triggers that are passed over (those of other partitions, or
+            // of jobs already in the batch) are left in the queue, rather than
+            // taken out and put back, so the queue is walked rather than polled.
+            // Misfired triggers, and those of lower priority, go back in the
+            // queue once it has been walked, and it is walked again if the
+            // misfired ones may fill the batch.
+            boolean walkAgain = true;
+            while (walkAgain) {
+                walkAgain = false;
+                FireTimeQueue.Walk walk = timeTriggers.walk();
+                while (walk.hasNext()) {
+                    int entry = walk.next();
+                    int slot = timeTriggers.entrySlots[entry];
+                    if (!queued[slot] || queueStamps[slot] != timeTriggers.entryStamps[entry]) {
+                        continue;
+                    }
+
+                    if (nextFireTimes[slot] == NO_TIME) {
+                        take(slot);
+                        continue;
+                    }
+
+                    if (nextFireTimes[slot] > batchEnd) {
+                        break;
+                    }
+
+                    // leave triggers of other partitions, and of jobs routed to other
+                    // thread pools, to the threads that own them
+                    if (partition != null && (!partition.contains(new TriggerKey(names[slot], groups[slot].name))
+                            || !partition.containsJob(jobs[slot].key))) {
+                        continue;
+                    }
+
+                    // If trigger's job is set as @DisallowConcurrentExecution, and it has already been added to result, then
+                    // leave it in the queue and continue to search for next trigger.
+                    JobEntry je = jobs[slot];
+                    if (je.jobDetail.isConcurrentExecutionDisallowed()
+                            && acquiredJobKeysForNoConcurrentExec.contains(je.key)) {
+                        continue;
+                    }
+
+                    take(slot);
+                    int queueModCount = timeTriggers.modCount;
+                    if (applyMisfire(slot)) {
+                        if (nextFireTimes[slot] != NO_TIME) {
+                            if (misfiredCount == misfiredSlots.length) {
+                                misfiredSlots = Arrays.copyOf(misfiredSlots, misfiredCount * 2);
+                            }
+                            misfiredSlots[misfiredCount++] = slot;
+                        }
+                        // the misfire listeners may have changed the queue
+                        if (timeTriggers.modCount != queueModCount) {
+                            walkAgain = true;
+                            break;
+                        }
+                        continue;
+                    }
+
+                    // taken out after its misfire was applied, so put back
+                    // once the queue has been walked
+                    if (priorities[slot] < minPriority && nextFireTimes[slot] <= lookAheadEnd) {
+                        if (passedOverCount == passedOverSlots.length) {
+                            passedOverSlots = Arrays.copyOf(passedOverSlots, passedOverCount * 2);
+                        }
+                        passedOverSlots[passedOverCount++] = slot;
+                        continue;
+                    }
+
+                    if (je.jobDetail.isConcurrentExecutionDisallowed()) {
+                        acquiredJobKeysForNoConcurrentExec.add(je.key);
+                    }
+                    states[slot] = TriggerWrapper.STATE_ACQUIRED;
+                    OperableTrigger trig = materialize(slot);
+                    trig.setFireInstanceId(getFiredTriggerRecordId());
+                    if (result.isEmpty()) {
+                        batchEnd = Math.max(nextFireTimes[slot], System.currentTimeMillis()) + timeWindow;
+                    }
+                    result.add(trig);
+                    if (result.size() == maxCount) {
+                        break;
+                    }
+                }
+
+                // put back the misfired triggers, and those of lower priority
+                for (int i = 0; i < passedOverCount; i++) {
+                    enqueue(passedOverSlots[i]);
+                }
+                passedOverCount = 0;
+                if (misfiredCount > 0) {
+                    for (int i = 0; i < misfiredCount; i++) {
+                        enqueue(misfiredSlots[i]);
+                    }
+                    misfiredCount = 0;
+                    walkAgain = result.size() < maxCount;
+                }
+            }
+            if (timeTriggers.size > 2 * queuedCount + 1024) {
+                rebuildQueue();
+            }
+            return result;
+        }
+    }
+
+    public void releaseAcquiredTrigger(OperableTrigger trigger) {
+        synchronized (lock) {
+            int slot = slotOf(trigger.getKey());
+            if (slot != NO_SLOT && states[slot] == TriggerWrapper.STATE_ACQUIRED) {
+                states[slot] = TriggerWrapper.STATE_WAITING;
+                enqueue(slot);
+            }
+        }
+    }
+
+    public List<TriggerFiredResult> triggersFired(List<OperableTrigger> firedTriggers) {
+
+        synchronized (lock) {
+            List<TriggerFiredResult> results = new ArrayList<>();
+
+            for (OperableTrigger trigger : firedTriggers) {
+                int slot = slotOf(trigger.getKey());
+                // was the trigger deleted since being acquired?
+                if (slot == NO_SLOT) {
+                    continue;
+                }
+                // was the trigger completed, paused, blocked, etc. since being acquired?
+                if (states[slot] != TriggerWrapper.STATE_ACQUIRED) {
+                    continue;
+                }
+
+                Calendar cal = null;
+                String calName = calendarNameOf(slot);
+                if (calName != null) {
+                    cal = retrieveCalendar(calName);
+                    if (cal == null) {
+                        continue;
+                    }
+                }
+                // was the job started, for a trigger acquired in an earlier
+                // batch, since being acquired?
+                if (blockedJobs.contains(jobs[slot].key)
+                        && jobs[slot].jobDetail.isConcurrentExecutionDisallowed()) {
+                    dequeue(slot);
+                    states[slot] = TriggerWrapper.STATE_BLOCKED;
+                    continue;
+                }
+                Date prevFireTime = trigger.getPreviousFireTime();
+                // in case trigger was replaced between acquiring and firing
+                dequeue(slot);
+                // call triggered on our copy, and the scheduler's copy
+                OperableTrigger stored = materialize(slot);
+                stored.triggered(cal);
+                capture(slot, stored);
+                trigger.triggered(cal);
+                states[slot] = TriggerWrapper.STATE_WAITING;
+
+                JobEntry je = jobs[slot];
+                TriggerFiredBundle bundle = new TriggerFiredBundle((JobDetail) je.jobDetail.clone(), trigger, cal,
+                        false, new Date(), trigger.getPreviousFireTime(), prevFireTime,
+                        trigger.getNextFireTime());
+
+                boolean taskDone = TriggerUtils.isTask(stored) && nextFireTimes[slot] == NO_TIME;
+                if (taskDone) {
+                    // a task is done with once fired, rather than once its
+                    // job completes
+                    removeSlot(slot, true);
+                }
+                if (je.jobDetail.isConcurrentExecutionDisallowed()) {
+                    for (int s = je.firstTrigger; s != NO_SLOT; s = nextOfJob[s]) {
+                        if (states[s] == TriggerWrapper.STATE_WAITING) {
+                            states[s] = TriggerWrapper.STATE_BLOCKED;
+                        }
+                        if (states[s] == TriggerWrapper.STATE_PAUSED) {
+                            states[s] = TriggerWrapper.STATE_PAUSED_BLOCKED;
+                        }
+                        dequeue(s);
+                    }
+                    blockedJobs.add(je.key);
+                } else if (!taskDone && nextFireTimes[slot] != NO_TIME) {
+                    enqueue(slot);
+                }
+
+                results.add(new TriggerFiredResult(bundle));
+            }
+            return results;
+        }
+    }
+
+    public void triggeredJobComplete(OperableTrigger trigger,
+            JobDetail jobDetail, CompletedExecutionInstruction triggerInstCode) {
+
+        synchronized (lock) {
+
+            JobEntry je = jobsByKey.get(jobDetail.getKey());
+            int slot = slotOf(trigger.getKey());
+
+            // It's possible that the job is null if it was deleted during execution
+            if (je != null) {
+                JobDetail jd = je.jobDetail;
+
+                if (jd.isPersistJobDataAfterExecution()) {
+                    JobDataMap newData = jobDetail.getJobDataMap();
+                    if (newData != null) {
+                        newData = (JobDataMap) newData.clone();
+                        newData.clearDirtyFlag();
+                    }
+                    jd = jd.getJobBuilder().setJobData(newData).build();
+                    je.jobDetail = jd;
+                }
+                if (jd.isConcurrentExecutionDisallowed()) {
+                    blockedJobs.remove(jd.getKey());
+                    for (int s = je.firstTrigger; s != NO_SLOT; s = nextOfJob[s]) {
+                        if (states[s] == TriggerWrapper.STATE_BLOCKED) {
+                            states[s] = TriggerWrapper.STATE_WAITING;
+                            enqueue(s);
+                        }
+                        if (states[s] == TriggerWrapper.STATE_PAUSED_BLOCKED) {
+                            states[s] = TriggerWrapper.STATE_PAUSED;
+                        }
+                    }
+                    signaler.signalSchedulingChange(0L);
+                }
+            } else { // even if it was deleted, there may be cleanup to do
+                blockedJobs.remove(jobDetail.getKey());
+            }
+
+            // check for trigger deleted during execution...
+            if (slot != NO_SLOT) {
+                if (triggerInstCode == CompletedExecutionInstruction.DELETE_TRIGGER) {
+
+                    if (trigger.getNextFireTime() == null) {
+                        // double check for possible reschedule within job
+                        // execution, which would cancel the need to delete...
+                        if (nextFireTimes[slot] == NO_TIME) {
+                            removeSlot(slot, true);
+                        }
+                    } else {
+                        removeSlot(slot, true);
+                        signaler.signalSchedulingChange(0L);
+                    }
+                } else if (triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_COMPLETE) {
+                    states[slot] = TriggerWrapper.STATE_COMPLETE;
+                    dequeue(slot);
+                    signaler.signalSchedulingChange(0L);
+                } else if (triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_ERROR) {
+                    getLog().info("Trigger {} set to ERROR state.", trigger.getKey());
+                    states[slot] = TriggerWrapper.STATE_ERROR;
+                    signaler.signalSchedulingChange(0L);
+                } else if (triggerInstCode == CompletedExecutionInstruction.SET_ALL_JOB_TRIGGERS_ERROR) {
+                    getLog().info("All triggers of Job {} set to ERROR state.", trigger.getJobKey());
+                    setAllTriggersOfJobToState(jobs[slot], TriggerWrapper.STATE_ERROR);
+                    signaler.signalSchedulingChange(0L);
+                } else if (triggerInstCode == CompletedExecutionInstruction.SET_ALL_JOB_TRIGGERS_COMPLETE) {
+                    setAllTriggersOfJobToState(jobs[slot], TriggerWrapper.STATE_COMPLETE);
+                    signaler.signalSchedulingChange(0L);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getAcquireRetryDelay(int failureCount) {
+        return 20;
+    }
+
+    private void setAllTriggersOfJobToState(JobEntry je, int state) {
+        for (int slot = je.firstTrigger; slot != NO_SLOT; slot = nextOfJob[slot]) {
+            states[slot] = (byte) state;
+            if (state != TriggerWrapper.STATE_WAITING) {
+                dequeue(slot);
+            }
+        }
+    }
+
+    public void setInstanceId(String schedInstId) {
+        //
+    }
+
+    public void setInstanceName(String schedName) {
+        //
+    }
+
+    public void setThreadPoolSize(final int poolSize) {
+        //
+    }
+
+    public long getEstimatedTimeToReleaseAndAcquireTrigger() {
+        return 5;
+    }
+
+    public boolean isClustered() {
+        return false;
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Trigger columns.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private void allocateColumns(int capacity) {
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        groups = groups == null ? new TriggerGroup[capacity] : Arrays.copyOf(groups, capacity);
+        jobs = jobs == null ? new JobEntry[capacity] : Arrays.copyOf(jobs, capacity);
+        shapes = shapes == null ? new Shape[capacity] : Arrays.copyOf(shapes, capacity);
+        startTimes = startTimes == null ? new long[capacity] : Arrays.copyOf(startTimes, capacity);
+        nextFireTimes = nextFireTimes == null ? new long[capacity] : Arrays.copyOf(nextFireTimes, capacity);
+        previousFireTimes = previousFireTimes == null ? new long[capacity] : Arrays.copyOf(previousFireTimes, capacity);
+        priorities = priorities == null ? new int[capacity] : Arrays.copyOf(priorities, capacity);
+        timesTriggered = timesTriggered == null ? new int[capacity] : Arrays.copyOf(timesTriggered, capacity);
+        states = states == null ? new byte[capacity] : Arrays.copyOf(states, capacity);
+        queued = queued == null ? new boolean[capacity] : Arrays.copyOf(queued, capacity);
+        queueStamps = queueStamps == null ? new int[capacity] : Arrays.copyOf(queueStamps, capacity);
+        nextInGroup = nextInGroup == null ? new int[capacity] : Arrays.copyOf(nextInGroup, capacity);
+        prevInGroup = prevInGroup == null ? new int[capacity] : Arrays.copyOf(prevInGroup, capacity);
+        nextOfJob = nextOfJob == null ? new int[capacity] : Arrays.copyOf(nextOfJob, capacity);
+        prevOfJob = prevOfJob == null ? new int[capacity] : Arrays.copyOf(prevOfJob, capacity);
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (highWater == names.length) {
+            allocateColumns(names.length + (names.length >> 1));
+        }
+        return highWater++;
+    }
+
+    /**
+     * Remove the trigger in the given slot from every index and free the slot.
+     */
+    private void removeSlot(int slot, boolean removeOrphanedJob) {
+        JobEntry je = jobs[slot];
+
+        dequeue(slot);
+        unindexSlot(slot);
+        unlinkFromGroup(slot);
+        unlinkFromJob(slot);
+        setShape(slot, null);
+        jobDataBySlot.remove(slot);
+        otherTriggers.remove(slot);
+        names[slot] = null;
+        groups[slot] = null;
+        jobs[slot] = null;
+        states[slot] = TriggerWrapper.STATE_WAITING;
+        triggerCount--;
+
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+
+        if (removeOrphanedJob && je.firstTrigger == NO_SLOT && !je.jobDetail.isDurable()) {
+            if (removeJob(je.key)) {
+                signaler.notifySchedulerListenersJobDeleted(je.key);
+            }
+        }
+    }
+
+    /**
+     * Store everything but the key and job of the given trigger in the given
+     * slot.
+     */
+    private void capture(int slot, OperableTrigger trigger) {
+        startTimes[slot] = toTime(trigger.getStartTime());
+        nextFireTimes[slot] = toTime(trigger.getNextFireTime());
+        previousFireTimes[slot] = toTime(trigger.getPreviousFireTime());
+        priorities[slot] = trigger.getPriority();
+
+        Shape shape = Shape.of(trigger);
+        setShape(slot, shape);
+        if (shape != null) {
+            timesTriggered[slot] = shape.kind == Shape.SIMPLE ? ((SimpleTriggerImpl) trigger).getTimesTriggered() : 0;
+            otherTriggers.remove(slot);
+        } else {
+            otherTriggers.put(slot, (OperableTrigger) trigger.clone());
+        }
+
+        JobDataMap jobDataMap = trigger.getJobDataMap();
+        if (jobDataMap != null && !jobDataMap.isEmpty()) {
+            jobDataBySlot.put(slot, (JobDataMap) jobDataMap.clone());
+        } else {
+            jobDataBySlot.remove(slot);
+        }
+    }
+
+    private void setShape(int slot, Shape shape) {
+        if (shape != null) {
+            Shape interned = shapesByValue.putIfAbsent(shape, shape);
+            if (interned != null) {
+                shape = interned;
+            }
+            shape.references++;
+        }
+        Shape previous = shapes[slot];
+        if (previous != null && --previous.references == 0) {
+            shapesByValue.remove(previous);
+        }
+        shapes[slot] = shape;
+    }
+
+    /**
+     * Create a new trigger object from the given slot.
+     */
+    private OperableTrigger materialize(int slot) {
+        OperableTrigger other = otherTriggers.get(slot);
+        if (other != null) {
+            OperableTrigger trigger = (OperableTrigger) other.clone();
+            JobDataMap jobDataMap = jobDataBySlot.get(slot);
+            trigger.setJobDataMap(jobDataMap != null ? (JobDataMap) jobDataMap.clone() : null);
+            return trigger;
+        }
+
+        Shape shape = shapes[slot];
+        AbstractTrigger<?> trigger;
+        if (shape.kind == Shape.SIMPLE) {
+            SimpleTriggerImpl st = new SimpleTriggerImpl();
+            if (startTimes[slot] != NO_TIME) {
+                st.setStartTime(toDate(startTimes[slot]));
+            }
+            st.setEndTime(toDate(shape.endTime));
+            st.setRepeatCount(shape.repeatCount);
+            st.setRepeatInterval(shape.repeatInterval);
+            st.setTimesTriggered(timesTriggered[slot]);
+            st.setFireTimeJitter(shape.fireTimeJitter);
+            st.setNextFireTime(toDate(nextFireTimes[slot]));
+            st.setPreviousFireTime(toDate(previousFireTimes[slot]));
+            trigger = st;
+        } else {
+            CronTriggerImpl ct = new CronTriggerImpl();
+            ct.setCronExpression(new CronExpression(shape.cronExpression));
+            ct.setStartTime(toDate(startTimes[slot]));
+            ct.setEndTime(toDate(shape.endTime));
+            ct.setFireTimeJitter(shape.fireTimeJitter);
+            ct.setNextFireTime(toDate(nextFireTimes[slot]));
+            ct.setPreviousFireTime(toDate(previousFireTimes[slot]));
+            trigger = ct;
+        }
+        trigger.setName(names[slot]);
+        trigger.setGroup(groups[slot].name);
+        trigger.setJobKey(jobs[slot].key);
+        trigger.setDescription(shape.description);
+        trigger.setCalendarName(shape.calendarName);
+        trigger.setMisfireInstruction(shape.misfireInstruction);
+        trigger.setPriority(priorities[slot]);
+        JobDataMap jobDataMap = jobDataBySlot.get(slot);
+        if (jobDataMap != null) {
+            trigger.setJobDataMap((JobDataMap) jobDataMap.clone());
+        }
+        return trigger;
+    }
+
+    private String calendarNameOf(int slot) {
+        Shape shape = shapes[slot];
+        return shape != null ? shape.calendarName : otherTriggers.get(slot).getCalendarName();
+    }
+
+    private int misfireInstructionOf(int slot) {
+        Shape shape = shapes[slot];
+        return shape != null ? shape.misfireInstruction : otherTriggers.get(slot).getMisfireInstruction();
+    }
+
+    private static long toTime(Date date) {
+        return date != null ? date.getTime() : NO_TIME;
+    }
+
+    private static Date toDate(long time) {
+        return time != NO_TIME ? new Date(time) : null;
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Key index, group and job lists.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private int slotOf(TriggerKey key) {
+        return findSlot(key.getName(), key.getGroup());
+    }
+
+    private static int keyHash(String name, String group) {
+        int h = name.hashCode() * 31 + group.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int findSlot(String name, String group) {
+        int mask = keyIndex.length - 1;
+        for (int i = keyHash(name, group) & mask; ; i = (i + 1) & mask) {
+            int entry = keyIndex[i];
+            if (entry == 0) {
+                return NO_SLOT;
+            }
+            if (entry > 0) {
+                int slot = entry - 1;
+                if (names[slot].equals(name) && groups[slot].name.equals(group)) {
+                    return slot;
+                }
+            }
+        }
+    }
+
+    private void indexSlot(int slot) {
+        if ((keyIndexUsed + 1) * 4 > keyIndex.length * 3) {
+            // the rebuilt index includes the new slot
+            rebuildKeyIndex(Math.max(keyIndex.length, Integer.highestOneBit((triggerCount + 1) * 4)));
+            return;
+        }
+        int mask = keyIndex.length - 1;
+        int i = keyHash(names[slot], groups[slot].name) & mask;
+        while (keyIndex[i] > 0) {
+            i = (i + 1) & mask;
+        }
+        if (keyIndex[i] == 0) {
+            keyIndexUsed++;
+        }
+        keyIndex[i] = slot + 1;
+    }
+
+    private void unindexSlot(int slot) {
+        int mask = keyIndex.length - 1;
+        for (int i = keyHash(names[slot], groups[slot].name) & mask; keyIndex[i] != 0; i = (i + 1) & mask) {
+            if (keyIndex[i] == slot + 1) {
+                keyIndex[i] = -1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the key index without the removed entries, growing it as
+     * needed.
+     */
+    private void rebuildKeyIndex(int length) {
+        keyIndex = new int[length];
+        keyIndexUsed = 0;
+        int mask = length - 1;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (names[slot] != null) {
+                int i = keyHash(names[slot], groups[slot].name) & mask;
+                while (keyIndex[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keyIndex[i] = slot + 1;
+                keyIndexUsed++;
+            }
+        }
+    }
+
+    private void linkToGroup(int slot) {
+        TriggerGroup group = groups[slot];
+        prevInGroup[slot] = NO_SLOT;
+        nextInGroup[slot] = group.firstTrigger;
+        if (group.firstTrigger != NO_SLOT) {
+            prevInGroup[group.firstTrigger] = slot;
+        }
+        group.firstTrigger = slot;
+    }
+
+    private void unlinkFromGroup(int slot) {
+        TriggerGroup group = groups[slot];
+        if (prevInGroup[slot] != NO_SLOT) {
+            nextInGroup[prevInGroup[slot]] = nextInGroup[slot];
+        } else {
+            group.firstTrigger = nextInGroup[slot];
+        }
+        if (nextInGroup[slot] != NO_SLOT) {
+            prevInGroup[nextInGroup[slot]] = prevInGroup[slot];
+        }
+        if (group.firstTrigger == NO_SLOT) {
+            triggerGroups.remove(group.name);
+        }
+    }
+
+    private void linkToJob(int slot) {
+        JobEntry je = jobs[slot];
+        prevOfJob[slot] = NO_SLOT;
+        nextOfJob[slot] = je.firstTrigger;
+        if (je.firstTrigger != NO_SLOT) {
+            prevOfJob[je.firstTrigger] = slot;
+        }
+        je.firstTrigger = slot;
+    }
+
+    private void unlinkFromJob(int slot) {
+        JobEntry je = jobs[slot];
+        if (prevOfJob[slot] != NO_SLOT) {
+            nextOfJob[prevOfJob[slot]] = nextOfJob[slot];
+        } else {
+            je.firstTrigger = nextOfJob[slot];
+        }
+        if (nextOfJob[slot] != NO_SLOT) {
+            prevOfJob[nextOfJob[slot]] = prevOfJob[slot];
+        }
+    }
+
+    private List<TriggerGroup> matchingGroups(GroupMatcher<TriggerKey> matcher) {
+        StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+        String compareToValue = matcher.getCompareToValue();
+
+        if (operator == StringMatcher.StringOperatorName.EQUALS) {
+            TriggerGroup group = triggerGroups.get(compareToValue);
+            return group != null ? Collections.singletonList(group) : Collections.emptyList();
+        }
+        List<TriggerGroup> matching = new ArrayList<>();
+        for (TriggerGroup group : triggerGroups.values()) {
+            if (operator.evaluate(group.name, compareToValue)) {
+                matching.add(group);
+            }
+        }
+        return matching;
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Fire time queue.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * Queue the trigger in the given slot for acquisition, in the order of
+     * its next fire time.
+     */
+    private void enqueue(int slot) {
+        if (queued[slot]) {
+            return;
+        }
+        queued[slot] = true;
+        queuedCount++;
+        if (nextFireTimes[slot] != NO_TIME) {
+            timeTriggers.push(nextFireTimes[slot], priorities[slot], slot, ++queueStamps[slot]);
+        }
+    }
+
+    /**
+     * Take the trigger in the given slot out of the queue.  Its entry in the
+     * heap goes stale, and is dropped when it reaches the top.
+     *
+     * @return whether the trigger was queued
+     */
+    private boolean dequeue(int slot) {
+        if (!queued[slot]) {
+            return false;
+        }
+        take(slot);
+        if (timeTriggers.size > 2 * queuedCount + 1024) {
+            rebuildQueue();
+        }
+        return true;
+    }
+
+    /**
+     * Take the trigger in the given slot, which is queued, out of the queue,
+     * leaving the heap as it is.
+     */
+    private void take(int slot) {
+        queued[slot] = false;
+        queuedCount--;
+        queueStamps[slot]++;
+    }
+
+    /**
+     * Take the trigger with the earliest next fire time out of the queue.
+     */
+    private int pollQueue() {
+        while (timeTriggers.size > 0) {
+            int slot = timeTriggers.entrySlots[0];
+            int stamp = timeTriggers.entryStamps[0];
+            timeTriggers.pop();
+            if (queued[slot] && queueStamps[slot] == stamp) {
+                take(slot);
+                return slot;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    private void rebuildQueue() {
+        timeTriggers.size = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (queued[slot] && nextFireTimes[slot] != NO_TIME) {
+                timeTriggers.push(nextFireTimes[slot], priorities[slot], slot, ++queueStamps[slot]);
+            }
+        }
+    }
+
+    private int compareKeys(int slot1, int slot2) {
+        if (names[slot1] == null || names[slot2] == null) {
+            // a stale entry of a free slot
+            return Integer.compare(slot1, slot2);
+        }
+        String group1 = groups[slot1].name;
+        String group2 = groups[slot2].name;
+        boolean default1 = group1.equals(Key.DEFAULT_GROUP);
+        boolean default2 = group2.equals(Key.DEFAULT_GROUP);
+        if (default1 != default2) {
+            return default1 ? -1 : 1;
+        }
+        int r = group1.compareTo(group2);
+        return r != 0 ? r : names[slot1].compareTo(names[slot2]);
+    }
+
+    /**
+     * A binary min-heap of slots, ordered like
+     * <code>{@link Trigger.TriggerTimeComparator}</code>: by next fire time,
+     * then by descending priority, then by key.  The fire time and priority
+     * are kept in the heap, so stale entries stay in order.
+     */
+    private final class FireTimeQueue {
+
+        long[] entryTimes = new long[INITIAL_CAPACITY];
+        int[] entryPriorities = new int[INITIAL_CAPACITY];
+        int[] entrySlots = new int[INITIAL_CAPACITY];
+        int[] entryStamps = new int[INITIAL_CAPACITY];
+        int size;
+        int modCount;
+
+        void push(long time, int priority, int slot, int stamp) {
+            modCount++;
+            if (size == entryTimes.length) {
+                int capacity = size + (size >> 1);
+                entryTimes = Arrays.copyOf(entryTimes, capacity);
+                entryPriorities = Arrays.copyOf(entryPriorities, capacity);
+                entrySlots = Arrays.copyOf(entrySlots, capacity);
+                entryStamps = Arrays.copyOf(entryStamps, capacity);
+            }
+            int i = size++;
+            set(i, time, priority, slot, stamp);
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (compare(i, parent) >= 0) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        void pop() {
+            modCount++;
+            size--;
+            if (size == 0) {
+                return;
+            }
+            set(0, entryTimes[size], entryPriorities[size], entrySlots[size], entryStamps[size]);
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && compare(child + 1, child) < 0) {
+                    child++;
+                }
+                if (compare(i, child) <= 0) {
+                    break;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        Walk walk() {
+            return new Walk();
+        }
+
+        private int compare(int i, int j) {
+            if (entryTimes[i] != entryTimes[j]) {
+                return entryTimes[i] < entryTimes[j] ? -1 : 1;
+            }
+            if (entryPriorities[i] != entryPriorities[j]) {
+                return entryPriorities[i] > entryPriorities[j] ? -1 : 1;
+            }
+            // a slot whose entry went stale may have been reused, but stale
+            // entries are dropped regardless of where they end up
+            return compareKeys(entrySlots[i], entrySlots[j]);
+        }
+
+        private void set(int i, long time, int priority, int slot, int stamp) {
+            entryTimes[i] = time;
+            entryPriorities[i] = priority;
+            entrySlots[i] = slot;
+            entryStamps[i] = stamp;
+        }
+
+        private void swap(int i, int j) {
+            long time = entryTimes[i];
+            int priority = entryPriorities[i];
+            int slot = entrySlots[i];
+            int stamp = entryStamps[i];
+            set(i, entryTimes[j], entryPriorities[j], entrySlots[j], entryStamps[j]);
+            set(j, time, priority, slot, stamp);
+        }
+
+        /**
+         * Walks the entries of the heap in order without taking them out, by
+         * keeping the entries whose parents have been walked in a heap of
+         * their own.  The heap must not change while it is walked.
+         */
+        final class Walk {
+
+            private int[] frontier = new int[16];
+            private int frontierSize;
+
+            Walk() {
+                if (size > 0) {
+                    frontier[frontierSize++] = 0;
+                }
+            }
+
+            boolean hasNext() {
+                return frontierSize > 0;
+            }
+
+            /**
+             * @return the index in the heap of the next entry
+             */
+            int next() {
+                int entry = frontier[0];
+                frontier[0] = frontier[--frontierSize];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= frontierSize) {
+                        break;
+                    }
+                    if (child + 1 < frontierSize && compare(frontier[child + 1], frontier[child]) < 0) {
+                        child++;
+                    }
+                    if (compare(frontier[i], frontier[child]) <= 0) {
+                        break;
+                    }
+                    swapFrontier(i, child);
+                    i = child;
+                }
+                int child = 2 * entry + 1;
+                if (child < size) {
+                    add(child);
+                    if (child + 1 < size) {
+                        add(child + 1);
+                    }
+                }
+                return entry;
+            }
+
+            private void add(int entry) {
+                if (frontierSize == frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontierSize * 2);
+                }
+                int i = frontierSize++;
+                frontier[i] = entry;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (compare(frontier[i], frontier[parent]) >= 0) {
+                        break;
+                    }
+                    swapFrontier(i, parent);
+                    i = parent;
+                }
+            }
+
+            private void swapFrontier(int i, int j) {
+                int entry = frontier[i];
+                frontier[i] = frontier[j];
+                frontier[j] = entry;
+            }
+        }
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Helper classes.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    protected static final class JobEntry {
+
+        final JobKey key;
+
+        JobDetail jobDetail;
+
+        /** The first slot in the list of this job's triggers. */
+        int firstTrigger = NO_SLOT;
+
+        JobEntry(JobDetail jobDetail) {
+            this.jobDetail = jobDetail;
+            this.key = jobDetail.getKey();
+        }
+    }
+
+    protected static final class TriggerGroup {
+
+        final String name;
+
+        /** The first slot in the list of this group's triggers. */
+        int firstTrigger = NO_SLOT;
+
+        TriggerGroup(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The settings of a trigger that don't change as it fires, and that are
+     * usually shared by many triggers.
+     */
+    private static final class Shape {
+
+        static final int SIMPLE = 0;
+
+        static final int CRON = 1;
+
+        final int kind;
+        final String description;
+        final String calendarName;
+        final int misfireInstruction;
+        final long endTime;
+        final long fireTimeJitter;
+        final int repeatCount;
+        final long repeatInterval;
+        final CronExpression cronExpression;
+        final String cronString;
+        final String timeZoneId;
+        int references;
+
+        private Shape(int kind, OperableTrigger trigger, int repeatCount, long repeatInterval,
+                CronExpression cronExpression) {
+            this.kind = kind;
+            this.description = trigger.getDescription();
+            this.calendarName = trigger.getCalendarName();
+            this.misfireInstruction = trigger.getMisfireInstruction();
+            this.endTime = toTime(trigger.getEndTime());
+            this.fireTimeJitter = trigger.getFireTimeJitter();
+            this.repeatCount = repeatCount;
+            this.repeatInterval = repeatInterval;
+            this.cronExpression = cronExpression;
+            this.cronString = cronExpression != null ? cronExpression.getCronExpression() : null;
+            this.timeZoneId = cronExpression != null ? cronExpression.getTimeZone().getID() : null;
+        }
+
+        /**
+         * The shape of the given trigger, or <code>null</code> if it can't be
+         * stored compactly.
+         */
+        static Shape of(OperableTrigger trigger) {
+            if (trigger.getClass() == SimpleTriggerImpl.class) {
+                SimpleTriggerImpl st = (SimpleTriggerImpl) trigger;
+                return new Shape(SIMPLE, trigger, st.getRepeatCount(), st.getRepeatInterval(), null);
+            }
+            if (trigger.getClass() == CronTriggerImpl.class) {
+                CronTriggerImpl ct = (CronTriggerImpl) trigger;
+                if (ct.getCronExpression() == null) {
+                    return null;
+                }
+                try {
+                    CronExpression cronExpression = new CronExpression(ct.getCronExpression());
+                    cronExpression.setTimeZone((TimeZone) ct.getTimeZone().clone());
+                    return new Shape(CRON, trigger, 0, 0L, cronExpression);
+                } catch (ParseException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Shape)) {
+                return false;
+            }
+            Shape other = (Shape) obj;
+            return kind == other.kind
+                    && misfireInstruction == other.misfireInstruction
+                    && endTime == other.endTime
+                    && fireTimeJitter == other.fireTimeJitter
+                    && repeatCount == other.repeatCount
+                    && repeatInterval == other.repeatInterval
+                    && Objects.equals(description, other.description)
+                    && Objects.equals(calendarName, other.calendarName)
+                    && Objects.equals(cronString, other.cronString)
+                    && Objects.equals(timeZoneId, other.timeZoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, description, calendarName, misfireInstruction, endTime, fireTimeJitter,
+                    repeatCount, repeatInterval, cronString, timeZoneId);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.quartz.simpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
+
+/**
+ * An index over a set of group names, answering the
+ * <code>{@link StringOperatorName}</code> comparisons of group matchers
+ * without testing every name.  Names are kept sorted for
+ * <code>STARTS_WITH</code>, and every suffix of every name is kept sorted
+ * for <code>ENDS_WITH</code> (a suffix equal to the value) and
+ * <code>CONTAINS</code> (a suffix starting with the value).
+ *
+ * <p>
+ * Not thread-safe: the <code>RAMJobStore</code> only uses it while holding
+ * its lock.
+ * </p>
+ *
+ * @see RAMJobStore
+ */
+final class GroupNameIndex {
+
+    private final TreeSet<String> names = new TreeSet<>();
+
+    // each suffix of each name, to the names ending with it
+    private final TreeMap<String, Object> suffixes = new TreeMap<>();
+
+    void add(String name) {
+        if (!names.add(name)) {
+            return;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            String suffix = name.substring(i);
+            Object owners = suffixes.get(suffix);
+            if (owners == null) {
+                // a suffix almost always belongs to a single name
+                suffixes.put(suffix, name);
+            } else if (owners instanceof String) {
+                Set<String> set = new HashSet<>(4);
+                set.add((String) owners);
+                set.add(name);
+                suffixes.put(suffix, set);
+            } else {
+                @SuppressWarnings("unchecked")
+                Set<String> set = (Set<String>) owners;
+                set.add(name);
+            }
+        }
+    }
+
+    void remove(String name) {
+        if (!names.remove(name)) {
+            return;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            String suffix = name.substring(i);
+            Object owners = suffixes.get(suffix);
+            if (owners instanceof String) {
+                suffixes.remove(suffix);
+            } else if (owners != null) {
+                @SuppressWarnings("unchecked")
+                Set<String> set = (Set<String>) owners;
+                set.remove(name);
+                if (set.size() == 1) {
+                    suffixes.put(suffix, set.iterator().next());
+                }
+            }
+        }
+    }
+
+    void clear() {
+        names.clear();
+        suffixes.clear();
+    }
+
+    boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Get the names for which the given operator evaluates to
+     * <code>true</code> against the given value.
+     */
+    Collection<String> matching(StringOperatorName operator, String value) {
+        switch (operator) {
+            case EQUALS:
+                return names.contains(value) ? Collections.singletonList(value) : Collections.<String>emptyList();
+            case STARTS_WITH: {
+                List<String> result = new ArrayList<>();
+                for (String name : names.tailSet(value)) {
+                    if (!name.startsWith(value)) {
+                        break;
+                    }
+                    result.add(name);
+                }
+                return result;
+            }
+            case ENDS_WITH:
+                if (value.isEmpty()) {
+                    return new ArrayList<>(names);
+                }
+                return owners(suffixes.get(value), new HashSet<String>());
+            case CONTAINS: {
+                if (value.isEmpty()) {
+                    return new ArrayList<>(names);
+                }
+                Set<String> result = new HashSet<>();
+                for (Map.Entry<String, Object> entry : suffixes.tailMap(value).entrySet()) {
+                    if (!entry.getKey().startsWith(value)) {
+                        break;
+                    }
+                    owners(entry.getValue(), result);
+                }
+                return result;
+            }
+            default:
+                return new ArrayList<>(names);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> owners(Object owners, Set<String> result) {
+        if (owners instanceof String) {
+            result.add((String) owners);
+        } else if (owners != null) {
+            result.addAll((Set<String>) owners);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.simpl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of length and checksum framed records, with group
+ * commit: any number of threads may append records, and a single
+ * <code>force()</code> of the file makes all records appended so far durable
+ * for every thread waiting on them.
+ *
+ * @see JournaledRAMJobStore
+ */
+final class Journal {
+
+    /**
+     * Receives the records of a journal file as it is read.
+     */
+    interface RecordHandler {
+        void record(byte[] payload) throws IOException;
+    }
+
+    private final File file;
+
+    private final boolean forceWrites;
+
+    private final FileOutputStream fileOut;
+
+    private final FileChannel channel;
+
+    private final DataOutputStream out;
+
+    private final CRC32 crc = new CRC32();
+
+    private long appendedSeq;
+
+    private long syncedSeq;
+
+    private boolean syncing;
+
+    /**
+     * Open the given file for appending records.
+     *
+     * @param forceWrites whether <code>sync</code> forces the records to the
+     * storage device, rather than only handing them to the operating system
+     */
+    Journal(File file, boolean forceWrites) throws IOException {
+        this.file = file;
+        this.forceWrites = forceWrites;
+        this.fileOut = new FileOutputStream(file, true);
+        this.channel = fileOut.getChannel();
+        this.out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024));
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Append a record.  The record isn't durable until <code>sync</code> has
+     * been called with the returned sequence number.
+     *
+     * @return the sequence number of the record
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+        return ++appendedSeq;
+    }
+
+    /**
+     * Wait until the record with the given sequence number (and all records
+     * before it) is durable.  If no other thread is already syncing, the
+     * calling thread forces all records appended so far; otherwise it waits
+     * for that thread, whose sync will usually cover its record too.
+     */
+    void sync(long seq) throws IOException {
+        long target;
+        synchronized (this) {
+            boolean interrupted = false;
+            while (syncing && syncedSeq < seq) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (syncedSeq >= seq) {
+                return;
+            }
+            syncing = true;
+            target = appendedSeq;
+        }
+
+        IOException failure = null;
+        try {
+            // appends may carry on while we flush and force, the records
+            // written up to here are all that this sync promises
+            synchronized (this) {
+                out.flush();
+            }
+            if (forceWrites) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            synchronized (this) {
+                syncing = false;
+                if (failure == null) {
+                    syncedSeq = Math.max(syncedSeq, target);
+                }
+                notifyAll();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Make every record appended so far durable, and close the file.
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            boolean interrupted = false;
+            while (syncing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                out.flush();
+                if (forceWrites) {
+                    channel.force(false);
+                }
+                syncedSeq = appendedSeq;
+            } finally {
+                out.close();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Read all records of the given journal file, in order.  Reading stops
+     * at the first incomplete or corrupt record, as left behind by a crash
+     * in the middle of an append.
+     *
+     * @return the number of records read
+     */
+    static int read(File file, RecordHandler handler) throws IOException {
+        int count = 0;
+        try (InputStream fileIn = new FileInputStream(file)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn, 64 * 1024));
+            long remaining = file.length();
+            CRC32 crc = new CRC32();
+            while (remaining >= 8) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 0 || length > remaining - 8) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload, 0, payload.length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                remaining -= 8 + length;
+                handler.record(payload);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,1204 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.simpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.quartz.Calendar;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerConfigException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerUtils;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A <code>{@link org.quartz.spi.JobStore}</code> that keeps all of its data
+ * in RAM, in a <code>{@link RAMJobStore}</code>, but also survives restarts
+ * and crashes by writing every change to a journal on local disk.
+ * </p>
+ *
+ * <p>
+ * Every change (storing and removing jobs, triggers and calendars, pausing
+ * and resuming, firing triggers and completing their jobs) is appended to
+ * the journal before the calling thread returns, and forced to disk with
+ * group commit: threads making changes at the same time share a single
+ * <code>force()</code> of the journal file.  Every
+ * <code>snapshotInterval</code> changes a new journal is started, and the
+ * whole store is written out as a compacted snapshot by a background thread,
+ * after which the older journals are deleted.  On startup the latest
+ * snapshot and the journals written after it are replayed.
+ * </p>
+ *
+ * <p>
+ * Acquiring and releasing triggers isn't journaled: after a restart, any
+ * acquired or blocked triggers are waiting again.  Jobs that were executing
+ * at the time of a crash, and that request recovery, are scheduled for
+ * recovery like with the JDBC job stores.  All jobs, triggers, calendars and
+ * job data must be <code>Serializable</code>.
+ * </p>
+ *
+ * @see RAMJobStore
+ */
+public class JournaledRAMJobStore implements JobStore {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Constants.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private static final String SNAPSHOT_FILE = "snapshot";
+
+    private static final String JOURNAL_FILE_PREFIX = "journal.";
+
+    // journal and snapshot record types
+    private static final int OP_SNAPSHOT = 0;
+    private static final int OP_STORE_JOB = 1;
+    private static final int OP_REMOVE_JOB = 2;
+    private static final int OP_REMOVE_JOBS = 3;
+    private static final int OP_STORE_TRIGGER = 4;
+    private static final int OP_REMOVE_TRIGGER = 5;
+    private static final int OP_REMOVE_TRIGGERS = 6;
+    private static final int OP_REPLACE_TRIGGER = 7;
+    private static final int OP_STORE_JOB_AND_TRIGGER = 8;
+    private static final int OP_STORE_JOBS_AND_TRIGGERS = 9;
+    private static final int OP_STORE_CALENDAR = 10;
+    private static final int OP_REMOVE_CALENDAR = 11;
+    private static final int OP_CLEAR = 12;
+    private static final int OP_RESET_FROM_ERROR = 13;
+    private static final int OP_PAUSE_TRIGGER = 14;
+    private static final int OP_PAUSE_TRIGGERS = 15;
+    private static final int OP_PAUSE_JOB = 16;
+    private static final int OP_PAUSE_JOBS = 17;
+    private static final int OP_RESUME_TRIGGER = 18;
+    private static final int OP_RESUME_TRIGGERS = 19;
+    private static final int OP_RESUME_JOB = 20;
+    private static final int OP_RESUME_JOBS = 21;
+    private static final int OP_PAUSE_ALL = 22;
+    private static final int OP_RESUME_ALL = 23;
+    private static final int OP_FIRED = 24;
+    private static final int OP_COMPLETE = 25;
+    private static final int OP_PAUSED_GROUPS = 26;
+    private static final int OP_TRIGGER_STATE = 27;
+    private static final int OP_STORE_TASKS = 28;
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Data members.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private final RAMJobStore store = new RAMJobStore();
+
+    private String journalDirectory;
+
+    private int snapshotInterval = 10000;
+
+    private boolean forceWrites = true;
+
+    private String instanceId = "NON_CLUSTERED";
+
+    private ClassLoadHelper loadHelper;
+
+    private File directory;
+
+    private Journal journal;
+
+    private long generation;
+
+    private int recordsSinceSnapshot;
+
+    private boolean snapshotting;
+
+    private ExecutorService snapshotExecutor;
+
+    private Future<?> pendingSnapshot;
+
+    /** The recovery triggers of jobs that are executing, by fire instance id. */
+    private final Map<String, OperableTrigger> executingRecoverableJobs = new HashMap<>();
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Interface.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    protected Logger getLog() {
+        return log;
+    }
+
+    public String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    /**
+     * The directory that the journal and snapshot files are kept in.  It is
+     * created if it doesn't exist.  Required.
+     */
+    public void setJournalDirectory(String journalDirectory) {
+        this.journalDirectory = journalDirectory;
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * The number of changes written to the journal after which a new
+     * snapshot is taken, and the journal started over.  Defaults to 10000.
+     */
+    public void setSnapshotInterval(int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be larger than 0");
+        }
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean isForceWrites() {
+        return forceWrites;
+    }
+
+    /**
+     * Whether changes are forced to the storage device before returning.
+     * Defaults to <code>true</code>.  If <code>false</code>, changes only
+     * survive a crash of the JVM, not of the operating system.
+     */
+    public void setForceWrites(boolean forceWrites) {
+        this.forceWrites = forceWrites;
+    }
+
+    public long getMisfireThreshold() {
+        return store.getMisfireThreshold();
+    }
+
+    /**
+     * @see RAMJobStore#setMisfireThreshold(long)
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setMisfireThreshold(long misfireThreshold) {
+        store.setMisfireThreshold(misfireThreshold);
+    }
+
+    /**
+     * <p>
+     * Called by the QuartzScheduler before the <code>JobStore</code> is
+     * used, in order to give it a chance to initialize.  Replays the
+     * snapshot and journals found in the journal directory.
+     * </p>
+     */
+    public void initialize(ClassLoadHelper loadHelper, SchedulerSignaler signaler)
+        throws SchedulerConfigException {
+
+        if (journalDirectory == null) {
+            throw new SchedulerConfigException("Journal directory not set.");
+        }
+
+        this.loadHelper = loadHelper;
+        store.initialize(loadHelper, signaler);
+
+        directory = new File(journalDirectory);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new SchedulerConfigException("Couldn't create journal directory " + directory);
+        }
+
+        try {
+            replay();
+        } catch (IOException e) {
+            throw new SchedulerConfigException("Couldn't read journal from " + directory, e);
+        }
+
+        getLog().info("JournaledRAMJobStore initialized from {}.", directory);
+    }
+
+    private void replay() throws IOException, SchedulerConfigException {
+        long snapshotGeneration = 0;
+        File snapshot = new File(directory, SNAPSHOT_FILE);
+        if (snapshot.isFile()) {
+            long[] header = new long[] {-1};
+            int count = Journal.read(snapshot, payload -> {
+                Object[] record = decode(payload);
+                if (header[0] < 0) {
+                    if ((Integer) record[0] != OP_SNAPSHOT) {
+                        throw new IOException("Snapshot " + snapshot + " has no header.");
+                    }
+                    header[0] = (Long) record[1];
+                } else {
+                    apply(record);
+                }
+            });
+            snapshotGeneration = header[0];
+            getLog().info("Read {} records from snapshot {}.", count, snapshot);
+        }
+
+        // replay the journals written after the snapshot, in order
+        TreeMap<Long, File> journals = new TreeMap<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(JOURNAL_FILE_PREFIX)) {
+                    try {
+                        journals.put(Long.parseLong(file.getName().substring(JOURNAL_FILE_PREFIX.length())), file);
+                    } catch (NumberFormatException e) {
+                        // not one of ours
+                    }
+                }
+            }
+        }
+        for (Map.Entry<Long, File> entry : journals.entrySet()) {
+            if (entry.getKey() >= snapshotGeneration) {
+                int count = Journal.read(entry.getValue(), payload -> apply(decode(payload)));
+                getLog().info("Replayed {} records from journal {}.", count, entry.getValue());
+            }
+        }
+
+        // jobs that were executing when we stopped won't complete anymore
+        synchronized (store.lock) {
+            getLog().info("Recovering {} jobs that were in-progress at the time of the last shut-down.",
+                    executingRecoverableJobs.size());
+            for (OperableTrigger recoveryTrigger : executingRecoverableJobs.values()) {
+                if (store.jobsByKey.containsKey(recoveryTrigger.getJobKey())) {
+                    recoveryTrigger.computeFirstFireTime(null);
+                    try {
+                        store.storeTrigger(recoveryTrigger, false);
+                    } catch (JobPersistenceException e) {
+                        getLog().warn("Couldn't schedule recovery of job {}", recoveryTrigger.getJobKey(), e);
+                    }
+                }
+            }
+            executingRecoverableJobs.clear();
+
+            // remove lingering 'complete' triggers, whose jobs won't complete
+            // them anymore
+            List<TriggerKey> completed = new ArrayList<>();
+            for (TriggerWrapper tw : store.triggersByKey.values()) {
+                if (tw.trigger.getNextFireTime() == null) {
+                    completed.add(tw.key);
+                }
+            }
+            for (TriggerKey key : completed) {
+                store.removeTrigger(key);
+            }
+            getLog().info("Removed {} 'complete' triggers.", completed.size());
+        }
+
+        // start from a compacted snapshot, which also drops any torn record
+        // at the end of the last journal
+        generation = journals.isEmpty() ? snapshotGeneration : Math.max(snapshotGeneration, journals.lastKey());
+        List<Object[]> records;
+        synchronized (store.lock) {
+            records = snapshotRecords();
+            generation++;
+        }
+        writeSnapshot(encodeAll(records), generation);
+        journal = new Journal(journalFile(generation), forceWrites);
+        deleteJournalsBefore(generation);
+    }
+
+    public void schedulerStarted() {
+        store.schedulerStarted();
+    }
+
+    public void schedulerPaused() {
+        store.schedulerPaused();
+    }
+
+    public void schedulerResumed() {
+        store.schedulerResumed();
+    }
+
+    /**
+     * <p>
+     * Called by the QuartzScheduler to inform the <code>JobStore</code> that
+     * it should free up all of it's resources because the scheduler is
+     * shutting down.  Closes the journal.
+     * </p>
+     */
+    public void shutdown() {
+        store.shutdown();
+        Future<?> snapshot;
+        synchronized (store.lock) {
+            snapshot = pendingSnapshot;
+        }
+        if (snapshot != null) {
+            try {
+                snapshot.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // logged by the snapshot itself
+            }
+        }
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+        }
+        synchronized (store.lock) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    getLog().error("Couldn't close journal {}", journal.getFile(), e);
+                }
+                journal = null;
+            }
+        }
+    }
+
+    public boolean supportsPersistence() {
+        return true;
+    }
+
+    public long getEstimatedTimeToReleaseAndAcquireTrigger() {
+        return store.getEstimatedTimeToReleaseAndAcquireTrigger();
+    }
+
+    public boolean isClustered() {
+        return false;
+    }
+
+    @Override
+    public boolean isConcurrentExecutionCheckedWhenFired() {
+        return store.isConcurrentExecutionCheckedWhenFired();
+    }
+
+    @Override
+    public boolean isConcurrencyLimited(JobKey jobKey) {
+        return store.isConcurrencyLimited(jobKey);
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Journaled changes.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public void storeJobAndTrigger(final JobDetail newJob, final OperableTrigger newTrigger)
+        throws JobPersistenceException {
+        change(() -> {
+            store.storeJobAndTrigger(newJob, newTrigger);
+            return null;
+        }, OP_STORE_JOB_AND_TRIGGER, newJob, newTrigger);
+    }
+
+    public void storeJob(final JobDetail newJob, final boolean replaceExisting)
+        throws JobPersistenceException {
+        change(() -> {
+            store.storeJob(newJob, replaceExisting);
+            return null;
+        }, OP_STORE_JOB, newJob, replaceExisting);
+    }
+
+    public void storeJobsAndTriggers(final Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, final boolean replace)
+        throws JobPersistenceException {
+        change(() -> {
+            store.storeJobsAndTriggers(triggersAndJobs, replace);
+            return null;
+        }, OP_STORE_JOBS_AND_TRIGGERS, new HashMap<>(triggersAndJobs), replace);
+    }
+
+    public boolean removeJob(final JobKey jobKey) throws JobPersistenceException {
+        return change(() -> store.removeJob(jobKey), OP_REMOVE_JOB, jobKey);
+    }
+
+    public boolean removeJobs(final List<JobKey> jobKeys) throws JobPersistenceException {
+        return change(() -> store.removeJobs(jobKeys), OP_REMOVE_JOBS, new ArrayList<>(jobKeys));
+    }
+
+    public void storeTrigger(final OperableTrigger newTrigger, final boolean replaceExisting)
+        throws JobPersistenceException {
+        change(() -> {
+            store.storeTrigger(newTrigger, replaceExisting);
+            return null;
+        }, OP_STORE_TRIGGER, newTrigger, replaceExisting);
+    }
+
+    @Override
+    public void storeTasks(final List<OperableTrigger> tasks) throws JobPersistenceException {
+        change(() -> {
+            store.storeTasks(tasks);
+            return null;
+        }, OP_STORE_TASKS, new ArrayList<>(tasks));
+    }
+
+    public boolean removeTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
+        return change(() -> store.removeTrigger(triggerKey), OP_REMOVE_TRIGGER, triggerKey);
+    }
+
+    public boolean removeTriggers(final List<TriggerKey> triggerKeys) throws JobPersistenceException {
+        return change(() -> store.removeTriggers(triggerKeys), OP_REMOVE_TRIGGERS, new ArrayList<>(triggerKeys));
+    }
+
+    public boolean replaceTrigger(final TriggerKey triggerKey, final OperableTrigger newTrigger)
+        throws JobPersistenceException {
+        return change(() -> store.replaceTrigger(triggerKey, newTrigger), OP_REPLACE_TRIGGER, triggerKey, newTrigger);
+    }
+
+    public void clearAllSchedulingData() throws JobPersistenceException {
+        change(() -> {
+            store.clearAllSchedulingData();
+            executingRecoverableJobs.clear();
+            return null;
+        }, OP_CLEAR);
+    }
+
+    public void storeCalendar(final String name, final Calendar calendar, final boolean replaceExisting,
+            final boolean updateTriggers)
+        throws JobPersistenceException {
+        change(() -> {
+            store.storeCalendar(name, calendar, replaceExisting, updateTriggers);
+            return null;
+        }, OP_STORE_CALENDAR, name, calendar, replaceExisting, updateTriggers);
+    }
+
+    public boolean removeCalendar(final String calName) throws JobPersistenceException {
+        return change(() -> store.removeCalendar(calName), OP_REMOVE_CALENDAR, calName);
+    }
+
+    public void resetTriggerFromErrorState(final TriggerKey triggerKey) throws JobPersistenceException {
+        change(() -> {
+            store.resetTriggerFromErrorState(triggerKey);
+            return null;
+        }, OP_RESET_FROM_ERROR, triggerKey);
+    }
+
+    public void pauseTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
+        change(() -> {
+            store.pauseTrigger(triggerKey);
+            return null;
+        }, OP_PAUSE_TRIGGER, triggerKey);
+    }
+
+    public Collection<String> pauseTriggers(final GroupMatcher<TriggerKey> matcher) throws JobPersistenceException {
+        return change(() -> store.pauseTriggers(matcher), OP_PAUSE_TRIGGERS, matcher);
+    }
+
+    public void pauseJob(final JobKey jobKey) throws JobPersistenceException {
+        change(() -> {
+            store.pauseJob(jobKey);
+            return null;
+        }, OP_PAUSE_JOB, jobKey);
+    }
+
+    public Collection<String> pauseJobs(final GroupMatcher<JobKey> matcher) throws JobPersistenceException {
+        return change(() -> store.pauseJobs(matcher), OP_PAUSE_JOBS, matcher);
+    }
+
+    public void resumeTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
+        change(() -> {
+            store.resumeTrigger(triggerKey);
+            return null;
+        }, OP_RESUME_TRIGGER, triggerKey);
+    }
+
+    public Collection<String> resumeTriggers(final GroupMatcher<TriggerKey> matcher) throws JobPersistenceException {
+        return change(() -> store.resumeTriggers(matcher), OP_RESUME_TRIGGERS, matcher);
+    }
+
+    public void resumeJob(final JobKey jobKey) throws JobPersistenceException {
+        change(() -> {
+            store.resumeJob(jobKey);
+            return null;
+        }, OP_RESUME_JOB, jobKey);
+    }
+
+    public Collection<String> resumeJobs(final GroupMatcher<JobKey> matcher) throws JobPersistenceException {
+        return change(() -> store.resumeJobs(matcher), OP_RESUME_JOBS, matcher);
+    }
+
+    public void pauseAll() throws JobPersistenceException {
+        change(() -> {
+            store.pauseAll();
+            return null;
+        }, OP_PAUSE_ALL);
+    }
+
+    public void resumeAll() throws JobPersistenceException {
+        change(() -> {
+            store.resumeAll();
+            return null;
+        }, OP_RESUME_ALL);
+    }
+
+    /**
+     * <p>
+     * Inform the <code>JobStore</code> that the scheduler is now firing the
+     * given <code>Trigger</code> (executing its associated <code>Job</code>),
+     * that it had previously acquired (reserved).  The new fire times of the
+     * fired triggers are journaled.
+     * </p>
+     */
+    public List<TriggerFiredResult> triggersFired(List<OperableTrigger> triggers) throws JobPersistenceException {
+        long seq = 0;
+        Journal appendedTo;
+        List<TriggerFiredResult> results;
+        synchronized (store.lock) {
+            checkOpen();
+            appendedTo = journal;
+            results = store.triggersFired(triggers);
+            for (TriggerFiredResult result : results) {
+                TriggerFiredBundle bundle = result.getTriggerFiredBundle();
+                if (bundle == null) {
+                    continue;
+                }
+                OperableTrigger trigger = bundle.getTrigger();
+                OperableTrigger recoveryTrigger = null;
+                if (bundle.getJobDetail().requestsRecovery()) {
+                    recoveryTrigger = recoveryTrigger(bundle);
+                    executingRecoverableJobs.put(trigger.getFireInstanceId(), recoveryTrigger);
+                }
+                seq = append(encode(OP_FIRED, trigger.getFireInstanceId(), trigger, recoveryTrigger));
+            }
+            snapshotIfDue();
+        }
+        sync(appendedTo, seq);
+        return results;
+    }
+
+    /**
+     * <p>
+     * Inform the <code>JobStore</code> that the scheduler has completed the
+     * firing of the given <code>Trigger</code> (and the execution of its
+     * associated <code>Job</code>).  Failures to journal the completion are
+     * logged, as they can't be reported to the scheduler.
+     * </p>
+     */
+    public void triggeredJobComplete(final OperableTrigger trigger, final JobDetail jobDetail,
+            final CompletedExecutionInstruction triggerInstCode) {
+        try {
+            // the job's data only changes if it is persisted after execution
+            JobDetail journaledJob = jobDetail.isPersistJobDataAfterExecution() ? jobDetail : null;
+            change(() -> {
+                store.triggeredJobComplete(trigger, jobDetail, triggerInstCode);
+                executingRecoverableJobs.remove(trigger.getFireInstanceId());
+                return null;
+            }, OP_COMPLETE, trigger, journaledJob, triggerInstCode);
+        } catch (JobPersistenceException e) {
+            getLog().error("Couldn't journal completion of trigger {}", trigger.getKey(), e);
+        }
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Unjournaled operations.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public JobDetail retrieveJob(JobKey jobKey) {
+        return store.retrieveJob(jobKey);
+    }
+
+    public OperableTrigger retrieveTrigger(TriggerKey triggerKey) {
+        return store.retrieveTrigger(triggerKey);
+    }
+
+    public boolean checkExists(JobKey jobKey) throws JobPersistenceException {
+        return store.checkExists(jobKey);
+    }
+
+    public boolean checkExists(TriggerKey triggerKey) throws JobPersistenceException {
+        return store.checkExists(triggerKey);
+    }
+
+    public Calendar retrieveCalendar(String calName) {
+        return store.retrieveCalendar(calName);
+    }
+
+    public int getNumberOfJobs() {
+        return store.getNumberOfJobs();
+    }
+
+    public int getNumberOfTriggers() {
+        return store.getNumberOfTriggers();
+    }
+
+    public int getNumberOfCalendars() {
+        return store.getNumberOfCalendars();
+    }
+
+    public Set<JobKey> getJobKeys(GroupMatcher<JobKey> matcher) {
+        return store.getJobKeys(matcher);
+    }
+
+    public Set<TriggerKey> getTriggerKeys(GroupMatcher<TriggerKey> matcher) {
+        return store.getTriggerKeys(matcher);
+    }
+
+    public List<String> getJobGroupNames() {
+        return store.getJobGroupNames();
+    }
+
+    public List<String> getTriggerGroupNames() {
+        return store.getTriggerGroupNames();
+    }
+
+    public List<String> getCalendarNames() {
+        return store.getCalendarNames();
+    }
+
+    public List<OperableTrigger> getTriggersForJob(JobKey jobKey) {
+        return store.getTriggersForJob(jobKey);
+    }
+
+    public TriggerState getTriggerState(TriggerKey triggerKey) throws JobPersistenceException {
+        return store.getTriggerState(triggerKey);
+    }
+
+    public Set<String> getPausedTriggerGroups() throws JobPersistenceException {
+        return store.getPausedTriggerGroups();
+    }
+
+    public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow) {
+        return store.acquireNextTriggers(noLaterThan, maxCount, timeWindow);
+    }
+
+    @Override
+    public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow,
+            TriggerPartition partition) {
+        return store.acquireNextTriggers(noLaterThan, maxCount, timeWindow, partition);
+    }
+
+    public void releaseAcquiredTrigger(OperableTrigger trigger) {
+        store.releaseAcquiredTrigger(trigger);
+    }
+
+    @Override
+    public void setEarlyMisfireTriggerGroups(Set<String> triggerGroups, long misfireThreshold) {
+        store.setEarlyMisfireTriggerGroups(triggerGroups, misfireThreshold);
+    }
+
+    @Override
+    public void setPriorityLookAhead(int lookAhead) {
+        store.setPriorityLookAhead(lookAhead);
+    }
+
+    public void setInstanceId(String schedInstId) {
+        this.instanceId = schedInstId;
+        store.setInstanceId(schedInstId);
+    }
+
+    public void setInstanceName(String schedName) {
+        store.setInstanceName(schedName);
+    }
+
+    public void setThreadPoolSize(int poolSize) {
+        store.setThreadPoolSize(poolSize);
+    }
+
+    @Override
+    public long getAcquireRetryDelay(int failureCount) {
+        return store.getAcquireRetryDelay(failureCount);
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     *
+     * Journal handling.
+     *
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private interface Change<T> {
+        T apply() throws JobPersistenceException;
+    }
+
+    /**
+     * Journal a change and then apply it, both under the store's lock so
+     * that the journal is in the order the changes were applied in, and wait
+     * for the journal to be written once the lock has been released.  The
+     * change is journaled even if applying it fails, as it fails the same way
+     * when replayed.  A snapshot that is due is only started once the change
+     * has been applied, so that it holds the change.
+     */
+    private <T> T change(Change<T> change, Object... record) throws JobPersistenceException {
+        // serialize first, so that unserializable data is rejected before
+        // anything is changed
+        byte[] payload = encode(record);
+        long seq;
+        Journal appendedTo;
+        T result;
+        synchronized (store.lock) {
+            checkOpen();
+            appendedTo = journal;
+            seq = append(payload);
+            try {
+                result = change.apply();
+            } finally {
+                snapshotIfDue();
+            }
+        }
+        sync(appendedTo, seq);
+        return result;
+    }
+
+    private void checkOpen() throws JobPersistenceException {
+        if (journal == null) {
+            throw new JobPersistenceException("Journal is closed.");
+        }
+    }
+
+    /**
+     * Append a record to the journal.  Must be called holding the store's
+     * lock.
+     */
+    private long append(byte[] payload) throws JobPersistenceException {
+        long seq;
+        try {
+            seq = journal.append(payload);
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't write to journal " + journal.getFile(), e);
+        }
+        recordsSinceSnapshot++;
+        return seq;
+    }
+
+    /**
+     * Wait until the record with the given sequence number, appended to the
+     * given journal, is durable.  If the journal has been replaced since, it
+     * was closed, which made all of its records durable.
+     */
+    private void sync(Journal appendedTo, long seq) throws JobPersistenceException {
+        if (seq == 0) {
+            return;
+        }
+        try {
+            appendedTo.sync(seq);
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't write to journal " + appendedTo.getFile(), e);
+        }
+    }
+
+    /**
+     * Start a snapshot if one is due.  Must be called holding the store's
+     * lock.
+     */
+    private void snapshotIfDue() {
+        if (recordsSinceSnapshot < snapshotInterval || snapshotting || journal == null) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            // the journals are kept, so nothing is lost: try again later
+            recordsSinceSnapshot = 0;
+            getLog().error("Couldn't start a new journal in {}", directory, e);
+        }
+    }
+
+    /**
+     * Start a new journal, and have the snapshot thread write a snapshot of
+     * the store that the new journal continues from.  Must be called holding
+     * the store's lock, which is only held to copy the records of the store
+     * and to switch journals: they are serialized and written out without it.
+     *
+     * <p>
+     * The old journal is closed (so all records appended to it are durable)
+     * and only deleted once the snapshot has been written, so that a crash
+     * at any point leaves either the old snapshot and both journals, or the
+     * new snapshot and the new journal.
+     * </p>
+     */
+    private void snapshot() throws IOException {
+        List<Object[]> records = snapshotRecords();
+        long newGeneration = generation + 1;
+        Journal oldJournal = journal;
+        journal = new Journal(journalFile(newGeneration), forceWrites);
+        generation = newGeneration;
+        recordsSinceSnapshot = 0;
+        snapshotting = true;
+
+        if (snapshotExecutor == null) {
+            snapshotExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "JournaledRAMJobStore_Snapshot-" + directory.getName());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        pendingSnapshot = snapshotExecutor.submit(() -> {
+            try {
+                oldJournal.close();
+                writeSnapshot(encodeAll(records), newGeneration);
+                deleteJournalsBefore(newGeneration);
+            } catch (IOException | RuntimeException e) {
+                getLog().error("Couldn't write snapshot to {}", directory, e);
+            } finally {
+                synchronized (store.lock) {
+                    snapshotting = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * The records that recreate the current content of the store, yet to be
+     * serialized.  Must be called holding the store's lock.  Jobs and
+     * calendars are replaced rather than changed by the store, so only
+     * triggers are copied.
+     */
+    private List<Object[]> snapshotRecords() {
+        List<Object[]> records = new ArrayList<>();
+        for (Map.Entry<String, Calendar> calendar : store.calendarsByName.entrySet()) {
+            records.add(new Object[] {OP_STORE_CALENDAR, calendar.getKey(), calendar.getValue(), true, false});
+        }
+        for (JobWrapper jw : store.jobsByKey.values()) {
+            records.add(new Object[] {OP_STORE_JOB, jw.jobDetail, true});
+        }
+        records.add(new Object[] {OP_PAUSED_GROUPS, new HashSet<>(store.pausedTriggerGroups), new HashSet<>(store.pausedJobGroups)});
+        for (TriggerWrapper tw : store.triggersByKey.values()) {
+            records.add(new Object[] {OP_STORE_TRIGGER, tw.trigger.clone(), true});
+
+            // acquired and blocked triggers are waiting again after a restart
+            int state = tw.state;
+            if (state == TriggerWrapper.STATE_ACQUIRED || state == TriggerWrapper.STATE_BLOCKED
+                    || state == TriggerWrapper.STATE_EXECUTING) {
+                state = TriggerWrapper.STATE_WAITING;
+            } else if (state == TriggerWrapper.STATE_PAUSED_BLOCKED) {
+                state = TriggerWrapper.STATE_PAUSED;
+            }
+            int storedState = store.pausedTriggerGroups.contains(tw.key.getGroup())
+                    || store.pausedJobGroups.contains(tw.jobKey.getGroup())
+                    ? TriggerWrapper.STATE_PAUSED : TriggerWrapper.STATE_WAITING;
+            if (state != storedState) {
+                records.add(new Object[] {OP_TRIGGER_STATE, tw.key, state});
+            }
+        }
+        for (Map.Entry<String, OperableTrigger> executing : executingRecoverableJobs.entrySet()) {
+            records.add(new Object[] {OP_FIRED, executing.getKey(), null, executing.getValue()});
+        }
+        return records;
+    }
+
+    private static List<byte[]> encodeAll(List<Object[]> records) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(records.size());
+        for (Object[] record : records) {
+            encoded.add(encodeUnchecked(record));
+        }
+        return encoded;
+    }
+
+    private void writeSnapshot(List<byte[]> records, long snapshotGeneration) throws IOException {
+        File tmp = new File(directory, SNAPSHOT_FILE + ".tmp");
+        Files.deleteIfExists(tmp.toPath());
+        Journal snapshot = new Journal(tmp, forceWrites);
+        try {
+            snapshot.append(encodeUnchecked(OP_SNAPSHOT, snapshotGeneration));
+            for (byte[] record : records) {
+                snapshot.append(record);
+            }
+        } finally {
+            snapshot.close();
+        }
+        Files.move(tmp.toPath(), new File(directory, SNAPSHOT_FILE).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        getLog().debug("Wrote snapshot of {} records for journal generation {}.", records.size(), snapshotGeneration);
+    }
+
+    private File journalFile(long journalGeneration) {
+        return new File(directory, JOURNAL_FILE_PREFIX + journalGeneration);
+    }
+
+    private void deleteJournalsBefore(long journalGeneration) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().startsWith(JOURNAL_FILE_PREFIX)) {
+                try {
+                    long fileGeneration = Long.parseLong(file.getName().substring(JOURNAL_FILE_PREFIX.length()));
+                    if (fileGeneration < journalGeneration && !file.delete()) {
+                        getLog().warn("Couldn't delete old journal {}", file);
+                    }
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply a journal or snapshot record to the store.  Changes that fail
+     * failed the same way when they were first made, and are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    private void apply(Object[] record) {
+        int op = (Integer) record[0];
+        try {
+            switch (op) {
+                case OP_STORE_JOB:
+                    store.storeJob((JobDetail) record[1], (Boolean) record[2]);
+                    break;
+                case OP_REMOVE_JOB:
+                    store.removeJob((JobKey) record[1]);
+                    break;
+                case OP_REMOVE_JOBS:
+                    store.removeJobs((List<JobKey>) record[1]);
+                    break;
+                case OP_STORE_TRIGGER:
+                    store.storeTrigger((OperableTrigger) record[1], (Boolean) record[2]);
+                    break;
+                case OP_STORE_TASKS:
+                    store.storeTasks((List<OperableTrigger>) record[1]);
+                    break;
+                case OP_REMOVE_TRIGGER:
+                    store.removeTrigger((TriggerKey) record[1]);
+                    break;
+                case OP_REMOVE_TRIGGERS:
+                    store.removeTriggers((List<TriggerKey>) record[1]);
+                    break;
+                case OP_REPLACE_TRIGGER:
+                    store.replaceTrigger((TriggerKey) record[1], (OperableTrigger) record[2]);
+                    break;
+                case OP_STORE_JOB_AND_TRIGGER:
+                    store.storeJobAndTrigger((JobDetail) record[1], (OperableTrigger) record[2]);
+                    break;
+                case OP_STORE_JOBS_AND_TRIGGERS:
+                    store.storeJobsAndTriggers((Map<JobDetail, Set<? extends Trigger>>) record[1], (Boolean) record[2]);
+                    break;
+                case OP_STORE_CALENDAR:
+                    store.storeCalendar((String) record[1], (Calendar) record[2], (Boolean) record[3], (Boolean) record[4]);
+                    break;
+                case OP_REMOVE_CALENDAR:
+                    store.removeCalendar((String) record[1]);
+                    break;
+                case OP_CLEAR:
+                    store.clearAllSchedulingData();
+                    executingRecoverableJobs.clear();
+                    break;
+                case OP_RESET_FROM_ERROR:
+                    store.resetTriggerFromErrorState((TriggerKey) record[1]);
+                    break;
+                case OP_PAUSE_TRIGGER:
+                    store.pauseTrigger((TriggerKey) record[1]);
+                    break;
+                case OP_PAUSE_TRIGGERS:
+                    store.pauseTriggers((GroupMatcher<TriggerKey>) record[1]);
+                    break;
+                case OP_PAUSE_JOB:
+                    store.pauseJob((JobKey) record[1]);
+                    break;
+                case OP_PAUSE_JOBS:
+                    store.pauseJobs((GroupMatcher<JobKey>) record[1]);
+                    break;
+                case OP_RESUME_TRIGGER:
+                    store.resumeTrigger((TriggerKey) record[1]);
+                    break;
+                case OP_RESUME_TRIGGERS:
+                    store.resumeTriggers((GroupMatcher<TriggerKey>) record[1]);
+                    break;
+                case OP_RESUME_JOB:
+                    store.resumeJob((JobKey) record[1]);
+                    break;
+                case OP_RESUME_JOBS:
+                    store.resumeJobs((GroupMatcher<JobKey>) record[1]);
+                    break;
+                case OP_PAUSE_ALL:
+                    store.pauseAll();
+                    break;
+                case OP_RESUME_ALL:
+                    store.resumeAll();
+                    break;
+                case OP_FIRED:
+                    applyFired((String) record[1], (OperableTrigger) record[2], (OperableTrigger) record[3]);
+                    break;
+                case OP_COMPLETE:
+                    applyComplete((OperableTrigger) record[1], (JobDetail) record[2], (CompletedExecutionInstruction) record[3]);
+                    break;
+                case OP_PAUSED_GROUPS:
+                    synchronized (store.lock) {
+                        store.pausedTriggerGroups.addAll((Set<String>) record[1]);
+                        store.pausedJobGroups.addAll((Set<String>) record[2]);
+                    }
+                    break;
+                case OP_TRIGGER_STATE:
+                    applyTriggerState((TriggerKey) record[1], (Integer) record[2]);
+                    break;
+                default:
+                    getLog().warn("Skipping unknown journal record type {}.", op);
+            }
+        } catch (JobPersistenceException e) {
+            getLog().debug("Replayed journal record of type {} failed as it did originally: {}", op, e.getMessage());
+        }
+    }
+
+    private void applyFired(String fireInstanceId, OperableTrigger firedTrigger, OperableTrigger recoveryTrigger)
+        throws JobPersistenceException {
+        if (firedTrigger != null && store.checkExists(firedTrigger.getKey())) {
+            if (TriggerUtils.isTask(firedTrigger) && firedTrigger.getNextFireTime() == null) {
+                // as the store removed it when it fired
+                store.removeTrigger(firedTrigger.getKey());
+            } else {
+                // carries the fire times the trigger was left with when fired
+                store.storeTrigger(firedTrigger, true);
+            }
+        }
+        if (recoveryTrigger != null) {
+            executingRecoverableJobs.put(fireInstanceId, recoveryTrigger);
+        }
+    }
+
+    private void applyComplete(OperableTrigger trigger, JobDetail jobDetail,
+            CompletedExecutionInstruction triggerInstCode) {
+        if (jobDetail == null) {
+            jobDetail = store.retrieveJob(trigger.getJobKey());
+            if (jobDetail == null) {
+                JobDetailImpl deleted = new JobDetailImpl();
+                deleted.setKey(trigger.getJobKey());
+                jobDetail = deleted;
+            }
+        }
+        store.triggeredJobComplete(trigger, jobDetail, triggerInstCode);
+        executingRecoverableJobs.remove(trigger.getFireInstanceId());
+    }
+
+    private void applyTriggerState(TriggerKey triggerKey, int state) {
+        synchronized (store.lock) {
+            TriggerWrapper tw = store.triggersByKey.get(triggerKey);
+            if (tw != null) {
+                store.timeTriggers.remove(tw);
+                store.setTriggerState(tw, state);
+                if (state == TriggerWrapper.STATE_WAITING) {
+                    store.timeTriggers.add(tw);
+                }
+            }
+        }
+    }
+
+    /**
+     * A one-shot trigger that re-executes the fired trigger's job, should the
+     * scheduler stop while the job is executing.
+     */
+    private OperableTrigger recoveryTrigger(TriggerFiredBundle bundle) {
+        OperableTrigger trigger = bundle.getTrigger();
+        Date scheduledFireTime = bundle.getScheduledFireTime() != null ? bundle.getScheduledFireTime() : bundle.getFireTime();
+
+        SimpleTriggerImpl rcvryTrig = new SimpleTriggerImpl();
+        rcvryTrig.setName("recover_" + instanceId + "_" + trigger.getFireInstanceId());
+        rcvryTrig.setGroup(Scheduler.DEFAULT_RECOVERY_GROUP);
+        rcvryTrig.setStartTime(scheduledFireTime);
+        rcvryTrig.setJobKey(trigger.getJobKey());
+        rcvryTrig.setPriority(trigger.getPriority());
+        rcvryTrig.setMisfireInstruction(SimpleTrigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY);
+
+        JobDataMap jd = trigger.getJobDataMap() != null ? (JobDataMap) trigger.getJobDataMap().clone() : new JobDataMap();
+        jd.put(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_NAME, trigger.getKey().getName());
+        jd.put(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_GROUP, trigger.getKey().getGroup());
+        jd.put(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_FIRETIME_IN_MILLISECONDS, String.valueOf(bundle.getFireTime().getTime()));
+        jd.put(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_SCHEDULED_FIRETIME_IN_MILLISECONDS, String.valueOf(scheduledFireTime.getTime()));
+        rcvryTrig.setJobDataMap(jd);
+        return rcvryTrig;
+    }
+
+    private static byte[] encode(Object... record) throws JobPersistenceException {
+        try {
+            return encodeUnchecked(record);
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't serialize journal record: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] encodeUnchecked(Object... record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(record);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Object[] decode(byte[] payload) throws IOException {
+        try (ObjectInputStream in = new LoadHelperObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (Object[]) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Couldn't read journal record: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolves classes through the scheduler's <code>ClassLoadHelper</code>,
+     * so that job classes are found the same way as when they were scheduled.
+     */
+    private class LoadHelperObjectInputStream extends ObjectInputStream {
+
+        LoadHelperObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return loadHelper.loadClass(desc.getName());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
@@ -25,9 +25,11 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.Map.Entry;
@@ -42,6 +44,7 @@ import org.quartz.JobPersistenceException;
 import org.quartz.ObjectAlreadyExistsException;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerUtils;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.Trigger.TriggerTimeComparator;
@@ -53,6 +56,8 @@ import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.SchedulerSignaler;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerPartition;
+import org.quartz.utils.JobConcurrencyLimits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -104,9 +109,41 @@ public class RAMJobStore implements JobStore {
     protected final HashSet<String> pausedJobGroups = new HashSet<>();
 
     protected final HashSet<JobKey> blockedJobs = new HashSet<>();
+
+    protected final HashMap<String, HashSet<TriggerWrapper>> triggersByCalendar = new HashMap<>(25);
+
+    // triggers by state, for the states other than waiting and acquired
+    protected final HashMap<Integer, HashSet<TriggerWrapper>> triggersByState = new HashMap<>(8);
+
+    final GroupNameIndex jobGroupNames = new GroupNameIndex();
+
+    final GroupNameIndex triggerGroupNames = new GroupNameIndex();
     
     protected long misfireThreshold = 5000L;
 
+    private String jobGroupConcurrencyLimits;
+
+    private String jobConcurrencyLimits;
+
+    protected JobConcurrencyLimits concurrencyLimits = JobConcurrencyLimits.NONE;
+
+    // executions of limited jobs in flight, and the job of each by fire instance id
+    protected final JobConcurrencyLimits.Counts executionsInFlight = new JobConcurrencyLimits.Counts();
+
+    protected final HashMap<String, JobKey> limitedFireInstances = new HashMap<>();
+
+    // whether triggers were left unacquired since an execution was last released
+    private boolean triggersSkippedForLimits;
+
+    // trigger groups that misfire early while the scheduler sheds their load
+    private volatile Set<String> earlyMisfireTriggerGroups = Collections.emptySet();
+
+    private volatile long earlyMisfireThreshold;
+
+    // how many times as many due triggers as asked for to acquire the
+    // highest-priority ones from, while the scheduler sheds load
+    private volatile int priorityLookAhead = 1;
+
     protected SchedulerSignaler signaler;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -183,6 +220,67 @@ public class RAMJobStore implements JobStore {
         this.misfireThreshold = misfireThreshold;
     }
 
+    @Override
+    public void setEarlyMisfireTriggerGroups(Set<String> triggerGroups, long misfireThreshold) {
+        this.earlyMisfireThreshold = misfireThreshold;
+        this.earlyMisfireTriggerGroups = Collections.unmodifiableSet(new HashSet<>(triggerGroups));
+    }
+
+    /**
+     * Get the misfire threshold of the triggers of the given group, which is
+     * lower than the store's own while the scheduler sheds the group's load.
+     */
+    protected long getMisfireThreshold(String triggerGroup) {
+        return earlyMisfireTriggerGroups.contains(triggerGroup)
+                ? Math.min(earlyMisfireThreshold, getMisfireThreshold()) : getMisfireThreshold();
+    }
+
+    /**
+     * Whether the scheduler sheds the load of the given trigger group: its
+     * triggers skip the fire times they missed, rather than apply their
+     * misfire instruction.
+     */
+    protected boolean isShedTriggerGroup(String triggerGroup) {
+        return earlyMisfireTriggerGroups.contains(triggerGroup);
+    }
+
+    @Override
+    public void setPriorityLookAhead(int lookAhead) {
+        this.priorityLookAhead = Math.max(1, lookAhead);
+    }
+
+    public String getJobGroupConcurrencyLimits() {
+        return jobGroupConcurrencyLimits;
+    }
+
+    /**
+     * The most executions of the jobs of each given group that may be
+     * acquired or executing at once, as <code>group=limit</code> pairs
+     * separated by commas.  Triggers of a saturated group are skipped when
+     * acquiring, and acquired once one of the group's executions completes.
+     *
+     * @see JobConcurrencyLimits
+     */
+    public void setJobGroupConcurrencyLimits(String jobGroupConcurrencyLimits) {
+        this.concurrencyLimits = JobConcurrencyLimits.parse(jobGroupConcurrencyLimits, jobConcurrencyLimits);
+        this.jobGroupConcurrencyLimits = jobGroupConcurrencyLimits;
+    }
+
+    public String getJobConcurrencyLimits() {
+        return jobConcurrencyLimits;
+    }
+
+    /**
+     * The most executions of each given job that may be acquired or executing
+     * at once, as <code>group.name=limit</code> pairs separated by commas.
+     *
+     * @see #setJobGroupConcurrencyLimits(String)
+     */
+    public void setJobConcurrencyLimits(String jobConcurrencyLimits) {
+        this.concurrencyLimits = JobConcurrencyLimits.parse(jobGroupConcurrencyLimits, jobConcurrencyLimits);
+        this.jobConcurrencyLimits = jobConcurrencyLimits;
+    }
+
     /**
      * <p>
      * Called by the QuartzScheduler to inform the <code>JobStore</code> that
@@ -197,6 +295,16 @@ public class RAMJobStore implements JobStore {
         return false;
     }
 
+    @Override
+    public boolean isConcurrentExecutionCheckedWhenFired() {
+        return true;
+    }
+
+    @Override
+    public boolean isConcurrencyLimited(JobKey jobKey) {
+        return concurrencyLimits.isLimited(jobKey);
+    }
+
     /**
      * Clear (delete!) all scheduling data - all {@link Job}s, {@link Trigger}s
      * {@link Calendar}s.
@@ -280,7 +388,10 @@ public class RAMJobStore implements JobStore {
 
             if (!repl) {
                 // get job group
-                HashMap<JobKey, JobWrapper> grpMap = jobsByGroup.computeIfAbsent(newJob.getKey().getGroup(), k -> new HashMap<>(100));
+                HashMap<JobKey, JobWrapper> grpMap = jobsByGroup.computeIfAbsent(newJob.getKey().getGroup(), k -> {
+                    jobGroupNames.add(k);
+                    return new HashMap<>(100);
+                });
                 // add to jobs by group
                 grpMap.put(newJob.getKey(), jw);
                 // add to jobs by FQN map
@@ -308,9 +419,8 @@ public class RAMJobStore implements JobStore {
         boolean found = false;
 
         synchronized (lock) {
-            List<OperableTrigger> triggersOfJob = getTriggersForJob(jobKey);
-            for (OperableTrigger trig: triggersOfJob) {
-                this.removeTrigger(trig.getKey());
+            for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+                this.removeTrigger(tw.key);
                 found = true;
             }
             
@@ -322,6 +432,7 @@ public class RAMJobStore implements JobStore {
                     grpMap.remove(jobKey);
                     if (grpMap.isEmpty()) {
                         jobsByGroup.remove(jobKey.getGroup());
+                        jobGroupNames.remove(jobKey.getGroup());
                     }
                 }
             }
@@ -411,32 +522,69 @@ public class RAMJobStore implements JobStore {
                 removeTrigger(newTrigger.getKey(), false);
             }
     
-            if (retrieveJob(newTrigger.getJobKey()) == null) {
+            if (!jobsByKey.containsKey(newTrigger.getJobKey())) {
                 throw new JobPersistenceException("The job ("
                         + newTrigger.getJobKey()
                         + ") referenced by the trigger does not exist.");
             }
 
-            // add to triggers by job
-            List<TriggerWrapper> jobList = triggersByJob.computeIfAbsent(tw.jobKey, k -> new ArrayList<>(1));
-            jobList.add(tw);
-            
-            // add to triggers by group
-            HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.computeIfAbsent(newTrigger.getKey().getGroup(), k -> new HashMap<>(100));
-            grpMap.put(newTrigger.getKey(), tw);
-            // add to triggers by FQN map
-            triggersByKey.put(tw.key, tw);
-
-            if (pausedTriggerGroups.contains(newTrigger.getKey().getGroup())
-                    || pausedJobGroups.contains(newTrigger.getJobKey().getGroup())) {
-                tw.state = TriggerWrapper.STATE_PAUSED;
-                if (blockedJobs.contains(tw.jobKey)) {
-                    tw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
+            storeTriggerInLock(tw);
+        }
+    }
+
+    // called holding the lock
+    private void storeTriggerInLock(TriggerWrapper tw) {
+        OperableTrigger newTrigger = tw.trigger;
+        // add to triggers by job
+        List<TriggerWrapper> jobList = triggersByJob.computeIfAbsent(tw.jobKey, k -> new ArrayList<>(1));
+        jobList.add(tw);
+        
+        // add to triggers by group
+        HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.computeIfAbsent(newTrigger.getKey().getGroup(), k -> {
+            triggerGroupNames.add(k);
+            return new HashMap<>(100);
+        });
+        grpMap.put(newTrigger.getKey(), tw);
+        // add to triggers by calendar
+        if (tw.trigger.getCalendarName() != null) {
+            triggersByCalendar.computeIfAbsent(tw.trigger.getCalendarName(), k -> new HashSet<>()).add(tw);
+        }
+        // add to triggers by FQN map
+        triggersByKey.put(tw.key, tw);
+
+        if (pausedTriggerGroups.contains(newTrigger.getKey().getGroup())
+                || pausedJobGroups.contains(newTrigger.getJobKey().getGroup())) {
+            setTriggerState(tw, blockedJobs.contains(tw.jobKey)
+                    ? TriggerWrapper.STATE_PAUSED_BLOCKED : TriggerWrapper.STATE_PAUSED);
+        } else if (blockedJobs.contains(tw.jobKey)) {
+            setTriggerState(tw, TriggerWrapper.STATE_BLOCKED);
+        } else {
+            timeTriggers.add(tw);
+        }
+    }
+
+    /**
+     * <p>
+     * Store the given triggers of delayed tasks under a single acquisition
+     * of the store's lock, keeping the given instances.  The tasks are
+     * removed as soon as they fire.
+     * </p>
+     */
+    @Override
+    public void storeTasks(List<OperableTrigger> tasks) throws JobPersistenceException {
+        synchronized (lock) {
+            for (OperableTrigger task : tasks) {
+                if (triggersByKey.containsKey(task.getKey())) {
+                    throw new ObjectAlreadyExistsException(task);
+                }
+                if (!jobsByKey.containsKey(task.getJobKey())) {
+                    throw new JobPersistenceException("The job ("
+                            + task.getJobKey()
+                            + ") referenced by the task does not exist.");
                 }
-            } else if (blockedJobs.contains(tw.jobKey)) {
-                tw.state = TriggerWrapper.STATE_BLOCKED;
-            } else {
-                timeTriggers.add(tw);
+            }
+            for (OperableTrigger task : tasks) {
+                storeTriggerInLock(new TriggerWrapper(task));
             }
         }
     }
@@ -469,8 +617,10 @@ public class RAMJobStore implements JobStore {
                     grpMap.remove(key);
                     if (grpMap.isEmpty()) {
                         triggersByGroup.remove(key.getGroup());
+                        triggerGroupNames.remove(key.getGroup());
                     }
                 }
+                unindexTrigger(tw);
                 //remove from triggers by job
                 List<TriggerWrapper> jobList = triggersByJob.get(tw.jobKey);
                 if(jobList != null) {
@@ -484,8 +634,7 @@ public class RAMJobStore implements JobStore {
 
                 if (removeOrphanedJob) {
                     JobWrapper jw = jobsByKey.get(tw.jobKey);
-                    List<OperableTrigger> trigs = getTriggersForJob(tw.jobKey);
-                    if ((trigs == null || trigs.isEmpty()) && !jw.jobDetail.isDurable()) {
+                    if (!triggersByJob.containsKey(tw.jobKey) && !jw.jobDetail.isDurable()) {
                         if (removeJob(jw.key)) {
                             signaler.notifySchedulerListenersJobDeleted(jw.key);
                         }
@@ -522,8 +671,10 @@ public class RAMJobStore implements JobStore {
                     grpMap.remove(triggerKey);
                     if (grpMap.isEmpty()) {
                         triggersByGroup.remove(triggerKey.getGroup());
+                        triggerGroupNames.remove(triggerKey.getGroup());
                     }
                 }
+                unindexTrigger(tw);
                 
                 //remove from triggers by job
                 List<TriggerWrapper> jobList = triggersByJob.get(tw.jobKey);
@@ -649,6 +800,12 @@ public class RAMJobStore implements JobStore {
             if (tw.state == TriggerWrapper.STATE_ERROR) {
                 return TriggerState.ERROR;
             }
+
+            // waiting triggers of an executing job are only blocked once
+            // they come up for acquisition
+            if (tw.state == TriggerWrapper.STATE_WAITING && blockedJobs.contains(tw.jobKey)) {
+                return TriggerState.BLOCKED;
+            }
     
             return TriggerState.NORMAL;
         }
@@ -681,10 +838,10 @@ public class RAMJobStore implements JobStore {
             }
 
             if(pausedTriggerGroups.contains(triggerKey.getGroup())) {
-                tw.state = TriggerWrapper.STATE_PAUSED;
+                setTriggerState(tw, TriggerWrapper.STATE_PAUSED);
             }
             else {
-                tw.state = TriggerWrapper.STATE_WAITING;
+                setTriggerState(tw, TriggerWrapper.STATE_WAITING);
                 timeTriggers.add(tw);
             }
         }
@@ -761,16 +918,11 @@ public class RAMJobStore implements JobStore {
      */
     public boolean removeCalendar(String calName)
         throws JobPersistenceException {
-        int numRefs = 0;
+        int numRefs;
 
         synchronized (lock) {
-            for (TriggerWrapper wrapper : triggersByKey.values()) {
-                OperableTrigger trigger = wrapper.trigger;
-                if (trigger.getCalendarName() != null
-                        && trigger.getCalendarName().equals(calName)) {
-                    numRefs++;
-                }
-            }
+            HashSet<TriggerWrapper> refs = triggersByCalendar.get(calName);
+            numRefs = refs == null ? 0 : refs.size();
         }
 
         if (numRefs > 0) {
@@ -865,12 +1017,13 @@ public class RAMJobStore implements JobStore {
                     break;
 
                 default:
-                    for (Map.Entry<String, HashMap<JobKey, JobWrapper>> entry : jobsByGroup.entrySet()) {
-                        if(operator.evaluate(entry.getKey(), compareToValue) && entry.getValue() != null) {
+                    for (String group : jobGroupNames.matching(operator, compareToValue)) {
+                        HashMap<JobKey, JobWrapper> groupJobs = jobsByGroup.get(group);
+                        if(groupJobs != null) {
                             if(outList == null) {
                                 outList = new HashSet<>();
                             }
-                            for (JobWrapper jobWrapper : entry.getValue().values()) {
+                            for (JobWrapper jobWrapper : groupJobs.values()) {
                                 if(jobWrapper != null) {
                                     outList.add(jobWrapper.jobDetail.getKey());
                                 }
@@ -929,12 +1082,13 @@ public class RAMJobStore implements JobStore {
                     break;
 
                 default:
-                    for (Map.Entry<String, HashMap<TriggerKey, TriggerWrapper>> entry : triggersByGroup.entrySet()) {
-                        if(operator.evaluate(entry.getKey(), compareToValue) && entry.getValue() != null) {
+                    for (String group : triggerGroupNames.matching(operator, compareToValue)) {
+                        HashMap<TriggerKey, TriggerWrapper> groupTriggers = triggersByGroup.get(group);
+                        if(groupTriggers != null) {
                             if(outList == null) {
                                 outList = new HashSet<>();
                             }
-                            for (TriggerWrapper triggerWrapper : entry.getValue().values()) {
+                            for (TriggerWrapper triggerWrapper : groupTriggers.values()) {
                                 if(triggerWrapper != null) {
                                     outList.add(triggerWrapper.trigger.getKey());
                                 }
@@ -1020,11 +1174,9 @@ public class RAMJobStore implements JobStore {
         ArrayList<TriggerWrapper> trigList = new ArrayList<>();
 
         synchronized (lock) {
-            for (TriggerWrapper tw : triggersByKey.values()) {
-                String tcalName = tw.getTrigger().getCalendarName();
-                if (tcalName != null && tcalName.equals(calName)) {
-                    trigList.add(tw);
-                }
+            HashSet<TriggerWrapper> calendarTriggers = triggersByCalendar.get(calName);
+            if (calendarTriggers != null) {
+                trigList.addAll(calendarTriggers);
             }
         }
 
@@ -1053,9 +1205,9 @@ public class RAMJobStore implements JobStore {
             }
 
             if(tw.state == TriggerWrapper.STATE_BLOCKED) {
-                tw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
+                setTriggerState(tw, TriggerWrapper.STATE_PAUSED_BLOCKED);
             } else {
-                tw.state = TriggerWrapper.STATE_PAUSED;
+                setTriggerState(tw, TriggerWrapper.STATE_PAUSED);
             }
 
             timeTriggers.remove(tw);
@@ -1088,20 +1240,19 @@ public class RAMJobStore implements JobStore {
                     }
                     break;
                 default :
-                    for (String group : triggersByGroup.keySet()) {
-                        if(operator.evaluate(group, matcher.getCompareToValue())) {
-                            if(pausedTriggerGroups.add(matcher.getCompareToValue())) {
-                                pausedGroups.add(group);
-                            }
+                    for (String group : triggerGroupNames.matching(operator, matcher.getCompareToValue())) {
+                        if(pausedTriggerGroups.add(group)) {
+                            pausedGroups.add(group);
                         }
                     }
             }
 
             for (String pausedGroup : pausedGroups) {
-                Set<TriggerKey> keys = getTriggerKeys(GroupMatcher.triggerGroupEquals(pausedGroup));
-
-                for (TriggerKey key: keys) {
-                    pauseTrigger(key);
+                HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(pausedGroup);
+                if (grpMap != null) {
+                    for (TriggerKey key : new ArrayList<>(grpMap.keySet())) {
+                        pauseTrigger(key);
+                    }
                 }
             }
         }
@@ -1118,9 +1269,8 @@ public class RAMJobStore implements JobStore {
      */
     public void pauseJob(JobKey jobKey) {
         synchronized (lock) {
-            List<OperableTrigger> triggersOfJob = getTriggersForJob(jobKey);
-            for (OperableTrigger trigger: triggersOfJob) {
-                pauseTrigger(trigger.getKey());
+            for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+                pauseTrigger(tw.key);
             }
         }
     }
@@ -1150,21 +1300,16 @@ public class RAMJobStore implements JobStore {
                     }
                     break;
                 default :
-                    for (String group : jobsByGroup.keySet()) {
-                        if(operator.evaluate(group, matcher.getCompareToValue())) {
-                            if (pausedJobGroups.add(group)) {
-                                pausedGroups.add(group);
-                            }
+                    for (String group : jobGroupNames.matching(operator, matcher.getCompareToValue())) {
+                        if (pausedJobGroups.add(group)) {
+                            pausedGroups.add(group);
                         }
                     }
             }
 
             for (String groupName : pausedGroups) {
                 for (JobKey jobKey: getJobKeys(GroupMatcher.jobGroupEquals(groupName))) {
-                    List<OperableTrigger> triggersOfJob = getTriggersForJob(jobKey);
-                    for (OperableTrigger trigger: triggersOfJob) {
-                        pauseTrigger(trigger.getKey());
-                    }
+                    pauseJob(jobKey);
                 }
             }
         }
@@ -1203,9 +1348,9 @@ public class RAMJobStore implements JobStore {
             }
 
             if(blockedJobs.contains( trig.getJobKey() )) {
-                tw.state = TriggerWrapper.STATE_BLOCKED;
+                setTriggerState(tw, TriggerWrapper.STATE_BLOCKED);
             } else {
-                tw.state = TriggerWrapper.STATE_WAITING;
+                setTriggerState(tw, TriggerWrapper.STATE_WAITING);
             }
 
             applyMisfire(tw);
@@ -1232,17 +1377,31 @@ public class RAMJobStore implements JobStore {
         Set<String> groups = new HashSet<>();
 
         synchronized (lock) {
-            Set<TriggerKey> keys = getTriggerKeys(matcher);
+            groups.addAll(triggerGroupNames.matching(matcher.getCompareWithOperator(), matcher.getCompareToValue()));
 
-            for (TriggerKey triggerKey: keys) {
-                groups.add(triggerKey.getGroup());
-                if(triggersByKey.get(triggerKey) != null) {
-                    String jobGroup = triggersByKey.get(triggerKey).jobKey.getGroup();
-                    if(pausedJobGroups.contains(jobGroup)) {
-                        continue;
-                    }
+            // only paused triggers need resuming, so visit either the paused
+            // triggers or the triggers of the matching groups, whichever are fewer
+            int matchingCount = 0;
+            for (String group : groups) {
+                matchingCount += triggersByGroup.get(group).size();
+            }
+            List<TriggerWrapper> candidates;
+            if (countTriggersInState(TriggerWrapper.STATE_PAUSED)
+                    + countTriggersInState(TriggerWrapper.STATE_PAUSED_BLOCKED) < matchingCount) {
+                candidates = getTriggerWrappersInState(TriggerWrapper.STATE_PAUSED);
+                candidates.addAll(getTriggerWrappersInState(TriggerWrapper.STATE_PAUSED_BLOCKED));
+            } else {
+                candidates = new ArrayList<>(matchingCount);
+                for (String group : groups) {
+                    candidates.addAll(triggersByGroup.get(group).values());
+                }
+            }
+
+            for (TriggerWrapper tw : candidates) {
+                if(!groups.contains(tw.key.getGroup()) || pausedJobGroups.contains(tw.jobKey.getGroup())) {
+                    continue;
                 }
-                resumeTrigger(triggerKey);
+                resumeTrigger(tw.key);
             }
 
             // Find all matching paused trigger groups, and then remove them.
@@ -1286,9 +1445,8 @@ public class RAMJobStore implements JobStore {
     public void resumeJob(JobKey jobKey) {
 
         synchronized (lock) {
-            List<OperableTrigger> triggersOfJob = getTriggersForJob(jobKey);
-            for (OperableTrigger trigger: triggersOfJob) {
-                resumeTrigger(trigger.getKey());
+            for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+                resumeTrigger(tw.key);
             }
         }
     }
@@ -1322,10 +1480,7 @@ public class RAMJobStore implements JobStore {
             }
 
             for (JobKey key: keys) {
-                List<OperableTrigger> triggersOfJob = getTriggersForJob(key);
-                for (OperableTrigger trigger: triggersOfJob) {
-                    resumeTrigger(trigger.getKey());
-                }
+                resumeJob(key);
             }
         }
         return resumedGroups;
@@ -1381,8 +1536,9 @@ public class RAMJobStore implements JobStore {
     protected boolean applyMisfire(TriggerWrapper tw) {
 
         long misfireTime = System.currentTimeMillis();
-        if (getMisfireThreshold() > 0) {
-            misfireTime -= getMisfireThreshold();
+        long threshold = getMisfireThreshold(tw.key.getGroup());
+        if (threshold > 0) {
+            misfireTime -= threshold;
         }
 
         Date tnft = tw.trigger.getNextFireTime();
@@ -1398,10 +1554,14 @@ public class RAMJobStore implements JobStore {
 
         signaler.notifyTriggerListenersMisfired((OperableTrigger)tw.trigger.clone());
 
-        tw.trigger.updateAfterMisfire(cal);
+        if (isShedTriggerGroup(tw.key.getGroup())) {
+            TriggerUtils.skipMissedFireTimes(tw.trigger, cal);
+        } else {
+            tw.trigger.updateAfterMisfire(cal);
+        }
 
         if (tw.trigger.getNextFireTime() == null) {
-            tw.state = TriggerWrapper.STATE_COMPLETE;
+            setTriggerState(tw, TriggerWrapper.STATE_COMPLETE);
             signaler.notifySchedulerListenersFinalized(tw.trigger);
             synchronized (lock) {
                 timeTriggers.remove(tw);
@@ -1426,36 +1586,95 @@ public class RAMJobStore implements JobStore {
      * @see #releaseAcquiredTrigger(OperableTrigger)
      */
     public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow) {
+        return acquireNextTriggers(noLaterThan, maxCount, timeWindow, null);
+    }
+
+    /**
+     * <p>
+     * Get a handle to the next triggers of the given partition to be fired,
+     * and mark them as 'reserved' by the calling scheduler thread.
+     * </p>
+     *
+     * @see #releaseAcquiredTrigger(OperableTrigger)
+     */
+    @Override
+    public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow, TriggerPartition partition) {
         synchronized (lock) {
             List<OperableTrigger> result = new ArrayList<>();
             Set<JobKey> acquiredJobKeysForNoConcurrentExec = new HashSet<>();
-            Set<TriggerWrapper> excludedTriggers = new HashSet<>();
             long batchEnd = noLaterThan;
             
             // return empty list if store has no triggers.
             if (timeTriggers.isEmpty())
                 return result;
-            
-            while (true) {
-                TriggerWrapper tw;
 
-                try {
-                    tw = timeTriggers.first();
-                    if (tw == null)
+            // While the scheduler sheds load, look ahead at the next due
+            // triggers that may be acquired, and pass over those of lower
+            // priority than the ones to acquire.
+            int minPriority = Integer.MIN_VALUE;
+            long lookAheadEnd = Long.MIN_VALUE;
+            if (priorityLookAhead > 1) {
+                int lookAheadCount = (int) Math.min(Integer.MAX_VALUE, (long) maxCount * priorityLookAhead);
+                PriorityQueue<Integer> highestPriorities = new PriorityQueue<>();
+                int count = 0;
+                for (TriggerWrapper tw : timeTriggers) {
+                    Date nextFireTime = tw.trigger.getNextFireTime();
+                    if (nextFireTime == null
+                            || (partition != null && (!partition.contains(tw.key) || !partition.containsJob(tw.jobKey)))
+                            || (blockedJobs.contains(tw.jobKey)
+                                    && jobsByKey.get(tw.jobKey).jobDetail.isConcurrentExecutionDisallowed())
+                            || (concurrencyLimits.isLimited(tw.jobKey)
+                                    && !concurrencyLimits.admits(tw.jobKey, executionsInFlight))) {
+                        continue;
+                    }
+                    if (nextFireTime.getTime() > noLaterThan || count == lookAheadCount) {
                         break;
-                    timeTriggers.remove(tw);
-                } catch (java.util.NoSuchElementException nsee) {
-                    break;
+                    }
+                    count++;
+                    lookAheadEnd = nextFireTime.getTime();
+                    highestPriorities.add(tw.trigger.getPriority());
+                    if (highestPriorities.size() > maxCount) {
+                        highestPriorities.poll();
+                    }
+                }
+                if (count > maxCount) {
+                    minPriority = highestPriorities.peek();
                 }
+            }
+
+            // The triggers that are passed over (those of other partitions, of
+            // lower priority, of jobs already in the batch, or of saturated
+            // groups) are left in place, rather than taken out and put back, so
+            // walk the set from the last of them.
+            TriggerWrapper lastPassedOver = null;
+            Iterator<TriggerWrapper> it = timeTriggers.iterator();
+            while (it.hasNext()) {
+                TriggerWrapper tw = it.next();
 
                 if (tw.trigger.getNextFireTime() == null) {
+                    it.remove();
                     continue;
                 }
 
+                if (tw.getTrigger().getNextFireTime().getTime() > batchEnd) {
+                    break;
+                }
+
+                // leave triggers of other partitions, and of jobs routed to other
+                // thread pools, to the threads that own them
+                if (partition != null && (!partition.contains(tw.key) || !partition.containsJob(tw.jobKey))) {
+                    lastPassedOver = tw;
+                    continue;
+                }
+
+                it.remove();
                 if (applyMisfire(tw)) {
                     if (tw.trigger.getNextFireTime() != null) {
                         timeTriggers.add(tw);
                     }
+                    // the misfire listeners may have changed the set as well
+                    it = lastPassedOver == null ? timeTriggers.iterator()
+                            : timeTriggers.tailSet(lastPassedOver, false).iterator();
                     continue;
                 }
 
@@ -1463,22 +1682,54 @@ public class RAMJobStore implements JobStore {
                     timeTriggers.add(tw);
                     break;
                 }
+
+                if (tw.trigger.getPriority() < minPriority && tw.trigger.getNextFireTime().getTime() <= lookAheadEnd) {
+                    timeTriggers.add(tw);
+                    lastPassedOver = tw;
+                    it = timeTriggers.tailSet(tw, false).iterator();
+                    continue;
+                }
                 
                 // If trigger's job is set as @DisallowConcurrentExecution, and it has already been added to result, then
-                // put it back into the timeTriggers set and continue to search for next trigger.
+                // leave it in the timeTriggers set and continue to search for next trigger.
                 JobKey jobKey = tw.trigger.getJobKey();
                 JobDetail job = jobsByKey.get(tw.trigger.getJobKey()).jobDetail;
                 if (job.isConcurrentExecutionDisallowed()) {
+                    if (blockedJobs.contains(jobKey)) {
+                        // the job is executing: leave the trigger blocked
+                        // until it completes
+                        setTriggerState(tw, TriggerWrapper.STATE_BLOCKED);
+                        continue;
+                    }
                     if (acquiredJobKeysForNoConcurrentExec.contains(jobKey)) {
-                        excludedTriggers.add(tw);
+                        timeTriggers.add(tw);
+                        lastPassedOver = tw;
+                        it = timeTriggers.tailSet(tw, false).iterator();
                         continue; // go to next trigger in store.
                     } else {
                         acquiredJobKeysForNoConcurrentExec.add(jobKey);
                     }
                 }
 
-                tw.state = TriggerWrapper.STATE_ACQUIRED;
+                // leave the triggers of saturated groups and jobs to later acquisitions
+                boolean limited = concurrencyLimits.isLimited(jobKey);
+                if (limited && !concurrencyLimits.admits(jobKey, executionsInFlight)) {
+                    triggersSkippedForLimits = true;
+                    if (job.isConcurrentExecutionDisallowed()) {
+                        acquiredJobKeysForNoConcurrentExec.remove(jobKey);
+                    }
+                    timeTriggers.add(tw);
+                    lastPassedOver = tw;
+                    it = timeTriggers.tailSet(tw, false).iterator();
+                    continue;
+                }
+
+                setTriggerState(tw, TriggerWrapper.STATE_ACQUIRED);
                 tw.trigger.setFireInstanceId(getFiredTriggerRecordId());
+                if (limited) {
+                    executionsInFlight.add(jobKey, 1);
+                    limitedFireInstances.put(tw.trigger.getFireInstanceId(), jobKey);
+                }
                 OperableTrigger trig = (OperableTrigger) tw.trigger.clone();
                 if (result.isEmpty()) {
                     batchEnd = Math.max(tw.trigger.getNextFireTime().getTime(), System.currentTimeMillis()) + timeWindow;
@@ -1488,9 +1739,6 @@ public class RAMJobStore implements JobStore {
                     break;
             }
 
-            // If we did excluded triggers to prevent ACQUIRE state due to DisallowConcurrentExecution, we need to add them back to store.
-            if (!excludedTriggers.isEmpty())
-                timeTriggers.addAll(excludedTriggers);
             return result;
         }
     }
@@ -1504,9 +1752,10 @@ public class RAMJobStore implements JobStore {
      */
     public void releaseAcquiredTrigger(OperableTrigger trigger) {
         synchronized (lock) {
+            releaseExecution(trigger.getFireInstanceId());
             TriggerWrapper tw = triggersByKey.get(trigger.getKey());
             if (tw != null && tw.state == TriggerWrapper.STATE_ACQUIRED) {
-                tw.state = TriggerWrapper.STATE_WAITING;
+                setTriggerState(tw, TriggerWrapper.STATE_WAITING);
                 timeTriggers.add(tw);
             }
         }
@@ -1524,7 +1773,16 @@ public class RAMJobStore implements JobStore {
         synchronized (lock) {
             List<TriggerFiredResult> results = new ArrayList<>();
 
+            int limitedReleased = 0;
+
             for (OperableTrigger trigger : firedTriggers) {
+                // released unless the trigger fires, when it's counted back in below
+                JobKey limitedJobKey = limitedFireInstances.remove(trigger.getFireInstanceId());
+                if (limitedJobKey != null) {
+                    executionsInFlight.add(limitedJobKey, -1);
+                    limitedReleased++;
+                }
+
                 TriggerWrapper tw = triggersByKey.get(trigger.getKey());
                 // was the trigger deleted since being acquired?
                 if (tw == null) {
@@ -1541,6 +1799,14 @@ public class RAMJobStore implements JobStore {
                     if(cal == null)
                         continue;
                 }
+                // was the job started, for a trigger acquired in an earlier
+                // batch, since being acquired?
+                if (blockedJobs.contains(tw.jobKey)
+                        && jobsByKey.get(tw.jobKey).jobDetail.isConcurrentExecutionDisallowed()) {
+                    timeTriggers.remove(tw);
+                    setTriggerState(tw, TriggerWrapper.STATE_BLOCKED);
+                    continue;
+                }
                 Date prevFireTime = trigger.getPreviousFireTime();
                 // in case trigger was replaced between acquiring and firing
                 timeTriggers.remove(tw);
@@ -1548,7 +1814,7 @@ public class RAMJobStore implements JobStore {
                 tw.trigger.triggered(cal);
                 trigger.triggered(cal);
                 //tw.state = TriggerWrapper.STATE_EXECUTING;
-                tw.state = TriggerWrapper.STATE_WAITING;
+                setTriggerState(tw, TriggerWrapper.STATE_WAITING);
 
                 TriggerFiredBundle bundle = new TriggerFiredBundle(retrieveJob(
                         tw.jobKey), trigger, cal,
@@ -1557,17 +1823,23 @@ public class RAMJobStore implements JobStore {
 
                 JobDetail job = bundle.getJobDetail();
 
-                if (job.isConcurrentExecutionDisallowed()) {
-                    ArrayList<TriggerWrapper> trigs = getTriggerWrappersForJob(job.getKey());
-                    for (TriggerWrapper ttw : trigs) {
-                        if (ttw.state == TriggerWrapper.STATE_WAITING) {
-                            ttw.state = TriggerWrapper.STATE_BLOCKED;
-                        }
-                        if (ttw.state == TriggerWrapper.STATE_PAUSED) {
-                            ttw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
-                        }
-                        timeTriggers.remove(ttw);
+                if (limitedJobKey != null) {
+                    executionsInFlight.add(limitedJobKey, 1);
+                    limitedFireInstances.put(trigger.getFireInstanceId(), limitedJobKey);
+                    limitedReleased--;
+                }
+
+                if (TriggerUtils.isTask(tw.trigger) && tw.trigger.getNextFireTime() == null) {
+                    // a task is done with once fired, rather than once its
+                    // job completes
+                    removeTrigger(tw.key, true);
+                    if (job.isConcurrentExecutionDisallowed()) {
+                        blockedJobs.add(job.getKey());
                     }
+                } else if (job.isConcurrentExecutionDisallowed()) {
+                    // the job's other triggers are blocked as they come up
+                    // for acquisition, rather than all of them now
+                    setTriggerState(tw, TriggerWrapper.STATE_BLOCKED);
                     blockedJobs.add(job.getKey());
                 } else if (tw.trigger.getNextFireTime() != null) {
                     synchronized (lock) {
@@ -1577,6 +1849,9 @@ public class RAMJobStore implements JobStore {
 
                 results.add(new TriggerFiredResult(bundle));
             }
+            if (limitedReleased > 0) {
+                executionReleased();
+            }
             return results;
         }
     }
@@ -1595,6 +1870,8 @@ public class RAMJobStore implements JobStore {
 
         synchronized (lock) {
 
+            releaseExecution(trigger.getFireInstanceId());
+
             JobWrapper jw = jobsByKey.get(jobDetail.getKey());
             TriggerWrapper tw = triggersByKey.get(trigger.getKey());
 
@@ -1616,14 +1893,15 @@ public class RAMJobStore implements JobStore {
                 }
                 if (jd.isConcurrentExecutionDisallowed()) {
                     blockedJobs.remove(jd.getKey());
-                    ArrayList<TriggerWrapper> trigs = getTriggerWrappersForJob(jd.getKey());
+                    ArrayList<TriggerWrapper> trigs = jw.blockedTriggers == null
+                            ? new ArrayList<TriggerWrapper>() : new ArrayList<>(jw.blockedTriggers);
                     for(TriggerWrapper ttw : trigs) {
                         if (ttw.state == TriggerWrapper.STATE_BLOCKED) {
-                            ttw.state = TriggerWrapper.STATE_WAITING;
+                            setTriggerState(ttw, TriggerWrapper.STATE_WAITING);
                             timeTriggers.add(ttw);
                         }
                         if (ttw.state == TriggerWrapper.STATE_PAUSED_BLOCKED) {
-                            ttw.state = TriggerWrapper.STATE_PAUSED;
+                            setTriggerState(ttw, TriggerWrapper.STATE_PAUSED);
                         }
                     }
                     signaler.signalSchedulingChange(0L);
@@ -1647,12 +1925,12 @@ public class RAMJobStore implements JobStore {
                         signaler.signalSchedulingChange(0L);
                     }
                 } else if (triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_COMPLETE) {
-                    tw.state = TriggerWrapper.STATE_COMPLETE;
+                    setTriggerState(tw, TriggerWrapper.STATE_COMPLETE);
                     timeTriggers.remove(tw);
                     signaler.signalSchedulingChange(0L);
                 } else if(triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_ERROR) {
                     getLog().info("Trigger {} set to ERROR state.", trigger.getKey());
-                    tw.state = TriggerWrapper.STATE_ERROR;
+                    setTriggerState(tw, TriggerWrapper.STATE_ERROR);
                     signaler.signalSchedulingChange(0L);
                 } else if (triggerInstCode == CompletedExecutionInstruction.SET_ALL_JOB_TRIGGERS_ERROR) {
                     getLog().info("All triggers of Job {} set to ERROR state.", trigger.getJobKey());
@@ -1674,12 +1952,152 @@ public class RAMJobStore implements JobStore {
     protected void setAllTriggersOfJobToState(JobKey jobKey, int state) {
         ArrayList<TriggerWrapper> tws = getTriggerWrappersForJob(jobKey);
         for (TriggerWrapper tw : tws) {
-            tw.state = state;
+            setTriggerState(tw, state);
             if (state != TriggerWrapper.STATE_WAITING) {
                 timeTriggers.remove(tw);
             }
         }
     }
+
+    /**
+     * Count out the execution of a limited job with the given fire instance
+     * id, if it was counted in.  Must be called while holding the lock.
+     */
+    protected void releaseExecution(String fireInstanceId) {
+        JobKey jobKey = fireInstanceId == null ? null : limitedFireInstances.remove(fireInstanceId);
+        if (jobKey != null) {
+            executionsInFlight.add(jobKey, -1);
+            executionReleased();
+        }
+    }
+
+    private void executionReleased() {
+        // triggers of saturated groups may be acquired again
+        if (triggersSkippedForLimits) {
+            triggersSkippedForLimits = false;
+            signaler.signalSchedulingChange(0L);
+        }
+    }
+
+    /**
+     * Get the executions in flight of the jobs of each group that has a
+     * concurrency limit.
+     */
+    @Override
+    public Map<String, Integer> getJobGroupExecutionsInFlight() {
+        synchronized (lock) {
+            Map<String, Integer> result = new HashMap<>();
+            for (String group : concurrencyLimits.getGroupLimits().keySet()) {
+                result.put(group, executionsInFlight.getGroupCount(group));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Get the executions in flight of each job that has a concurrency limit,
+     * by job key (<code>group.name</code>).
+     */
+    @Override
+    public Map<String, Integer> getJobExecutionsInFlight() {
+        synchronized (lock) {
+            Map<String, Integer> result = new HashMap<>();
+            for (JobKey jobKey : concurrencyLimits.getJobLimits().keySet()) {
+                result.put(jobKey.toString(), executionsInFlight.getJobCount(jobKey));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Set the state of a stored trigger, keeping the index of triggers by
+     * state up to date.  Must be called while holding the lock.
+     */
+    protected void setTriggerState(TriggerWrapper tw, int state) {
+        if (tw.state == state) {
+            return;
+        }
+        if (isIndexedState(tw.state)) {
+            HashSet<TriggerWrapper> inState = triggersByState.get(tw.state);
+            if (inState != null) {
+                inState.remove(tw);
+            }
+        }
+        if (isBlockedState(tw.state) != isBlockedState(state)) {
+            JobWrapper jw = jobsByKey.get(tw.jobKey);
+            if (jw != null) {
+                if (isBlockedState(state)) {
+                    if (jw.blockedTriggers == null) {
+                        jw.blockedTriggers = new HashSet<>();
+                    }
+                    jw.blockedTriggers.add(tw);
+                } else if (jw.blockedTriggers != null) {
+                    jw.blockedTriggers.remove(tw);
+                }
+            }
+        }
+        tw.state = state;
+        if (isIndexedState(state)) {
+            triggersByState.computeIfAbsent(state, k -> new HashSet<>()).add(tw);
+        }
+    }
+
+    private static boolean isBlockedState(int state) {
+        return state == TriggerWrapper.STATE_BLOCKED || state == TriggerWrapper.STATE_PAUSED_BLOCKED;
+    }
+
+    /**
+     * Get the stored triggers in the given state, which must be a state other
+     * than waiting or acquired.
+     */
+    protected ArrayList<TriggerWrapper> getTriggerWrappersInState(int state) {
+        if (!isIndexedState(state)) {
+            throw new IllegalArgumentException("Triggers in state " + state + " are not indexed.");
+        }
+        synchronized (lock) {
+            HashSet<TriggerWrapper> inState = triggersByState.get(state);
+            return inState == null ? new ArrayList<TriggerWrapper>() : new ArrayList<>(inState);
+        }
+    }
+
+    private int countTriggersInState(int state) {
+        HashSet<TriggerWrapper> inState = triggersByState.get(state);
+        return inState == null ? 0 : inState.size();
+    }
+
+    private static boolean isIndexedState(int state) {
+        // the great majority of triggers are waiting, and acquired is short-lived
+        return state != TriggerWrapper.STATE_WAITING && state != TriggerWrapper.STATE_ACQUIRED;
+    }
+
+    /**
+     * Remove a trigger that is being removed from the store from the
+     * indexes by calendar and by state, and from its job's blocked triggers.
+     */
+    private void unindexTrigger(TriggerWrapper tw) {
+        String calName = tw.trigger.getCalendarName();
+        if (calName != null) {
+            HashSet<TriggerWrapper> calendarTriggers = triggersByCalendar.get(calName);
+            if (calendarTriggers != null) {
+                calendarTriggers.remove(tw);
+                if (calendarTriggers.isEmpty()) {
+                    triggersByCalendar.remove(calName);
+                }
+            }
+        }
+        if (isIndexedState(tw.state)) {
+            HashSet<TriggerWrapper> inState = triggersByState.get(tw.state);
+            if (inState != null) {
+                inState.remove(tw);
+            }
+        }
+        if (isBlockedState(tw.state)) {
+            JobWrapper jw = jobsByKey.get(tw.jobKey);
+            if (jw != null && jw.blockedTriggers != null) {
+                jw.blockedTriggers.remove(tw);
+            }
+        }
+    }
     
     @SuppressWarnings("UnusedDeclaration")
     protected String peekTriggers() {
@@ -1759,86 +2177,3 @@ class TriggerWrapperComparator implements Comparator<TriggerWrapper>, java.io.Se
         return super.hashCode();
     }
 }
-
-class JobWrapper {
-
-    public final JobKey key;
-
-    public JobDetail jobDetail;
-
-    JobWrapper(JobDetail jobDetail) {
-        this.jobDetail = jobDetail;
-        key = jobDetail.getKey();
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (obj instanceof JobWrapper) {
-            JobWrapper jw = (JobWrapper) obj;
-            return jw.key.equals(this.key);
-        }
-
-        return false;
-    }
-    
-    @Override
-    public int hashCode() {
-        return key.hashCode(); 
-    }
-}
-
-class TriggerWrapper {
-
-    public final TriggerKey key;
-
-    public final JobKey jobKey;
-
-    public final OperableTrigger trigger;
-
-    public int state = STATE_WAITING;
-
-    public static final int STATE_WAITING = 0;
-
-    public static final int STATE_ACQUIRED = 1;
-
-    @SuppressWarnings("UnusedDeclaration")
-    public static final int STATE_EXECUTING = 2;
-
-    public static final int STATE_COMPLETE = 3;
-
-    public static final int STATE_PAUSED = 4;
-
-    public static final int STATE_BLOCKED = 5;
-
-    public static final int STATE_PAUSED_BLOCKED = 6;
-
-    public static final int STATE_ERROR = 7;
-    
-    TriggerWrapper(OperableTrigger trigger) {
-        if(trigger == null)
-            throw new IllegalArgumentException("Trigger cannot be null!");
-        this.trigger = trigger;
-        key = trigger.getKey();
-        this.jobKey = trigger.getJobKey();
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (obj instanceof TriggerWrapper) {
-            TriggerWrapper tw = (TriggerWrapper) obj;
-            return tw.key.equals(this.key);
-        }
-
-        return false;
-    }
-
-    @Override
-    public int hashCode() {
-        return key.hashCode(); 
-    }
-
-    
-    public OperableTrigger getTrigger() {
-        return this.trigger;
-    }
-}
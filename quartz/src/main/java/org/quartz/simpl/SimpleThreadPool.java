@@ -70,6 +70,11 @@ public class SimpleThreadPool implements ThreadPool {
 
     private boolean makeThreadsDaemons = false;
 
+    private int maxAsyncJobs = -1;
+
+    // asynchronous job executions in progress, guarded by nextRunnableLock
+    private int asyncJobs = 0;
+
     private ThreadGroup threadGroup;
 
     private final Object nextRunnableLock = new Object();
@@ -176,6 +181,41 @@ public class SimpleThreadPool implements ThreadPool {
         return prio;
     }
 
+    /**
+     * <p>
+     * Set the number of <code>{@link org.quartz.AsyncJob}</code> executions
+     * that may be in progress without holding a worker thread.  Once it is
+     * reached, further asynchronous jobs hold their thread until another
+     * execution completes.  Zero runs asynchronous jobs synchronously; a
+     * negative value (the default) allows as many as there are threads.
+     * </p>
+     */
+    public void setMaxAsyncJobs(int maxAsyncJobs) {
+        this.maxAsyncJobs = maxAsyncJobs;
+    }
+
+    /**
+     * <p>
+     * Get the number of <code>{@link org.quartz.AsyncJob}</code> executions
+     * that may be in progress without holding a worker thread.
+     * </p>
+     */
+    public int getMaxAsyncJobs() {
+        return maxAsyncJobs < 0 ? getThreadCount() : maxAsyncJobs;
+    }
+
+    /**
+     * <p>
+     * Get the number of <code>{@link org.quartz.AsyncJob}</code> executions
+     * in progress that don't hold a worker thread.
+     * </p>
+     */
+    public int getAsyncJobCount() {
+        synchronized (nextRunnableLock) {
+            return asyncJobs;
+        }
+    }
+
     public void setThreadNamePrefix(String prefix) {
         this.threadNamePrefix = prefix;
     }
@@ -353,6 +393,16 @@ public class SimpleThreadPool implements ThreadPool {
                         }
                     }
 
+                    // Wait until asynchronous job executions are complete
+                    while (asyncJobs > 0) {
+                        getLog().debug("Waiting for {} asynchronous job(s) to complete", asyncJobs);
+                        try {
+                            nextRunnableLock.wait(2000);
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+
                     // Wait until all worker threads are shut down
                     while (!busyWorkers.isEmpty()) {
                         WorkerThread wt = (WorkerThread) busyWorkers.getFirst();
@@ -437,6 +487,42 @@ public class SimpleThreadPool implements ThreadPool {
         return true;
     }
 
+    @Override
+    public boolean acquireAsyncJobSlot() {
+        synchronized (nextRunnableLock) {
+            boolean interrupted = false;
+            try {
+                while (asyncJobs >= getMaxAsyncJobs() && getMaxAsyncJobs() > 0 && !isShutdown) {
+                    try {
+                        nextRunnableLock.wait(500);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (getMaxAsyncJobs() == 0 || isShutdown) {
+                return false;
+            }
+            asyncJobs++;
+            return true;
+        }
+    }
+
+    @Override
+    public void releaseAsyncJobSlot() {
+        synchronized (nextRunnableLock) {
+            if (asyncJobs > 0) {
+                asyncJobs--;
+            }
+            nextRunnableLock.notifyAll();
+        }
+    }
+
     public int blockForAvailableThreads() {
         synchronized(nextRunnableLock) {
 
@@ -0,0 +1,56 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.spi;
+
+import org.quartz.JobDataMap;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+
+/**
+ * Implemented by <code>{@link org.quartz.Scheduler}</code>s that can run a
+ * job on their own thread pool right away, without storing a trigger for it
+ * and waiting for the scheduler thread to acquire and fire that trigger.
+ *
+ * <p>
+ * A dispatched job runs as soon as a thread of the pool is free, ahead of
+ * triggers that haven't been acquired yet, but never on a thread that an
+ * acquired trigger is going to fire on.  Nothing about the execution is
+ * stored, so it is lost if the scheduler shuts down or crashes before the job
+ * has run.
+ * </p>
+ *
+ * @see org.quartz.listeners.WorkflowJobListener
+ */
+public interface DirectJobDispatcher {
+
+    /**
+     * Run the identified job right away, with the given data in the
+     * <code>JobDataMap</code> of its (transient) trigger.
+     *
+     * @return <code>false</code> if the job can't be run directly, as it
+     * disallows concurrent execution, persists its data after execution or
+     * has its concurrent executions limited, all of which need the job store
+     * to track the execution; such jobs
+     * should be triggered with
+     * <code>{@link org.quartz.Scheduler#triggerJob(JobKey, JobDataMap)}</code>
+     * instead.
+     * @throws SchedulerException if the job doesn't exist, or the scheduler
+     * is shut down.
+     */
+    boolean dispatchJob(JobKey jobKey, JobDataMap data) throws SchedulerException;
+}
@@ -19,6 +19,7 @@
 package org.quartz.spi;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -114,6 +115,88 @@ public interface JobStore {
      */
     boolean isClustered();
 
+    /**
+     * Whether or not the <code>JobStore</code> implementation checks, in
+     * <code>triggersFired</code>, that the job of each trigger does not
+     * disallow concurrent execution while another execution of it is in
+     * progress, rather than relying on triggers of such jobs having been
+     * blocked before they were acquired.  Only then may the scheduler acquire
+     * the next batch of triggers before the current one has been fired.  The
+     * default implementation returns <code>false</code>.
+     *
+     * @see org.quartz.DisallowConcurrentExecution
+     * @since 2.5.1
+     */
+    default boolean isConcurrentExecutionCheckedWhenFired() {
+        return false;
+    }
+
+    /**
+     * Whether the <code>JobStore</code> limits the concurrent executions of
+     * the given job, or of the jobs of its group.  The default implementation
+     * supports no limits.
+     *
+     * @see org.quartz.utils.JobConcurrencyLimits
+     * @since 2.5.1
+     */
+    default boolean isConcurrencyLimited(JobKey jobKey) {
+        return false;
+    }
+
+    /**
+     * Get the executions in flight (acquired or executing) of the jobs of
+     * each group that the <code>JobStore</code> limits the concurrent
+     * executions of.  The default implementation supports no limits.
+     *
+     * @see org.quartz.utils.JobConcurrencyLimits
+     * @since 2.5.1
+     */
+    default Map<String, Integer> getJobGroupExecutionsInFlight() throws JobPersistenceException {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Get the executions in flight (acquired or executing) of each job that
+     * the <code>JobStore</code> limits the concurrent executions of, by job
+     * key (<code>group.name</code>).  The default implementation supports no
+     * limits.
+     *
+     * @see org.quartz.utils.JobConcurrencyLimits
+     * @since 2.5.1
+     */
+    default Map<String, Integer> getJobExecutionsInFlight() throws JobPersistenceException {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Called by the scheduler while it sheds load: the triggers of the given
+     * groups are to misfire once they are later than the given threshold
+     * (rather than the <code>JobStore</code>'s own misfire threshold), when
+     * they are next acquired.  Called with an empty set once the scheduler
+     * has caught up.  The default implementation ignores it.
+     *
+     * @param triggerGroups the trigger groups to misfire early
+     * @param misfireThreshold the early misfire threshold, in milliseconds
+     * @since 2.5.1
+     */
+    default void setEarlyMisfireTriggerGroups(Set<String> triggerGroups, long misfireThreshold) {
+    }
+
+    /**
+     * Called by the scheduler while it sheds load: of the next due triggers,
+     * up to the given multiple of the number asked for,
+     * <code>acquireNextTriggers</code> is to acquire those of the highest
+     * priority, rather than those due first.  Called with 1 once the
+     * scheduler has caught up.  The default implementation ignores it.
+     *
+     * @param lookAhead how many times as many due triggers as asked for to
+     * choose the acquired ones from
+     * @see #acquireNextTriggers(long, int, long)
+     * @since 2.5.1
+     */
+    default void setPriorityLookAhead(int lookAhead) {
+    }
+
     /////////////////////////////////////////////////////////////////////////////
     //
     // Job & Trigger Storage methods
@@ -200,6 +283,31 @@ public interface JobStore {
     void storeTrigger(OperableTrigger newTrigger, boolean replaceExisting) 
         throws ObjectAlreadyExistsException, JobPersistenceException;
 
+    /**
+     * Store the given triggers of delayed tasks (see
+     * <code>{@link org.quartz.TriggerUtils#isTask(Trigger)}</code>), none of
+     * which may exist yet, for jobs that are stored.  The store may keep the
+     * given instances rather than copies, and may remove a task's trigger as
+     * soon as it fires.  The default implementation checks that none of them
+     * exist, then stores them one at a time.
+     *
+     * @throws ObjectAlreadyExistsException
+     *           if a <code>Trigger</code> with the same name/group as one of
+     *           the tasks already exists.
+     * @since 2.5.1
+     */
+    default void storeTasks(List<OperableTrigger> tasks)
+        throws ObjectAlreadyExistsException, JobPersistenceException {
+        for (OperableTrigger task : tasks) {
+            if (checkExists(task.getKey())) {
+                throw new ObjectAlreadyExistsException(task);
+            }
+        }
+        for (OperableTrigger task : tasks) {
+            storeTrigger(task, false);
+        }
+    }
+
     /**
      * Remove (delete) the <code>{@link org.quartz.Trigger}</code> with the
      * given key.
@@ -597,6 +705,30 @@ public interface JobStore {
     List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow)
         throws JobPersistenceException;
 
+    /**
+     * Get a handle to the next triggers to be fired that belong to the given
+     * partition, and mark them as 'reserved' by the calling scheduler thread.
+     * Triggers of other partitions are left for the threads that own them.
+     *
+     * <p>
+     * Used when the scheduler runs more than one scheduler thread, or has
+     * named thread pools (see <code>{@link TriggerPartition#containsJob(org.quartz.JobKey)}</code>).
+     * The default implementation only supports a single partition.
+     * </p>
+     *
+     * @param partition the partition to acquire from, or <code>null</code>
+     * to acquire from all triggers.
+     * @see #acquireNextTriggers(long, int, long)
+     * @since 2.5.1
+     */
+    default List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow, TriggerPartition partition)
+        throws JobPersistenceException {
+        if (partition != null && (partition.getCount() > 1 || partition.getThreadPoolCount() > 1)) {
+            throw new JobPersistenceException(getClass().getName() + " does not support partitioned trigger acquisition.");
+        }
+        return acquireNextTriggers(noLaterThan, maxCount, timeWindow);
+    }
+
     /**
      * Inform the <code>JobStore</code> that the scheduler no longer plans to
      * fire the given <code>Trigger</code>, that it had previously acquired
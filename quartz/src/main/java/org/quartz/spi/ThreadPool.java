@@ -67,6 +67,38 @@ public interface ThreadPool {
      */
     boolean runInThread(Runnable runnable);
 
+    /**
+     * <p>
+     * Account for the execution of an <code>{@link org.quartz.AsyncJob}</code>
+     * that is about to give its thread back to the pool while its work goes
+     * on, blocking while the pool's limit of such executions in progress is
+     * reached.  Each successful call must be matched by a call to
+     * <code>{@link #releaseAsyncJobSlot()}</code> once the execution is
+     * complete.
+     * </p>
+     *
+     * <p>
+     * The default implementation doesn't support asynchronous executions.
+     * </p>
+     *
+     * @return false, if the job must rather be executed synchronously on its
+     * thread, as the pool doesn't support asynchronous executions or is shut
+     * down.
+     */
+    default boolean acquireAsyncJobSlot() {
+        return false;
+    }
+
+    /**
+     * <p>
+     * Release the capacity taken by a call to
+     * <code>{@link #acquireAsyncJobSlot()}</code>, once the asynchronous
+     * execution is complete.
+     * </p>
+     */
+    default void releaseAsyncJobSlot() {
+    }
+
     /**
      * <p>
      * Determines the number of threads that are currently available in in
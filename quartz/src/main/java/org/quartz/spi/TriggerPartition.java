@@ -0,0 +1,171 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.spi;
+
+import java.util.Objects;
+
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.quartz.utils.Key;
+import org.quartz.utils.ThreadPoolRoutes;
+
+/**
+ * <p>
+ * Identifies one of a fixed number of hash partitions of the triggers in a
+ * <code>{@link JobStore}</code>, so that several scheduler threads can each
+ * acquire and fire only the triggers of their own partition.
+ * </p>
+ *
+ * <p>
+ * Triggers are assigned to partitions by the hash of their key, or of their
+ * group only (so that all triggers of a group are fired by the same thread,
+ * in order).
+ * </p>
+ *
+ * <p>
+ * When the scheduler has named thread pools, a partition also belongs to one
+ * of its thread pools (or to its main thread pool), and only holds the
+ * triggers of the jobs routed to that pool.
+ * </p>
+ *
+ * @see JobStore#acquireNextTriggers(long, int, long, TriggerPartition)
+ */
+public final class TriggerPartition {
+
+    private final int index;
+
+    private final int count;
+
+    private final boolean byGroup;
+
+    private final ThreadPoolRoutes routes;
+
+    private final String threadPoolName;
+
+    /**
+     * @param index the zero based index of this partition
+     * @param count the total number of partitions
+     * @param byGroup whether triggers are assigned by the hash of their group
+     * rather than of their whole key
+     */
+    public TriggerPartition(int index, int count, boolean byGroup) {
+        this(index, count, byGroup, ThreadPoolRoutes.NONE, null);
+    }
+
+    /**
+     * @param index the zero based index of this partition
+     * @param count the total number of partitions (of the thread pool)
+     * @param byGroup whether triggers are assigned by the hash of their group
+     * rather than of their whole key
+     * @param routes the routes of jobs to the named thread pools
+     * @param threadPoolName the name of the thread pool whose triggers the
+     * partition holds, or <code>null</code> for the main thread pool
+     */
+    public TriggerPartition(int index, int count, boolean byGroup, ThreadPoolRoutes routes, String threadPoolName) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Partition count must be at least 1.");
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Partition index must be between 0 and " + (count - 1) + ".");
+        }
+        this.index = index;
+        this.count = count;
+        this.byGroup = byGroup;
+        this.routes = routes;
+        this.threadPoolName = threadPoolName;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isByGroup() {
+        return byGroup;
+    }
+
+    /**
+     * Get the name of the thread pool whose triggers the partition holds, or
+     * <code>null</code> for the main thread pool.
+     */
+    public String getThreadPoolName() {
+        return threadPoolName;
+    }
+
+    /**
+     * Get the number of thread pools that triggers are divided among (the
+     * named ones and the main one).
+     */
+    public int getThreadPoolCount() {
+        return routes.getThreadPoolNames().size() + 1;
+    }
+
+    /**
+     * Whether the trigger with the given key belongs to this partition.
+     */
+    public boolean contains(TriggerKey key) {
+        return count == 1 || partitionOf(key, count, byGroup) == index;
+    }
+
+    /**
+     * Whether the triggers of the job with the given key belong to the thread
+     * pool of this partition.
+     */
+    public boolean containsJob(JobKey jobKey) {
+        return routes.isEmpty() || Objects.equals(routes.getThreadPool(jobKey), threadPoolName);
+    }
+
+    /**
+     * The index of the partition that the given (trigger or job) key belongs
+     * to, out of <code>count</code> partitions.
+     */
+    public static int partitionOf(Key<?> key, int count, boolean byGroup) {
+        int h = byGroup ? key.getGroup().hashCode() : key.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, count);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TriggerPartition)) {
+            return false;
+        }
+        TriggerPartition other = (TriggerPartition) obj;
+        return index == other.index && count == other.count && byGroup == other.byGroup
+                && routes == other.routes && Objects.equals(threadPoolName, other.threadPoolName);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((31 * index + count) * 2 + (byGroup ? 1 : 0)) * 31 + Objects.hashCode(threadPoolName);
+    }
+
+    @Override
+    public String toString() {
+        return "partition " + index + " of " + count + (byGroup ? " (by group)" : " (by key)")
+                + (routes.isEmpty() ? "" : threadPoolName == null ? " of the main thread pool"
+                        : " of thread pool '" + threadPoolName + "'");
+    }
+}
@@ -19,7 +19,9 @@
 package org.quartz.utils;
 
 import java.lang.reflect.Array;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -31,6 +33,15 @@ import java.util.Set;
  * and flags itself 'dirty' when it is modified.
  * </p>
  *
+ * <p>
+ * Cloning is copy-on-write: a clone shares the wrapped <code>HashMap</code>
+ * with the original until either of them is first modified, so that maps
+ * which are cloned defensively but rarely changed cost no copying.
+ * Cloning therefore marks the original map as shared too: it is no longer
+ * a read only operation, and needs the same synchronization as a
+ * modification when the map is used by several threads.
+ * </p>
+ *
  * @author James House
  */
 public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializable {
@@ -46,6 +57,8 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
 
     private boolean dirty = false;
     private Map<K,V> map;
+    // whether map is shared with a clone, and must be copied before modifying it
+    private transient boolean shared = false;
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -90,6 +103,20 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         map = new HashMap<>(initialCapacity, loadFactor);
     }
 
+    /**
+     * <p>
+     * Create a DirtyFlagMap that 'wraps' the given <code>Map</code>, flagged
+     * dirty or not.
+     * </p>
+     */
+    protected DirtyFlagMap(final Map<K,V> wrappedMap, final boolean dirty) {
+        if (wrappedMap == null) {
+            throw new IllegalArgumentException("Wrapped map cannot be null.");
+        }
+        map = wrappedMap;
+        this.dirty = dirty;
+    }
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      *
@@ -122,14 +149,52 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
      * </p>
      */
     public Map<K,V> getWrappedMap() {
+        ensureUnshared();
         return map;
     }
 
+    /**
+     * <p>
+     * Get a handle to the underlying Map for reading only: it may be shared
+     * with clones of this map, so it must not be modified.
+     * </p>
+     */
+    protected Map<K,V> getReadOnlyWrappedMap() {
+        return map;
+    }
+
+    /**
+     * <p>
+     * Get an unmodifiable snapshot of the contents of this map, which later
+     * changes to this map don't affect.  Like a clone, the snapshot shares
+     * the underlying Map until this map is modified.
+     * </p>
+     */
+    protected Map<K,V> getSnapshotOfWrappedMap() {
+        if (map instanceof HashMap) {
+            shared = true;
+            return Collections.unmodifiableMap(map);
+        }
+        return Collections.unmodifiableMap(new HashMap<>(map));
+    }
+
+    /**
+     * Give this map its own copy of the wrapped map, if it still shares it
+     * with a clone, before it is modified.
+     */
+    private void ensureUnshared() {
+        if (shared) {
+            map = new HashMap<>(map);
+            shared = false;
+        }
+    }
+
     public void clear() {
         if (!map.isEmpty()) {
             dirty = true;
+            ensureUnshared();
+            map.clear();
         }
-        map.clear();
     }
 
     public boolean containsKey(final Object key) {
@@ -141,7 +206,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
     }
 
     public Set<Entry<K,V>> entrySet() {
-        return new DirtyFlagMapEntrySet(map.entrySet());
+        return new DirtyFlagMapEntrySet();
     }
 
     @Override
@@ -150,7 +215,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
             return false;
         }
 
-        return map.equals(((DirtyFlagMap<?,?>) obj).getWrappedMap());
+        return map.equals(((DirtyFlagMap<?,?>) obj).map);
     }
 
     @Override
@@ -168,11 +233,12 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
     }
 
     public Set<K> keySet() {
-        return new DirtyFlagSet<>(map.keySet());
+        return new DirtyFlagKeySet();
     }
 
     public V put(final K key, final V val) {
         dirty = true;
+        ensureUnshared();
 
         return map.put(key, val);
     }
@@ -180,12 +246,22 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
     public void putAll(final Map<? extends K, ? extends V> t) {
         if (!t.isEmpty()) {
             dirty = true;
+            ensureUnshared();
         }
 
-        map.putAll(t);
+        if (t instanceof DirtyFlagMap) {
+            // read the other map directly, rather than through its wrappers
+            map.putAll(((DirtyFlagMap<? extends K, ? extends V>) t).map);
+        } else {
+            map.putAll(t);
+        }
     }
 
     public V remove(final Object key) {
+        if (shared && !map.containsKey(key)) {
+            return null;
+        }
+        ensureUnshared();
         V obj = map.remove(key);
 
         if (obj != null) {
@@ -200,9 +276,16 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
     }
 
     public Collection<V> values() {
-        return new DirtyFlagCollection<>(map.values());
+        return new DirtyFlagValues();
     }
 
+    /**
+     * <p>
+     * Get a copy of this map, which shares the underlying Map with this
+     * map until either of them is modified.  This map is marked as shared
+     * as well, so cloning it counts as a write to it.
+     * </p>
+     */
     @Override
     @SuppressWarnings("unchecked") // suppress warnings on generic cast of super.clone() and map.clone() lines.
     public Object clone() {
@@ -210,7 +293,11 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         try {
             copy = (DirtyFlagMap<K,V>) super.clone();
             if (map instanceof HashMap) {
-                copy.map = (Map<K,V>)((HashMap<K,V>)map).clone();
+                // share the map until either this map or the copy is modified
+                shared = true;
+                copy.shared = true;
+            } else {
+                copy.map = new HashMap<>(map);
             }
         } catch (CloneNotSupportedException ex) {
             throw new IncompatibleClassChangeError("Not Cloneable.");
@@ -219,27 +306,38 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         return copy;
     }
 
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // a map serialized along with a clone sharing its underlying Map is
+        // read back sharing it too, so copy it before either is modified
+        shared = map instanceof HashMap;
+    }
+
     /**
-     * Wrap a Collection so we can mark the DirtyFlagMap as dirty if
-     * the underlying Collection is modified.
+     * Wrap one of the Collection views of the map so we can mark the
+     * DirtyFlagMap as dirty if the underlying Collection is modified.  The
+     * view is looked up anew for every operation, as the map may be replaced
+     * by a private copy of it in the meantime.
      */
-    private class DirtyFlagCollection<T> implements Collection<T> {
-        private final Collection<T> collection;
+    private abstract class DirtyFlagCollection<T> implements Collection<T> {
 
-        public DirtyFlagCollection(final Collection<T> c) {
-            collection = c;
-        }
+        protected abstract Collection<T> getWrappedCollection();
 
-        protected Collection<T> getWrappedCollection() {
-            return collection;
-        }
+        /**
+         * The element that an iterator over the map's entries is at.
+         */
+        protected abstract T element(Map.Entry<K,V> entry);
 
         public Iterator<T> iterator() {
-            return new DirtyFlagIterator<>(collection.iterator());
+            return new DirtyFlagIterator<>(this);
         }
 
         public boolean remove(final Object o) {
-            boolean removed = collection.remove(o);
+            if (shared && !getWrappedCollection().contains(o)) {
+                return false;
+            }
+            ensureUnshared();
+            boolean removed = getWrappedCollection().remove(o);
             if (removed) {
                 dirty = true;
             }
@@ -247,7 +345,8 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         }
 
         public boolean removeAll(final Collection<?> c) {
-            boolean changed = collection.removeAll(c);
+            ensureUnshared();
+            boolean changed = getWrappedCollection().removeAll(c);
             if (changed) {
                 dirty = true;
             }
@@ -255,7 +354,8 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         }
 
         public boolean retainAll(final Collection<?> c) {
-            boolean changed = collection.retainAll(c);
+            ensureUnshared();
+            boolean changed = getWrappedCollection().retainAll(c);
             if (changed) {
                 dirty = true;
             }
@@ -263,72 +363,109 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         }
 
         public void clear() {
-            if (!collection.isEmpty()) {
-                dirty = true;
-            }
-            collection.clear();
+            DirtyFlagMap.this.clear();
         }
 
         // Pure wrapper methods
-        public int size() { return collection.size(); }
-        public boolean isEmpty() { return collection.isEmpty(); }
-        public boolean contains(final Object o) { return collection.contains(o); }
-        public boolean add(final T o) { return collection.add(o); } // Not supported
-        public boolean addAll(final Collection<? extends T> c) { return collection.addAll(c); } // Not supported
-        public boolean containsAll(final Collection<?> c) { return collection.containsAll(c); }
-        public Object[] toArray() { return collection.toArray(); }
-        public <U> U[] toArray(final U[] array) { return collection.toArray(array); }
+        public int size() { return getWrappedCollection().size(); }
+        public boolean isEmpty() { return getWrappedCollection().isEmpty(); }
+        public boolean contains(final Object o) { return getWrappedCollection().contains(o); }
+        public boolean add(final T o) { return getWrappedCollection().add(o); } // Not supported
+        public boolean addAll(final Collection<? extends T> c) { return getWrappedCollection().addAll(c); } // Not supported
+        public boolean containsAll(final Collection<?> c) { return getWrappedCollection().containsAll(c); }
+        public Object[] toArray() { return getWrappedCollection().toArray(); }
+        public <U> U[] toArray(final U[] array) { return getWrappedCollection().toArray(array); }
     }
 
     /**
-     * Wrap a Set so we can mark the DirtyFlagMap as dirty if
+     * Wrap the key Set so we can mark the DirtyFlagMap as dirty if
      * the underlying Collection is modified.
      */
-    private class DirtyFlagSet<T> extends DirtyFlagCollection<T> implements Set<T> {
-        public DirtyFlagSet(final Set<T> set) {
-            super(set);
+    private class DirtyFlagKeySet extends DirtyFlagCollection<K> implements Set<K> {
+        @Override
+        protected Set<K> getWrappedCollection() {
+            return map.keySet();
         }
 
-        protected Set<T> getWrappedSet() {
-            return (Set<T>)getWrappedCollection();
+        @Override
+        protected K element(Map.Entry<K,V> entry) {
+            return entry.getKey();
         }
     }
 
     /**
-     * Wrap an Iterator so that we can mark the DirtyFlagMap as dirty if an
-     * element is removed.
+     * Wrap the values Collection so we can mark the DirtyFlagMap as dirty if
+     * the underlying Collection is modified.
      */
-    private class DirtyFlagIterator<T> implements Iterator<T> {
-        private final Iterator<T> iterator;
+    private class DirtyFlagValues extends DirtyFlagCollection<V> {
+        @Override
+        protected Collection<V> getWrappedCollection() {
+            return map.values();
+        }
 
-        public DirtyFlagIterator(final Iterator<T> iterator) {
-            this.iterator = iterator;
+        @Override
+        protected V element(Map.Entry<K,V> entry) {
+            return entry.getValue();
+        }
+    }
+
+    /**
+     * Iterate over one of the Collection views of the map, so that we can
+     * mark the DirtyFlagMap as dirty if an element is removed.  The iterator
+     * walks the entries of the map as it was when the iteration started; if
+     * the map is replaced by a private copy during the iteration, removals
+     * are applied to the copy by key.
+     */
+    private class DirtyFlagIterator<T> implements Iterator<T> {
+        private final DirtyFlagCollection<T> collection;
+        private final Map<K,V> iteratedMap;
+        private final Iterator<Map.Entry<K,V>> iterator;
+        private Map.Entry<K,V> current;
+
+        public DirtyFlagIterator(final DirtyFlagCollection<T> collection) {
+            this.collection = collection;
+            this.iteratedMap = map;
+            this.iterator = map.entrySet().iterator();
         }
 
         public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
             dirty = true;
-            iterator.remove();
+            ensureUnshared();
+            if (map == iteratedMap) {
+                iterator.remove();
+            } else {
+                map.remove(current.getKey());
+            }
+            current = null;
+        }
+
+        protected Map.Entry<K,V> nextEntry() {
+            current = iterator.next();
+            return current;
         }
 
-        // Pure wrapper methods
         public boolean hasNext() { return iterator.hasNext(); }
-        public T next() { return iterator.next(); }
+        public T next() { return collection.element(nextEntry()); }
     }
 
     /**
-     * Wrap a Map.Entry Set so we can mark the Map as dirty if
+     * Wrap the Map.Entry Set so we can mark the Map as dirty if
      * the Set is modified, and return Map.Entry objects
      * wrapped in the <code>DirtyFlagMapEntry</code> class.
      */
-    private class DirtyFlagMapEntrySet extends DirtyFlagSet<Map.Entry<K,V>> {
+    private class DirtyFlagMapEntrySet extends DirtyFlagCollection<Map.Entry<K,V>> implements Set<Map.Entry<K,V>> {
 
-        public DirtyFlagMapEntrySet(final Set<Map.Entry<K,V>> set) {
-            super(set);
+        @Override
+        protected Set<Map.Entry<K,V>> getWrappedCollection() {
+            return map.entrySet();
         }
 
         @Override
-        public Iterator<Map.Entry<K,V>> iterator() {
-            return new DirtyFlagMapEntryIterator(getWrappedSet().iterator());
+        protected Map.Entry<K,V> element(Map.Entry<K,V> entry) {
+            return new DirtyFlagMapEntry(entry);
         }
 
         @Override
@@ -362,34 +499,30 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         }
     }
 
-    /**
-     * Wrap an Iterator over Map.Entry objects so that we can
-     * mark the Map as dirty if an element is removed or modified.
-     */
-    private class DirtyFlagMapEntryIterator extends DirtyFlagIterator<Map.Entry<K,V>> {
-        public DirtyFlagMapEntryIterator(final Iterator<Map.Entry<K,V>> iterator) {
-            super(iterator);
-        }
-
-        @Override
-        public DirtyFlagMapEntry next() {
-            return new DirtyFlagMapEntry(super.next());
-        }
-    }
-
     /**
      * Wrap a Map.Entry so we can mark the Map as dirty if
      * a value is set.
      */
     private class DirtyFlagMapEntry implements Map.Entry<K,V> {
-        private final Map.Entry<K,V> entry;
+        private final Map<K,V> entryMap;
+        private Map.Entry<K,V> entry;
 
         public DirtyFlagMapEntry(final Map.Entry<K,V> entry) {
+            this.entryMap = map;
             this.entry = entry;
         }
 
         public V setValue(final V o) {
             dirty = true;
+            ensureUnshared();
+            if (map != entryMap && !(entry instanceof SimpleEntry)) {
+                // the entry belongs to the map as it was before it was copied
+                entry = new SimpleEntry<>(entry);
+            }
+            if (entry instanceof SimpleEntry) {
+                entry.setValue(o);
+                return map.put(entry.getKey(), o);
+            }
             return entry.setValue(o);
         }
 
@@ -397,6 +530,6 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         public K getKey() { return entry.getKey(); }
         public V getValue() { return entry.getValue(); }
         public boolean equals(Object o) { return entry.equals(o); }
+        public int hashCode() { return entry.hashCode(); }
     }
 }
-
@@ -0,0 +1,182 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.quartz.JobKey;
+
+/**
+ * <p>
+ * The most executions of the jobs of a group, or of a single job, that may be
+ * in flight (acquired or executing) at once.  Job stores that support limits
+ * skip the triggers of a saturated group or job when acquiring triggers,
+ * leaving the threads to other groups, and acquire them again once an
+ * execution completes.
+ * </p>
+ *
+ * <p>
+ * Limits are configured as comma-separated <code>name=limit</code> pairs: job
+ * group names for group limits (<code>reports=2, batch=4</code>), and
+ * <code>group.name</code> job keys for job limits (the group ends at the first
+ * dot).
+ * </p>
+ *
+ * @see org.quartz.simpl.RAMJobStore#setJobGroupConcurrencyLimits(String)
+ * @see org.quartz.impl.jdbcjobstore.JobStoreSupport#setJobGroupConcurrencyLimits(String)
+ */
+public class JobConcurrencyLimits {
+
+    /**
+     * No limits.
+     */
+    public static final JobConcurrencyLimits NONE = new JobConcurrencyLimits(
+            Collections.<String, Integer>emptyMap(), Collections.<JobKey, Integer>emptyMap());
+
+    private final Map<String, Integer> groupLimits;
+
+    private final Map<JobKey, Integer> jobLimits;
+
+    public JobConcurrencyLimits(Map<String, Integer> groupLimits, Map<JobKey, Integer> jobLimits) {
+        this.groupLimits = Collections.unmodifiableMap(new HashMap<>(groupLimits));
+        this.jobLimits = Collections.unmodifiableMap(new HashMap<>(jobLimits));
+    }
+
+    /**
+     * Parse the given group and job limits.
+     *
+     * @throws IllegalArgumentException if a limit is malformed or negative
+     */
+    public static JobConcurrencyLimits parse(String groupLimits, String jobLimits) {
+        Map<JobKey, Integer> jobs = new HashMap<>();
+        for (Map.Entry<String, Integer> limit : parseLimits(jobLimits).entrySet()) {
+            int dot = limit.getKey().indexOf('.');
+            if (dot <= 0 || dot == limit.getKey().length() - 1) {
+                throw new IllegalArgumentException("Job concurrency limit '" + limit.getKey()
+                        + "' must name a job as group.name");
+            }
+            jobs.put(new JobKey(limit.getKey().substring(dot + 1), limit.getKey().substring(0, dot)), limit.getValue());
+        }
+        return new JobConcurrencyLimits(parseLimits(groupLimits), jobs);
+    }
+
+    private static Map<String, Integer> parseLimits(String limits) {
+        Map<String, Integer> result = new HashMap<>();
+        if (limits == null || limits.trim().isEmpty()) {
+            return result;
+        }
+        for (String limit : limits.split(",")) {
+            int eq = limit.lastIndexOf('=');
+            String name = eq > 0 ? limit.substring(0, eq).trim() : "";
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Concurrency limit '" + limit.trim() + "' must be of the form name=limit");
+            }
+            int value;
+            try {
+                value = Integer.parseInt(limit.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Concurrency limit of '" + name + "' is not a number");
+            }
+            if (value < 0) {
+                throw new IllegalArgumentException("Concurrency limit of '" + name + "' must be >= 0");
+            }
+            result.put(name, value);
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return groupLimits.isEmpty() && jobLimits.isEmpty();
+    }
+
+    public Map<String, Integer> getGroupLimits() {
+        return groupLimits;
+    }
+
+    public Map<JobKey, Integer> getJobLimits() {
+        return jobLimits;
+    }
+
+    /**
+     * Determine whether executions of the given job are limited, by the
+     * limit of its group or its own.
+     */
+    public boolean isLimited(JobKey jobKey) {
+        return groupLimits.containsKey(jobKey.getGroup()) || jobLimits.containsKey(jobKey);
+    }
+
+    /**
+     * Determine whether another execution of the given job may be admitted,
+     * given the executions in flight.
+     */
+    public boolean admits(JobKey jobKey, Counts inFlight) {
+        Integer groupLimit = groupLimits.get(jobKey.getGroup());
+        if (groupLimit != null && inFlight.getGroupCount(jobKey.getGroup()) >= groupLimit) {
+            return false;
+        }
+        Integer jobLimit = jobLimits.get(jobKey);
+        return jobLimit == null || inFlight.getJobCount(jobKey) < jobLimit;
+    }
+
+    /**
+     * Counts of executions in flight, by group and by job.  Not thread-safe.
+     */
+    public static class Counts {
+
+        private final Map<String, Integer> groupCounts = new HashMap<>();
+
+        private final Map<JobKey, Integer> jobCounts = new HashMap<>();
+
+        public int getGroupCount(String group) {
+            Integer count = groupCounts.get(group);
+            return count == null ? 0 : count;
+        }
+
+        public int getJobCount(JobKey jobKey) {
+            Integer count = jobCounts.get(jobKey);
+            return count == null ? 0 : count;
+        }
+
+        public boolean hasGroupCount(String group) {
+            return groupCounts.containsKey(group);
+        }
+
+        public boolean hasJobCount(JobKey jobKey) {
+            return jobCounts.containsKey(jobKey);
+        }
+
+        public void setGroupCount(String group, int count) {
+            groupCounts.put(group, count);
+        }
+
+        public void setJobCount(JobKey jobKey, int count) {
+            jobCounts.put(jobKey, count);
+        }
+
+        /**
+         * Count an execution of the given job in or out, for its group and
+         * itself.
+         */
+        public void add(JobKey jobKey, int delta) {
+            groupCounts.merge(jobKey.getGroup(), delta, Integer::sum);
+            jobCounts.merge(jobKey, delta, Integer::sum);
+        }
+    }
+}
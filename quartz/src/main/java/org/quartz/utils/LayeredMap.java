@@ -0,0 +1,309 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * A <code>Map</code> that presents the entries of a 'top' map layered over
+ * the entries of a 'bottom' map, without copying either of them.  Where both
+ * maps contain the same key, the value from the top map wins.
+ * </p>
+ *
+ * <p>
+ * The view is read-through until it is first modified, at which point the
+ * merged contents are copied into a private <code>HashMap</code> and all
+ * further operations go to that copy.  The layered maps themselves are never
+ * modified through this view.
+ * </p>
+ *
+ * <p>
+ * Until the first modification, changes made directly to the layered maps
+ * are visible through the view.
+ * </p>
+ */
+public class LayeredMap<K,V> extends AbstractMap<K,V> implements java.io.Serializable {
+
+    private static final long serialVersionUID = 4471923208016284427L;
+
+    private Map<K,V> top;
+
+    private Map<K,V> bottom;
+
+    private Map<K,V> copy;
+
+    private transient Set<Entry<K,V>> entrySet;
+
+    /**
+     * <p>
+     * Create a view of the <code>top</code> map layered over the
+     * <code>bottom</code> map.
+     * </p>
+     */
+    public LayeredMap(Map<K,V> top, Map<K,V> bottom) {
+        if (top == null || bottom == null) {
+            throw new IllegalArgumentException("Layered maps cannot be null.");
+        }
+        this.top = top;
+        this.bottom = bottom;
+    }
+
+    /**
+     * <p>
+     * Determine whether this view has been modified, and therefore holds its
+     * own copy of the merged data.
+     * </p>
+     */
+    public boolean isCopied() {
+        return copy != null;
+    }
+
+    private Map<K,V> materialize() {
+        if (copy == null) {
+            Map<K,V> merged = new HashMap<>(Math.max(16, (int) ((bottom.size() + top.size()) / .75f) + 1));
+            merged.putAll(bottom);
+            merged.putAll(top);
+            copy = merged;
+            top = null;
+            bottom = null;
+        }
+        return copy;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (copy != null) {
+            return copy.get(key);
+        }
+        V val = top.get(key);
+        if (val != null || top.containsKey(key)) {
+            return val;
+        }
+        return bottom.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (copy != null) {
+            return copy.containsKey(key);
+        }
+        return top.containsKey(key) || bottom.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        if (copy != null) {
+            return copy.size();
+        }
+        if (top.isEmpty()) {
+            return bottom.size();
+        }
+        if (bottom.isEmpty()) {
+            return top.size();
+        }
+        int size = bottom.size();
+        for (K key : top.keySet()) {
+            if (!bottom.containsKey(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (copy != null) {
+            return copy.isEmpty();
+        }
+        return top.isEmpty() && bottom.isEmpty();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (!m.isEmpty()) {
+            materialize().putAll(m);
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (copy == null && !containsKey(key)) {
+            return null;
+        }
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (copy == null) {
+            copy = new HashMap<>();
+            top = null;
+            bottom = null;
+        } else {
+            copy.clear();
+        }
+    }
+
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        if (copy != null) {
+            return copy.entrySet();
+        }
+        if (entrySet == null) {
+            entrySet = new LayeredEntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Entry set over the layered maps: all entries of the top map, followed
+     * by the entries of the bottom map whose keys are not in the top map.
+     * Once the view has been copied this delegates to the copy's entry set.
+     */
+    private class LayeredEntrySet extends AbstractSet<Entry<K,V>> {
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            if (copy != null) {
+                return copy.entrySet().iterator();
+            }
+            return new LayeredIterator(top, bottom);
+        }
+
+        @Override
+        public int size() {
+            return LayeredMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            LayeredMap.this.clear();
+        }
+    }
+
+    /**
+     * Iterates the layers as they were when the iterator was created.
+     * Removals and value updates are applied to the copy.
+     */
+    private class LayeredIterator implements Iterator<Entry<K,V>> {
+        private final Map<K,V> topLayer;
+        private final Map<K,V> bottomLayer;
+        private Iterator<Entry<K,V>> current;
+        private boolean onTop = true;
+        private Entry<K,V> next;
+        private Entry<K,V> last;
+
+        LayeredIterator(Map<K,V> top, Map<K,V> bottom) {
+            this.topLayer = top;
+            this.current = top.entrySet().iterator();
+            this.bottomLayer = bottom;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (true) {
+                if (current.hasNext()) {
+                    Entry<K,V> e = current.next();
+                    if (onTop || !topLayer.containsKey(e.getKey())) {
+                        next = e;
+                        return;
+                    }
+                } else if (onTop) {
+                    onTop = false;
+                    current = bottomLayer.entrySet().iterator();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Entry<K,V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = new LayeredEntry(next);
+            advance();
+            return last;
+        }
+
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            materialize().remove(last.getKey());
+            last = null;
+        }
+    }
+
+    private class LayeredEntry implements Entry<K,V> {
+        private final K key;
+        private V value;
+
+        LayeredEntry(Entry<K,V> entry) {
+            this.key = entry.getKey();
+            this.value = entry.getValue();
+        }
+
+        public K getKey() { return key; }
+        public V getValue() { return value; }
+
+        public V setValue(V value) {
+            V old = this.value;
+            materialize().put(key, value);
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+                    && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
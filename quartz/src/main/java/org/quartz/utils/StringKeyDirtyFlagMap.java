@@ -17,6 +17,7 @@
 package org.quartz.utils;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * <p>
@@ -52,6 +53,10 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
         super(initialCapacity, loadFactor);
     }
 
+    protected StringKeyDirtyFlagMap(Map<String, Object> wrappedMap, boolean dirty) {
+        super(wrappedMap, dirty);
+    }
+
     @Override
     public boolean equals(Object obj) {
         return super.equals(obj);
@@ -60,7 +65,7 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
     @Override
     public int hashCode()
     {
-        return getWrappedMap().hashCode();
+        return getReadOnlyWrappedMap().hashCode();
     }
     
     /**
@@ -0,0 +1,153 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.quartz.JobKey;
+
+/**
+ * <p>
+ * Which of the scheduler's named thread pools (its bulkheads) the jobs of
+ * given groups, or given jobs, run on.  Jobs that aren't routed run on the
+ * scheduler's main thread pool.  Each named thread pool has its own scheduler
+ * thread, which only acquires the triggers of the jobs routed to it, and only
+ * as many as its pool has threads available, so that jobs routed to a busy
+ * pool can't hold up the jobs of other pools.
+ * </p>
+ *
+ * <p>
+ * Routes are configured per thread pool as comma-separated job group names,
+ * where a name ending with <code>*</code> matches the groups starting with
+ * the rest of it (<code>batch, reports-*</code>), and as comma-separated
+ * <code>group.name</code> job keys (the group ends at the first dot).  A job
+ * routed by its key goes to that pool whatever its group, an exact group name
+ * takes precedence over a group prefix, and a longer prefix over a shorter
+ * one.
+ * </p>
+ *
+ * @see org.quartz.spi.TriggerPartition#containsJob(JobKey)
+ */
+public class ThreadPoolRoutes {
+
+    /**
+     * No named thread pools.
+     */
+    public static final ThreadPoolRoutes NONE = new ThreadPoolRoutes(
+            Collections.<String, String>emptyMap(), Collections.<String, String>emptyMap());
+
+    private final List<String> threadPoolNames;
+
+    private final Map<JobKey, String> jobRoutes = new HashMap<>();
+
+    private final Map<String, String> groupRoutes = new HashMap<>();
+
+    private final Map<String, String> groupPrefixRoutes = new HashMap<>();
+
+    /**
+     * @param jobGroupsByThreadPool the comma-separated job groups routed to
+     * each named thread pool
+     * @param jobsByThreadPool the comma-separated job keys routed to each
+     * named thread pool
+     * @throws IllegalArgumentException if a job key is malformed, or a group,
+     * group prefix or job is routed to more than one pool
+     */
+    public ThreadPoolRoutes(Map<String, String> jobGroupsByThreadPool, Map<String, String> jobsByThreadPool) {
+        LinkedHashSet<String> names = new LinkedHashSet<>(jobGroupsByThreadPool.keySet());
+        names.addAll(jobsByThreadPool.keySet());
+        this.threadPoolNames = Collections.unmodifiableList(new ArrayList<>(names));
+
+        for (Map.Entry<String, String> route : jobGroupsByThreadPool.entrySet()) {
+            for (String group : split(route.getValue())) {
+                if (group.endsWith("*")) {
+                    put(groupPrefixRoutes, group.substring(0, group.length() - 1), route.getKey(), "Job group prefix");
+                } else {
+                    put(groupRoutes, group, route.getKey(), "Job group");
+                }
+            }
+        }
+        for (Map.Entry<String, String> route : jobsByThreadPool.entrySet()) {
+            for (String job : split(route.getValue())) {
+                int dot = job.indexOf('.');
+                if (dot <= 0 || dot == job.length() - 1) {
+                    throw new IllegalArgumentException("Job '" + job + "' routed to thread pool '" + route.getKey()
+                            + "' must be named as group.name");
+                }
+                put(jobRoutes, new JobKey(job.substring(dot + 1), job.substring(0, dot)), route.getKey(), "Job");
+            }
+        }
+    }
+
+    private static List<String> split(String names) {
+        List<String> result = new ArrayList<>();
+        if (names != null) {
+            for (String name : names.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    result.add(name.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static <K> void put(Map<K, String> routes, K key, String threadPool, String what) {
+        String other = routes.put(key, threadPool);
+        if (other != null && !other.equals(threadPool)) {
+            throw new IllegalArgumentException(what + " '" + key + "' is routed to both thread pools '" + other
+                    + "' and '" + threadPool + "'");
+        }
+    }
+
+    public boolean isEmpty() {
+        return threadPoolNames.isEmpty();
+    }
+
+    /**
+     * Get the names of the thread pools that jobs are routed to, in the order
+     * they were configured.
+     */
+    public List<String> getThreadPoolNames() {
+        return threadPoolNames;
+    }
+
+    /**
+     * Get the name of the thread pool that the given job runs on, or
+     * <code>null</code> if it runs on the main thread pool.
+     */
+    public String getThreadPool(JobKey jobKey) {
+        String threadPool = jobRoutes.get(jobKey);
+        if (threadPool == null) {
+            threadPool = groupRoutes.get(jobKey.getGroup());
+        }
+        if (threadPool == null && !groupPrefixRoutes.isEmpty()) {
+            int longest = -1;
+            for (Map.Entry<String, String> route : groupPrefixRoutes.entrySet()) {
+                if (route.getKey().length() > longest && jobKey.getGroup().startsWith(route.getKey())) {
+                    longest = route.getKey().length();
+                    threadPool = route.getValue();
+                }
+            }
+        }
+        return threadPool;
+    }
+}
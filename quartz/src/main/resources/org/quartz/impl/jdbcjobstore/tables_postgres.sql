@@ -203,5 +203,8 @@ CREATE INDEX IDX_QRTZ_FT_T_G
 CREATE INDEX IDX_QRTZ_FT_TG
   ON QRTZ_FIRED_TRIGGERS (SCHED_NAME, TRIGGER_GROUP);
 
+CREATE INDEX IDX_QRTZ_SS_CHECKIN
+  ON QRTZ_SCHEDULER_STATE (SCHED_NAME, LAST_CHECKIN_TIME);
+
 
 COMMIT;
@@ -17,6 +17,7 @@
 package org.quartz;
 
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -531,6 +532,88 @@ public abstract class AbstractJobStoreTest  {
 			assertEquals("job" + i, triggers.get(i).getKey().getName());
 		}
 	}
+
+    @Test
+    void testAcquireTriggersByPartition() throws Exception {
+        SchedulerSignaler schedSignaler = new SampleSignaler();
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+
+        JobStore store = createJobStore("testAcquireTriggersByPartition");
+        store.initialize(loadHelper, schedSignaler);
+
+        // Setup: Store jobs and triggers, all due at the same time.
+        long MIN = 60 * 1000L;
+        Date startTime = new Date(System.currentTimeMillis() + MIN);
+        for (int i=0; i < 20; i++) {
+            JobDetail job = JobBuilder.newJob(MyJob.class).withIdentity("job" + i).build();
+            OperableTrigger trigger = (OperableTrigger)TriggerBuilder.newTrigger().withIdentity("trigger" + i, "group" + i)
+                    .withSchedule(SimpleScheduleBuilder.repeatMinutelyForever(2)).forJob(job).startAt(startTime).build();
+            trigger.computeFirstFireTime(null);
+            store.storeJobAndTrigger(job, trigger);
+        }
+
+        // each partition gets exactly its own triggers, and together they get all of them
+        int partitionCount = 3;
+        Set<TriggerKey> acquired = new HashSet<>();
+        for (int p=0; p < partitionCount; p++) {
+            TriggerPartition partition = new TriggerPartition(p, partitionCount, false);
+            List<OperableTrigger> triggers = store.acquireNextTriggers(startTime.getTime(), 20, 0L, partition);
+            for (OperableTrigger trigger : triggers) {
+                assertTrue(partition.contains(trigger.getKey()), trigger.getKey() + " acquired by " + partition);
+                assertTrue(acquired.add(trigger.getKey()));
+            }
+        }
+        assertEquals(20, acquired.size());
+    }
+
+    @Test
+    void testAcquireTriggersOfPartitionBehindOtherPartitions() throws Exception {
+        SchedulerSignaler schedSignaler = new SampleSignaler();
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+
+        JobStore store = createJobStore("testAcquireTriggersOfPartitionBehindOtherPartitions");
+        store.initialize(loadHelper, schedSignaler);
+
+        // Setup: one trigger of partition 0, due after many of partition 1.
+        long MIN = 60 * 1000L;
+        long startTime = System.currentTimeMillis() + MIN;
+        TriggerPartition own = new TriggerPartition(0, 2, false);
+        TriggerPartition other = new TriggerPartition(1, 2, false);
+        TriggerKey ownKey = null;
+        int otherCount = 0;
+        for (int i=0; ownKey == null || otherCount < 50; i++) {
+            TriggerKey key = new TriggerKey("trigger" + i, "group");
+            boolean isOwn = own.contains(key);
+            if (isOwn && (ownKey != null || otherCount < 50)) {
+                continue;
+            }
+            JobDetail job = JobBuilder.newJob(MyJob.class).withIdentity("job" + i).build();
+            OperableTrigger trigger = (OperableTrigger)TriggerBuilder.newTrigger().withIdentity(key)
+                    .withSchedule(SimpleScheduleBuilder.repeatMinutelyForever(2)).forJob(job)
+                    .startAt(new Date(startTime + i * 1000L)).build();
+            trigger.computeFirstFireTime(null);
+            store.storeJobAndTrigger(job, trigger);
+            if (isOwn) {
+                ownKey = key;
+            } else {
+                otherCount++;
+            }
+        }
+
+        List<OperableTrigger> triggers = store.acquireNextTriggers(startTime + 10 * MIN, 1, 0L, own);
+        assertEquals(1, triggers.size());
+        assertEquals(ownKey, triggers.get(0).getKey());
+
+        // the triggers passed over are still acquired in order
+        triggers = store.acquireNextTriggers(startTime + 10 * MIN, 50, 10 * MIN, other);
+        assertEquals(50, triggers.size());
+        for (int i=1; i < triggers.size(); i++) {
+            assertTrue(triggers.get(i - 1).getNextFireTime().before(triggers.get(i).getNextFireTime()));
+        }
+    }
+
 @Test
     void testResetErrorTrigger() throws Exception {
 
@@ -568,6 +651,31 @@ public abstract class AbstractJobStoreTest  {
         assertEquals(TriggerState.NORMAL, state);
     }
 
+    @Test
+    void testWaitingTriggerOfExecutingNonConcurrentJobIsBlocked() throws Exception {
+        JobDetailImpl job = new JobDetailImpl("nonConcurrent", "jobGroup1",
+                AbstractSchedulerTest.TestAnnotatedJob.class, true, false);
+        this.fJobStore.storeJob(job, false);
+        long now = System.currentTimeMillis();
+        OperableTrigger firing = new SimpleTriggerImpl("firing", "triggerGroup1", job.getName(), job.getGroup(),
+                new Date(now), null, 0, 0L);
+        OperableTrigger waiting = new SimpleTriggerImpl("waiting", "triggerGroup1", job.getName(), job.getGroup(),
+                new Date(now + 3600000L), null, 0, 0L);
+        firing.computeFirstFireTime(null);
+        waiting.computeFirstFireTime(null);
+        this.fJobStore.storeTrigger(firing, false);
+        this.fJobStore.storeTrigger(waiting, false);
+
+        List<OperableTrigger> acquired = this.fJobStore.acquireNextTriggers(now + 10000L, 1, 0L);
+        assertEquals(firing.getKey(), acquired.get(0).getKey());
+        TriggerFiredResult fired = this.fJobStore.triggersFired(acquired).get(0);
+        assertEquals(TriggerState.BLOCKED, this.fJobStore.getTriggerState(waiting.getKey()));
+
+        this.fJobStore.triggeredJobComplete(fired.getTriggerFiredBundle().getTrigger(),
+                fired.getTriggerFiredBundle().getJobDetail(), Trigger.CompletedExecutionInstruction.NOOP);
+        assertEquals(TriggerState.NORMAL, this.fJobStore.getTriggerState(waiting.getKey()));
+    }
+
     public static class SampleSignaler implements SchedulerSignaler {
         volatile int fMisfireCount = 0;
 
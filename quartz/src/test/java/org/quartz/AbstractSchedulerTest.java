@@ -24,11 +24,15 @@ import static org.quartz.TriggerBuilder.newTrigger;
 import static org.quartz.TriggerKey.triggerKey;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -37,6 +41,7 @@ import org.junit.jupiter.api.Test;
 
 import org.quartz.Trigger.TriggerState;
 import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.JobListenerSupport;
 
 
 
@@ -48,6 +53,7 @@ public abstract class AbstractSchedulerTest {
     private static final String BARRIER = "BARRIER";
     private static final String DATE_STAMPS = "DATE_STAMPS";
     private static final String JOB_THREAD = "JOB_THREAD";
+    private static final String ASYNC_WORK = "ASYNC_WORK";
 
     @SuppressWarnings("deprecation")
     public static class TestStatefulJob implements StatefulJob {
@@ -83,6 +89,19 @@ public abstract class AbstractSchedulerTest {
         }
     }
     
+    public static class TestAsyncJob implements AsyncJob {
+        public CompletionStage<Void> executeAsync(JobExecutionContext context)
+                throws JobExecutionException {
+            CompletableFuture<Void> work = new CompletableFuture<>();
+            try {
+                context.getScheduler().getContext().put(ASYNC_WORK, work);
+            } catch (SchedulerException e) {
+                throw new JobExecutionException(e);
+            }
+            return work;
+        }
+    }
+
     @DisallowConcurrentExecution
     @PersistJobDataAfterExecution
     public static class TestAnnotatedJob implements Job {
@@ -469,6 +488,170 @@ public abstract class AbstractSchedulerTest {
 		sched.shutdown(true);
 	}
 
+    @Test
+    void testBulkScheduleAndUnscheduleJobs() throws Exception {
+        Scheduler sched = createScheduler("testBulkScheduleAndUnscheduleJobs", 2);
+        try {
+            // more triggers per job than are bound into one statement by the JDBC job stores
+            Map<JobDetail, Set<? extends Trigger>> toSchedule = new LinkedHashMap<>();
+            for (int j = 1; j <= 3; j++) {
+                JobDetail job = newJob(TestJob.class).withIdentity("job" + j, "bulk").build();
+                Set<Trigger> triggers = new HashSet<>();
+                for (int t = 0; t < 150; t++) {
+                    triggers.add(newTrigger().withIdentity("trigger" + j + "_" + t, "bulk")
+                            .startAt(DateBuilder.futureDate(1, DateBuilder.IntervalUnit.HOUR)).build());
+                }
+                toSchedule.put(job, triggers);
+            }
+            JobDetail durableJob = newJob(TestJob.class).withIdentity("durable", "bulk").storeDurably().build();
+            toSchedule.put(durableJob, Collections.<Trigger>emptySet());
+            sched.scheduleJobs(toSchedule, false);
+
+            assertEquals(4, sched.getJobKeys(GroupMatcher.jobGroupEquals("bulk")).size());
+            assertEquals(450, sched.getTriggerKeys(GroupMatcher.triggerGroupEquals("bulk")).size());
+            assertEquals(150, sched.getTriggersOfJob(jobKey("job2", "bulk")).size());
+
+            try {
+                sched.scheduleJobs(Collections.<JobDetail, Set<? extends Trigger>>singletonMap(
+                        newJob(TestJob.class).withIdentity("job4", "bulk").build(),
+                        Collections.singleton(newTrigger().withIdentity("trigger1_0", "bulk").startNow().build())), false);
+                fail("Expected ObjectAlreadyExistsException for the existing trigger");
+            } catch (ObjectAlreadyExistsException e) {
+                // expected
+            }
+            assertFalse(sched.checkExists(jobKey("job4", "bulk")));
+
+            // unscheduling all triggers of a non-durable job removes it too
+            List<TriggerKey> job1Triggers = new ArrayList<>();
+            for (Trigger trigger : sched.getTriggersOfJob(jobKey("job1", "bulk"))) {
+                job1Triggers.add(trigger.getKey());
+            }
+            assertTrue(sched.unscheduleJobs(job1Triggers));
+            assertFalse(sched.checkExists(jobKey("job1", "bulk")));
+            assertFalse(sched.unscheduleJobs(Collections.singletonList(triggerKey("missing", "bulk"))));
+
+            assertTrue(sched.deleteJobs(Arrays.asList(jobKey("job2", "bulk"), jobKey("job3", "bulk"))));
+            assertTrue(sched.getTriggerKeys(GroupMatcher.triggerGroupEquals("bulk")).isEmpty());
+            assertEquals(Collections.singleton(durableJob.getKey()), sched.getJobKeys(GroupMatcher.jobGroupEquals("bulk")));
+            assertFalse(sched.deleteJobs(Arrays.asList(jobKey("durable", "bulk"), jobKey("job2", "bulk"))));
+
+            // the trigger that will never fire is named, and nothing is stored
+            try {
+                sched.scheduleJobs(Collections.<JobDetail, Set<? extends Trigger>>singletonMap(
+                        newJob(TestJob.class).withIdentity("job5", "bulk").build(),
+                        Collections.singleton(newTrigger().withIdentity("past", "bulk")
+                                .withSchedule(CronScheduleBuilder.cronSchedule("0 0 0 1 1 ? 2000")).build())), false);
+                fail("Expected SchedulerException for the trigger that will never fire");
+            } catch (SchedulerException e) {
+                assertTrue(e.getMessage().contains("bulk.past"), e.getMessage());
+            }
+            assertFalse(sched.checkExists(jobKey("job5", "bulk")));
+        } finally {
+            sched.shutdown(true);
+        }
+    }
+
+    @Test
+    void testScheduleTasks() throws Exception {
+        List<Long> jobExecTimestamps = Collections.synchronizedList(new ArrayList<Long>());
+        CyclicBarrier barrier = new CyclicBarrier(3);
+
+        Scheduler sched = createScheduler("testScheduleTasks", 5);
+        sched.getContext().put(BARRIER, barrier);
+        sched.getContext().put(DATE_STAMPS, jobExecTimestamps);
+        try {
+            JobDetail job = newJob(TestJobWithSync.class).withIdentity("taskJob").storeDurably().build();
+            sched.addJob(job, false);
+
+            List<JobDataMap> taskData = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                JobDataMap data = new JobDataMap();
+                data.put("task", i);
+                taskData.add(data);
+            }
+            List<TriggerKey> keys = sched.scheduleTasks(job.getKey(), 0L, taskData);
+            assertEquals(2, keys.size());
+            for (TriggerKey key : keys) {
+                assertEquals(Scheduler.DEFAULT_TASK_GROUP, key.getGroup());
+                assertTrue(TriggerUtils.isTask(sched.getTrigger(key)));
+            }
+            assertEquals(2, sched.getTriggersOfJob(job.getKey()).size());
+
+            sched.start();
+            barrier.await(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(2, jobExecTimestamps.size());
+            assertTrue(sched.getTriggerKeys(GroupMatcher.triggerGroupEquals(Scheduler.DEFAULT_TASK_GROUP)).isEmpty());
+
+            try {
+                sched.scheduleTask(jobKey("missing"), 0L, null);
+                fail("Expected JobPersistenceException for the missing job");
+            } catch (JobPersistenceException e) {
+                // expected
+            }
+            try {
+                sched.scheduleTasks(job.getKey(), 0L, null);
+                fail("Expected SchedulerException for null task data");
+            } catch (SchedulerException e) {
+                // expected
+            }
+        } finally {
+            sched.shutdown(true);
+        }
+    }
+
+    @Test
+    void testAsyncJobGivesItsThreadBack() throws Exception {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> completingThreads = Collections.synchronizedList(new ArrayList<>());
+        Scheduler scheduler = createScheduler("testAsyncJobGivesItsThreadBack", 1);
+        try {
+            scheduler.getListenerManager().addJobListener(new JobListenerSupport() {
+                public String getName() {
+                    return "executed";
+                }
+
+                @Override
+                public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+                    executed.add(context.getJobDetail().getKey().getName());
+                    completingThreads.add(Thread.currentThread());
+                }
+            });
+            scheduler.start();
+            scheduler.addJob(newJob(TestAsyncJob.class).withIdentity("async").storeDurably().build(), false);
+            scheduler.addJob(newJob(TestJob.class).withIdentity("sync").storeDurably().build(), false);
+
+            scheduler.triggerJob(jobKey("async"));
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS);
+            while (scheduler.getContext().get(ASYNC_WORK) == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Void> work = (CompletableFuture<Void>) scheduler.getContext().get(ASYNC_WORK);
+            assertNotNull(work);
+
+            // the pool's only thread is free for another job while the async job's work goes on
+            scheduler.triggerJob(jobKey("sync"));
+            while (!executed.contains("sync") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Collections.singletonList("sync"), executed);
+            assertEquals(1, scheduler.getCurrentlyExecutingJobs().size());
+
+            // the scheduler completes the execution, rather than the thread that completed the work
+            work.complete(null);
+            while ((!executed.contains("async") || !scheduler.getCurrentlyExecutingJobs().isEmpty())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Arrays.asList("sync", "async"), executed);
+            assertNotSame(Thread.currentThread(), completingThreads.get(1));
+            assertTrue(scheduler.getCurrentlyExecutingJobs().isEmpty());
+            assertTrue(scheduler.getTriggerKeys(GroupMatcher.anyTriggerGroup()).isEmpty());
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
     @Test
     void testShutdownWithoutWaitIsUnclean() throws Exception {
         CyclicBarrier barrier = new CyclicBarrier(2);
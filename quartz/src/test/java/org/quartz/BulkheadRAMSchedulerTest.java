@@ -0,0 +1,101 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * Runs the scheduler tests against a RAMJobStore scheduler with a named
+ * thread pool for the jobs of the "batch" groups.
+ */
+public class BulkheadRAMSchedulerTest extends AbstractSchedulerTest {
+
+    @Override
+    protected Scheduler createScheduler(String name, int threadPoolSize) throws SchedulerException {
+        Properties config = new Properties();
+        config.setProperty("org.quartz.scheduler.instanceName", name + "Scheduler");
+        config.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        config.setProperty("org.quartz.threadPool.threadCount", Integer.toString(threadPoolSize));
+        config.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        config.setProperty("org.quartz.threadPool.batch.threadCount", "1");
+        config.setProperty("org.quartz.threadPool.batch.jobGroups", "batch*");
+        return new StdSchedulerFactory(config).getScheduler();
+    }
+
+    public static class BlockingJob implements Job {
+        static CountDownLatch started;
+        static CountDownLatch release;
+        static volatile String threadName;
+
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            threadName = Thread.currentThread().getName();
+            started.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new JobExecutionException(e);
+            }
+        }
+    }
+
+    public static class InteractiveJob implements Job {
+        static CountDownLatch ran;
+        static volatile String threadName;
+
+        public void execute(JobExecutionContext context) {
+            threadName = Thread.currentThread().getName();
+            ran.countDown();
+        }
+    }
+
+    @Test
+    void testBusyThreadPoolDoesNotHoldUpOtherJobs() throws Exception {
+        BlockingJob.started = new CountDownLatch(1);
+        BlockingJob.release = new CountDownLatch(1);
+        InteractiveJob.ran = new CountDownLatch(1);
+
+        Scheduler scheduler = createScheduler("testBusyThreadPoolDoesNotHoldUpOtherJobs", 1);
+        try {
+            scheduler.start();
+            // the second batch job is due (and waits for the batch pool's only
+            // thread) before the interactive one
+            scheduler.scheduleJob(newJob(BlockingJob.class).withIdentity("first", "batch-nightly").build(),
+                    newTrigger().withIdentity("first", "batch-nightly").startNow().build());
+            assertTrue(BlockingJob.started.await(10, TimeUnit.SECONDS), "batch job didn't start");
+            scheduler.scheduleJob(newJob(BlockingJob.class).withIdentity("second", "batch-nightly").build(),
+                    newTrigger().withIdentity("second", "batch-nightly").startNow().build());
+            scheduler.scheduleJob(newJob(InteractiveJob.class).withIdentity("interactive").build(),
+                    newTrigger().withIdentity("interactive").startAt(DateBuilder.futureDate(100, DateBuilder.IntervalUnit.MILLISECOND)).build());
+
+            assertTrue(InteractiveJob.ran.await(10, TimeUnit.SECONDS), "interactive job was held up by the batch pool");
+            assertTrue(BlockingJob.threadName.contains("_batch_Worker"), BlockingJob.threadName);
+            assertTrue(!InteractiveJob.threadName.contains("_batch_Worker"), InteractiveJob.threadName);
+        } finally {
+            BlockingJob.release.countDown();
+            scheduler.shutdown(true);
+        }
+    }
+}
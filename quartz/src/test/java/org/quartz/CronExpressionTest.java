@@ -529,6 +529,28 @@ public class CronExpressionTest extends SerializationTestSupport {
         }
     }
     
+    @Test
+    void testCompiledExpressionIsShared() throws Exception {
+        CronExpression first = new CronExpression("0 0/5 * * * ?");
+        CronExpression second = new CronExpression("0 0/5 * * * ?");
+        CronExpression copy = new CronExpression(first);
+
+        assertSame(first.getSet(CronExpression.MINUTE), second.getSet(CronExpression.MINUTE));
+        assertSame(first.getSet(CronExpression.MINUTE), copy.getSet(CronExpression.MINUTE));
+        assertSame(first.getCronExpression(), second.getCronExpression());
+
+        // the time zone is kept per instance
+        first.setTimeZone(EST_TIME_ZONE);
+        second.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals(EST_TIME_ZONE, first.getTimeZone());
+        assertEquals(TimeZone.getTimeZone("UTC"), second.getTimeZone());
+
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.set(2025, Calendar.JANUARY, 1, 10, 3, 0);
+        assertEquals(first.getNextValidTimeAfter(cal.getTime()), second.getNextValidTimeAfter(cal.getTime()));
+        assertEquals(new CronExpression("0 0/5 * * * ?").getExpressionSummary(), first.getExpressionSummary());
+    }
+
     // execute with version number to generate a new version's serialized form
     public static void main(String[] args) throws Exception {
         new CronExpressionTest().writeJobDataFile("1.5.2");
@@ -17,8 +17,13 @@
 package org.quartz;
 
 import java.text.ParseException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
+import org.junit.jupiter.api.Test;
 import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.spi.OperableTrigger;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -167,6 +172,46 @@ public class CronTriggerTest extends SerializationTestSupport {
         assertThat(copy.getMisfireInstruction(), is(Trigger.MISFIRE_INSTRUCTION_SMART_POLICY));
     }
 
+    @Test
+    void testFireTimeJitter() throws ParseException {
+        Date start = new CronExpression("0 0 0 1 1 ? 2030").getTimeAfter(new Date());
+        long hour = 3600000L;
+        Set<Long> offsets = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                    .withIdentity("t" + i, "jittered")
+                    .startAt(start)
+                    .withSchedule(CronScheduleBuilder.cronSchedule("0 0 * * * ?").withFireTimeJitterInSeconds(600))
+                    .build();
+            assertEquals(600000L, trigger.getFireTimeJitter());
+
+            Date first = trigger.computeFirstFireTime(null);
+            long offset = first.getTime() - start.getTime();
+            assertTrue(offset >= 0 && offset < 600000L, "offset out of the window: " + offset);
+            assertEquals(0L, offset % 1000L, "offset not in whole seconds: " + offset);
+            offsets.add(offset);
+
+            // the offset is the same at every firing
+            trigger.triggered(null);
+            assertEquals(first.getTime() + hour, trigger.getNextFireTime().getTime());
+            assertEquals(first.getTime() + 2 * hour, trigger.getFireTimeAfter(new Date(first.getTime() + hour)).getTime());
+        }
+        assertTrue(offsets.size() > 90, "offsets not spread: " + offsets.size());
+    }
+
+    @Test
+    void testFireTimeJitterIsKeptByDerivedBuilder() throws ParseException {
+        CronTriggerImpl trigger = new CronTriggerImpl();
+        trigger.setName("t");
+        trigger.setCronExpression("0 0 12 * * ?");
+        trigger.setFireTimeJitter(60000L);
+        assertTrue(trigger.hasAdditionalProperties());
+
+        CronTrigger copy = trigger.getTriggerBuilder().build();
+        assertEquals(60000L, copy.getFireTimeJitter());
+        assertEquals(trigger.getFireTimeAfter(new Date()), copy.getFireTimeAfter(new Date()));
+    }
+
     // execute with version number to generate a new version's serialized form
     public static void main(String[] args) throws Exception {
         new CronTriggerTest().writeJobDataFile("2.0");
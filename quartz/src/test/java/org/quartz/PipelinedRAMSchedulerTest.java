@@ -0,0 +1,121 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * Runs the scheduler tests against a RAMJobStore scheduler that acquires
+ * trigger batches ahead of time.
+ */
+public class PipelinedRAMSchedulerTest extends AbstractSchedulerTest {
+
+    @Override
+    protected Scheduler createScheduler(String name, int threadPoolSize) throws SchedulerException {
+        Properties config = new Properties();
+        config.setProperty("org.quartz.scheduler.instanceName", name + "Scheduler");
+        config.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        config.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", "2");
+        config.setProperty("org.quartz.scheduler.batchTriggerAcquisitionPipelined", "true");
+        config.setProperty("org.quartz.threadPool.threadCount", Integer.toString(threadPoolSize));
+        config.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        return new StdSchedulerFactory(config).getScheduler();
+    }
+
+    public static class CountDownJob implements Job {
+        static CountDownLatch latch;
+
+        public void execute(JobExecutionContext context) {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    void testAllTriggersFireWithPipelinedAcquisition() throws Exception {
+        int triggerCount = 200;
+        CountDownJob.latch = new CountDownLatch(triggerCount);
+
+        Scheduler scheduler = createScheduler("testAllTriggersFireWithPipelinedAcquisition", 5);
+        try {
+            JobDetail job = newJob(CountDownJob.class).withIdentity("job").storeDurably().build();
+            scheduler.addJob(job, false);
+            for (int i = 0; i < triggerCount; i++) {
+                scheduler.scheduleJob(newTrigger().withIdentity("t" + i).forJob(job)
+                        .withSchedule(simpleSchedule()).build());
+            }
+            scheduler.start();
+
+            assertTrue(CountDownJob.latch.await(30, TimeUnit.SECONDS), "not all triggers fired");
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
+    @DisallowConcurrentExecution
+    public static class NonConcurrentJob implements Job {
+        static CountDownLatch latch;
+        static final AtomicInteger running = new AtomicInteger();
+        static final AtomicInteger maxRunning = new AtomicInteger();
+
+        public void execute(JobExecutionContext context) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+                latch.countDown();
+            }
+        }
+    }
+
+    @Test
+    void testNonConcurrentJobIsNotFiredFromBatchAcquiredAhead() throws Exception {
+        int triggerCount = 20;
+        NonConcurrentJob.latch = new CountDownLatch(triggerCount);
+        NonConcurrentJob.maxRunning.set(0);
+
+        Scheduler scheduler = createScheduler("testNonConcurrentJobIsNotFiredFromBatchAcquiredAhead", 5);
+        try {
+            JobDetail job = newJob(NonConcurrentJob.class).withIdentity("job").storeDurably().build();
+            scheduler.addJob(job, false);
+            for (int i = 0; i < triggerCount; i++) {
+                scheduler.scheduleJob(newTrigger().withIdentity("t" + i).forJob(job)
+                        .withSchedule(simpleSchedule()).build());
+            }
+            scheduler.start();
+
+            assertTrue(NonConcurrentJob.latch.await(30, TimeUnit.SECONDS), "not all triggers fired");
+            assertEquals(1, NonConcurrentJob.maxRunning.get());
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+}
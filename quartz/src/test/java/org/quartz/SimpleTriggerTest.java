@@ -19,10 +19,13 @@ package org.quartz;
 import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.TimeZone;
 
 import org.junit.jupiter.api.Test;
 import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.OperableTrigger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -189,6 +192,47 @@ public class SimpleTriggerTest extends SerializationTestSupport {
         }
     }
 
+
+    @Test
+    void testFireTimeJitter() {
+        Date start = new Date(System.currentTimeMillis() + 3600000L);
+        Set<Long> offsets = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                    .withIdentity("t" + i, "jittered")
+                    .startAt(start)
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                            .withIntervalInMinutes(1).repeatForever().withFireTimeJitterInSeconds(30))
+                    .build();
+
+            Date first = trigger.computeFirstFireTime(null);
+            long offset = first.getTime() - start.getTime();
+            assertTrue(offset >= 0 && offset < 30000L, "offset out of the window: " + offset);
+            offsets.add(offset);
+
+            trigger.triggered(null);
+            assertEquals(first.getTime() + 60000L, trigger.getNextFireTime().getTime());
+        }
+        assertTrue(offsets.size() > 90, "offsets not spread: " + offsets.size());
+    }
+
+    @Test
+    void testFireTimeJitterAfterRescheduleNowMisfire() {
+        SimpleTriggerImpl trigger = (SimpleTriggerImpl) TriggerBuilder.newTrigger()
+                .withIdentity("t")
+                .startAt(new Date(System.currentTimeMillis() - 3600000L))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMinutes(1).withRepeatCount(100).withFireTimeJitterInSeconds(30)
+                        .withMisfireHandlingInstructionNowWithExistingCount())
+                .build();
+        trigger.computeFirstFireTime(null);
+        trigger.updateAfterMisfire(null);
+
+        // fires now, and a full interval later rather than again within the window
+        Date now = trigger.getNextFireTime();
+        trigger.triggered(null);
+        assertEquals(now.getTime() + 60000L, trigger.getNextFireTime().getTime());
+    }
     
     // execute with version number to generate a new version's serialized form
     public static void main(String[] args) throws Exception {
@@ -0,0 +1,110 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveBatchControllerTest {
+
+    @Test
+    void testFixedControllerKeepsConfiguredValues() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(false, 20, 500L, 1000L);
+        for (int i = 0; i < 10; i++) {
+            controller.batchAcquired(50, 20, 20, 40L);
+            controller.batchFired(50, 20, 5000L);
+        }
+        assertEquals(20, controller.getBatchSize());
+        assertEquals(500L, controller.getTimeWindow());
+        // statistics are still kept
+        assertTrue(controller.getAverageAcquisitionTime() > 0);
+        assertTrue(controller.getAverageFireLag() > 0);
+    }
+
+    @Test
+    void testFullBatchesGrowUpToTheBound() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(true, 50, 1000L, 1000L);
+        assertEquals(1, controller.getBatchSize());
+        assertEquals(0L, controller.getTimeWindow());
+        for (int i = 0; i < 10; i++) {
+            int size = controller.getBatchSize();
+            controller.batchAcquired(100, size, size, 10L);
+        }
+        assertEquals(50, controller.getBatchSize());
+    }
+
+    @Test
+    void testBatchSizeIsLimitedByAvailableThreads() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(true, 50, 1000L, 1000L);
+        for (int i = 0; i < 10; i++) {
+            int size = Math.min(4, controller.getBatchSize());
+            controller.batchAcquired(4, size, size, 10L);
+        }
+        assertEquals(4, controller.getBatchSize());
+    }
+
+    @Test
+    void testMostlyEmptyBatchesShrink() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(true, 64, 1000L, 1000L);
+        for (int i = 0; i < 6; i++) {
+            int size = controller.getBatchSize();
+            controller.batchAcquired(100, size, size, 10L);
+        }
+        assertEquals(64, controller.getBatchSize());
+        for (int i = 0; i < 50; i++) {
+            controller.batchAcquired(100, controller.getBatchSize(), 0, 10L);
+        }
+        assertEquals(1, controller.getBatchSize());
+    }
+
+    @Test
+    void testTimeWindowFollowsAcquisitionTimeWithinBound() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(true, 10, 100L, 1000L);
+        for (int i = 0; i < 50; i++) {
+            controller.batchAcquired(10, 1, 0, 20L);
+        }
+        assertEquals(20L, controller.getAverageAcquisitionTime());
+        assertEquals(40L, controller.getTimeWindow());
+        for (int i = 0; i < 50; i++) {
+            controller.batchAcquired(10, 1, 0, 200L);
+        }
+        assertEquals(100L, controller.getTimeWindow());
+    }
+
+    @Test
+    void testFireLagShrinksThreadBoundBatchesAndGrowsStoreBoundOnes() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(true, 64, 1000L, 500L);
+        for (int i = 0; i < 4; i++) {
+            int size = controller.getBatchSize();
+            controller.batchAcquired(100, size, size, 10L);
+        }
+        assertEquals(16, controller.getBatchSize());
+
+        // late, and all threads used: leave triggers to others
+        controller.batchFired(16, 16, 2000L);
+        assertEquals(8, controller.getBatchSize());
+
+        // late with threads to spare: acquire more at once
+        controller.batchFired(100, 8, 2000L);
+        assertEquals(16, controller.getBatchSize());
+
+        // on time: no change
+        controller.batchFired(100, 16, 100L);
+        assertEquals(16, controller.getBatchSize());
+    }
+}
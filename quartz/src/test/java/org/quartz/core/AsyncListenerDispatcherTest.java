@@ -0,0 +1,273 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.quartz.JobBuilder.newJob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.AsyncListener;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.core.AsyncListenerDispatcher.OverflowPolicy;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.listeners.JobListenerSupport;
+import org.quartz.listeners.TriggerListenerSupport;
+
+public class AsyncListenerDispatcherTest {
+
+    @Test
+    void testNotificationsOfEachListenerAreDeliveredInOrder() throws Exception {
+        AsyncListenerDispatcher dispatcher = new AsyncListenerDispatcher("test", 4, 10000, OverflowPolicy.BLOCK, true);
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        Object firstListener = new Object();
+        Object secondListener = new Object();
+        for (int i = 0; i < 1000; i++) {
+            final int n = i;
+            dispatcher.dispatch(firstListener, () -> first.add(n));
+            dispatcher.dispatch(secondListener, () -> second.add(n));
+        }
+        dispatcher.shutdown(true);
+
+        assertEquals(1000, first.size());
+        assertEquals(1000, second.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, first.get(i).intValue());
+            assertEquals(i, second.get(i).intValue());
+        }
+    }
+
+    private static List<Integer> overflow(OverflowPolicy policy) throws Exception {
+        AsyncListenerDispatcher dispatcher = new AsyncListenerDispatcher("test", 1, 2, policy, true);
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object listener = new Object();
+        dispatcher.dispatch(listener, () -> {
+            blocked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(0);
+        });
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        // the queue holds two notifications while the first one is being delivered
+        for (int i = 1; i <= 4; i++) {
+            final int n = i;
+            dispatcher.dispatch(listener, () -> delivered.add(n));
+        }
+        assertEquals(2, dispatcher.getDiscardedCount());
+        release.countDown();
+        dispatcher.shutdown(true);
+        return delivered;
+    }
+
+    @Test
+    void testDiscardNewestDropsNotificationsThatDontFit() throws Exception {
+        assertEquals(Arrays.asList(0, 1, 2), overflow(OverflowPolicy.DISCARD_NEWEST));
+    }
+
+    @Test
+    void testDiscardOldestKeepsLatestNotifications() throws Exception {
+        assertEquals(Arrays.asList(0, 3, 4), overflow(OverflowPolicy.DISCARD_OLDEST));
+    }
+
+    @Test
+    void testBlockWaitsForRoom() throws Exception {
+        AsyncListenerDispatcher dispatcher = new AsyncListenerDispatcher("test", 1, 1, OverflowPolicy.BLOCK, true);
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        Object listener = new Object();
+        for (int i = 0; i < 50; i++) {
+            final int n = i;
+            dispatcher.dispatch(listener, () -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.add(n);
+            });
+        }
+        dispatcher.shutdown(true);
+        assertEquals(50, delivered.size());
+        assertEquals(0, dispatcher.getDiscardedCount());
+    }
+
+    @Test
+    void testQueueOfListenerIsDroppedOnceDrained() throws Exception {
+        AsyncListenerDispatcher dispatcher = new AsyncListenerDispatcher("test", 2, 10, OverflowPolicy.BLOCK, true);
+        CountDownLatch delivered = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            dispatcher.dispatch(new Object(), delivered::countDown);
+        }
+        assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (dispatcher.getQueuedListenerCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, dispatcher.getQueuedListenerCount());
+        dispatcher.shutdown(true);
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    static class SlowAuditListener extends JobListenerSupport implements AsyncListener {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch audited = new CountDownLatch(1);
+
+        public String getName() {
+            return "audit";
+        }
+
+        @Override
+        public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            audited.countDown();
+        }
+    }
+
+    static final CountDownLatch resultSet = new CountDownLatch(1);
+
+    public static class ResultJob implements Job {
+        public void execute(JobExecutionContext context) {
+            context.setResult("done");
+            context.getMergedJobDataMap().put("out", 1);
+            resultSet.countDown();
+        }
+    }
+
+    static class SnapshotListener extends JobListenerSupport implements AsyncListener {
+        final CountDownLatch notified = new CountDownLatch(1);
+        volatile Object result = "unset";
+        volatile boolean outSeen = true;
+
+        public String getName() {
+            return "snapshot";
+        }
+
+        @Override
+        public void jobToBeExecuted(JobExecutionContext context) {
+            try {
+                resultSet.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            result = context.getResult();
+            outSeen = context.getMergedJobDataMap().containsKey("out");
+            notified.countDown();
+        }
+    }
+
+    static class VetoingAsyncListener extends TriggerListenerSupport implements AsyncListener {
+        final CountDownLatch fired = new CountDownLatch(1);
+
+        public String getName() {
+            return "veto";
+        }
+
+        @Override
+        public void triggerFired(Trigger trigger, JobExecutionContext context) {
+            fired.countDown();
+        }
+
+        @Override
+        public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+            return true;
+        }
+    }
+
+    @Test
+    void testAsyncListenersGetSnapshotsAndDontVeto() throws Exception {
+        Properties config = new Properties();
+        config.setProperty("org.quartz.scheduler.instanceName", "AsyncListenerSnapshotScheduler");
+        config.setProperty("org.quartz.threadPool.threadCount", "1");
+        config.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        Scheduler scheduler = new StdSchedulerFactory(config).getScheduler();
+        SnapshotListener snapshots = new SnapshotListener();
+        VetoingAsyncListener veto = new VetoingAsyncListener();
+        try {
+            scheduler.getListenerManager().addJobListener(snapshots);
+            scheduler.getListenerManager().addTriggerListener(veto);
+            scheduler.addJob(newJob(ResultJob.class).withIdentity("job").storeDurably().build(), false);
+            scheduler.start();
+
+            scheduler.triggerJob(new JobKey("job"));
+            // the job ran, although the listener would have vetoed it
+            assertTrue(resultSet.await(10, TimeUnit.SECONDS));
+            assertTrue(veto.fired.await(10, TimeUnit.SECONDS));
+
+            // told of the job about to be executed once it had run, as it was then
+            assertTrue(snapshots.notified.await(10, TimeUnit.SECONDS));
+            assertNull(snapshots.result);
+            assertFalse(snapshots.outSeen);
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
+    @Test
+    void testSlowAsyncListenerDoesntDelayJobCompletion() throws Exception {
+        Properties config = new Properties();
+        config.setProperty("org.quartz.scheduler.instanceName", "AsyncListenerScheduler");
+        config.setProperty("org.quartz.threadPool.threadCount", "1");
+        config.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        Scheduler scheduler = new StdSchedulerFactory(config).getScheduler();
+        SlowAuditListener audit = new SlowAuditListener();
+        try {
+            scheduler.getListenerManager().addJobListener(audit);
+            scheduler.addJob(newJob(NoOpJob.class).withIdentity("job").storeDurably().build(), false);
+            scheduler.start();
+
+            scheduler.triggerJob(new JobKey("job"));
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (!scheduler.getTriggersOfJob(new JobKey("job")).isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            // the execution is complete while the listener is still busy with it
+            assertTrue(scheduler.getTriggersOfJob(new JobKey("job")).isEmpty());
+            assertEquals(1, audit.audited.getCount());
+
+            audit.release.countDown();
+            assertTrue(audit.audited.await(10, TimeUnit.SECONDS));
+        } finally {
+            audit.release.countDown();
+            scheduler.shutdown(true);
+        }
+    }
+}
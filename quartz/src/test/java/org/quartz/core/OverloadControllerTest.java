@@ -0,0 +1,115 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.OperableTrigger;
+
+public class OverloadControllerTest {
+
+    private static final class RecordingJobStore extends RAMJobStore {
+        Set<String> earlyMisfireTriggerGroups = Collections.emptySet();
+        long earlyMisfireThreshold;
+        int priorityLookAhead = 1;
+
+        @Override
+        public void setEarlyMisfireTriggerGroups(Set<String> triggerGroups, long misfireThreshold) {
+            earlyMisfireTriggerGroups = triggerGroups;
+            earlyMisfireThreshold = misfireThreshold;
+        }
+
+        @Override
+        public void setPriorityLookAhead(int lookAhead) {
+            priorityLookAhead = lookAhead;
+        }
+    }
+
+    private static OperableTrigger trigger(String name, int priority, long fireTime) {
+        SimpleTriggerImpl trigger = new SimpleTriggerImpl(name, "g", new Date(fireTime));
+        trigger.setPriority(priority);
+        trigger.setNextFireTime(new Date(fireTime));
+        return trigger;
+    }
+
+    @Test
+    void testDisabledControllerNeverSheds() {
+        RecordingJobStore store = new RecordingJobStore();
+        OverloadController controller = new OverloadController(0L, 4, Collections.singleton("batch"), store);
+        assertFalse(controller.isEnabled());
+        for (int i = 0; i < 20; i++) {
+            controller.batchFired(60000L);
+        }
+        assertFalse(controller.isOverloaded());
+        assertEquals(1, store.priorityLookAhead);
+        assertTrue(store.earlyMisfireTriggerGroups.isEmpty());
+    }
+
+    @Test
+    void testFireLagPastObjectiveShedsUntilBackUnderHalf() {
+        RecordingJobStore store = new RecordingJobStore();
+        OverloadController controller = new OverloadController(1000L, 4, Collections.singleton("batch"), store);
+        for (int i = 0; i < 20 && !controller.isOverloaded(); i++) {
+            controller.batchFired(5000L);
+        }
+        assertTrue(controller.isOverloaded());
+        assertEquals(4, store.priorityLookAhead);
+        assertEquals(new HashSet<>(Arrays.asList("batch")), store.earlyMisfireTriggerGroups);
+        assertEquals(1000L, store.earlyMisfireThreshold);
+
+        // under the objective, but not yet under half of it
+        for (int i = 0; i < 50; i++) {
+            controller.batchFired(800L);
+        }
+        assertTrue(controller.isOverloaded());
+
+        for (int i = 0; i < 50; i++) {
+            controller.batchFired(0L);
+        }
+        assertFalse(controller.isOverloaded());
+        assertEquals(1, store.priorityLookAhead);
+        assertTrue(store.earlyMisfireTriggerGroups.isEmpty());
+    }
+
+    @Test
+    void testAcquisitionFullOfLateTriggersSheds() {
+        RecordingJobStore store = new RecordingJobStore();
+        OverloadController controller = new OverloadController(1000L, 4, Collections.<String>emptySet(), store);
+        long now = System.currentTimeMillis();
+
+        controller.batchAcquired(2, Arrays.asList(trigger("t1", 5, now - 5000L), trigger("t2", 5, now)), now);
+        assertEquals(1, controller.getLateTriggerCount());
+        assertFalse(controller.isOverloaded());
+
+        controller.batchAcquired(2, Arrays.asList(trigger("t1", 5, now - 5000L), trigger("t2", 5, now - 3000L)), now);
+        assertEquals(2, controller.getLateTriggerCount());
+        assertTrue(controller.isOverloaded());
+
+        controller.batchAcquired(8, Arrays.asList(trigger("t3", 5, now)), now);
+        assertEquals(0, controller.getLateTriggerCount());
+        assertFalse(controller.isOverloaded());
+    }
+}
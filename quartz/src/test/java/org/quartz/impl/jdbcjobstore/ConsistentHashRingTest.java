@@ -0,0 +1,87 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.TriggerKey;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 20000;
+
+    @Test
+    void testOwnershipIsBalancedAndIndependentOfInstanceOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("node1", "node2", "node3", "node4"), false);
+        ConsistentHashRing reordered = new ConsistentHashRing(Arrays.asList("node4", "node2", "node1", "node3"), false);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            TriggerKey key = new TriggerKey("trigger" + i, "group" + (i % 50));
+            String owner = ring.ownerOf(key);
+            assertEquals(owner, reordered.ownerOf(key));
+            counts.merge(owner, 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > KEYS / 4 / 2 && count < KEYS / 4 * 2, "unbalanced: " + counts);
+        }
+    }
+
+    @Test
+    void testOnlyKeysOfJoiningOrLeavingInstanceMove() {
+        ConsistentHashRing three = new ConsistentHashRing(Arrays.asList("node1", "node2", "node3"), false);
+        ConsistentHashRing four = new ConsistentHashRing(Arrays.asList("node1", "node2", "node3", "node4"), false);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            TriggerKey key = new TriggerKey("trigger" + i, "group");
+            String before = three.ownerOf(key);
+            String after = four.ownerOf(key);
+            if (!before.equals(after)) {
+                // keys only move to the joining instance (and back from it when it leaves)
+                assertEquals("node4", after);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < KEYS / 2, "moved: " + moved);
+    }
+
+    @Test
+    void testGroupOwnershipKeepsGroupsTogether() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("node1", "node2", "node3"), true);
+        for (int g = 0; g < 100; g++) {
+            String owner = ring.ownerOf(new TriggerKey("first", "group" + g));
+            for (int i = 0; i < 10; i++) {
+                assertEquals(owner, ring.ownerOf(new TriggerKey("trigger" + i, "group" + g)));
+            }
+        }
+    }
+
+    @Test
+    void testSingleInstanceOwnsEverything() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("only"), false);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("only", ring.ownerOf(new TriggerKey("trigger" + i, "group")));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobPersistenceException;
+
+public class LockGroupCommitterTest {
+
+    /**
+     * Runs batches without a database, recording their sizes, holding the
+     * first one until released.
+     */
+    static class RecordingExecutor implements LockGroupCommitter.BatchExecutor {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch firstEntered = new CountDownLatch(1);
+        final CountDownLatch releaseFirst = new CountDownLatch(1);
+        final AtomicInteger inBatch = new AtomicInteger();
+        volatile boolean fail;
+
+        public void execute(String lockName, JobStoreSupport.TransactionCallback<Void> batch)
+                throws JobPersistenceException {
+            if (firstEntered.getCount() > 0) {
+                firstEntered.countDown();
+                try {
+                    releaseFirst.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new JobPersistenceException("interrupted", e);
+                }
+            }
+            inBatch.set(0);
+            batch.execute(null);
+            if (fail) {
+                throw new JobPersistenceException("commit failed");
+            }
+            batchSizes.add(inBatch.get());
+        }
+    }
+
+    private static List<Future<Integer>> queueBehindFirst(LockGroupCommitter committer, RecordingExecutor executor,
+            ExecutorService threads, int count, int[] runs) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(threads.submit(() -> committer.execute("TRIGGER_ACCESS", conn -> {
+            executor.inBatch.incrementAndGet();
+            runs[0]++;
+            return 0;
+        })));
+        assertTrue(executor.firstEntered.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < count; i++) {
+            final int n = i;
+            results.add(threads.submit(() -> committer.execute("TRIGGER_ACCESS", conn -> {
+                executor.inBatch.incrementAndGet();
+                synchronized (runs) {
+                    runs[n]++;
+                }
+                return n;
+            })));
+        }
+        // give the others time to queue up behind the first
+        Thread.sleep(300);
+        executor.releaseFirst.countDown();
+        return results;
+    }
+
+    @Test
+    void testQueuedCallbacksShareTransactions() throws Exception {
+        RecordingExecutor executor = new RecordingExecutor();
+        LockGroupCommitter committer = new LockGroupCommitter(3, executor);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            int[] runs = new int[8];
+            List<Future<Integer>> results = queueBehindFirst(committer, executor, threads, 8, runs);
+            for (int i = 0; i < 8; i++) {
+                assertEquals(Integer.valueOf(i), results.get(i).get(10, TimeUnit.SECONDS));
+            }
+            for (int run : runs) {
+                assertEquals(1, run);
+            }
+            // one batch for the first, then the seven queued behind it in batches of at most three
+            assertEquals(Arrays.asList(1, 3, 3, 1), executor.batchSizes);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedSharedTransactionFailsEveryCallback() throws Exception {
+        RecordingExecutor executor = new RecordingExecutor();
+        executor.fail = true;
+        LockGroupCommitter committer = new LockGroupCommitter(10, executor);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = queueBehindFirst(committer, executor, threads, 4, new int[4]);
+            for (Future<Integer> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    fail("Expected the shared transaction to fail");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof JobPersistenceException);
+                }
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void testUncontendedCallbackRunsAlone() throws Exception {
+        RecordingExecutor executor = new RecordingExecutor();
+        executor.firstEntered.countDown();
+        LockGroupCommitter committer = new LockGroupCommitter(10, executor);
+
+        assertEquals("done", committer.execute("TRIGGER_ACCESS", conn -> {
+            executor.inBatch.incrementAndGet();
+            assertTrue(committer.isLeading());
+            return "done";
+        }));
+        assertFalse(committer.isLeading());
+        assertEquals(Collections.singletonList(1), executor.batchSizes);
+    }
+}
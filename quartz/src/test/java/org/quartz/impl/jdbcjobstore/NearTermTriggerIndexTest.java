@@ -0,0 +1,136 @@
+/* 
+ * Copyright IBM Corp. 2024, 2025
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+
+public class NearTermTriggerIndexTest {
+
+    private static NearTermTriggerIndex.Entry entry(String name, long nextFireTime, int priority) {
+        return new NearTermTriggerIndex.Entry(new TriggerKey(name, "g"), new JobKey(name, "g"), nextFireTime, priority, 0);
+    }
+
+    private static TriggerKey key(String name) {
+        return new TriggerKey(name, "g");
+    }
+
+    @Test
+    void testSelectsInOrderOfFireTimeThenPriority() {
+        NearTermTriggerIndex index = new NearTermTriggerIndex(1000L, 10000L, 100);
+        assertNull(index.select(100L, 0L, 10, 0L));
+
+        index.loaded(index.loading(), index.getLoadEnd(100L), Arrays.asList(
+                entry("a", 50L, 5), entry("b", 50L, 9), entry("c", 80L, 5), entry("d", 500L, 5)), 0L);
+        assertEquals(Arrays.asList(key("b"), key("a"), key("c")), index.select(100L, 0L, 10, 0L));
+        assertEquals(Arrays.asList(key("b"), key("a")), index.select(100L, 0L, 2, 0L));
+
+        // misfired triggers are left to the misfire handler, unless they ignore misfires
+        index.correct(new NearTermTriggerIndex.Entry(key("e"), new JobKey("e", "g"), 10L, 5,
+                Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY));
+        assertEquals(Arrays.asList(key("e"), key("c")), index.select(100L, 60L, 10, 0L));
+
+        // the filter is given the keys of the trigger and of its job
+        assertEquals(Collections.singletonList(key("c")),
+                index.select(100L, 0L, 10, 0L, (triggerKey, jobKey) -> jobKey.getName().equals("c")));
+    }
+
+    @Test
+    void testIsLoadedAgainWhenStaleOrTooShort() {
+        NearTermTriggerIndex index = new NearTermTriggerIndex(1000L, 10000L, 100);
+        index.loaded(index.loading(), index.getLoadEnd(100L), Collections.singletonList(entry("a", 50L, 5)), 0L);
+
+        assertNotNull(index.select(1100L, 0L, 10, 0L));
+        assertNull(index.select(1101L, 0L, 10, 0L));
+        assertTrue(index.isLoadDue(1101L, 0L));
+        assertNull(index.select(100L, 0L, 10, 10000L));
+        assertTrue(index.isLoadDue(100L, 10000L));
+        assertEquals(1L, index.getLoadCount());
+    }
+
+    @Test
+    void testFullIndexEndsBeforeItsLastFireTime() {
+        NearTermTriggerIndex index = new NearTermTriggerIndex(1000L, 10000L, 3);
+        index.loaded(index.loading(), index.getLoadEnd(100L),
+                Arrays.asList(entry("a", 50L, 5), entry("b", 60L, 5), entry("c", 60L, 4)), 0L);
+
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList(key("a")), index.select(59L, 0L, 10, 0L));
+        assertNull(index.select(60L, 0L, 10, 0L));
+    }
+
+    @Test
+    void testFullIndexIsNotLoadedAgainUntilTheRefreshInterval() {
+        NearTermTriggerIndex index = new NearTermTriggerIndex(1000L, 10000L, 3);
+        assertTrue(index.isLoadDue(100L, 0L));
+        index.loaded(index.loading(), index.getLoadEnd(100L),
+                Arrays.asList(entry("a", 50L, 5), entry("b", 60L, 5), entry("c", 70L, 5)), 0L);
+
+        // its end is before the acquisition's, which queries the table instead
+        assertNull(index.select(100L, 0L, 10, 5000L));
+        assertFalse(index.isLoadDue(100L, 5000L));
+        assertNotNull(index.select(60L, 0L, 10, 5000L));
+
+        assertTrue(index.isLoadDue(100L, 10000L));
+        index.invalidate();
+        assertTrue(index.isLoadDue(100L, 5000L));
+    }
+
+    @Test
+    void testAppliesCommittedChanges() {
+        NearTermTriggerIndex index = new NearTermTriggerIndex(1000L, 10000L, 100);
+        index.loaded(index.loading(), index.getLoadEnd(100L),
+                Arrays.asList(entry("a", 50L, 5), entry("b", 60L, 5)), 0L);
+
+        NearTermTriggerIndex.Changes changes = new NearTermTriggerIndex.Changes();
+        changes.remove(key("a"));
+        changes.put(entry("b", 70L, 5));
+        changes.put(entry("c", 40L, 5));
+        changes.put(entry("far", 5000L, 5));
+        index.apply(changes, true);
+        assertEquals(Arrays.asList(key("c"), key("b")), index.select(100L, 0L, 10, 0L));
+        assertEquals(70L, index.getNextFireTime(key("b")));
+        assertEquals(-1L, index.getNextFireTime(key("far")));
+
+        // the triggers a rolled back transaction acquired are WAITING again
+        changes = new NearTermTriggerIndex.Changes();
+        changes.remove(key("c"));
+        index.apply(changes, false);
+        assertNull(index.select(100L, 0L, 10, 0L));
+    }
+
+    @Test
+    void testLoadOverlappingAChangeIsDiscarded() {
+        NearTermTriggerIndex index = new NearTermTriggerIndex(1000L, 10000L, 100);
+        long token = index.loading();
+
+        NearTermTriggerIndex.Changes changes = new NearTermTriggerIndex.Changes();
+        changes.invalidate();
+        index.apply(changes, true);
+
+        index.loaded(token, index.getLoadEnd(100L), Collections.singletonList(entry("a", 50L, 5)), 0L);
+        assertNull(index.select(100L, 0L, 10, 0L));
+        assertEquals(0L, index.getLoadCount());
+    }
+}
@@ -0,0 +1,32 @@
+/* 
+ * Copyright IBM Corp. 2024, 2025
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import org.quartz.spi.JobStore;
+
+/**
+ * Runs the job store tests with the trigger lock split into shards.
+ */
+public class ShardedJdbcJobStoreTest extends JdbcJobStoreTest {
+
+    @Override
+    protected JobStore createJobStore(String prefix) {
+        JobStoreSupport jdbcJobStore = (JobStoreSupport) super.createJobStore(prefix);
+        jdbcJobStore.setTriggerLockShardCount(4);
+        return jdbcJobStore;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ShardedTriggerLockSemaphoreTest {
+
+    /**
+     * Records the locks obtained and released, failing to obtain the named lock.
+     */
+    static class RecordingSemaphore implements Semaphore {
+        final List<String> events = new ArrayList<>();
+        final String failOn;
+
+        RecordingSemaphore(String failOn) {
+            this.failOn = failOn;
+        }
+
+        public boolean obtainLock(Connection conn, String lockName) throws LockException {
+            if (lockName.equals(failOn)) {
+                throw new LockException("Failure obtaining " + lockName);
+            }
+            events.add("+" + lockName);
+            return true;
+        }
+
+        public void releaseLock(String lockName) {
+            events.add("-" + lockName);
+        }
+
+        public boolean requiresConnection() {
+            return true;
+        }
+    }
+
+    @Test
+    void testWholeLockObtainsEveryShardInOrder() throws Exception {
+        RecordingSemaphore delegate = new RecordingSemaphore(null);
+        Semaphore semaphore = new ShardedTriggerLockSemaphore(delegate, "TRIGGER_ACCESS", 3);
+
+        semaphore.obtainLock(null, "TRIGGER_ACCESS");
+        semaphore.releaseLock("TRIGGER_ACCESS");
+
+        assertEquals(Arrays.asList(
+                "+TRIGGER_ACCESS_0", "+TRIGGER_ACCESS_1", "+TRIGGER_ACCESS_2",
+                "-TRIGGER_ACCESS_2", "-TRIGGER_ACCESS_1", "-TRIGGER_ACCESS_0"), delegate.events);
+    }
+
+    @Test
+    void testOtherLocksArePassedThrough() throws Exception {
+        RecordingSemaphore delegate = new RecordingSemaphore(null);
+        Semaphore semaphore = new ShardedTriggerLockSemaphore(delegate, "TRIGGER_ACCESS", 3);
+
+        semaphore.obtainLock(null, "TRIGGER_ACCESS_1");
+        semaphore.obtainLock(null, "STATE_ACCESS");
+        semaphore.releaseLock("STATE_ACCESS");
+        semaphore.releaseLock("TRIGGER_ACCESS_1");
+
+        assertEquals(Arrays.asList(
+                "+TRIGGER_ACCESS_1", "+STATE_ACCESS", "-STATE_ACCESS", "-TRIGGER_ACCESS_1"), delegate.events);
+        assertTrue(semaphore.requiresConnection());
+    }
+
+    @Test
+    void testFailureReleasesObtainedShards() {
+        RecordingSemaphore delegate = new RecordingSemaphore("TRIGGER_ACCESS_2");
+        Semaphore semaphore = new ShardedTriggerLockSemaphore(delegate, "TRIGGER_ACCESS", 4);
+
+        assertThrows(LockException.class, () -> semaphore.obtainLock(null, "TRIGGER_ACCESS"));
+        assertEquals(Arrays.asList(
+                "+TRIGGER_ACCESS_0", "+TRIGGER_ACCESS_1", "-TRIGGER_ACCESS_1", "-TRIGGER_ACCESS_0"), delegate.events);
+    }
+}
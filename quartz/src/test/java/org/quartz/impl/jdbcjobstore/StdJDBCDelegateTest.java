@@ -20,10 +20,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableWithSize.iterableWithSize;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.quartz.JobBuilder.newJob;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,9 +36,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
 import org.quartz.JobPersistenceException;
 import org.quartz.TriggerKey;
 import org.quartz.spi.OperableTrigger;
@@ -165,6 +174,118 @@ public class StdJDBCDelegateTest  {
         assertThat(triggerKeys, iterableWithSize(10));
     }
 
+    @Test
+    void testSelectExpiredSchedulerStateRecordsOnlyQueriesOlderCheckins() throws SQLException, NoSuchDelegateException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+        jdbcDelegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE", new SimpleClassLoadHelper(), false, "");
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true).thenReturn(false);
+        when(resultSet.getString(Constants.COL_INSTANCE_NAME)).thenReturn("failed");
+        when(resultSet.getLong(Constants.COL_LAST_CHECKIN_TIME)).thenReturn(1000L);
+        when(resultSet.getLong(Constants.COL_CHECKIN_INTERVAL)).thenReturn(7500L);
+
+        List<SchedulerStateRecord> records = jdbcDelegate.selectExpiredSchedulerStateRecords(conn, 5000L);
+
+        verify(conn).prepareStatement("SELECT * FROM QRTZ_SCHEDULER_STATE WHERE SCHED_NAME = 'TESTSCHED' AND LAST_CHECKIN_TIME < ?");
+        verify(preparedStatement).setLong(1, 5000L);
+        assertEquals(1, records.size());
+        assertEquals("failed", records.get(0).getSchedulerInstanceId());
+        assertEquals(1000L, records.get(0).getCheckinTimestamp());
+        assertEquals(7500L, records.get(0).getCheckinInterval());
+    }
+
+    @Test
+    void testSchedulerStateRecordOfInstanceInStandbyIsNotAcquiring() throws SQLException, NoSuchDelegateException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+        jdbcDelegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE", new SimpleClassLoadHelper(), false, "");
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+        when(resultSet.getString(Constants.COL_INSTANCE_NAME)).thenReturn("standby").thenReturn("acquiring");
+        when(resultSet.getLong(Constants.COL_LAST_CHECKIN_TIME)).thenReturn(1000L);
+        when(resultSet.getLong(Constants.COL_CHECKIN_INTERVAL)).thenReturn(-7500L).thenReturn(7500L);
+
+        List<SchedulerStateRecord> records = jdbcDelegate.selectSchedulerStateRecords(conn, null);
+
+        assertEquals(2, records.size());
+        assertFalse(records.get(0).isAcquiring());
+        assertEquals(7500L, records.get(0).getCheckinInterval());
+        assertTrue(records.get(1).isAcquiring());
+        assertEquals(7500L, records.get(1).getCheckinInterval());
+    }
+
+    @Test
+    void testSelectExistingTriggerKeysQueriesEachGroupInChunks() throws SQLException, NoSuchDelegateException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+        jdbcDelegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE", new SimpleClassLoadHelper(), false, "");
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true).thenReturn(false);
+        when(resultSet.getString(Constants.COL_TRIGGER_NAME)).thenReturn("trigger0");
+
+        List<TriggerKey> keys = new ArrayList<>();
+        for (int i = 0; i < Util.MAX_NAMES_PER_STATEMENT + 2; i++) {
+            keys.add(new TriggerKey("trigger" + i, "group"));
+        }
+        keys.add(new TriggerKey("other", "otherGroup"));
+
+        Set<TriggerKey> existing = jdbcDelegate.selectExistingTriggerKeys(conn, keys);
+
+        String query = "SELECT TRIGGER_NAME FROM QRTZ_TRIGGERS WHERE SCHED_NAME = 'TESTSCHED' AND TRIGGER_GROUP = ? AND TRIGGER_NAME IN ";
+        verify(conn).prepareStatement(query + "(" + Util.expandNameList("{2}", Util.MAX_NAMES_PER_STATEMENT) + ")");
+        verify(conn).prepareStatement(query + "(?, ?)");
+        verify(conn).prepareStatement(query + "(?)");
+        verify(preparedStatement, times(2)).setString(1, "group");
+        verify(preparedStatement).setString(1, "otherGroup");
+        verify(preparedStatement).setString(Util.MAX_NAMES_PER_STATEMENT + 1, "trigger" + (Util.MAX_NAMES_PER_STATEMENT - 1));
+        verify(preparedStatement).setString(3, "trigger" + (Util.MAX_NAMES_PER_STATEMENT + 1));
+        assertEquals(1, existing.size());
+        assertTrue(existing.contains(new TriggerKey("trigger0", "group")));
+    }
+
+    @Test
+    void testInsertJobDetailsUsesOneBatch() throws SQLException, IOException, NoSuchDelegateException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+        jdbcDelegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE", new SimpleClassLoadHelper(), false, "");
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[] {1, Statement.SUCCESS_NO_INFO});
+
+        List<JobDetail> jobs = new ArrayList<>();
+        jobs.add(newJob(NoOpJob.class).withIdentity("job1", "group").build());
+        jobs.add(newJob(NoOpJob.class).withIdentity("job2", "group").build());
+
+        assertEquals(2, jdbcDelegate.insertJobDetails(conn, jobs));
+
+        verify(conn, times(1)).prepareStatement(anyString());
+        verify(preparedStatement, times(2)).addBatch();
+        verify(preparedStatement, never()).executeUpdate();
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
     static class TestStdJDBCDelegate extends StdJDBCDelegate {
 
         private final TriggerPersistenceDelegate testDelegate;
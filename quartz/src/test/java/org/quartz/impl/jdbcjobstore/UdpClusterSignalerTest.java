@@ -0,0 +1,120 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobKey;
+import org.quartz.SchedulerConfigException;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.spi.SchedulerSignaler;
+
+public class UdpClusterSignalerTest {
+
+    /**
+     * Records the scheduling change signals it receives.
+     */
+    static class RecordingSignaler implements SchedulerSignaler {
+        final BlockingQueue<Long> signals = new LinkedBlockingQueue<>();
+
+        public void notifyTriggerListenersMisfired(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersFinalized(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+        }
+
+        public void signalSchedulingChange(long candidateNewNextFireTime) {
+            signals.add(candidateNewNextFireTime);
+        }
+
+        public void notifySchedulerListenersError(String string, SchedulerException jpe) {
+        }
+    }
+
+    private static UdpClusterSignaler newSignaler(String schedName, String instanceId, RecordingSignaler local)
+            throws SchedulerConfigException {
+        JobStoreTX jobStore = new JobStoreTX();
+        jobStore.setInstanceName(schedName);
+        jobStore.setInstanceId(instanceId);
+        UdpClusterSignaler signaler = new UdpClusterSignaler();
+        signaler.setBindAddress("127.0.0.1");
+        signaler.initialize(jobStore, local);
+        return signaler;
+    }
+
+    @Test
+    void testSignalsReachPeersButNotSelf() throws Exception {
+        RecordingSignaler localA = new RecordingSignaler();
+        RecordingSignaler localB = new RecordingSignaler();
+        UdpClusterSignaler a = newSignaler("sched", "nodeA", localA);
+        UdpClusterSignaler b = newSignaler("sched", "nodeB", localB);
+        try {
+            String peers = "127.0.0.1:" + a.getLocalPort() + ", 127.0.0.1:" + b.getLocalPort();
+            a.setPeers(peers);
+            b.setPeers(peers);
+            a.start();
+            b.start();
+
+            a.signalSchedulingChange(12345L);
+            assertEquals(Long.valueOf(12345L), localB.signals.poll(10, TimeUnit.SECONDS));
+            b.signalSchedulingChange(0L);
+            assertEquals(Long.valueOf(0L), localA.signals.poll(10, TimeUnit.SECONDS));
+
+            // each also sent to itself, which must have been ignored
+            assertNull(localA.signals.poll(200, TimeUnit.MILLISECONDS));
+            assertNull(localB.signals.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            a.shutdown();
+            b.shutdown();
+        }
+    }
+
+    @Test
+    void testSignalsOfOtherSchedulersAreIgnored() throws Exception {
+        RecordingSignaler localA = new RecordingSignaler();
+        RecordingSignaler localB = new RecordingSignaler();
+        UdpClusterSignaler a = newSignaler("sched", "nodeA", localA);
+        UdpClusterSignaler b = newSignaler("otherSched", "nodeB", localB);
+        try {
+            a.setPeers("127.0.0.1:" + b.getLocalPort());
+            a.start();
+            b.start();
+
+            a.signalSchedulingChange(12345L);
+            assertNull(localB.signals.poll(500, TimeUnit.MILLISECONDS));
+        } finally {
+            a.shutdown();
+            b.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidPeerAddressIsAConfigurationError() throws Exception {
+        assertEquals(2, UdpClusterSignaler.parsePeers("host1:1, host2:2,").size());
+        assertThrows(SchedulerConfigException.class, () -> UdpClusterSignaler.parsePeers("host1"));
+        assertThrows(SchedulerConfigException.class, () -> UdpClusterSignaler.parsePeers("host1:port"));
+    }
+}
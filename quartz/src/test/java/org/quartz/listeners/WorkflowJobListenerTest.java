@@ -0,0 +1,226 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.listeners;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.quartz.JobBuilder.newJob;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.Workflow.EdgeCondition;
+
+public class WorkflowJobListenerTest {
+
+    static final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+    public static class StepJob implements Job {
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            String name = context.getJobDetail().getKey().getName();
+            if (!name.equals("start")) {
+                assertNotNull(context.getMergedJobDataMap().getString(WorkflowJobListener.RUN_ID));
+            }
+            executed.add(name);
+            if (context.getJobDetail().getJobDataMap().getBoolean("fail")) {
+                throw new JobExecutionException("step failed");
+            }
+        }
+    }
+
+    public static class LimitedJob implements Job {
+        static final AtomicInteger running = new AtomicInteger();
+        static final AtomicInteger maxRunning = new AtomicInteger();
+
+        public void execute(JobExecutionContext context) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+                executed.add(context.getJobDetail().getKey().getName());
+            }
+        }
+    }
+
+    private Scheduler scheduler;
+
+    private WorkflowJobListener listener;
+
+    @BeforeEach
+    void setUp() throws SchedulerException {
+        executed.clear();
+        Properties config = new Properties();
+        config.setProperty("org.quartz.scheduler.instanceName", "WorkflowScheduler");
+        config.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        config.setProperty("org.quartz.threadPool.threadCount", "3");
+        config.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        config.setProperty("org.quartz.jobStore.jobGroupConcurrencyLimits", "limited=1");
+        scheduler = new StdSchedulerFactory(config).getScheduler();
+        listener = new WorkflowJobListener("workflows");
+        scheduler.getListenerManager().addJobListener(listener);
+    }
+
+    @AfterEach
+    void tearDown() throws SchedulerException {
+        scheduler.shutdown(true);
+    }
+
+    private JobKey addStep(String name, boolean fail) throws SchedulerException {
+        JobKey key = new JobKey(name, "workflow");
+        scheduler.addJob(newJob(StepJob.class).withIdentity(key).storeDurably().usingJobData("fail", fail).build(), false);
+        return key;
+    }
+
+    private void awaitRunOver(int jobs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000L;
+        while ((executed.size() < jobs || listener.getActiveRunCount() > 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+        }
+        // give stray jobs a chance to show up
+        Thread.sleep(100L);
+        assertEquals(0, listener.getActiveRunCount());
+    }
+
+    @Test
+    void testFanOutAndFanIn() throws Exception {
+        JobKey start = addStep("start", false);
+        JobKey left = addStep("left", false);
+        JobKey right = addStep("right", false);
+        JobKey join = addStep("join", false);
+        listener.addWorkflow(Workflow.newWorkflow("diamond")
+                .startWith(start)
+                .edge(start, left)
+                .edge(start, right)
+                .edge(left, join)
+                .edge(right, join)
+                .build());
+        scheduler.start();
+
+        scheduler.triggerJob(start);
+        awaitRunOver(4);
+
+        assertEquals(4, executed.size(), executed.toString());
+        assertEquals("start", executed.get(0));
+        assertEquals("join", executed.get(3));
+        assertTrue(executed.containsAll(List.of("left", "right")));
+        // directly dispatched jobs leave nothing in the job store
+        assertTrue(scheduler.getTriggerKeys(GroupMatcher.anyTriggerGroup()).isEmpty());
+    }
+
+    @Test
+    void testConditionalEdgesSkipDownstreamJobs() throws Exception {
+        JobKey start = addStep("start", true);
+        JobKey onSuccess = addStep("onSuccess", false);
+        JobKey afterSuccess = addStep("afterSuccess", false);
+        JobKey onFailure = addStep("onFailure", false);
+        JobKey last = addStep("last", false);
+        listener.addWorkflow(Workflow.newWorkflow("conditional")
+                .startWith(start)
+                .edge(start, onSuccess, EdgeCondition.ON_SUCCESS)
+                .edge(onSuccess, afterSuccess)
+                .edge(start, onFailure, EdgeCondition.ON_FAILURE)
+                .edge(afterSuccess, last)
+                .edge(onFailure, last)
+                .build());
+        scheduler.start();
+
+        scheduler.triggerJob(start);
+        awaitRunOver(3);
+
+        assertEquals(List.of("start", "onFailure", "last"), executed);
+    }
+
+    @Test
+    void testPipelineRunsEachStepOnce() throws Exception {
+        JobKey previous = addStep("start", false);
+        Workflow.Builder builder = Workflow.newWorkflow("pipeline").startWith(previous);
+        for (int i = 1; i < 20; i++) {
+            JobKey next = addStep("step" + i, false);
+            builder.edge(previous, next);
+            previous = next;
+        }
+        listener.addWorkflow(builder.build());
+        scheduler.start();
+
+        scheduler.triggerJob(new JobKey("start", "workflow"));
+        awaitRunOver(20);
+
+        assertEquals(20, executed.size());
+        for (int i = 1; i < 20; i++) {
+            assertEquals("step" + i, executed.get(i));
+        }
+    }
+
+    @Test
+    void testJobsWithLimitedConcurrencyAreTriggeredThroughTheStore() throws Exception {
+        LimitedJob.maxRunning.set(0);
+        JobKey start = addStep("start", false);
+        Workflow.Builder builder = Workflow.newWorkflow("limited").startWith(start);
+        for (int i = 0; i < 3; i++) {
+            JobKey key = new JobKey("limited" + i, "limited");
+            scheduler.addJob(newJob(LimitedJob.class).withIdentity(key).storeDurably().build(), false);
+            builder.edge(start, key);
+        }
+        listener.addWorkflow(builder.build());
+        scheduler.start();
+
+        scheduler.triggerJob(start);
+        awaitRunOver(4);
+
+        assertEquals(4, executed.size(), executed.toString());
+        assertEquals(1, LimitedJob.maxRunning.get());
+    }
+
+    @Test
+    void testInvalidWorkflowsAreRejected() {
+        JobKey a = new JobKey("a");
+        JobKey b = new JobKey("b");
+        JobKey c = new JobKey("c");
+
+        assertThrows(IllegalStateException.class, () -> Workflow.newWorkflow("noStart").edge(a, b).build());
+        assertThrows(IllegalStateException.class,
+                () -> Workflow.newWorkflow("cycle").startWith(a).edge(a, b).edge(b, c).edge(c, b).build());
+        assertThrows(IllegalStateException.class,
+                () -> Workflow.newWorkflow("unreachable").startWith(a).edge(a, b).edge(c, b).build());
+        assertThrows(IllegalStateException.class,
+                () -> Workflow.newWorkflow("toStart").startWith(a).edge(a, b).edge(b, a).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> Workflow.newWorkflow("duplicate").startWith(a).edge(a, b).edge(a, b));
+
+        Workflow workflow = Workflow.newWorkflow("valid").startWith(a).edge(a, b).edge(a, c).edge(b, c).build();
+        assertEquals(List.of(a, b, c), workflow.getJobs());
+        listener.addWorkflow(workflow);
+        assertThrows(IllegalArgumentException.class,
+                () -> listener.addWorkflow(Workflow.newWorkflow("other").startWith(a).edge(a, c).build()));
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.AbstractJobStoreTest;
+import org.quartz.CronTrigger;
+import org.quartz.DateBuilder.IntervalUnit;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.calendar.BaseCalendar;
+import org.quartz.impl.triggers.CalendarIntervalTriggerImpl;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+
+public class CompactRAMJobStoreTest extends AbstractJobStoreTest {
+
+    @Override
+    protected JobStore createJobStore(String name) {
+        return new CompactRAMJobStore();
+    }
+
+    @Override
+    protected void destroyJobStore(String name) {
+
+    }
+
+    private static CompactRAMJobStore newStore() throws SchedulerException {
+        CompactRAMJobStore store = new CompactRAMJobStore();
+        store.initialize(null, new NoOpSignaler());
+        store.storeJob(new JobDetailImpl("job", "group", NoOpJob.class, true, false), false);
+        return store;
+    }
+
+    @Test
+    void testTriggersAreMaterializedWithAllSettings() throws Exception {
+        CompactRAMJobStore store = newStore();
+
+        SimpleTriggerImpl simple = new SimpleTriggerImpl("simple", "group", "job", "group",
+                new Date(System.currentTimeMillis() + 60000L), new Date(System.currentTimeMillis() + 3600000L), 5, 1000L);
+        simple.setDescription("a simple trigger");
+        simple.setPriority(7);
+        simple.setMisfireInstruction(SimpleTrigger.MISFIRE_INSTRUCTION_RESCHEDULE_NEXT_WITH_REMAINING_COUNT);
+        simple.getJobDataMap().put("key", "value");
+        simple.computeFirstFireTime(null);
+        store.storeTrigger(simple, false);
+
+        CronTriggerImpl cron = new CronTriggerImpl();
+        cron.setKey(new TriggerKey("cron", "group"));
+        cron.setJobKey(new JobKey("job", "group"));
+        cron.setCronExpression("0 0/5 * * * ?");
+        cron.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        cron.setMisfireInstruction(CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING);
+        cron.setFireTimeJitter(120000L);
+        cron.computeFirstFireTime(null);
+        store.storeTrigger(cron, false);
+
+        OperableTrigger storedSimple = store.retrieveTrigger(simple.getKey());
+        assertEquals(SimpleTriggerImpl.class, storedSimple.getClass());
+        assertEquals(simple.getStartTime(), storedSimple.getStartTime());
+        assertEquals(simple.getEndTime(), storedSimple.getEndTime());
+        assertEquals(simple.getNextFireTime(), storedSimple.getNextFireTime());
+        assertEquals(5, ((SimpleTriggerImpl) storedSimple).getRepeatCount());
+        assertEquals(1000L, ((SimpleTriggerImpl) storedSimple).getRepeatInterval());
+        assertEquals("a simple trigger", storedSimple.getDescription());
+        assertEquals(7, storedSimple.getPriority());
+        assertEquals(SimpleTrigger.MISFIRE_INSTRUCTION_RESCHEDULE_NEXT_WITH_REMAINING_COUNT, storedSimple.getMisfireInstruction());
+        assertEquals("value", storedSimple.getJobDataMap().getString("key"));
+        assertEquals(new JobKey("job", "group"), storedSimple.getJobKey());
+
+        OperableTrigger storedCron = store.retrieveTrigger(cron.getKey());
+        assertEquals(CronTriggerImpl.class, storedCron.getClass());
+        assertEquals("0 0/5 * * * ?", ((CronTriggerImpl) storedCron).getCronExpression());
+        assertEquals("America/Los_Angeles", ((CronTriggerImpl) storedCron).getTimeZone().getID());
+        assertEquals(cron.getNextFireTime(), storedCron.getNextFireTime());
+        assertEquals(CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING, storedCron.getMisfireInstruction());
+        assertEquals(120000L, storedCron.getFireTimeJitter());
+        assertEquals(cron.getFireTimeAfter(cron.getNextFireTime()), storedCron.getFireTimeAfter(storedCron.getNextFireTime()));
+        assertTrue(storedCron.getJobDataMap().isEmpty());
+    }
+
+    @Test
+    void testOtherTriggerTypesAreKeptAsObjects() throws Exception {
+        CompactRAMJobStore store = newStore();
+
+        CalendarIntervalTriggerImpl trigger = new CalendarIntervalTriggerImpl("interval", "group", "job", "group",
+                new Date(System.currentTimeMillis() - 1000L), null, IntervalUnit.DAY, 1);
+        trigger.computeFirstFireTime(null);
+        store.storeTrigger(trigger, false);
+
+        List<OperableTrigger> acquired = store.acquireNextTriggers(System.currentTimeMillis() + 1000L, 1, 0L);
+        assertEquals(1, acquired.size());
+        store.triggersFired(acquired);
+
+        OperableTrigger stored = store.retrieveTrigger(trigger.getKey());
+        assertEquals(CalendarIntervalTriggerImpl.class, stored.getClass());
+        assertEquals(1, ((CalendarIntervalTriggerImpl) stored).getTimesTriggered());
+        assertNotNull(stored.getPreviousFireTime());
+    }
+
+    @Test
+    void testAcquiresInFireTimeAndPriorityOrderAcrossSlotReuse() throws Exception {
+        CompactRAMJobStore store = newStore();
+        long base = System.currentTimeMillis() + 10000L;
+
+        // remove every other trigger so that their slots and stale queue entries are reused
+        for (int i = 0; i < 2000; i++) {
+            store.storeTrigger(simpleTrigger("t" + i, base + (i % 100) * 1000L, i % 3), false);
+        }
+        for (int i = 0; i < 2000; i += 2) {
+            assertTrue(store.removeTrigger(new TriggerKey("t" + i, "group")));
+        }
+        for (int i = 0; i < 1000; i++) {
+            store.storeTrigger(simpleTrigger("u" + i, base + (i % 50) * 1000L + 500L, 1), false);
+        }
+        assertEquals(2000, store.getNumberOfTriggers());
+
+        List<OperableTrigger> acquired = store.acquireNextTriggers(base + 200000L, 2000, 200000L);
+        assertEquals(2000, acquired.size());
+        for (int i = 1; i < acquired.size(); i++) {
+            assertTrue(new Trigger.TriggerTimeComparator().compare(acquired.get(i - 1), acquired.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void testHighestPriorityTriggersAreAcquiredWhileSheddingLoad() throws Exception {
+        CompactRAMJobStore store = newStore();
+        long now = System.currentTimeMillis();
+        int[] priorities = {1, 9, 5, 9, 1};
+        for (int i = 0; i < priorities.length; i++) {
+            store.storeTrigger(simpleTrigger("t" + i, now - 1000L + i, priorities[i]), false);
+        }
+
+        store.setPriorityLookAhead(2);
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now, 3, 0L);
+        assertEquals(3, acquired.size());
+        assertEquals("t1", acquired.get(0).getKey().getName());
+        assertEquals("t2", acquired.get(1).getKey().getName());
+        assertEquals("t3", acquired.get(2).getKey().getName());
+
+        store.setPriorityLookAhead(1);
+        acquired = store.acquireNextTriggers(now, 3, 0L);
+        assertEquals(2, acquired.size());
+        assertEquals("t0", acquired.get(0).getKey().getName());
+        assertEquals("t4", acquired.get(1).getKey().getName());
+    }
+
+    @Test
+    void testTasksAreRemovedWhenFired() throws Exception {
+        CompactRAMJobStore store = newStore();
+        long now = System.currentTimeMillis();
+        List<OperableTrigger> tasks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            SimpleTriggerImpl task = new SimpleTriggerImpl("task" + i, Scheduler.DEFAULT_TASK_GROUP, "job", "group",
+                    new Date(now + 1000L), null, 0, 0L);
+            task.computeFirstFireTime(null);
+            tasks.add(task);
+        }
+        store.storeTasks(tasks);
+        assertThrows(ObjectAlreadyExistsException.class, () -> store.storeTasks(tasks.subList(0, 1)));
+        assertEquals(2, store.getNumberOfTriggers());
+
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 1000L, 10, 0L);
+        assertEquals(2, acquired.size());
+        assertEquals(2, store.triggersFired(acquired).size());
+        assertNull(store.retrieveTrigger(new TriggerKey("task0", Scheduler.DEFAULT_TASK_GROUP)));
+        assertEquals(0, store.getNumberOfTriggers());
+    }
+
+    @Test
+    void testTriggersOfSameShapeShareIt() throws Exception {
+        CompactRAMJobStore store = newStore();
+        long base = System.currentTimeMillis() + 10000L;
+        for (int i = 0; i < 100; i++) {
+            store.storeTrigger(simpleTrigger("t" + i, base + i, 5), false);
+        }
+
+        // the shape is only dropped once the last trigger referencing it is
+        store.storeCalendar("cal", new BaseCalendar(), false, false);
+        SimpleTriggerImpl withCalendar = simpleTrigger("withCalendar", base, 5);
+        withCalendar.setCalendarName("cal");
+        store.storeTrigger(withCalendar, false);
+        assertThrows(org.quartz.JobPersistenceException.class, () -> store.removeCalendar("cal"));
+        store.removeTrigger(withCalendar.getKey());
+        assertTrue(store.removeCalendar("cal"));
+        assertEquals(100, store.getNumberOfTriggers());
+    }
+
+    @Test
+    void testTriggerOfNonConcurrentJobAcquiredAheadIsBlockedWhenFired() throws Exception {
+        CompactRAMJobStore store = newStore();
+        store.storeJob(new JobDetailImpl("nonConcurrent", "group", NonConcurrentJob.class, true, false), false);
+        long base = System.currentTimeMillis() + 10000L;
+        SimpleTriggerImpl first = simpleTrigger("first", base, 5);
+        first.setJobKey(new JobKey("nonConcurrent", "group"));
+        store.storeTrigger(first, false);
+        SimpleTriggerImpl second = simpleTrigger("second", base + 1000L, 5);
+        second.setJobKey(new JobKey("nonConcurrent", "group"));
+        store.storeTrigger(second, false);
+
+        // the second batch is acquired before the first one is fired
+        List<OperableTrigger> firstBatch = store.acquireNextTriggers(base + 2000L, 10, 0L);
+        assertEquals(1, firstBatch.size());
+        assertEquals(first.getKey(), firstBatch.get(0).getKey());
+        List<OperableTrigger> secondBatch = store.acquireNextTriggers(base + 2000L, 10, 0L);
+        assertEquals(1, secondBatch.size());
+        assertEquals(second.getKey(), secondBatch.get(0).getKey());
+
+        assertEquals(1, store.triggersFired(firstBatch).size());
+        assertTrue(store.triggersFired(secondBatch).isEmpty());
+        assertEquals(Trigger.TriggerState.BLOCKED, store.getTriggerState(second.getKey()));
+
+        store.triggeredJobComplete(firstBatch.get(0),
+                store.retrieveJob(new JobKey("nonConcurrent", "group")),
+                Trigger.CompletedExecutionInstruction.NOOP);
+        assertEquals(Trigger.TriggerState.NORMAL, store.getTriggerState(second.getKey()));
+        List<OperableTrigger> thirdBatch = store.acquireNextTriggers(base + 2000L, 10, 0L);
+        assertEquals(1, thirdBatch.size());
+        assertEquals(second.getKey(), thirdBatch.get(0).getKey());
+    }
+
+    private static SimpleTriggerImpl simpleTrigger(String name, long startTime, int priority) {
+        SimpleTriggerImpl trigger = new SimpleTriggerImpl(name, "group", "job", "group",
+                new Date(startTime), null, 0, 0L);
+        trigger.setPriority(priority);
+        trigger.computeFirstFireTime(null);
+        return trigger;
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    @DisallowConcurrentExecution
+    public static class NonConcurrentJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    private static class NoOpSignaler implements SchedulerSignaler {
+        public void notifyTriggerListenersMisfired(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersFinalized(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+        }
+
+        public void signalSchedulingChange(long candidateNewNextFireTime) {
+        }
+
+        public void notifySchedulerListenersError(String string, SchedulerException jpe) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
+
+class GroupNameIndexTest {
+
+    private static final String[] NAMES = { "reports", "reports-daily", "daily", "billing-daily", "bill", "", "aaa" };
+
+    private static final String[] VALUES = { "", "re", "reports", "daily", "bill", "ly", "-", "a", "aa", "aaaa", "x" };
+
+    @Test
+    void testMatchesAgreeWithOperators() {
+        GroupNameIndex index = new GroupNameIndex();
+        for (String name : NAMES) {
+            index.add(name);
+        }
+
+        for (StringOperatorName operator : StringOperatorName.values()) {
+            for (String value : VALUES) {
+                Set<String> expected = new HashSet<>();
+                for (String name : NAMES) {
+                    if (operator.evaluate(name, value)) {
+                        expected.add(name);
+                    }
+                }
+                assertEquals(expected, new HashSet<>(index.matching(operator, value)), operator + " " + value);
+            }
+        }
+    }
+
+    @Test
+    void testRemovedNamesNoLongerMatch() {
+        GroupNameIndex index = new GroupNameIndex();
+        index.add("billing-daily");
+        index.add("reports-daily");
+        index.add("daily");
+
+        index.remove("reports-daily");
+        index.remove("unknown");
+
+        assertEquals(new HashSet<>(Arrays.asList("billing-daily", "daily")),
+                new HashSet<>(index.matching(StringOperatorName.ENDS_WITH, "daily")));
+        assertEquals(new HashSet<>(Arrays.asList("billing-daily")),
+                new HashSet<>(index.matching(StringOperatorName.CONTAINS, "-")));
+        assertTrue(index.matching(StringOperatorName.STARTS_WITH, "rep").isEmpty());
+        assertFalse(index.contains("reports-daily"));
+
+        index.remove("daily");
+        index.remove("billing-daily");
+        assertTrue(index.matching(StringOperatorName.CONTAINS, "a").isEmpty());
+        assertTrue(index.matching(StringOperatorName.ANYTHING, "").isEmpty());
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+
+import org.junit.jupiter.api.Test;
+import org.quartz.AbstractJobStoreTest;
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+
+public class JournaledRAMJobStoreTest extends AbstractJobStoreTest {
+
+    private File directory;
+
+    private JournaledRAMJobStore store;
+
+    @Override
+    protected JobStore createJobStore(String name) {
+        try {
+            directory = Files.createTempDirectory(name).toFile();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        store = newStore();
+        return store;
+    }
+
+    @Override
+    protected void destroyJobStore(String name) {
+        store.shutdown();
+        deleteDirectory();
+    }
+
+    private JournaledRAMJobStore newStore() {
+        JournaledRAMJobStore js = new JournaledRAMJobStore();
+        js.setJournalDirectory(directory.getAbsolutePath());
+        js.setForceWrites(false);
+        return js;
+    }
+
+    /**
+     * Shut down the store, and start a new one from the same directory.
+     */
+    private JournaledRAMJobStore restart() throws Exception {
+        store.shutdown();
+        store = newStore();
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        store.initialize(loadHelper, new NoOpSignaler());
+        store.schedulerStarted();
+        return store;
+    }
+
+    private void deleteDirectory() {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            // left for the temp directory clean up
+        }
+    }
+
+    @Test
+    void testChangesSurviveRestart() throws Exception {
+        JournaledRAMJobStore js = store;
+        JobDetailImpl job = new JobDetailImpl("journaledJob", "journaledGroup", NoOpJob.class);
+        OperableTrigger trigger = new SimpleTriggerImpl("journaledTrigger", "journaledGroup", job.getName(), job.getGroup(),
+                new Date(System.currentTimeMillis() + 60000L), null, 2, 1000L);
+        trigger.computeFirstFireTime(null);
+        js.storeJobAndTrigger(job, trigger);
+        js.storeJob(new JobDetailImpl("durableJob", "otherGroup", NoOpJob.class, true, false), false);
+        js.storeJob(new JobDetailImpl("removedJob", "otherGroup", NoOpJob.class, true, false), false);
+        js.removeJob(new JobKey("removedJob", "otherGroup"));
+        js.pauseTrigger(trigger.getKey());
+
+        js = restart();
+        assertNotNull(js.retrieveJob(job.getKey()));
+        assertNotNull(js.retrieveJob(new JobKey("durableJob", "otherGroup")));
+        assertNull(js.retrieveJob(new JobKey("removedJob", "otherGroup")));
+        assertEquals(TriggerState.PAUSED, js.getTriggerState(trigger.getKey()));
+
+        js.resumeTrigger(trigger.getKey());
+        js = restart();
+        assertEquals(TriggerState.NORMAL, js.getTriggerState(trigger.getKey()));
+    }
+
+    @Test
+    void testSnapshotCompactsJournal() throws Exception {
+        JournaledRAMJobStore js = store;
+        js.setSnapshotInterval(5);
+        Set<JobKey> stored = new HashSet<>();
+        for (int i = 0; i < 23; i++) {
+            JobDetailImpl job = new JobDetailImpl("job" + i, "snapshotGroup", NoOpJob.class, true, false);
+            js.storeJob(job, false);
+            stored.add(job.getKey());
+        }
+        js = restart();
+        assertEquals(stored, js.getJobKeys(GroupMatcher.jobGroupEquals("snapshotGroup")));
+        File[] journals = directory.listFiles((dir, name) -> name.startsWith("journal."));
+        assertNotNull(journals);
+        assertEquals(1, journals.length);
+    }
+
+    @Test
+    void testTornRecordIsIgnored() throws Exception {
+        JournaledRAMJobStore js = store;
+        js.storeJob(new JobDetailImpl("keptJob", "tornGroup", NoOpJob.class, true, false), false);
+        js.storeJob(new JobDetailImpl("tornJob", "tornGroup", NoOpJob.class, true, false), false);
+        store.shutdown();
+
+        File[] journals = directory.listFiles((dir, name) -> name.startsWith("journal."));
+        assertNotNull(journals);
+        assertEquals(1, journals.length);
+        try (RandomAccessFile file = new RandomAccessFile(journals[0], "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        js = restart();
+        assertNotNull(js.retrieveJob(new JobKey("keptJob", "tornGroup")));
+        assertNull(js.retrieveJob(new JobKey("tornJob", "tornGroup")));
+    }
+
+    @Test
+    void testExecutingJobIsRecoveredAfterCrash() throws Exception {
+        JournaledRAMJobStore js = store;
+        JobDetail job = new JobDetailImpl("recoverableJob", "recoveryGroup", NoOpJob.class, true, true);
+        OperableTrigger trigger = new SimpleTriggerImpl("recoverableTrigger", "recoveryGroup", job.getKey().getName(),
+                job.getKey().getGroup(), new Date(System.currentTimeMillis() - 1000L), null, 0, 0L);
+        trigger.computeFirstFireTime(null);
+        js.storeJobAndTrigger(job, trigger);
+
+        List<OperableTrigger> acquired = js.acquireNextTriggers(System.currentTimeMillis() + 1000L, 1, 0L);
+        assertEquals(1, acquired.size());
+        assertEquals(1, js.triggersFired(acquired).size());
+
+        // no completion, as if the scheduler crashed while the job executed
+        js = restart();
+        List<OperableTrigger> triggers = js.getTriggersForJob(job.getKey());
+        assertEquals(1, triggers.size());
+        OperableTrigger recovery = triggers.get(0);
+        assertEquals(Scheduler.DEFAULT_RECOVERY_GROUP, recovery.getKey().getGroup());
+        assertEquals("recoverableTrigger", recovery.getJobDataMap().getString(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_NAME));
+        assertNull(js.retrieveTrigger(new TriggerKey("recoverableTrigger", "recoveryGroup")));
+    }
+
+    @Test
+    void testCompletedJobIsNotRecovered() throws Exception {
+        JournaledRAMJobStore js = store;
+        JobDetail job = new JobDetailImpl("completedJob", "recoveryGroup", NoOpJob.class, true, true);
+        OperableTrigger trigger = new SimpleTriggerImpl("completedTrigger", "recoveryGroup", job.getKey().getName(),
+                job.getKey().getGroup(), new Date(System.currentTimeMillis() - 1000L), null, 0, 0L);
+        trigger.computeFirstFireTime(null);
+        js.storeJobAndTrigger(job, trigger);
+
+        List<OperableTrigger> acquired = js.acquireNextTriggers(System.currentTimeMillis() + 1000L, 1, 0L);
+        OperableTrigger fired = js.triggersFired(acquired).get(0).getTriggerFiredBundle().getTrigger();
+        js.triggeredJobComplete(fired, job, CompletedExecutionInstruction.DELETE_TRIGGER);
+
+        js = restart();
+        assertNotNull(js.retrieveJob(job.getKey()));
+        assertTrue(js.getTriggersForJob(job.getKey()).isEmpty());
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    private static class NoOpSignaler implements SchedulerSignaler {
+        public void notifyTriggerListenersMisfired(org.quartz.Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersFinalized(org.quartz.Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+        }
+
+        public void signalSchedulingChange(long candidateNewNextFireTime) {
+        }
+
+        public void notifySchedulerListenersError(String string, org.quartz.SchedulerException jpe) {
+        }
+    }
+}
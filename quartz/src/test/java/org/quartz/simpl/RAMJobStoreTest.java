@@ -16,8 +16,36 @@
  */
 package org.quartz.simpl;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
 import org.quartz.AbstractJobStoreTest;
+import org.quartz.AbstractSchedulerTest.TestAnnotatedJob;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.calendar.BaseCalendar;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.TriggerFiredResult;
 
 public class RAMJobStoreTest extends AbstractJobStoreTest {
 
@@ -31,4 +59,263 @@ public class RAMJobStoreTest extends AbstractJobStoreTest {
     protected void destroyJobStore(String name) {
 
     }
+
+    private static RAMJobStore newStore() throws Exception {
+        RAMJobStore store = new RAMJobStore();
+        store.initialize(null, new NoOpSignaler());
+        store.storeJob(new JobDetailImpl("job", "jobs", NoOpJob.class, true, false), false);
+        return store;
+    }
+
+    private static SimpleTriggerImpl newTrigger(String name, String group) {
+        SimpleTriggerImpl trigger = new SimpleTriggerImpl(name, group, "job", "jobs",
+                new Date(System.currentTimeMillis() + 60000L), null, SimpleTriggerImpl.REPEAT_INDEFINITELY, 60000L);
+        trigger.computeFirstFireTime(null);
+        return trigger;
+    }
+
+    @Test
+    void testTriggersByCalendarIndex() throws Exception {
+        RAMJobStore store = newStore();
+        store.storeCalendar("cal", new BaseCalendar(), false, false);
+        SimpleTriggerImpl trigger = newTrigger("t1", "g");
+        trigger.setCalendarName("cal");
+        store.storeTrigger(trigger, false);
+        store.storeTrigger(newTrigger("t2", "g"), false);
+
+        assertEquals(1, store.getTriggerWrappersForCalendar("cal").size());
+        assertThrows(JobPersistenceException.class, () -> store.removeCalendar("cal"));
+
+        store.storeCalendar("cal", new BaseCalendar(), true, true);
+        store.removeTrigger(trigger.getKey());
+        assertTrue(store.getTriggerWrappersForCalendar("cal").isEmpty());
+        assertTrue(store.removeCalendar("cal"));
+    }
+
+    @Test
+    void testTriggersByStateAndGroupIndexes() throws Exception {
+        RAMJobStore store = newStore();
+        store.storeTrigger(newTrigger("t1", "reports-1"), false);
+        store.storeTrigger(newTrigger("t2", "reports-2"), false);
+        store.storeTrigger(newTrigger("t3", "billing-1"), false);
+
+        assertEquals(Arrays.asList("reports-1"), store.pauseTriggers(GroupMatcher.triggerGroupEquals("reports-1")));
+        assertEquals(Arrays.asList("reports-2"), store.pauseTriggers(GroupMatcher.triggerGroupStartsWith("reports")));
+        assertEquals(2, store.getTriggerWrappersInState(TriggerWrapper.STATE_PAUSED).size());
+        assertEquals(new HashSet<>(Arrays.asList("reports-1", "reports-2")), store.getPausedTriggerGroups());
+        assertEquals(2, store.getTriggerKeys(GroupMatcher.triggerGroupEndsWith("-1")).size());
+        assertEquals(1, store.getJobKeys(GroupMatcher.jobGroupContains("ob")).size());
+
+        // a paused trigger stored in a paused group is indexed too, and removing it unindexes it
+        store.storeTrigger(newTrigger("t4", "reports-1"), false);
+        assertEquals(3, store.getTriggerWrappersInState(TriggerWrapper.STATE_PAUSED).size());
+        store.removeTrigger(new TriggerKey("t4", "reports-1"));
+        assertEquals(2, store.getTriggerWrappersInState(TriggerWrapper.STATE_PAUSED).size());
+
+        assertEquals(new HashSet<>(Arrays.asList("reports-1", "reports-2", "billing-1")),
+                new HashSet<>(store.resumeTriggers(GroupMatcher.triggerGroupContains("-"))));
+        assertTrue(store.getTriggerWrappersInState(TriggerWrapper.STATE_PAUSED).isEmpty());
+        assertTrue(store.getPausedTriggerGroups().isEmpty());
+        assertEquals(TriggerState.NORMAL, store.getTriggerState(new TriggerKey("t1", "reports-1")));
+        assertEquals(TriggerState.NORMAL, store.getTriggerState(new TriggerKey("t2", "reports-2")));
+    }
+
+    @Test
+    void testNonConcurrentJobBlocksTriggersAsTheyComeDue() throws Exception {
+        RAMJobStore store = newStore();
+        store.storeJob(new JobDetailImpl("nonConcurrent", "jobs", TestAnnotatedJob.class), false);
+        JobKey jobKey = new JobKey("nonConcurrent", "jobs");
+        for (int i = 0; i < 3; i++) {
+            SimpleTriggerImpl trigger = newTrigger("t" + i, "g");
+            trigger.setJobKey(jobKey);
+            trigger.setStartTime(new Date(System.currentTimeMillis() + 1000L * i));
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+        }
+        long noLaterThan = System.currentTimeMillis() + 3600000L;
+
+        // t1 is acquired in an earlier batch than t0 fires in
+        List<OperableTrigger> first = store.acquireNextTriggers(noLaterThan, 1, 0L);
+        List<OperableTrigger> second = store.acquireNextTriggers(noLaterThan, 1, 0L);
+        assertEquals("t0", first.get(0).getKey().getName());
+        assertEquals("t1", second.get(0).getKey().getName());
+
+        List<TriggerFiredResult> fired = store.triggersFired(first);
+        assertEquals(1, fired.size());
+        assertTrue(store.triggersFired(second).isEmpty());
+
+        // t2 is still waiting internally, but reported as blocked
+        assertEquals(TriggerState.BLOCKED, store.getTriggerState(new TriggerKey("t2", "g")));
+        assertEquals(TriggerWrapper.STATE_WAITING, store.triggersByKey.get(new TriggerKey("t2", "g")).state);
+        assertTrue(store.acquireNextTriggers(noLaterThan, 3, 0L).isEmpty());
+        assertEquals(3, store.getTriggerWrappersInState(TriggerWrapper.STATE_BLOCKED).size());
+
+        store.triggeredJobComplete(first.get(0), fired.get(0).getTriggerFiredBundle().getJobDetail(),
+                CompletedExecutionInstruction.NOOP);
+        assertTrue(store.getTriggerWrappersInState(TriggerWrapper.STATE_BLOCKED).isEmpty());
+        assertEquals(TriggerState.NORMAL, store.getTriggerState(new TriggerKey("t2", "g")));
+        assertEquals("t1", store.acquireNextTriggers(noLaterThan, 1, 0L).get(0).getKey().getName());
+    }
+
+    @Test
+    void testSaturatedJobGroupIsSkippedAtAcquisition() throws Exception {
+        RAMJobStore store = newStore();
+        store.setJobGroupConcurrencyLimits("reports=2");
+        for (int i = 0; i < 3; i++) {
+            store.storeJob(new JobDetailImpl("report" + i, "reports", NoOpJob.class, true, false), false);
+            SimpleTriggerImpl trigger = newTrigger("r" + i, "g");
+            trigger.setJobKey(new JobKey("report" + i, "reports"));
+            trigger.setStartTime(new Date(System.currentTimeMillis() + 1000L * i));
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+        }
+        SimpleTriggerImpl other = newTrigger("other", "g");
+        other.setStartTime(new Date(System.currentTimeMillis() + 5000L));
+        other.computeFirstFireTime(null);
+        store.storeTrigger(other, false);
+        // ahead of the triggers' second firings
+        long noLaterThan = System.currentTimeMillis() + 30000L;
+
+        // the third report is skipped, rather than holding up the other group
+        List<OperableTrigger> acquired = store.acquireNextTriggers(noLaterThan, 10, 10000L);
+        assertEquals(Arrays.asList("r0", "r1", "other"), names(acquired));
+        assertEquals(Integer.valueOf(2), store.getJobGroupExecutionsInFlight().get("reports"));
+
+        List<TriggerFiredResult> fired = store.triggersFired(acquired);
+        assertEquals(3, fired.size());
+        assertEquals(Integer.valueOf(2), store.getJobGroupExecutionsInFlight().get("reports"));
+        assertTrue(store.acquireNextTriggers(noLaterThan, 10, 0L).isEmpty());
+
+        store.triggeredJobComplete(acquired.get(0), fired.get(0).getTriggerFiredBundle().getJobDetail(),
+                CompletedExecutionInstruction.NOOP);
+        assertEquals(Integer.valueOf(1), store.getJobGroupExecutionsInFlight().get("reports"));
+        List<OperableTrigger> next = store.acquireNextTriggers(noLaterThan, 10, 0L);
+        assertEquals(Arrays.asList("r2"), names(next));
+
+        store.releaseAcquiredTrigger(next.get(0));
+        assertEquals(Integer.valueOf(1), store.getJobGroupExecutionsInFlight().get("reports"));
+    }
+
+    @Test
+    void testJobConcurrencyLimit() throws Exception {
+        RAMJobStore store = newStore();
+        store.setJobConcurrencyLimits("jobs.job=1");
+        for (int i = 0; i < 2; i++) {
+            store.storeTrigger(newTrigger("t" + i, "g"), false);
+        }
+        long noLaterThan = System.currentTimeMillis() + 3600000L;
+
+        assertEquals(1, store.acquireNextTriggers(noLaterThan, 10, 0L).size());
+        assertEquals(Integer.valueOf(1), store.getJobExecutionsInFlight().get("jobs.job"));
+        assertTrue(store.acquireNextTriggers(noLaterThan, 10, 0L).isEmpty());
+    }
+
+    @Test
+    void testShedTriggerGroupMisfiresEarly() throws Exception {
+        RAMJobStore store = newStore();
+        long now = System.currentTimeMillis();
+        for (String group : Arrays.asList("batch", "critical")) {
+            SimpleTriggerImpl trigger = newTrigger("t", group);
+            trigger.setStartTime(new Date(now - 3000L));
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+        }
+
+        // one that would fire once now, were its misfire instruction applied
+        SimpleTriggerImpl once = new SimpleTriggerImpl("once", "batch", "job", "jobs", new Date(now - 3000L), null, 0, 0L);
+        once.setMisfireInstruction(SimpleTrigger.MISFIRE_INSTRUCTION_FIRE_NOW);
+        once.computeFirstFireTime(null);
+        store.storeTrigger(once, false);
+
+        // late, but within the store's misfire threshold
+        store.setEarlyMisfireTriggerGroups(new HashSet<>(Arrays.asList("batch")), 1000L);
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 1000L, 10, 0L);
+        assertEquals(1, acquired.size());
+        assertEquals("critical", acquired.get(0).getKey().getGroup());
+        assertTrue(store.retrieveTrigger(new TriggerKey("t", "batch")).getNextFireTime().getTime() > now + 1000L);
+        assertEquals(TriggerState.COMPLETE, store.getTriggerState(new TriggerKey("once", "batch")));
+    }
+
+    @Test
+    void testHighestPriorityTriggersAreAcquiredWhileSheddingLoad() throws Exception {
+        RAMJobStore store = newStore();
+        long now = System.currentTimeMillis();
+        int[] priorities = {1, 9, 5, 9, 1};
+        for (int i = 0; i < priorities.length; i++) {
+            SimpleTriggerImpl trigger = newTrigger("t" + i, "g");
+            trigger.setStartTime(new Date(now - 3000L + i));
+            trigger.setPriority(priorities[i]);
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+        }
+
+        store.setPriorityLookAhead(2);
+        assertEquals(Arrays.asList("t1", "t2", "t3"), names(store.acquireNextTriggers(now, 3, 0L)));
+        assertEquals(TriggerState.NORMAL, store.getTriggerState(new TriggerKey("t0", "g")));
+
+        store.setPriorityLookAhead(1);
+        assertEquals(Arrays.asList("t0", "t4"), names(store.acquireNextTriggers(now, 3, 0L)));
+    }
+
+    @Test
+    void testTasksAreRemovedWhenFired() throws Exception {
+        RAMJobStore store = newStore();
+        long now = System.currentTimeMillis();
+        List<OperableTrigger> tasks = new java.util.ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            SimpleTriggerImpl task = new SimpleTriggerImpl("task" + i, Scheduler.DEFAULT_TASK_GROUP, "job", "jobs",
+                    new Date(now + 1000L), null, 0, 0L);
+            task.computeFirstFireTime(null);
+            tasks.add(task);
+        }
+        store.storeTasks(tasks);
+        assertThrows(ObjectAlreadyExistsException.class, () -> store.storeTasks(tasks.subList(0, 1)));
+
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 1000L, 10, 0L);
+        assertEquals(Arrays.asList("task0", "task1"), names(acquired));
+        assertEquals(2, store.triggersFired(acquired).size());
+        assertNull(store.retrieveTrigger(new TriggerKey("task0", Scheduler.DEFAULT_TASK_GROUP)));
+        assertEquals(0, store.getNumberOfTriggers());
+    }
+
+    @Test
+    void testTasksOfMissingJobAreNotStored() throws Exception {
+        RAMJobStore store = newStore();
+        SimpleTriggerImpl task = new SimpleTriggerImpl("task", Scheduler.DEFAULT_TASK_GROUP, "missing", "jobs",
+                new Date(), null, 0, 0L);
+        task.computeFirstFireTime(null);
+
+        assertThrows(JobPersistenceException.class, () -> store.storeTasks(Arrays.asList(task)));
+        assertEquals(0, store.getNumberOfTriggers());
+    }
+
+    private static List<String> names(List<OperableTrigger> triggers) {
+        List<String> names = new java.util.ArrayList<>();
+        for (OperableTrigger trigger : triggers) {
+            names.add(trigger.getKey().getName());
+        }
+        return names;
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    private static class NoOpSignaler implements SchedulerSignaler {
+        public void notifyTriggerListenersMisfired(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersFinalized(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+        }
+
+        public void signalSchedulingChange(long candidateNewNextFireTime) {
+        }
+
+        public void notifySchedulerListenersError(String string, SchedulerException jpe) {
+        }
+    }
 }
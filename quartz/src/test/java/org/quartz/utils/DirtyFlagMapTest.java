@@ -18,6 +18,10 @@ package org.quartz.utils;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -200,4 +204,94 @@ class DirtyFlagMapTest  {
         assertTrue(dirtyFlagMap.isDirty());
         assertEquals(0, dirtyFlagMap.size());
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testCloneIsIndependentOfOriginal() {
+        DirtyFlagMap<String, String> dirtyFlagMap = new DirtyFlagMap<String, String>();
+        dirtyFlagMap.put("a", "A");
+        dirtyFlagMap.put("b", "B");
+        DirtyFlagMap<String, String> copy = (DirtyFlagMap<String, String>) dirtyFlagMap.clone();
+        assertEquals(dirtyFlagMap, copy);
+
+        copy.put("c", "C");
+        copy.remove("a");
+        assertEquals(2, dirtyFlagMap.size());
+        assertTrue(dirtyFlagMap.containsKey("a"));
+        assertFalse(dirtyFlagMap.containsKey("c"));
+
+        dirtyFlagMap.values().remove("B");
+        assertEquals("B", copy.get("b"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testCloneViewsCopyOnWrite() {
+        DirtyFlagMap<String, String> dirtyFlagMap = new DirtyFlagMap<String, String>();
+        dirtyFlagMap.put("a", "A");
+        dirtyFlagMap.put("b", "B");
+        dirtyFlagMap.put("c", "C");
+        dirtyFlagMap.clearDirtyFlag();
+        DirtyFlagMap<String, String> copy = (DirtyFlagMap<String, String>) dirtyFlagMap.clone();
+
+        // views and iterators obtained before the copy is made keep working
+        Set<String> keySet = copy.keySet();
+        Iterator<Map.Entry<String, String>> entryIter = copy.entrySet().iterator();
+        Map.Entry<String, String> entry = entryIter.next();
+        entry.setValue("X");
+        assertTrue(copy.isDirty());
+        assertEquals("X", entry.getValue());
+        assertEquals("X", copy.get(entry.getKey()));
+        entryIter.next();
+        entryIter.remove();
+        assertEquals(2, copy.size());
+        keySet.remove(entry.getKey());
+        assertEquals(1, copy.size());
+
+        assertFalse(dirtyFlagMap.isDirty());
+        assertEquals(3, dirtyFlagMap.size());
+        assertEquals("A", dirtyFlagMap.get("a"));
+        assertEquals("B", dirtyFlagMap.get("b"));
+        assertEquals("C", dirtyFlagMap.get("c"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testCloneUnmodifiedRemovesDoNotCopy() {
+        DirtyFlagMap<String, String> dirtyFlagMap = new DirtyFlagMap<String, String>();
+        dirtyFlagMap.put("a", "A");
+        DirtyFlagMap<String, String> copy = (DirtyFlagMap<String, String>) dirtyFlagMap.clone();
+        copy.clearDirtyFlag();
+
+        assertNull(copy.remove("b"));
+        assertFalse(copy.keySet().remove("b"));
+        assertFalse(copy.isDirty());
+        assertSame(dirtyFlagMap.getReadOnlyWrappedMap(), copy.getReadOnlyWrappedMap());
+        assertNotSame(dirtyFlagMap.getWrappedMap(), copy.getWrappedMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testCloneSerializedWithOriginalIsIndependentOfIt() throws Exception {
+        DirtyFlagMap<String, String> dirtyFlagMap = new DirtyFlagMap<String, String>();
+        dirtyFlagMap.put("a", "A");
+        DirtyFlagMap<String, String> copy = (DirtyFlagMap<String, String>) dirtyFlagMap.clone();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new Object[] {dirtyFlagMap, copy});
+        }
+        Object[] read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (Object[]) in.readObject();
+        }
+        DirtyFlagMap<String, String> readMap = (DirtyFlagMap<String, String>) read[0];
+        DirtyFlagMap<String, String> readCopy = (DirtyFlagMap<String, String>) read[1];
+
+        readCopy.put("b", "B");
+        readMap.remove("a");
+        assertEquals(Collections.emptyMap(), readMap);
+        assertEquals(2, readCopy.size());
+        assertEquals("A", readCopy.get("a"));
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.utils;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobDataMap;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit test for LayeredMap and the merged JobDataMap view built on it.
+ */
+class LayeredMapTest {
+
+    private static Map<String, Object> map(Object... keysAndValues) {
+        Map<String, Object> m = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            m.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return m;
+    }
+
+    @Test
+    void testReadThroughWithTopPrecedence() {
+        Map<String, Object> bottom = map("a", "job", "b", "job");
+        Map<String, Object> top = map("b", "trigger", "c", null);
+        LayeredMap<String, Object> view = new LayeredMap<>(top, bottom);
+
+        assertEquals("job", view.get("a"));
+        assertEquals("trigger", view.get("b"));
+        assertNull(view.get("c"));
+        assertTrue(view.containsKey("c"));
+        assertFalse(view.containsKey("d"));
+        assertEquals(3, view.size());
+        assertFalse(view.isCopied());
+
+        Map<String, Object> expected = new HashMap<>(bottom);
+        expected.putAll(top);
+        assertEquals(expected, view);
+        assertEquals(expected.hashCode(), view.hashCode());
+        assertEquals(expected.keySet(), view.keySet());
+        assertFalse(view.isCopied());
+    }
+
+    @Test
+    void testCopyOnWrite() {
+        Map<String, Object> bottom = map("a", "job", "b", "job");
+        Map<String, Object> top = map("b", "trigger");
+        LayeredMap<String, Object> view = new LayeredMap<>(top, bottom);
+
+        view.put("a", "changed");
+        view.remove("b");
+
+        assertTrue(view.isCopied());
+        assertEquals("changed", view.get("a"));
+        assertFalse(view.containsKey("b"));
+        assertEquals(map("a", "job", "b", "job"), bottom);
+        assertEquals(map("b", "trigger"), top);
+    }
+
+    @Test
+    void testIteratorRemoveAndSetValue() {
+        Map<String, Object> bottom = map("a", "job", "b", "job");
+        Map<String, Object> top = map("b", "trigger", "c", "trigger");
+        LayeredMap<String, Object> view = new LayeredMap<>(top, bottom);
+
+        int seen = 0;
+        for (Iterator<Map.Entry<String, Object>> it = view.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Object> entry = it.next();
+            seen++;
+            if (entry.getKey().equals("a")) {
+                it.remove();
+            } else if (entry.getKey().equals("b")) {
+                assertEquals("trigger", entry.getValue());
+                entry.setValue("updated");
+            }
+        }
+
+        assertEquals(3, seen);
+        assertEquals(map("b", "updated", "c", "trigger"), view);
+        assertEquals(map("a", "job", "b", "job"), bottom);
+    }
+
+    @Test
+    void testMergedJobDataMap() {
+        JobDataMap jobData = new JobDataMap();
+        jobData.put("a", 1);
+        jobData.put("b", 2);
+        JobDataMap triggerData = new JobDataMap();
+        triggerData.put("b", "3");
+
+        JobDataMap merged = JobDataMap.mergedView(jobData, triggerData);
+        assertEquals(1, merged.getInt("a"));
+        assertEquals(3, merged.getIntValue("b"));
+        assertEquals(2, merged.size());
+        // flagged dirty, as a map both were put into would be
+        assertTrue(merged.isDirty());
+        assertFalse(JobDataMap.mergedView(new JobDataMap(), null).isDirty());
+
+        // a snapshot, unaffected by later changes to the layers
+        jobData.put("a", 10);
+        triggerData.put("d", "4");
+        assertEquals(1, merged.getInt("a"));
+        assertFalse(merged.containsKey("d"));
+        assertEquals(2, merged.size());
+
+        JobDataMap copy = (JobDataMap) merged.clone();
+        copy.put("a", 5);
+        assertEquals(1, merged.getInt("a"));
+
+        merged.put("c", "x");
+        assertTrue(merged.isDirty());
+        assertFalse(jobData.containsKey("c"));
+        assertFalse(triggerData.containsKey("c"));
+    }
+
+    @Test
+    void testMergedViewAllocatesLessThanCopy() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+
+        JobDataMap jobData = new JobDataMap();
+        JobDataMap triggerData = new JobDataMap();
+        for (int i = 0; i < 1000; i++) {
+            jobData.put("job" + i, "value" + i);
+            triggerData.put("trigger" + i, "value" + i);
+        }
+
+        int fires = 200;
+        long tid = Thread.currentThread().getId();
+
+        // warm up both paths
+        for (int i = 0; i < fires; i++) {
+            copyMerge(jobData, triggerData);
+            JobDataMap.mergedView(jobData, triggerData).getString("job1");
+        }
+
+        long start = bean.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < fires; i++) {
+            copyMerge(jobData, triggerData).getString("job1");
+        }
+        long copied = bean.getThreadAllocatedBytes(tid) - start;
+
+        start = bean.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < fires; i++) {
+            JobDataMap.mergedView(jobData, triggerData).getString("job1");
+        }
+        long viewed = bean.getThreadAllocatedBytes(tid) - start;
+
+        assertTrue(viewed * 10 < copied, "view allocated " + viewed + " bytes, copy allocated " + copied + " bytes");
+    }
+
+    private static JobDataMap copyMerge(JobDataMap jobData, JobDataMap triggerData) {
+        JobDataMap merged = new JobDataMap();
+        merged.putAll(jobData);
+        merged.putAll(triggerData);
+        return merged;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright IBM Corp. 2024, 2025
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.quartz.spi.TriggerPartition;
+
+public class ThreadPoolRoutesTest {
+
+    private static ThreadPoolRoutes routes() {
+        Map<String, String> groups = new LinkedHashMap<>();
+        groups.put("batch", "batch*, reports");
+        groups.put("nightly", "batch-nightly");
+        Map<String, String> jobs = new LinkedHashMap<>();
+        jobs.put("nightly", "reports.rebuild");
+        jobs.put("slow", null);
+        return new ThreadPoolRoutes(groups, jobs);
+    }
+
+    @Test
+    void testRoutes() {
+        ThreadPoolRoutes routes = routes();
+        assertEquals(Arrays.asList("batch", "nightly", "slow"), routes.getThreadPoolNames());
+        assertEquals("batch", routes.getThreadPool(new JobKey("a", "batch-weekly")));
+        assertEquals("batch", routes.getThreadPool(new JobKey("a", "reports")));
+        // an exact group wins over a prefix, and a job key over its group
+        assertEquals("nightly", routes.getThreadPool(new JobKey("a", "batch-nightly")));
+        assertEquals("nightly", routes.getThreadPool(new JobKey("rebuild", "reports")));
+        assertNull(routes.getThreadPool(new JobKey("a", "DEFAULT")));
+        assertTrue(ThreadPoolRoutes.NONE.isEmpty());
+    }
+
+    @Test
+    void testConflictingRoutesAreRejected() {
+        Map<String, String> groups = new LinkedHashMap<>();
+        groups.put("a", "reports");
+        groups.put("b", "reports");
+        assertThrows(IllegalArgumentException.class,
+                () -> new ThreadPoolRoutes(groups, Collections.<String, String>emptyMap()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ThreadPoolRoutes(Collections.<String, String>emptyMap(), Collections.singletonMap("a", "nodot")));
+    }
+
+    @Test
+    void testPartitionsHoldTheTriggersOfTheirThreadPool() {
+        ThreadPoolRoutes routes = routes();
+        TriggerPartition main = new TriggerPartition(0, 1, false, routes, null);
+        TriggerPartition batch = new TriggerPartition(0, 1, false, routes, "batch");
+        assertEquals(4, batch.getThreadPoolCount());
+        assertTrue(main.contains(new TriggerKey("t")));
+        assertTrue(main.containsJob(new JobKey("a")));
+        assertFalse(main.containsJob(new JobKey("a", "reports")));
+        assertTrue(batch.containsJob(new JobKey("a", "reports")));
+        assertFalse(batch.containsJob(new JobKey("a")));
+        assertTrue(new TriggerPartition(0, 1, false).containsJob(new JobKey("a", "reports")));
+    }
+}